@@ -42,6 +42,8 @@ static jmethodID MID_ProxyBusObject_getProperty = NULL;
 static jmethodID MID_SignalEmitter_signal = NULL;
 
 /* Field declarations */
+static jfieldID FID_ProxyBusObject_replyTimeoutMsecs = NULL;
+static jfieldID FID_ProxyBusObject_flags = NULL;
 static jfieldID FID_SignalEmitter_source = NULL;
 static jfieldID FID_SignalEmitter_destination = NULL;
 static jfieldID FID_SignalEmitter_sessionId = NULL;
@@ -72,6 +74,51 @@ static void Throw(JNIEnv* env, const char* name, const char* msg)
 	}
 }
 
+/**
+ * Helper function to read the reply timeout and flags of a proxy bus object.
+ * A positive requested timeout overrides the reply timeout of the proxy.
+ */
+static void GetCallOptions(JNIEnv* env, jobject proxyBusObj, jint requestedTimeout, jint* timeout, jint* flags)
+{
+	*timeout = requestedTimeout > 0 ? requestedTimeout
+			: env->GetIntField(proxyBusObj, FID_ProxyBusObject_replyTimeoutMsecs);
+	if (*timeout <= 0) {
+		*timeout = DEFAULTCALLTIMEOUT;
+	}
+	*flags = env->GetIntField(proxyBusObj, FID_ProxyBusObject_flags);
+	if (*flags < 0) {
+		*flags = FLAGS;
+	}
+}
+
+/**
+ * Helper function to read the fields of a signal emitter.
+ * Returns false with a pending exception if a field is missing.
+ */
+static bool GetEmitterFields(JNIEnv* env, jobject emitter, jobject* busObject, jobject* messageContext,
+		jstring* destination, jint* sessionId, jint* timeToLive, jint* flags)
+{
+	*busObject = env->GetObjectField(emitter, FID_SignalEmitter_source);
+	if (!*busObject) {
+		Throw(env, "java/lang/IllegalStateException", "Unable to find 'source' field in SignalEmitter");
+		return false;
+	}
+	*messageContext = env->GetObjectField(emitter, FID_SignalEmitter_msgContext);
+	if (!*messageContext) {
+		Throw(env, "java/lang/IllegalStateException", "Unable to find 'msgContext' field in SignalEmitter");
+		return false;
+	}
+	*destination = reinterpret_cast<jstring>(env->GetObjectField(emitter, FID_SignalEmitter_destination));
+	if (!*destination) {
+		Throw(env, "java/lang/IllegalStateException", "Unable to find 'destination' field in SignalEmitter");
+		return false;
+	}
+	*sessionId = env->GetIntField(emitter, FID_SignalEmitter_sessionId);
+	*timeToLive = env->GetIntField(emitter, FID_SignalEmitter_timeToLive);
+	*flags = env->GetIntField(emitter, FID_SignalEmitter_flags);
+	return true;
+}
+
 //////////////////////////////////////////////////////////////////////////
 //// Private Helper Method end
 //////////////////////////////////////////////////////////////////////////
@@ -79,34 +126,16 @@ static void Throw(JNIEnv* env, const char* name, const char* msg)
 /*
  * Class:     org_alljoyn_triumph_TriumphCPPAdapter
  * Method:    callMethod
- * Signature: (Lorg/alljoyn/bus/BusAttachment;Lorg/alljoyn/bus/ProxyBusObject;Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;[Ljava/lang/Object;)Ljava/lang/Object;
+ * Signature: (Lorg/alljoyn/bus/BusAttachment;Lorg/alljoyn/bus/ProxyBusObject;Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;Ljava/lang/reflect/Type;[Ljava/lang/Object;I)Ljava/lang/Object;
  */
 JNIEXPORT jobject JNICALL Java_org_alljoyn_triumph_TriumphCPPAdapter_callMethod
 (JNIEnv *env, jclass, jobject busAttachment, jobject proxyBusObj, jstring iface,
-		jstring methodName, jstring inputStr, jobject type, jobjectArray args) {
+		jstring methodName, jstring inputStr, jobject type, jobjectArray args, jint replyTimeout) {
 
 	// Get the reply time out and flag variables from the proxy objects
+	// unless the caller asked for its own time out.
 	jint timeout, flags;
-
-	// Get time out instance field
-	jfieldID fidNumber = env->GetFieldID(CLS_ProxyBusObject, "replyTimeoutMsecs", "I");
-	if (fidNumber == NULL) {
-		Throw(env, "java/lang/IllegalStateException", "Unable to find 'replyTimeoutMsecs' field in ProxyBusObject");
-	}
-	timeout = env->GetIntField(proxyBusObj, fidNumber);
-	if (timeout <= 0) {
-		timeout = DEFAULTCALLTIMEOUT;
-	}
-
-	// Get Flag instance field
-	fidNumber = env->GetFieldID(CLS_ProxyBusObject, "flags", "I");
-	if (fidNumber == NULL) {
-		Throw(env, "java/lang/IllegalStateException", "Unable to find 'flags' field in ProxyBusObject");
-	}
-	flags = env->GetIntField(proxyBusObj, fidNumber);
-	if (flags < 0) {
-		flags = FLAGS;
-	}
+	GetCallOptions(env, proxyBusObj, replyTimeout, &timeout, &flags);
 
 	return env->CallObjectMethod(proxyBusObj, MID_ProxyBusObject_methodCall, busAttachment, iface,
 			methodName, inputStr,
@@ -114,6 +143,51 @@ JNIEXPORT jobject JNICALL Java_org_alljoyn_triumph_TriumphCPPAdapter_callMethod
 			timeout, flags);
 }
 
+/*
+ * Class:     org_alljoyn_triumph_TriumphCPPAdapter
+ * Method:    callMethods
+ * Signature: (Lorg/alljoyn/bus/BusAttachment;Lorg/alljoyn/bus/ProxyBusObject;Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;Ljava/lang/reflect/Type;[[Ljava/lang/Object;)[Ljava/lang/Object;
+ */
+JNIEXPORT jobjectArray JNICALL Java_org_alljoyn_triumph_TriumphCPPAdapter_callMethods
+(JNIEnv *env, jclass, jobject busAttachment, jobject proxyBusObj, jstring iface,
+		jstring methodName, jstring inputStr, jobject type, jobjectArray argSets) {
+
+	// The options of the proxy are the same for every call.
+	jint timeout, flags;
+	GetCallOptions(env, proxyBusObj, 0, &timeout, &flags);
+
+	jsize count = env->GetArrayLength(argSets);
+	jobjectArray results = env->NewObjectArray(count, OBJECT_CLASS, NULL);
+	if (!results) {
+		return NULL;
+	}
+
+	for (jsize i = 0; i < count; ++i) {
+		jobject args = env->GetObjectArrayElement(argSets, i);
+		jobject result = env->CallObjectMethod(proxyBusObj, MID_ProxyBusObject_methodCall, busAttachment, iface,
+				methodName, inputStr,
+				type, args,
+				timeout, flags);
+
+		// A failed call is reported in place of its result
+		// so the remaining calls are still made.
+		jthrowable error = env->ExceptionOccurred();
+		if (error) {
+			env->ExceptionClear();
+			result = error;
+		}
+		env->SetObjectArrayElement(results, i, result);
+
+		// Release the references of this call, a large batch
+		// would otherwise overflow the local reference table.
+		env->DeleteLocalRef(args);
+		if (result) {
+			env->DeleteLocalRef(result);
+		}
+	}
+	return results;
+}
+
 /*
  * Class:     org_alljoyn_triumph_TriumphCPPAdapter
  * Method:    splitSignature
@@ -144,22 +218,10 @@ JNIEXPORT void JNICALL Java_org_alljoyn_triumph_TriumphCPPAdapter_emitSignal
 	jobject busObject, messageContext;
 	jstring destination;
 	jint sessionId, timeToLive, flags;
-
-	busObject = env->GetObjectField(emitter, FID_SignalEmitter_source);
-	if (!busObject) {
-		Throw(env, "java/lang/IllegalStateException", "Unable to find 'source' field in SignalEmitter");
+	if (!GetEmitterFields(env, emitter, &busObject, &messageContext, &destination,
+			&sessionId, &timeToLive, &flags)) {
+		return;
 	}
-	messageContext = env->GetObjectField(emitter, FID_SignalEmitter_msgContext);
-	if (!messageContext) {
-		Throw(env, "java/lang/IllegalStateException", "Unable to find 'msgContext' field in SignalEmitter");
-	}
-	destination = reinterpret_cast<jstring>(env->GetObjectField(emitter, FID_SignalEmitter_destination));
-	if (!destination) {
-		Throw(env, "java/lang/IllegalStateException", "Unable to find 'destination' field in SignalEmitter");
-	}
-	sessionId = env->GetIntField(emitter, FID_SignalEmitter_sessionId);
-	timeToLive = env->GetIntField(emitter, FID_SignalEmitter_timeToLive);
-	flags = env->GetIntField(emitter, FID_SignalEmitter_flags);
 
 	// Call the method declared in signal Emitter Java bindings
 	env->CallVoidMethod(emitter, // The instance object
@@ -176,6 +238,47 @@ JNIEXPORT void JNICALL Java_org_alljoyn_triumph_TriumphCPPAdapter_emitSignal
 			messageContext);
 }
 
+/*
+ * Class:     org_alljoyn_triumph_TriumphCPPAdapter
+ * Method:    emitSignals
+ * Signature: (Lorg/alljoyn/bus/SignalEmitter;Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;[[Ljava/lang/Object;[I)I
+ */
+JNIEXPORT jint JNICALL Java_org_alljoyn_triumph_TriumphCPPAdapter_emitSignals
+(JNIEnv *env, jclass, jobject emitter, jstring interfaceName,
+		jstring signalName, jstring arg_signature, jobjectArray argSets, jintArray emitted) {
+
+	// The fields of the emitter are the same for every emission.
+	jobject busObject, messageContext;
+	jstring destination;
+	jint sessionId, timeToLive, flags;
+	if (!GetEmitterFields(env, emitter, &busObject, &messageContext, &destination,
+			&sessionId, &timeToLive, &flags)) {
+		return 0;
+	}
+
+	jsize count = env->GetArrayLength(argSets);
+	for (jsize i = 0; i < count; ++i) {
+		jobject args = env->GetObjectArrayElement(argSets, i);
+		env->CallVoidMethod(emitter, MID_SignalEmitter_signal, busObject, destination, sessionId,
+				interfaceName, signalName, arg_signature, args,
+				timeToLive, flags, messageContext);
+		env->DeleteLocalRef(args);
+
+		// Stop at the first failure.  The count can only be stored while no
+		// exception is pending, so the failure is thrown again afterwards.
+		if (env->ExceptionCheck()) {
+			jthrowable error = env->ExceptionOccurred();
+			env->ExceptionClear();
+			env->SetIntArrayRegion(emitted, 0, 1, &i);
+			env->Throw(error);
+			env->DeleteLocalRef(error);
+			return i;
+		}
+	}
+	env->SetIntArrayRegion(emitted, 0, 1, &count);
+	return count;
+}
+
 /*
  * Class:     org_alljoyn_triumph_TriumphCPPAdapter
  * Method:    setProperty
@@ -273,6 +376,18 @@ JNIEXPORT jint JNICALL JNI_OnLoad(JavaVM* vm,
 		return JNI_ERR;
 	}
 
+	// Get the field ids of the call options of the ProxyBusObject
+	FID_ProxyBusObject_replyTimeoutMsecs = env->GetFieldID(CLS_ProxyBusObject, "replyTimeoutMsecs", "I");
+	if (!FID_ProxyBusObject_replyTimeoutMsecs) {
+		fprintf(stderr, "Unable to find Field ID for 'ProxyBusObject field 'replyTimeoutMsecs'");
+		return JNI_ERR;
+	}
+	FID_ProxyBusObject_flags = env->GetFieldID(CLS_ProxyBusObject, "flags", "I");
+	if (!FID_ProxyBusObject_flags) {
+		fprintf(stderr, "Unable to find Field ID for 'ProxyBusObject field 'flags'");
+		return JNI_ERR;
+	}
+
 	// Find the signal emitter
 	clazz = env->FindClass("org/alljoyn/bus/SignalEmitter");
 	if (!clazz) {
@@ -321,11 +436,12 @@ JNIEXPORT jint JNICALL JNI_OnLoad(JavaVM* vm,
 		return JNI_ERR;
 	}
 
-	OBJECT_CLASS = env->FindClass("java/lang/Object");
-	if (!OBJECT_CLASS) {
+	clazz = env->FindClass("java/lang/Object");
+	if (!clazz) {
 		fprintf(stderr, "Unable to find Object .class file");
 		return JNI_ERR;
 	}
+	OBJECT_CLASS = (jclass)env->NewGlobalRef(clazz);
 
 	//	QCC_UseOSLogging(true);
 	return JNI_VERSION_1_2;
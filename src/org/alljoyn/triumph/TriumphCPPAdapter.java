@@ -46,15 +46,68 @@ public class TriumphCPPAdapter {
      * @param inputSig The input signature of the method
      * @param outType The output type of the method call (Usually just general Object.class)
      * @param args The argument values themselves.
+     * @param replyTimeout Milliseconds to wait for the reply, 0 to use the reply timeout of the proxy
      * @return a general referenc
      */
     private native static Object callMethod(BusAttachment busAttachment, ProxyBusObject proxy, String interfaceName,
-            String methodName, String inputSig, Type outType, Object[] args);
+            String methodName, String inputSig, Type outType, Object[] args, int replyTimeout);
 
 
     public static Object callMethod(BusAttachment busAttachment, ProxyBusObject proxy, String interfaceName,
             String methodName, String inputSig, Object[] args) {
-        return callMethod(busAttachment, proxy, interfaceName, methodName, inputSig, Object.class, args);
+        return callMethod(busAttachment, proxy, interfaceName, methodName, inputSig, Object.class, args, 0);
+    }
+
+    /**
+     * Invokes Remote method on the ProxyBusObject and waits at most replyTimeout
+     * milliseconds for the reply.  The reply timeout of the proxy is left untouched
+     * so the proxy can be shared between calls with different timeouts.
+     * 
+     * @param busAttachment Busattachment to handle the method call
+     * @param proxy The proxy object that has the method to invoke
+     * @param interfaceName The interface name of the method
+     * @param methodName The name of the method
+     * @param inputSig The input signature of the method
+     * @param args The argument values themselves.
+     * @param replyTimeout Milliseconds to wait for the reply, 0 to use the reply timeout of the proxy
+     * @return The result of the call
+     */
+    public static Object callMethod(BusAttachment busAttachment, ProxyBusObject proxy, String interfaceName,
+            String methodName, String inputSig, Object[] args, int replyTimeout) {
+        return callMethod(busAttachment, proxy, interfaceName, methodName, inputSig, Object.class, args, replyTimeout);
+    }
+
+    /**
+     * Invokes the same remote method once for every set of arguments in a single
+     * native call.  The reply timeout and flags of the proxy are read once for all the calls.
+     * 
+     * @param busAttachment Busattachment to handle the method calls
+     * @param proxy The proxy object that has the method to invoke
+     * @param interfaceName The interface name of the method
+     * @param methodName The name of the method
+     * @param inputSig The input signature of the method
+     * @param outType The output type of the method calls
+     * @param argSets The argument values of every call.
+     * @return The result of every call, or the Throwable the call failed with.
+     */
+    private native static Object[] callMethods(BusAttachment busAttachment, ProxyBusObject proxy, String interfaceName,
+            String methodName, String inputSig, Type outType, Object[][] argSets);
+
+    /**
+     * Invokes the same remote method once for every set of arguments in a single
+     * native call.  A failed call does not stop the calls after it.
+     * 
+     * @param busAttachment Busattachment to handle the method calls
+     * @param proxy The proxy object that has the method to invoke
+     * @param interfaceName The interface name of the method
+     * @param methodName The name of the method
+     * @param inputSig The input signature of the method
+     * @param argSets The argument values of every call.
+     * @return The result of every call, or the Throwable the call failed with.
+     */
+    public static Object[] callMethods(BusAttachment busAttachment, ProxyBusObject proxy, String interfaceName,
+            String methodName, String inputSig, Object[][] argSets) {
+        return callMethods(busAttachment, proxy, interfaceName, methodName, inputSig, Object.class, argSets);
     }
 
     /**
@@ -82,6 +135,22 @@ public class TriumphCPPAdapter {
     public native static void emitSignal(SignalEmitter emitter, String interfaceName, 
             String signalName, String inputSignature, Object[] args);
 
+    /**
+     * Emits the same signal once for every set of arguments in a single native call.
+     * The fields of the emitter are read once for all the emissions.  Emission stops
+     * at the first failure, whose exception is thrown.
+     * 
+     * @param emitter The Signal Emmitter that will be used to emit the signals.
+     * @param interfaceName The interface name that contains the signal signature
+     * @param signalName The Signal name of the to invoke. 
+     * @param inputSignature Input signature of the signal
+     * @param argSets Array of arguments of every emission.
+     * @param emitted Its first element is set to the number of signals emitted, also when one fails.
+     * @return Number of signals emitted
+     */
+    public native static int emitSignals(SignalEmitter emitter, String interfaceName, 
+            String signalName, String inputSignature, Object[][] argSets, int[] emitted);
+
     /**
      * Attempts to set the property of this argument.
      * 
@@ -0,0 +1,222 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+
+package org.alljoyn.triumph.controller;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.alljoyn.triumph.MainApplication;
+import org.alljoyn.triumph.controller.metrics.CoalescerMetrics;
+
+/**
+ * Gathers events that arrive in bursts and runs a single flush for every batch.
+ * <p>
+ * The first event after a quiet period is flushed after the minimum delay.  While
+ * events keep arriving in large batches the window is doubled, up to the maximum
+ * delay, so an announcement storm results in few large flushes.  Once batches are
+ * small again the window is halved back.  Nothing is scheduled while there are no events.
+ * <p>
+ * Events may be signalled from any thread, the flush runs on the thread of the
+ * scheduler and never concurrently with itself.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class AdaptiveCoalescer implements Destroyable {
+
+    /**
+     * Default delay of the flush of an isolated event.
+     */
+    public static final long DEFAULT_MIN_DELAY_MILLIS = 25;
+
+    /**
+     * Default longest time an event waits for its flush.
+     */
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 2000;
+
+    /**
+     * Number of events of a batch from which the window grows.
+     */
+    static final int STORM_BATCH_SIZE = 16;
+
+    private final Runnable mFlush;
+
+    private final ScheduledExecutorService mScheduler;
+
+    /**
+     * Whether the scheduler was created by this coalescer.
+     */
+    private final boolean mOwnScheduler;
+
+    private final long mMinNanos, mMaxNanos;
+
+    private final CoalescerMetrics mMetrics;
+
+    private final Runnable mFlushTask;
+
+    /**
+     * Current window.  Guarded by this.
+     */
+    private long mWindowNanos;
+
+    /**
+     * Events since the last flush.  Guarded by this.
+     */
+    private int mPending;
+
+    /**
+     * Whether a flush is scheduled.  Guarded by this.
+     */
+    private boolean mScheduled, mDestroyed;
+
+    /**
+     * Time of the last flush.  Guarded by this.
+     */
+    private long mLastFlushNanos;
+
+    /**
+     * Creates a coalescer with the default delays that flushes on its own daemon thread.
+     *
+     * @param name Name of the thread
+     * @param flush Flush to run for every batch
+     * @param metrics Metrics to record to
+     */
+    public AdaptiveCoalescer(final String name, Runnable flush, CoalescerMetrics metrics) {
+        this(Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, name);
+                t.setDaemon(true);
+                return t;
+            }
+        }), true, flush, DEFAULT_MIN_DELAY_MILLIS, DEFAULT_MAX_DELAY_MILLIS, metrics);
+    }
+
+    /**
+     * Creates a coalescer that flushes on a scheduler.
+     *
+     * @param scheduler Scheduler to flush on, not shut down by {@link #destroy()}
+     * @param flush Flush to run for every batch
+     * @param minDelayMillis Delay of the flush of an isolated event
+     * @param maxDelayMillis Longest time an event waits for its flush
+     * @param metrics Metrics to record to
+     */
+    public AdaptiveCoalescer(ScheduledExecutorService scheduler, Runnable flush,
+            long minDelayMillis, long maxDelayMillis, CoalescerMetrics metrics) {
+        this(scheduler, false, flush, minDelayMillis, maxDelayMillis, metrics);
+    }
+
+    private AdaptiveCoalescer(ScheduledExecutorService scheduler, boolean owned, Runnable flush,
+            long minDelayMillis, long maxDelayMillis, CoalescerMetrics metrics) {
+        if (scheduler == null || flush == null || metrics == null)
+            throw new NullPointerException(getClass().getSimpleName() + "<init>, Null argument");
+        if (minDelayMillis < 1 || maxDelayMillis < minDelayMillis)
+            throw new IllegalArgumentException(getClass().getSimpleName() + "<init>, Illegal delays "
+                    + minDelayMillis + " " + maxDelayMillis);
+        mScheduler = scheduler;
+        mOwnScheduler = owned;
+        mFlush = flush;
+        mMinNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMillis);
+        mMaxNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        mMetrics = metrics;
+        mWindowNanos = mMinNanos;
+        mLastFlushNanos = System.nanoTime() - mMaxNanos;
+        mFlushTask = new Runnable() {
+
+            @Override
+            public void run() {
+                flush();
+            }
+        };
+    }
+
+    /**
+     * Notes an event, scheduling a flush if none is pending.
+     */
+    public void signal() {
+        long delay;
+        synchronized (this) {
+            if (mDestroyed) return;
+            mPending++;
+            boolean schedule = !mScheduled;
+            if (schedule) {
+                // After a quiet period the event is isolated, flush it quickly.
+                if (System.nanoTime() - mLastFlushNanos > mMaxNanos)
+                    mWindowNanos = mMinNanos;
+                mScheduled = true;
+            }
+            mMetrics.recordEvent(mPending, mWindowNanos);
+            if (!schedule) return;
+            delay = mWindowNanos;
+        }
+        try {
+            mScheduler.schedule(mFlushTask, delay, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            MainApplication.getLogger().fine("Scheduler stopped, event dropped");
+        }
+    }
+
+    /**
+     * @return Current window events are gathered for, in nanoseconds
+     */
+    public synchronized long getWindowNanos() {
+        return mWindowNanos;
+    }
+
+    /**
+     * @return Number of events waiting for the next flush
+     */
+    public synchronized int getPending() {
+        return mPending;
+    }
+
+    private void flush() {
+        synchronized (this) {
+            int batch = mPending;
+            mPending = 0;
+            mScheduled = false;
+            mLastFlushNanos = System.nanoTime();
+            if (batch >= STORM_BATCH_SIZE)
+                mWindowNanos = Math.min(mMaxNanos, mWindowNanos * 2);
+            else if (batch <= 1)
+                mWindowNanos = Math.max(mMinNanos, mWindowNanos / 2);
+            mMetrics.recordFlush(batch, mWindowNanos);
+            if (mDestroyed) return;
+        }
+        try {
+            mFlush.run();
+        } catch (RuntimeException e) {
+            MainApplication.getLogger().warning("Flush failed " + e);
+        }
+    }
+
+    /**
+     * Stops scheduling flushes.  Events that were not flushed are dropped.
+     */
+    @Override
+    public void destroy() {
+        synchronized (this) {
+            mDestroyed = true;
+        }
+        if (mOwnScheduler)
+            mScheduler.shutdownNow();
+    }
+}
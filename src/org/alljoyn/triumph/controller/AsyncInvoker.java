@@ -0,0 +1,392 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.alljoyn.triumph.MainApplication;
+
+/**
+ * Runs blocking bus operations on a dedicated, bounded pool of worker threads
+ * and hands the outcome back on a callback executor.
+ * <p>
+ * The pool has a fixed number of threads and a bounded queue.  When both are
+ * full new operations are rejected instead of piling up behind a slow device.
+ * <p>
+ * Operations can be given a {@link Deadline}.  An operation whose deadline expires
+ * while it waits for a worker is failed without running.  An operation that is still
+ * on the bus when its deadline expires, or when it is cancelled, is abandoned: its
+ * caller is notified right away and the pool starts a replacement worker, so a hung
+ * device cannot hold on to the whole pool.  At most one replacement per worker is
+ * started; the replacement stops once the abandoned call returns.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class AsyncInvoker implements Destroyable {
+
+    /**
+     * Default number of operations that can be on the bus at the same time.
+     */
+    public static final int DEFAULT_POOL_SIZE = 8;
+
+    /**
+     * Default number of operations that can wait for a worker thread.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    /**
+     * Worker threads that perform the blocking calls.
+     */
+    private final ThreadPoolExecutor mExecutor;
+
+    /**
+     * Fails operations whose deadline expired.
+     */
+    private final ScheduledExecutorService mWatchdog;
+
+    /**
+     * Number of workers the pool was created with.
+     */
+    private final int mPoolSize;
+
+    /**
+     * Number of workers that are stuck in an abandoned operation.  Guarded by mExecutor.
+     */
+    private int mAbandoned;
+
+    /**
+     * Executor that delivers results to callbacks.
+     */
+    private final Executor mCallbackExecutor;
+
+    /**
+     * Creates an invoker with the default pool size and queue capacity.
+     *
+     * @param callbackExecutor Executor to deliver results on.
+     */
+    public AsyncInvoker(Executor callbackExecutor) {
+        this(callbackExecutor, DEFAULT_POOL_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Creates an invoker.
+     *
+     * @param callbackExecutor Executor to deliver results on.
+     * @param poolSize Number of worker threads
+     * @param queueCapacity Number of operations that can wait for a worker
+     */
+    public AsyncInvoker(Executor callbackExecutor, int poolSize, int queueCapacity) {
+        if (callbackExecutor == null)
+            throw new NullPointerException(getClass().getSimpleName() + "<init>, Null callback executor");
+        if (poolSize < 1 || queueCapacity < 1)
+            throw new IllegalArgumentException(getClass().getSimpleName()
+                    + "<init>, Illegal pool size " + poolSize + " or queue capacity " + queueCapacity);
+        mCallbackExecutor = callbackExecutor;
+        mPoolSize = poolSize;
+        mExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity), new InvokerThreadFactory("TriumphInvoker-"));
+        mWatchdog = Executors.newSingleThreadScheduledExecutor(new InvokerThreadFactory("TriumphInvokerWatchdog-"));
+    }
+
+    /**
+     * Submits a blocking operation to run on a worker thread.  The callback
+     * is notified on the callback executor once the operation completes, fails,
+     * or is cancelled through the returned Future.
+     *
+     * @param operation Operation to run
+     * @param callback Callback to notify of the result, or null
+     * @return Future that represents the pending result of the operation
+     * @throws RejectedExecutionException The invoker is saturated or destroyed
+     */
+    public <T> Future<T> submit(Callable<T> operation, InvocationCallback<T> callback) {
+        return submit(operation, callback, Deadline.NONE);
+    }
+
+    /**
+     * Submits a blocking operation that has to complete before the deadline.
+     * Once the deadline expires the operation fails with a {@link TimeoutException},
+     * whether it is still waiting for a worker or already on the bus.
+     *
+     * @param operation Operation to run
+     * @param callback Callback to notify of the result, or null
+     * @param deadline Deadline of the operation
+     * @return Future that represents the pending result of the operation
+     * @throws RejectedExecutionException The invoker is saturated or destroyed
+     */
+    public <T> Future<T> submit(Callable<T> operation, InvocationCallback<T> callback, Deadline deadline) {
+        final InvocationTask<T> task = new InvocationTask<T>(operation, callback, deadline);
+        if (deadline.isSet()) {
+            task.mTimer = mWatchdog.schedule(new Runnable() {
+
+                @Override
+                public void run() {
+                    task.expire();
+                }
+            }, deadline.getRemaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        }
+        try {
+            mExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            if (task.mTimer != null)
+                task.mTimer.cancel(false);
+            throw e;
+        }
+        return task;
+    }
+
+    /**
+     * Runs a command on a worker thread without any result tracking.
+     * 
+     * @param command Command to run
+     * @throws RejectedExecutionException The invoker is saturated or destroyed
+     */
+    public void execute(Runnable command) {
+        mExecutor.execute(command);
+    }
+
+    /**
+     * @return The number of worker threads, which bounds the number of concurrent operations
+     */
+    public int getPoolSize() {
+        return mPoolSize;
+    }
+
+    /**
+     * @return The number of workers that are stuck in an operation that was abandoned
+     */
+    public int getAbandonedCount() {
+        synchronized (mExecutor) {
+            return mAbandoned;
+        }
+    }
+
+    /**
+     * @return The number of operations that are waiting for a worker thread
+     */
+    public int getQueuedCount() {
+        return mExecutor.getQueue().size();
+    }
+
+    /**
+     * @return The number of operations that are currently running
+     */
+    public int getActiveCount() {
+        return mExecutor.getActiveCount();
+    }
+
+    /**
+     * @return The executor results are delivered on.
+     */
+    public Executor getCallbackExecutor() {
+        return mCallbackExecutor;
+    }
+
+    @Override
+    public void destroy() {
+        mWatchdog.shutdownNow();
+        mExecutor.shutdownNow();
+    }
+
+    /**
+     * Starts a replacement for a worker that is stuck in an abandoned operation.
+     *
+     * @return Whether a replacement was started
+     */
+    private boolean addReplacementWorker() {
+        synchronized (mExecutor) {
+            if (mAbandoned >= mPoolSize || mExecutor.isShutdown()) return false;
+            mAbandoned++;
+            // Grow the maximum first, the core size can never exceed it.
+            mExecutor.setMaximumPoolSize(mPoolSize + mAbandoned);
+            mExecutor.setCorePoolSize(mPoolSize + mAbandoned);
+            return true;
+        }
+    }
+
+    /**
+     * Retires a replacement worker once the abandoned operation returned.
+     */
+    private void removeReplacementWorker() {
+        synchronized (mExecutor) {
+            mAbandoned--;
+            mExecutor.setCorePoolSize(mPoolSize + mAbandoned);
+            mExecutor.setMaximumPoolSize(mPoolSize + mAbandoned);
+        }
+    }
+
+    /**
+     * Task that forwards its outcome to a callback on the callback executor.
+     *
+     * @author Michael Hotan, mhotan@quicinc.com
+     */
+    private class InvocationTask<T> extends FutureTask<T> {
+
+        private final InvocationCallback<T> mCallback;
+
+        private final Deadline mDeadline;
+
+        /**
+         * Fails the task once the deadline expired, null without deadline.
+         */
+        private volatile ScheduledFuture<?> mTimer;
+
+        /**
+         * Whether a worker is running the operation, and whether a replacement
+         * was started for that worker.  Guarded by this.
+         */
+        private boolean mRunning, mReplaced;
+
+        InvocationTask(Callable<T> operation, InvocationCallback<T> callback, Deadline deadline) {
+            super(operation);
+            mCallback = callback;
+            mDeadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (isDone()) return;
+                if (mDeadline.isExpired()) {
+                    setException(new TimeoutException("Deadline expired before the operation started"));
+                    return;
+                }
+                mRunning = true;
+            }
+            try {
+                super.run();
+            } finally {
+                boolean replaced;
+                synchronized (this) {
+                    mRunning = false;
+                    replaced = mReplaced;
+                }
+                if (replaced)
+                    removeReplacementWorker();
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled)
+                abandon();
+            return cancelled;
+        }
+
+        /**
+         * Fails the operation because its deadline expired.
+         */
+        void expire() {
+            if (isDone()) return;
+            // Free the slot first so the caller never observes the timeout
+            // while the pool is still short of a worker.
+            abandon();
+            setException(new TimeoutException("Deadline expired before the operation returned"));
+        }
+
+        /**
+         * Frees the slot of an operation that completed before it returned.
+         */
+        private void abandon() {
+            boolean running;
+            synchronized (this) {
+                running = mRunning;
+                if (running && !mReplaced)
+                    mReplaced = addReplacementWorker();
+            }
+            // A queued operation gives its place back right away.
+            if (!running)
+                mExecutor.remove(this);
+        }
+
+        @Override
+        protected void done() {
+            if (mTimer != null)
+                mTimer.cancel(false);
+            if (mCallback == null) return;
+
+            // Extract the result on the worker thread so the callback
+            // executor only ever sees the outcome.
+            T result = null;
+            Throwable error = null;
+            try {
+                result = get();
+            } catch (CancellationException e) {
+                error = e;
+            } catch (ExecutionException e) {
+                error = e.getCause() == null ? e : e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error = e;
+            }
+
+            final T finalResult = result;
+            final Throwable finalError = error;
+            try {
+                mCallbackExecutor.execute(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        if (finalError == null) {
+                            mCallback.onSuccess(finalResult);
+                        } else {
+                            mCallback.onFailure(finalError);
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                MainApplication.getLogger().warning("Unable to deliver result of asynchronous operation " + e);
+            }
+        }
+    }
+
+    /**
+     * Creates named daemon threads so a stuck call never keeps the application alive.
+     */
+    private static class InvokerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger mCount = new AtomicInteger();
+
+        private final String mPrefix;
+
+        InvokerThreadFactory(String prefix) {
+            mPrefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, mPrefix + mCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
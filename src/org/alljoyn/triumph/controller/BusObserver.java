@@ -20,22 +20,24 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
-import javafx.event.ActionEvent;
-import javafx.event.EventHandler;
-import javafx.util.Duration;
-
 import org.alljoyn.bus.BusAttachment;
 import org.alljoyn.bus.BusException;
 import org.alljoyn.bus.BusListener;
 import org.alljoyn.bus.Status;
 import org.alljoyn.bus.ifaces.DBusProxyObj;
+import org.alljoyn.triumph.controller.metrics.CoalescerMetrics;
 
 
 /**
@@ -62,9 +64,10 @@ public class BusObserver implements Destroyable {
     private static final String WILDCARD_PREFIX = "";
 
     /**
-     * Number of seconds to wait between calls to flush.
+     * Number of seconds between two full listings of the local names.  Local names
+     * are tracked through name owner changes, the listing only catches missed changes.
      */
-    private static final int SECONDS_PER_FLUSH = 3;
+    private static final int SECONDS_PER_RESYNC = 30;
 
     /**
      * Connection to virtual bus.
@@ -89,14 +92,45 @@ public class BusObserver implements Destroyable {
      * @param dbusCompatible Set if Dbus names are desired.
      */
     public BusObserver(final BusAttachment bus, final BusObserverListener list, boolean dbusCompatible) {
+        this(bus, list, dbusCompatible, new CoalescerMetrics(BusObserver.class.getSimpleName()));
+    }
+
+    /**
+     * Initializes the Bus Observer.  Effectively 
+     * does all the pre-processing work to allow this
+     * instance to be able to start looking at the bus.
+     * 
+     * @param list Listener to keep track of 
+     * @param dbusCompatible Set if Dbus names are desired.
+     * @param metrics Metrics of the coalescing of found and lost names
+     */
+    public BusObserver(final BusAttachment bus, final BusObserverListener list, boolean dbusCompatible,
+            CoalescerMetrics metrics) {
+        this(bus, list, dbusCompatible, metrics, null, FXThreadExecutor.getInstance());
+    }
+
+    /**
+     * Initializes the Bus Observer.  Does not depend on JavaFX unless
+     * the listener is notified on the JavaFX thread.
+     * 
+     * @param list Listener to keep track of 
+     * @param dbusCompatible Set if Dbus names are desired.
+     * @param metrics Metrics of the coalescing of found and lost names
+     * @param scheduler Scheduler to list and flush names on, not shut down by {@link #destroy()}.
+     * Null to use a thread of this observer.
+     * @param callbackExecutor Executor to notify the listener on
+     */
+    public BusObserver(final BusAttachment bus, final BusObserverListener list, boolean dbusCompatible,
+            CoalescerMetrics metrics, ScheduledExecutorService scheduler, Executor callbackExecutor) {
+        if (callbackExecutor == null)
+            throw new NullPointerException(getClass().getSimpleName() + "<init>, Null callback executor");
 
         // Create a new context to start your bus attachment instance.
         mBus = bus;
-        if (dbusCompatible)
-            mBusListener = new TriumphBusListener(list, mBus.getDBusProxyObj());
-        else 
-            mBusListener = new TriumphBusListener(list, null);	
+        DBusProxyObj dbusProxy = dbusCompatible ? mBus.getDBusProxyObj() : null;
+        mBusListener = new TriumphBusListener(list, dbusProxy, scheduler, callbackExecutor, metrics);
         mBus.registerBusListener(mBusListener);
+        mBusListener.start();
 
         // Connect Bus attachment to the Virtual Distributed Bus
         attemptConnect();
@@ -129,15 +163,18 @@ public class BusObserver implements Destroyable {
     }
 
     /**
-     * This method causes the synchronization of any pending buffers
+     * This method causes the synchronization of any pending buffers.
+     * The local names are listed again in the background and only
+     * the differences are published.
      */
     public void sync() {
-        // Here is where we would flush any cache that is pending some names
-        mBusListener.flush();
+        mBusListener.resyncNow();
     }
 
     @Override
     public void destroy() {
+        mBusListener.stop();
+        mBus.unregisterBusListener(mBusListener);
         mBus.unregisterSignalHandlers(this);
         mBus.disconnect();
     }
@@ -177,19 +214,34 @@ public class BusObserver implements Destroyable {
 
     /**
      * Class that is dedicated to interpret found and lost advertised names 
-     * and pass back to all listener
+     * and pass back to all listener.
+     * <p>
+     * Names are gathered on the AllJoyn threads and published in batches from a
+     * background thread, only names that were found or lost since the last batch
+     * are passed to the listener, on the callback executor.  Batches are formed by
+     * an {@link AdaptiveCoalescer}, a single name is published at once while a storm
+     * of announcements is published in few large batches.
+     * 
      * @author Michael Hotan, mhotan@quicinc.com
      */
     private static class TriumphBusListener extends BusListener {
 
-        //		private long lastFlushTime;
-        //		
         /**
          * two Buffers we use to keep track of 
          * all the names we find and loose
          */
         private final Set<String> mNameFoundBuffer, mNameLostBuffer;
 
+        /**
+         * Local names found since the last flush.
+         */
+        private final Set<String> mLocalFoundBuffer;
+
+        /**
+         * Local well known names as last published.
+         */
+        private final Set<String> mLocalNames;
+
         /**
          * Single instance of an application specific listener
          * that just cares about incoming available names.
@@ -201,31 +253,107 @@ public class BusObserver implements Destroyable {
          */
         private final DBusProxyObj mDBusProxy;
 
+        /**
+         * Executor to notify the listener on.
+         */
+        private final Executor mCallbackExecutor;
+
+        /**
+         * Thread that lists names and flushes the buffers.
+         */
+        private final ScheduledExecutorService mScheduler;
+
+        /**
+         * Whether the scheduler was created by this listener.
+         */
+        private final boolean mOwnScheduler;
+
+        /**
+         * Periodic listing of the local names, null if not started.
+         */
+        private ScheduledFuture<?> mResync;
+
+        private volatile boolean mStopped;
+
+        /**
+         * Decides when the buffers are flushed.
+         */
+        private final AdaptiveCoalescer mCoalescer;
+
         /**
          * Creates an alljoyn specific listener for managing name discovery
          * 
          * @param list Listener that will receive found and lost name callbacks 
+         * @param dbusproxy Proxy to list the local names with, null to ignore local names
+         * @param scheduler Scheduler to list and flush names on, null to create one
+         * @param callbackExecutor Executor to notify the listener on
+         * @param metrics Metrics of the coalescing of names
          */
-        public TriumphBusListener(BusObserverListener list, DBusProxyObj dbusproxy) {
+        public TriumphBusListener(BusObserverListener list, DBusProxyObj dbusproxy, 
+                ScheduledExecutorService scheduler, Executor callbackExecutor, CoalescerMetrics metrics) {
             assert list != null: "TriumphBusListener, Illlegal Null listener on creation!";
             this.mListener = list;
             mNameFoundBuffer = new HashSet<String>();
             mNameLostBuffer = new HashSet<String>();
+            mLocalFoundBuffer = new HashSet<String>();
+            mLocalNames = new HashSet<String>();
 
             mDBusProxy = dbusproxy;
+            mCallbackExecutor = callbackExecutor;
+            mOwnScheduler = scheduler == null;
+            mScheduler = scheduler != null ? scheduler : Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "TriumphBusObserver");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+            mCoalescer = new AdaptiveCoalescer(mScheduler, new Runnable() {
 
-            Timeline threeSecondCacheFlush = new Timeline(
-                    new KeyFrame(Duration.seconds(SECONDS_PER_FLUSH), new EventHandler<ActionEvent>(){
+                @Override
+                public void run() {
+                    flush();
+                }
+            }, AdaptiveCoalescer.DEFAULT_MIN_DELAY_MILLIS, AdaptiveCoalescer.DEFAULT_MAX_DELAY_MILLIS, metrics);
+        }
 
-                        @Override
-                        public void handle(ActionEvent event) {
-                            // Flush the cache on the UI thread
-                            flush();
-                        }
+        /**
+         * Lists the local names now and then periodically.
+         */
+        synchronized void start() {
+            if (mDBusProxy == null) return;
+            mResync = mScheduler.scheduleWithFixedDelay(new Runnable() {
 
-                    }));
-            threeSecondCacheFlush.setCycleCount(Timeline.INDEFINITE);
-            threeSecondCacheFlush.play();
+                @Override
+                public void run() {
+                    resync();
+                }
+            }, 0, SECONDS_PER_RESYNC, TimeUnit.SECONDS);
+        }
+
+        /**
+         * Lists the local names as soon as possible.
+         */
+        void resyncNow() {
+            if (mStopped) return;
+            mScheduler.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    resync();
+                }
+            });
+        }
+
+        synchronized void stop() {
+            mStopped = true;
+            mCoalescer.destroy();
+            if (mResync != null)
+                mResync.cancel(false);
+            if (mOwnScheduler)
+                mScheduler.shutdownNow();
         }
 
         @Override
@@ -235,9 +363,19 @@ public class BusObserver implements Destroyable {
             // What is found is that when the new owner is found and the new owner is null,
             // that signifies that the name is lost.
             // Ignore any unique names.
-//            if (newOwner == null && !busName.startsWith(":")) {
-//                removeAdvertisedName(busName);
-//            }
+            if (mDBusProxy == null || busName == null || busName.startsWith(":")) return;
+            synchronized (this) {
+                if (newOwner == null) {
+                    if (!mLocalNames.remove(busName)) return;
+                    mLocalFoundBuffer.remove(busName);
+                    mNameLostBuffer.add(busName);
+                } else {
+                    // A pending loss is kept so a restart is published as lost then found.
+                    if (!mLocalNames.add(busName)) return;
+                    mLocalFoundBuffer.add(busName);
+                }
+                mCoalescer.signal();
+            }
         }
 
         @Override
@@ -247,11 +385,11 @@ public class BusObserver implements Destroyable {
                 LOG.warning("Invalid advertised found name: " + name);
                 return;
             }
-            List<String> l = new ArrayList<String>();
-            l.add(name);
 
-            // throw the found name onto the buffer
+            // throw the found name onto the buffer, a pending loss
+            // of the name is still published before it is found again.
             mNameFoundBuffer.add(name);
+            mCoalescer.signal();
         }
 
         @Override
@@ -262,10 +400,9 @@ public class BusObserver implements Destroyable {
                 // TODO Log invalid name
                 return;
             }
-            List<String> l = new ArrayList<String>();
-            l.add(name);
 
             removeAdvertisedName(name);
+            mCoalescer.signal();
         }
 
         private void removeAdvertisedName(String name) {
@@ -278,36 +415,76 @@ public class BusObserver implements Destroyable {
         }
 
         /**
-         * Call to flush the current buffer of found and lost buffers.
+         * Lists the local names and buffers the differences with the known local names.
          * 
-         * JavaFX Thread
+         * Scheduler Thread
          */
-        public synchronized void flush() {
-            //			slastFlushTime = System.currentTimeMillis();
-            List<String> distFound = new ArrayList<String>(mNameFoundBuffer);
-            List<String> lost = new ArrayList<String>(mNameLostBuffer);
-            mNameFoundBuffer.clear();
-            mNameLostBuffer.clear();
-
+        private void resync() {
+            if (mDBusProxy == null || mStopped) return;
+            Set<String> current = new HashSet<String>();
             try {
-                List<String> localFound = new ArrayList<String>();
-                if (mDBusProxy != null) {
-                    for (String name: mDBusProxy.ListNames()) {
-                        if (!name.startsWith(":")) {
-                            localFound.add(name);
-                        }
-                    }
+                for (String name: mDBusProxy.ListNames()) {
+                    if (!name.startsWith(":")) 
+                        current.add(name);
                 }
-                mListener.onLocalNameFound(localFound);
             } catch (BusException e) {
-                //				e.printStackTrace();
                 LOG.warning("Dbus Proxy caught exception " + e);
+                return;
+            }
+
+            synchronized (this) {
+                for (String name: current) {
+                    if (mLocalNames.add(name))
+                        mLocalFoundBuffer.add(name);
+                }
+                Iterator<String> iter = mLocalNames.iterator();
+                while (iter.hasNext()) {
+                    String name = iter.next();
+                    if (!current.contains(name)) {
+                        iter.remove();
+                        mLocalFoundBuffer.remove(name);
+                        mNameLostBuffer.add(name);
+                    }
+                }
             }
+            flush();
+        }
+
+        /**
+         * Call to flush the current buffer of found and lost buffers.
+         * Nothing is published if nothing changed.  Lost names are published
+         * first, so a name that was lost and found again since the last flush
+         * is removed and then added.
+         * 
+         * Scheduler Thread
+         */
+        private void flush() {
+            final List<String> distFound, localFound, lost;
+            synchronized (this) {
+                distFound = new ArrayList<String>(mNameFoundBuffer);
+                localFound = new ArrayList<String>(mLocalFoundBuffer);
+                lost = new ArrayList<String>(mNameLostBuffer);
+                mNameFoundBuffer.clear();
+                mLocalFoundBuffer.clear();
+                mNameLostBuffer.clear();
+            }
+            if (distFound.isEmpty() && localFound.isEmpty() && lost.isEmpty()) return;
 
             // Sort the names
             Collections.sort(distFound);
-            mListener.onDistributedNameFound(distFound);
-            mListener.onNameLost(lost);
+            Collections.sort(localFound);
+            mCallbackExecutor.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    if (!lost.isEmpty())
+                        mListener.onNameLost(lost);
+                    if (!localFound.isEmpty())
+                        mListener.onLocalNameFound(localFound);
+                    if (!distFound.isEmpty())
+                        mListener.onDistributedNameFound(distFound);
+                }
+            });
         }
     }
 
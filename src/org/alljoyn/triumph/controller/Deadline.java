@@ -0,0 +1,98 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time by which a bus operation has to complete.
+ * <p>
+ * A deadline is fixed when it is created, so the time an operation spends
+ * waiting for a worker counts against it.  The time that remains once the
+ * operation reaches the bus is passed on as its reply timeout.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public final class Deadline {
+
+    /**
+     * Deadline that never expires.  Operations without a deadline use the
+     * reply timeout of the bus.
+     */
+    public static final Deadline NONE = new Deadline(Long.MAX_VALUE);
+
+    /**
+     * Value of {@link System#nanoTime()} at which the deadline expires.
+     */
+    private final long mExpiresNanos;
+
+    private Deadline(long expiresNanos) {
+        mExpiresNanos = expiresNanos;
+    }
+
+    /**
+     * Creates a deadline that expires after the timeout.
+     *
+     * @param timeout Time the operation is allowed to take, must be positive
+     * @param unit Unit of timeout
+     * @return Deadline that expires after the timeout
+     */
+    public static Deadline after(long timeout, TimeUnit unit) {
+        if (timeout <= 0)
+            throw new IllegalArgumentException("Deadline, Illegal timeout " + timeout);
+        return new Deadline(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    /**
+     * @return Whether this deadline ever expires
+     */
+    public boolean isSet() {
+        return this != NONE;
+    }
+
+    /**
+     * @return Whether the deadline has passed
+     */
+    public boolean isExpired() {
+        return isSet() && System.nanoTime() - mExpiresNanos >= 0;
+    }
+
+    /**
+     * @param unit Unit of the result
+     * @return Time left until the deadline expires, never negative.
+     * Long.MAX_VALUE for {@link #NONE}
+     */
+    public long getRemaining(TimeUnit unit) {
+        if (!isSet()) return Long.MAX_VALUE;
+        return unit.convert(Math.max(0, mExpiresNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return Reply timeout in milliseconds to hand to the bus, 0 to use the
+     * default reply timeout
+     */
+    int toReplyTimeout() {
+        if (!isSet()) return 0;
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, getRemaining(TimeUnit.MILLISECONDS)));
+    }
+
+    @Override
+    public String toString() {
+        if (!isSet()) return "No deadline";
+        return "Deadline in " + getRemaining(TimeUnit.MILLISECONDS) + " ms";
+    }
+}
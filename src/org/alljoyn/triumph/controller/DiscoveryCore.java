@@ -0,0 +1,224 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+
+package org.alljoyn.triumph.controller;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+import org.alljoyn.bus.BusAttachment;
+import org.alljoyn.triumph.controller.BusObserver.BusObserverListener;
+import org.alljoyn.triumph.controller.metrics.CoalescerMetrics;
+import org.alljoyn.triumph.controller.metrics.MetricsRegistry;
+import org.alljoyn.triumph.controller.session.Session;
+import org.alljoyn.triumph.controller.session.SessionManager;
+import org.alljoyn.triumph.model.SessionPortStorage;
+import org.alljoyn.triumph.model.components.EndPoint;
+import org.alljoyn.triumph.model.components.EndPoint.SERVICE_TYPE;
+
+/**
+ * Discovery and session core of Triumph, independent of any UI toolkit.
+ * <p>
+ * Keeps the endpoints found on the bus and the sessions to them, and reports every
+ * change of the endpoints as {@link EndPointChange}s.  All the background work runs on
+ * a single {@link ScheduledExecutorService}, the listener is notified on the callback
+ * executor.  Without a callback executor the listener is notified on the thread of the
+ * scheduler, so the core can run in a process that never starts JavaFX; the
+ * {@link TriumphController} adapts it to the JavaFX thread.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class DiscoveryCore implements BusObserverListener, Destroyable {
+
+    /**
+     * Listener of the changes of the known endpoints.
+     */
+    public interface DiscoveryListener {
+
+        /**
+         * Called when endpoints were found, lost or built.
+         *
+         * @param changes Changes in the order they happened, never empty
+         */
+        public void onEndPointChanges(List<EndPointChange> changes);
+    }
+
+    private final DiscoveryListener mListener;
+
+    /**
+     * Executor every change is reported on.
+     */
+    private final Executor mCallbackExecutor;
+
+    /**
+     * All available services by name.
+     */
+    private final EndPointDirectory mDirectory;
+
+    private final ScheduledExecutorService mScheduler;
+
+    /**
+     * Whether the scheduler was created by this core.
+     */
+    private final boolean mOwnScheduler;
+
+    private final BusObserver mBusObserver;
+
+    private final SessionManager mSessionManager;
+
+    /**
+     * Creates a core that runs and notifies on its own daemon thread.
+     *
+     * @param bus Bus to discover endpoints on
+     * @param listener Listener of the changes of the endpoints
+     */
+    public DiscoveryCore(BusAttachment bus, DiscoveryListener listener) {
+        this(bus, listener, null, null, null);
+    }
+
+    /**
+     * Creates a core.
+     *
+     * @param bus Bus to discover endpoints on
+     * @param listener Listener of the changes of the endpoints
+     * @param scheduler Scheduler of the background work, null to create one
+     * @param callbackExecutor Executor to notify the listener on, null for the scheduler
+     * @param metrics Registry to expose the metrics of the core with, null to not expose them
+     */
+    public DiscoveryCore(BusAttachment bus, DiscoveryListener listener, ScheduledExecutorService scheduler,
+            Executor callbackExecutor, MetricsRegistry metrics) {
+        if (bus == null || listener == null)
+            throw new NullPointerException(getClass().getSimpleName() + "<init>, Null bus or listener");
+        mListener = listener;
+        mDirectory = new EndPointDirectory();
+
+        mOwnScheduler = scheduler == null;
+        mScheduler = scheduler != null ? scheduler : Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "TriumphDiscovery");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        mCallbackExecutor = callbackExecutor != null ? callbackExecutor : mScheduler;
+
+        String observerName = BusObserver.class.getSimpleName();
+        String sessionsName = SessionManager.class.getSimpleName();
+        mBusObserver = new BusObserver(bus, this, true, metrics != null 
+                ? metrics.getCoalescerMetrics(observerName) : new CoalescerMetrics(observerName),
+                mScheduler, mCallbackExecutor);
+        mSessionManager = new SessionManager(bus, this, metrics != null 
+                ? metrics.getCoalescerMetrics(sessionsName) : new CoalescerMetrics(sessionsName),
+                mScheduler, mCallbackExecutor);
+    }
+
+    /**
+     * @return Manager of the sessions to the endpoints
+     */
+    public SessionManager getSessionManager() {
+        return mSessionManager;
+    }
+
+    public List<EndPoint> getDistributedServices() {
+        return mDirectory.getDistributedServices();
+    }
+
+    public List<EndPoint> getLocalServices() {
+        return mDirectory.getLocalServices();
+    }
+
+    /**
+     * @param name Name of the service
+     * @return The distributed service with this name, else the local one, null if there is none
+     */
+    public EndPoint getService(String name) {
+        return mDirectory.getService(name);
+    }
+
+    /**
+     * Lists the names on the bus again, the listener is notified of any difference.
+     */
+    public void sync() {
+        mBusObserver.sync();
+    }
+
+    /**
+     * Attempts to build service.  The change of the service is reported
+     * on the callback executor.
+     * 
+     * @param service Service to attempt to build 
+     * @return true on success, false otherwise
+     */
+    public boolean buildService(EndPoint service) {
+        Session session = mSessionManager.getSession(service);
+        if (session == null) {
+            session = mSessionManager.createNewSession(service, SessionPortStorage.getPort(service.getName()));
+            if (session == null) return false;
+            assert service.equals(session.getEndPoint()): "Session EndPoint equality";
+        }
+        boolean wasBuilt = service.isBuilt();
+        boolean built = service.build(session);
+        if (built && !wasBuilt)
+            notifyChanges(Collections.singletonList(
+                    new EndPointChange(EndPointChange.TYPE.CHANGED, service)));
+        return built;
+    }
+
+    @Override
+    public void onDistributedNameFound(Collection<String> names) {
+        notifyChanges(mDirectory.add(names, SERVICE_TYPE.REMOTE));
+    }
+
+    @Override
+    public void onLocalNameFound(Collection<String> names) {
+        notifyChanges(mDirectory.add(names, SERVICE_TYPE.LOCAL));
+    }
+
+    @Override
+    public void onNameLost(Collection<String> lostNames) {
+        notifyChanges(mDirectory.remove(lostNames));
+    }
+
+    /**
+     * Reports changes on the callback executor, whatever thread they happened on.
+     */
+    private void notifyChanges(final List<EndPointChange> changes) {
+        if (changes.isEmpty()) return;
+        mCallbackExecutor.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                mListener.onEndPointChanges(changes);
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        mBusObserver.destroy();
+        mSessionManager.destroy();
+        if (mOwnScheduler)
+            mScheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,169 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller;
+
+import org.alljoyn.bus.BusException;
+import org.alljoyn.bus.BusObject;
+import org.alljoyn.bus.SignalEmitter;
+import org.alljoyn.bus.SignalEmitter.GlobalBroadcast;
+import org.alljoyn.triumph.TriumphCPPAdapter;
+import org.alljoyn.triumph.controller.metrics.MemberMetrics;
+import org.alljoyn.triumph.controller.session.Session;
+import org.alljoyn.triumph.model.components.Signal;
+
+/**
+ * A signal emission that has been resolved against its destination.
+ * <p>
+ * The emitter, names and signature of the signal are created once when the
+ * handle is created, so an emission through the handle only marshals the arguments.
+ * A handle for a session signal is bound to the session it was resolved on and stops
+ * being valid once that session is lost or reconnected under a new session id.
+ * Sessionless handles stay valid until they are invalidated.
+ * <p>
+ * Handles are safe to use from any thread and do not log their emissions.
+ * The latency and outcome of every emission is recorded in the metrics of the signal.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public final class EmitterHandle {
+
+    private final Signal mSignal;
+
+    private final boolean mSessionless;
+
+    private final Session mSession;
+
+    private final int mSessionId;
+
+    private final SignalEmitter mEmitter;
+
+    private final String mIfaceName, mSignalName, mSignature;
+
+    private final MemberMetrics mMetrics;
+
+    private volatile boolean mInvalidated;
+
+    /**
+     * Resolves a signal against its destination.
+     *
+     * @param source Bus object to emit the signal from
+     * @param signal Signal to emit
+     * @param session Connected session with the owner of the signal, ignored if sessionless
+     * @param sessionless Whether to send the signal sessionless
+     * @param metrics Metrics to record the emissions in
+     */
+    EmitterHandle(BusObject source, Signal signal, Session session, boolean sessionless, MemberMetrics metrics) {
+        mSignal = signal;
+        mMetrics = metrics;
+        mSessionless = sessionless;
+        mSession = sessionless ? null : session;
+        mSessionId = sessionless ? 0 : session.getSessionId();
+        mIfaceName = signal.getInterface().getName();
+        mSignalName = signal.getName();
+        mSignature = signal.getOutputSignature();
+
+        // Destination endpoint
+        String destination = signal.getInterface().getObject().getOwner().getName();
+        mEmitter = new SignalEmitter(source, destination, mSessionId, GlobalBroadcast.Off);
+        if (sessionless)
+            mEmitter.setSessionlessFlag(true);
+    }
+
+    /**
+     * @return The signal this handle emits
+     */
+    public Signal getSignal() {
+        return mSignal;
+    }
+
+    /**
+     * @return Whether the signal is sent sessionless
+     */
+    public boolean isSessionless() {
+        return mSessionless;
+    }
+
+    /**
+     * @return Whether signals can still be emitted through this handle
+     */
+    public boolean isValid() {
+        if (mInvalidated) return false;
+        return mSessionless || (mSession.isConnected() && mSession.getSessionId() == mSessionId);
+    }
+
+    /**
+     * Prevents any further emissions through this handle.
+     */
+    public void invalidate() {
+        mInvalidated = true;
+    }
+
+    /**
+     * Emits the signal.
+     *
+     * @param args Values of the arguments of the signal
+     * @throws BusException The handle is no longer valid
+     */
+    public void emit(Object[] args) throws BusException {
+        if (!isValid())
+            throw new BusException("Session for " + mSignalName + " is no longer valid");
+        long start = System.nanoTime();
+        try {
+            TriumphCPPAdapter.emitSignal(mEmitter, mIfaceName, mSignalName, mSignature, args);
+            mMetrics.recordSuccess(System.nanoTime() - start);
+        } catch (Exception e) {
+            // Native calls can throw a BusException they do not declare.
+            mMetrics.recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Emits the signal once for every set of arguments in a single native call.
+     * Emission stops at the first failure.
+     *
+     * @param argSets Values of the arguments of every emission
+     * @param emitted Its first element is set to the number of signals emitted before a failure
+     * @return Number of signals emitted
+     * @throws BusException The handle is no longer valid, or the emission after the emitted ones failed
+     */
+    public int emitAll(Object[][] argSets, int[] emitted) throws BusException {
+        if (!isValid())
+            throw new BusException("Session for " + mSignalName + " is no longer valid");
+        long start = System.nanoTime();
+        emitted[0] = 0;
+        try {
+            TriumphCPPAdapter.emitSignals(mEmitter, mIfaceName, mSignalName, mSignature, argSets, emitted);
+            recordChunk(emitted[0], start);
+            return emitted[0];
+        } catch (Exception e) {
+            // Native calls can throw a BusException they do not declare.
+            recordChunk(emitted[0], start);
+            mMetrics.recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Records the emissions of a chunk, which share their latency.
+     */
+    private void recordChunk(int emitted, long start) {
+        long latency = emitted == 0 ? 0 : (System.nanoTime() - start) / emitted;
+        for (int i = 0; i < emitted; ++i)
+            mMetrics.recordSuccess(latency);
+    }
+}
@@ -0,0 +1,88 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+
+package org.alljoyn.triumph.controller;
+
+import org.alljoyn.triumph.model.components.EndPoint;
+
+/**
+ * A single change of the endpoints the controller knows of.
+ * <p>
+ * Discovery is reported to the views as lists of changes, so views only
+ * touch the rows of endpoints that were found, lost or changed.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class EndPointChange {
+
+    /**
+     * Kind of change.
+     */
+    public enum TYPE {
+
+        /**
+         * The endpoint was found.
+         */
+        ADDED,
+
+        /**
+         * The endpoint was lost.
+         */
+        REMOVED,
+
+        /**
+         * The state of a known endpoint changed, for instance it was connected.
+         */
+        CHANGED
+    }
+
+    private final TYPE mType;
+
+    private final EndPoint mEndPoint;
+
+    /**
+     * Creates a change.
+     *
+     * @param type Kind of change
+     * @param endPoint EndPoint that changed
+     */
+    public EndPointChange(TYPE type, EndPoint endPoint) {
+        if (type == null || endPoint == null)
+            throw new NullPointerException(getClass().getSimpleName() + "<init>, Null type or endpoint");
+        mType = type;
+        mEndPoint = endPoint;
+    }
+
+    /**
+     * @return Kind of change
+     */
+    public TYPE getType() {
+        return mType;
+    }
+
+    /**
+     * @return EndPoint that changed
+     */
+    public EndPoint getEndPoint() {
+        return mEndPoint;
+    }
+
+    @Override
+    public String toString() {
+        return mType + " " + mEndPoint;
+    }
+}
@@ -0,0 +1,107 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+
+package org.alljoyn.triumph.controller;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.alljoyn.triumph.model.components.EndPoint;
+import org.alljoyn.triumph.model.components.EndPoint.SERVICE_TYPE;
+
+/**
+ * The endpoints found on the bus by name, local and distributed, in the order they were found.
+ * <p>
+ * Turns the names found and lost by {@link BusObserver} into {@link EndPointChange}s.
+ * A name that is already known is not added again and a name that is not known is
+ * not removed, so every change is reported once.  Safe to use from any thread.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class EndPointDirectory {
+
+    /**
+     * All available services by name, in the order they were found.  Guarded by this.
+     */
+    private final Map<String, EndPoint> mDistributedServices, mLocalServices;
+
+    /**
+     * Creates an empty directory.
+     */
+    public EndPointDirectory() {
+        mDistributedServices = new LinkedHashMap<String, EndPoint>();
+        mLocalServices = new LinkedHashMap<String, EndPoint>();
+    }
+
+    public synchronized List<EndPoint> getDistributedServices() {
+        return new ArrayList<EndPoint>(mDistributedServices.values());
+    }
+
+    public synchronized List<EndPoint> getLocalServices() {
+        return new ArrayList<EndPoint>(mLocalServices.values());
+    }
+
+    /**
+     * @param name Name of the service
+     * @return The distributed service with this name, else the local one, null if there is none
+     */
+    public synchronized EndPoint getService(String name) {
+        EndPoint service = mDistributedServices.get(name);
+        return service != null ? service : mLocalServices.get(name);
+    }
+
+    /**
+     * Adds the services that are not known yet.
+     *
+     * @param names Names that were found, in the order they were found
+     * @param type {@link SERVICE_TYPE#LOCAL} for local services, else distributed
+     * @return Changes for the added services, in the order of the names
+     */
+    public synchronized List<EndPointChange> add(Collection<String> names, SERVICE_TYPE type) {
+        Map<String, EndPoint> services = type == SERVICE_TYPE.LOCAL ? mLocalServices : mDistributedServices;
+        List<EndPointChange> changes = new ArrayList<EndPointChange>();
+        for (String name : names) {
+            if (services.containsKey(name)) continue;
+            EndPoint ep = new EndPoint(name, type);
+            services.put(name, ep);
+            changes.add(new EndPointChange(EndPointChange.TYPE.ADDED, ep));
+        }
+        return changes;
+    }
+
+    /**
+     * Removes the services of names that were lost, local and distributed.
+     *
+     * @param lostNames Names that were lost
+     * @return Changes for the removed services, in the order of the names
+     */
+    public synchronized List<EndPointChange> remove(Collection<String> lostNames) {
+        List<EndPointChange> changes = new ArrayList<EndPointChange>();
+        for (String name: lostNames) {
+            EndPoint ep = mDistributedServices.remove(name);
+            if (ep != null)
+                changes.add(new EndPointChange(EndPointChange.TYPE.REMOVED, ep));
+            ep = mLocalServices.remove(name);
+            if (ep != null)
+                changes.add(new EndPointChange(EndPointChange.TYPE.REMOVED, ep));
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,55 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller;
+
+import java.util.concurrent.Executor;
+
+import javafx.application.Platform;
+
+/**
+ * Executor that runs all of its commands on the JavaFX Application thread.
+ * <p>
+ * Commands submitted from the JavaFX thread are run immediately, everything
+ * else is posted with {@link Platform#runLater(Runnable)}.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class FXThreadExecutor implements Executor {
+
+    private static FXThreadExecutor mInstance;
+
+    private FXThreadExecutor() {}
+
+    /**
+     * @return The single instance of this executor
+     */
+    public static FXThreadExecutor getInstance() {
+        if (mInstance == null)
+            mInstance = new FXThreadExecutor();
+        return mInstance;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (Platform.isFxApplicationThread()) {
+            command.run();
+        } else {
+            Platform.runLater(command);
+        }
+    }
+
+}
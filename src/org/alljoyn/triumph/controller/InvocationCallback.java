@@ -0,0 +1,45 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller;
+
+/**
+ * Callback for the completion of an asynchronous bus operation.
+ * <p>
+ * Exactly one of the two methods is called per operation.  Both
+ * are called on the callback thread of the {@link AsyncInvoker}
+ * that ran the operation, which for the application is the JavaFX thread.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ * @param <T> Type of the result of the operation
+ */
+public interface InvocationCallback<T> {
+
+    /**
+     * The operation completed normally.
+     *
+     * @param result Result of the operation
+     */
+    public void onSuccess(T result);
+
+    /**
+     * The operation failed, was cancelled, or was rejected.
+     *
+     * @param error Cause of the failure
+     */
+    public void onFailure(Throwable error);
+
+}
@@ -0,0 +1,186 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller;
+
+import java.util.List;
+
+import org.alljoyn.bus.BusAttachment;
+import org.alljoyn.bus.BusException;
+import org.alljoyn.bus.ProxyBusObject;
+import org.alljoyn.triumph.TriumphCPPAdapter;
+import org.alljoyn.triumph.controller.metrics.MemberMetrics;
+import org.alljoyn.triumph.controller.session.Session;
+import org.alljoyn.triumph.model.components.Method;
+import org.alljoyn.triumph.model.components.arguments.Argument;
+import org.alljoyn.triumph.model.components.arguments.ArgumentFactory;
+
+/**
+ * A method call that has been resolved against a connected session.
+ * <p>
+ * The proxy, names and signatures of the method are looked up once when the
+ * handle is created, so a call through the handle only marshals the arguments.
+ * A handle is bound to the session it was resolved on and stops being valid
+ * once that session is lost or reconnected under a new session id.
+ * <p>
+ * Handles are safe to use from any thread and do not log their calls.
+ * The latency and outcome of every call is recorded in the metrics of the method.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public final class InvocationHandle {
+
+    private final BusAttachment mBus;
+
+    private final Method mMethod;
+
+    private final Session mSession;
+
+    private final int mSessionId;
+
+    private final ProxyBusObject mProxy;
+
+    private final String mIfaceName, mMethodName, mInputSignature, mOutputSignature, mOutputName;
+
+    private final MemberMetrics mMetrics;
+
+    private volatile boolean mInvalidated;
+
+    /**
+     * Resolves a method against a connected session.
+     *
+     * @param bus Bus attachment to call the method on
+     * @param method Method to call
+     * @param session Connected session with the owner of the method
+     * @param metrics Metrics to record the calls in
+     */
+    InvocationHandle(BusAttachment bus, Method method, Session session, MemberMetrics metrics) {
+        mBus = bus;
+        mMetrics = metrics;
+        mMethod = method;
+        mSession = session;
+        mSessionId = session.getSessionId();
+        mProxy = session.getProxy(method.getInterface().getObject().getName());
+        mIfaceName = method.getInterface().getName();
+        mMethodName = method.getName();
+        mInputSignature = method.getInputSignature();
+        mOutputSignature = method.getOutputSignature();
+
+        // Try to decipher the output argument name
+        List<Argument<?>> outargs = method.getOutputArguments();
+        String name = "Output";
+        if (outargs.size() == 1) {
+            String tmp = outargs.get(0).getName();
+            name = tmp == null || tmp.isEmpty() ? name : tmp;
+        }
+        mOutputName = name;
+    }
+
+    /**
+     * @return The method this handle calls
+     */
+    public Method getMethod() {
+        return mMethod;
+    }
+
+    /**
+     * @return Whether calls can still be made through this handle
+     */
+    public boolean isValid() {
+        return !mInvalidated && mSession.isConnected() && mSession.getSessionId() == mSessionId;
+    }
+
+    /**
+     * Prevents any further calls through this handle.
+     */
+    public void invalidate() {
+        mInvalidated = true;
+    }
+
+    /**
+     * Calls the method.
+     *
+     * @param args Values of the input arguments of the method
+     * @return Unmarshaled result
+     * @throws BusException The handle is no longer valid or the call failed
+     */
+    public Argument<?> invoke(Object[] args) throws BusException {
+        return invoke(args, Deadline.NONE);
+    }
+
+    /**
+     * Calls the method and waits for the reply no longer than the deadline allows.
+     *
+     * @param args Values of the input arguments of the method
+     * @param deadline Deadline of the call
+     * @return Unmarshaled result
+     * @throws BusException The handle is no longer valid, the deadline expired or the call failed
+     */
+    public Argument<?> invoke(Object[] args, Deadline deadline) throws BusException {
+        if (!isValid())
+            throw new BusException("Session for " + mMethodName + " is no longer valid");
+        if (deadline.isExpired())
+            throw new BusException("Deadline expired before calling " + mMethodName);
+        long start = System.nanoTime();
+        try {
+            Object output = TriumphCPPAdapter.callMethod(mBus, mProxy, mIfaceName, mMethodName, 
+                    mInputSignature, args, deadline.toReplyTimeout());
+
+            // Unmarshal based on the method output argument signature.
+            Argument<?> result = ArgumentFactory.getArgument(mOutputName, mOutputSignature, output);
+            mMetrics.recordSuccess(System.nanoTime() - start);
+            return result;
+        } catch (Exception e) {
+            // Native calls can throw a BusException they do not declare.
+            mMetrics.recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Calls the method once for every set of arguments in a single native call.
+     * A failed call does not stop the calls after it.
+     *
+     * @param argSets Values of the input arguments of every call
+     * @return Unmarshaled result of every call, or the Throwable the call failed with
+     * @throws BusException The handle is no longer valid
+     */
+    public Object[] invokeAll(Object[][] argSets) throws BusException {
+        if (!isValid())
+            throw new BusException("Session for " + mMethodName + " is no longer valid");
+        long start = System.nanoTime();
+        Object[] outputs = TriumphCPPAdapter.callMethods(mBus, mProxy, mIfaceName, mMethodName, mInputSignature, argSets);
+        for (int i = 0; i < outputs.length; ++i) {
+            if (outputs[i] instanceof Throwable) continue;
+            try {
+                outputs[i] = ArgumentFactory.getArgument(mOutputName, mOutputSignature, outputs[i]);
+            } catch (Exception e) {
+                outputs[i] = e;
+            }
+        }
+
+        // The calls of a batch share their latency.
+        long latency = outputs.length == 0 ? 0 : (System.nanoTime() - start) / outputs.length;
+        for (Object output: outputs) {
+            if (output instanceof Throwable) {
+                mMetrics.recordFailure(latency, (Throwable) output);
+            } else {
+                mMetrics.recordSuccess(latency);
+            }
+        }
+        return outputs;
+    }
+}
@@ -0,0 +1,132 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller;
+
+import org.alljoyn.triumph.model.components.arguments.Argument;
+
+/**
+ * Outcome of a single call that was made as part of a {@link MethodBatch}.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class InvocationResult {
+
+    /**
+     * Status of an individual call.
+     */
+    public enum STATUS {
+        OK, FAILED, CANCELLED
+    }
+
+    private final int mIndex;
+
+    private final STATUS mStatus;
+
+    private final Argument<?> mResult;
+
+    private final Throwable mError;
+
+    private final long mLatencyNanos;
+
+    private InvocationResult(int index, STATUS status, Argument<?> result, Throwable error, long latencyNanos) {
+        mIndex = index;
+        mStatus = status;
+        mResult = result;
+        mError = error;
+        mLatencyNanos = latencyNanos;
+    }
+
+    /**
+     * @param index Index of the call within its batch
+     * @param result Unmarshaled result of the call
+     * @param latencyNanos Time the call took
+     * @return Result for a call that returned normally
+     */
+    static InvocationResult success(int index, Argument<?> result, long latencyNanos) {
+        return new InvocationResult(index, STATUS.OK, result, null, latencyNanos);
+    }
+
+    /**
+     * @param index Index of the call within its batch
+     * @param error Cause of the failure
+     * @param latencyNanos Time the call took
+     * @return Result for a call that failed
+     */
+    static InvocationResult failure(int index, Throwable error, long latencyNanos) {
+        return new InvocationResult(index, STATUS.FAILED, null, error, latencyNanos);
+    }
+
+    /**
+     * @param index Index of the call within its batch
+     * @return Result for a call that was never made
+     */
+    static InvocationResult cancelled(int index) {
+        return new InvocationResult(index, STATUS.CANCELLED, null, null, 0);
+    }
+
+    /**
+     * @return Index of the call within its batch
+     */
+    public int getIndex() {
+        return mIndex;
+    }
+
+    public STATUS getStatus() {
+        return mStatus;
+    }
+
+    /**
+     * @return Whether the call returned normally
+     */
+    public boolean isSuccess() {
+        return mStatus == STATUS.OK;
+    }
+
+    /**
+     * @return Unmarshaled result of the call, null if the call did not succeed
+     */
+    public Argument<?> getResult() {
+        return mResult;
+    }
+
+    /**
+     * @return Cause of the failure, null if the call did not fail
+     */
+    public Throwable getError() {
+        return mError;
+    }
+
+    /**
+     * @return Time in nanoseconds the call spent on the bus, averaged over
+     * the calls that were made in the same native call
+     */
+    public long getLatencyNanos() {
+        return mLatencyNanos;
+    }
+
+    @Override
+    public String toString() {
+        switch (mStatus) {
+        case OK:
+            return mIndex + ": " + mResult.getValue();
+        case FAILED:
+            return mIndex + ": Failed " + mError.getMessage();
+        default:
+            return mIndex + ": Cancelled";
+        }
+    }
+}
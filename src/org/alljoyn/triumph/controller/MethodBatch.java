@@ -0,0 +1,327 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.alljoyn.triumph.model.components.Method;
+import org.alljoyn.triumph.model.components.arguments.Argument;
+
+/**
+ * A batch of calls to the same method on the same remote object.
+ * <p>
+ * Up to a fixed window of calls are kept in flight at once.  Each in flight slot
+ * is a worker that picks up the next call as soon as its previous call returns, so
+ * the throughput of the batch is bounded by the device and not by the round trip.
+ * Results are reported in the order of the argument tuples, with a status for each call.
+ * <p>
+ * A cancelled batch is done at once.  Its results keep every call that already
+ * returned, and every other call is reported as cancelled.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class MethodBatch implements Future<List<InvocationResult>> {
+
+    /**
+     * Makes a single call of the batch.  Implementations must be safe to
+     * call from several worker threads at once.
+     */
+    public interface Caller {
+
+        /**
+         * @param args Values of the input arguments
+         * @return Unmarshaled result
+         * @throws Exception Call failed
+         */
+        public Argument<?> call(Object[] args) throws Exception;
+
+        /**
+         * @param argSets Values of the input arguments of several calls
+         * @return Unmarshaled result of every call, or the Throwable the call failed with
+         * @throws Exception None of the calls could be made
+         */
+        public Object[] callAll(Object[][] argSets) throws Exception;
+    }
+
+    /**
+     * Maximum number of calls a lane makes in a single native call.
+     */
+    private static final int MAX_CHUNK = 16;
+
+    private final Method mMethod;
+
+    /**
+     * Argument values of every call.
+     */
+    private final List<Object[]> mCalls;
+
+    /**
+     * Results indexed by call.
+     */
+    private final InvocationResult[] mResults;
+
+    /**
+     * Index of the next call to make, and number of finished calls.
+     */
+    private final AtomicInteger mNext, mCompleted;
+
+    private final CountDownLatch mDone;
+
+    private final int mWindow;
+
+    /**
+     * Number of calls a lane takes at a time.
+     */
+    private int mChunk;
+
+    private final Caller mCaller;
+
+    private final InvocationCallback<List<InvocationResult>> mCallback;
+
+    private volatile boolean mCancelled;
+
+    /**
+     * Set by whoever publishes the results, the last lane or cancel.
+     */
+    private final AtomicBoolean mFinished;
+
+    /**
+     * Results that were published to the callback.
+     */
+    private volatile List<InvocationResult> mPublished;
+
+    /**
+     * Invoker the batch was started on.
+     */
+    private volatile AsyncInvoker mInvoker;
+
+    /**
+     * Creates a batch that is not started yet.
+     *
+     * @param method Method every call invokes
+     * @param calls Argument values of every call
+     * @param window Maximum number of calls in flight
+     * @param caller Makes the calls
+     * @param callback Callback to notify with all the results, or null
+     */
+    public MethodBatch(Method method, List<Object[]> calls, int window, Caller caller,
+            InvocationCallback<List<InvocationResult>> callback) {
+        if (window < 1)
+            throw new IllegalArgumentException(getClass().getSimpleName() + "<init>, Illegal window " + window);
+        mMethod = method;
+        mCalls = new ArrayList<Object[]>(calls);
+        mResults = new InvocationResult[mCalls.size()];
+        mNext = new AtomicInteger();
+        mCompleted = new AtomicInteger();
+        mDone = new CountDownLatch(1);
+        mFinished = new AtomicBoolean();
+        mWindow = window;
+        mCaller = caller;
+        mCallback = callback;
+    }
+
+    /**
+     * Starts the calls on the worker threads of the invoker.  The window is
+     * limited by the number of workers that are accepted by the invoker.
+     *
+     * @param invoker Invoker to run the calls on.
+     * @throws RejectedExecutionException The invoker does not accept any work
+     */
+    public void start(AsyncInvoker invoker) {
+        mInvoker = invoker;
+        if (mCalls.isEmpty()) {
+            finish(Arrays.asList(mResults));
+            return;
+        }
+        int lanes = Math.min(Math.min(mWindow, invoker.getPoolSize()), mCalls.size());
+        // Take calls in chunks that still leave every lane several chunks,
+        // so a slow chunk does not hold up the end of the batch.
+        mChunk = Math.max(1, Math.min(MAX_CHUNK, mCalls.size() / (lanes * 4)));
+        for (int i = 0; i < lanes; ++i) {
+            try {
+                invoker.execute(new Lane());
+            } catch (RejectedExecutionException e) {
+                // The lanes that were accepted will finish every call.
+                if (i == 0) throw e;
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return Method that the calls of this batch invoke.
+     */
+    public Method getMethod() {
+        return mMethod;
+    }
+
+    /**
+     * @return Number of calls in this batch
+     */
+    public int size() {
+        return mCalls.size();
+    }
+
+    /**
+     * @return Number of calls that have finished
+     */
+    public int getCompletedCount() {
+        return mCompleted.get();
+    }
+
+    /**
+     * Stops the batch and publishes its results at once.  Calls that already
+     * returned keep their result, the rest are reported as cancelled.  Calls
+     * that are on the bus are allowed to return but their results are dropped.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (isDone()) return false;
+        mCancelled = true;
+        // No lane picks up another call.
+        mNext.set(mResults.length);
+
+        InvocationResult[] snapshot = mResults.clone();
+        for (int i = 0; i < snapshot.length; ++i) {
+            if (snapshot[i] == null)
+                snapshot[i] = InvocationResult.cancelled(i);
+        }
+        return finish(Arrays.asList(snapshot));
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return mCancelled && isDone();
+    }
+
+    @Override
+    public boolean isDone() {
+        return mDone.getCount() == 0;
+    }
+
+    @Override
+    public List<InvocationResult> get() throws InterruptedException {
+        mDone.await();
+        return mPublished;
+    }
+
+    @Override
+    public List<InvocationResult> get(long timeout, TimeUnit unit)
+            throws InterruptedException, TimeoutException {
+        if (!mDone.await(timeout, unit))
+            throw new TimeoutException("Batch of " + mMethod.getName() + " not done after " + timeout + " " + unit);
+        return mPublished;
+    }
+
+    /**
+     * Publishes the results and notifies everyone waiting for this batch.
+     * Only the first call has any effect.
+     *
+     * @param results Result of every call
+     * @return true if the results were published, false if the batch was already done
+     */
+    private boolean finish(List<InvocationResult> results) {
+        if (!mFinished.compareAndSet(false, true)) return false;
+        mPublished = Collections.unmodifiableList(results);
+        mDone.countDown();
+        if (mCallback == null) return true;
+
+        final List<InvocationResult> published = mPublished;
+        mInvoker.getCallbackExecutor().execute(new Runnable() {
+
+            @Override
+            public void run() {
+                mCallback.onSuccess(published);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * One in flight slot of the window.
+     */
+    private class Lane implements Runnable {
+
+        @Override
+        public void run() {
+            int first;
+            while ((first = mNext.getAndAdd(mChunk)) < mResults.length) {
+                int end = Math.min(first + mChunk, mResults.length);
+                if (mCancelled) {
+                    for (int i = first; i < end; ++i)
+                        mResults[i] = InvocationResult.cancelled(i);
+                } else if (end - first == 1) {
+                    callOne(first);
+                } else {
+                    callAll(first, end);
+                }
+
+                // The last call to finish publishes the batch, unless it was cancelled.
+                if (mCompleted.addAndGet(end - first) == mResults.length)
+                    finish(Arrays.asList(mResults));
+            }
+        }
+
+        private void callOne(int index) {
+            long start = System.nanoTime();
+            try {
+                Argument<?> output = mCaller.call(mCalls.get(index));
+                mResults[index] = InvocationResult.success(index, output, System.nanoTime() - start);
+            } catch (Exception e) {
+                mResults[index] = InvocationResult.failure(index, e, System.nanoTime() - start);
+            }
+        }
+
+        /**
+         * Makes the calls in [first, end) with a single native call.
+         */
+        private void callAll(int first, int end) {
+            Object[][] argSets = new Object[end - first][];
+            for (int i = first; i < end; ++i)
+                argSets[i - first] = mCalls.get(i);
+
+            long start = System.nanoTime();
+            Object[] outputs = null;
+            Exception error = null;
+            try {
+                outputs = mCaller.callAll(argSets);
+            } catch (Exception e) {
+                error = e;
+            }
+            long latency = (System.nanoTime() - start) / argSets.length;
+
+            for (int i = first; i < end; ++i) {
+                Object output = outputs == null ? error : outputs[i - first];
+                if (output instanceof Throwable) {
+                    mResults[i] = InvocationResult.failure(i, (Throwable) output, latency);
+                } else {
+                    mResults[i] = InvocationResult.success(i, (Argument<?>) output, latency);
+                }
+            }
+        }
+    }
+}
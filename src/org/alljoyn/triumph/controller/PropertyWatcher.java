@@ -0,0 +1,488 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.alljoyn.bus.Variant;
+import org.alljoyn.triumph.MainApplication;
+import org.alljoyn.triumph.model.components.Interface;
+import org.alljoyn.triumph.model.components.Property;
+import org.alljoyn.triumph.model.components.SignalHandlerManager.PropertiesChangedListener;
+import org.alljoyn.triumph.model.components.arguments.Argument;
+import org.alljoyn.triumph.model.components.arguments.ArgumentFactory;
+
+/**
+ * Keeps watched properties current in the background and reports values that changed.
+ * <p>
+ * The properties of an interface are read together with a single GetAll.  The
+ * interval between reads adapts to the device: it is reset to the shortest interval
+ * when a value changed and doubles up to the longest interval while nothing
+ * changes or reads fail.  While an object announces its changes with PropertiesChanged
+ * the announced values are used directly and polling falls back to the longest interval.
+ * Once no announcement arrived for two of the longest intervals the reads adapt again.
+ * Announcements are only accepted from the unique name that owns the watched endpoint,
+ * which is looked up on the watcher thread before the first read.
+ * <p>
+ * Listeners are only notified when a value differs from the last value reported.
+ * A listener that starts watching a property that was already read is sent the
+ * last value right away.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class PropertyWatcher implements Destroyable, PropertiesChangedListener {
+
+    /**
+     * Listener for changes of a watched property.
+     */
+    public interface WatchListener {
+
+        /**
+         * Called on the callback executor when the value of the property changed.
+         *
+         * @param property Property that changed
+         * @param value New value of the property
+         */
+        public void onPropertyChanged(Property property, Argument<?> value);
+    }
+
+    /**
+     * Reads all the properties of an interface.  Called on the watcher thread.
+     */
+    public interface Reader {
+
+        /**
+         * @param iface Interface to read
+         * @return Values of every readable property
+         * @throws Exception Unable to read the properties
+         */
+        public Map<Property, Argument<?>> read(Interface iface) throws Exception;
+
+        /**
+         * @param busName Well known name of an endpoint
+         * @return Unique name of the current owner of the name
+         * @throws Exception Unable to look up the owner
+         */
+        public String getUniqueName(String busName) throws Exception;
+    }
+
+    /**
+     * Default shortest interval between reads of an interface.
+     */
+    public static final long MIN_POLL_MILLIS = 250;
+
+    /**
+     * Default longest interval between reads of an interface.
+     */
+    public static final long MAX_POLL_MILLIS = 8000;
+
+    private final Reader mReader;
+
+    private final long mMinPollMillis, mMaxPollMillis;
+
+    private final Executor mCallbackExecutor;
+
+    private final ScheduledExecutorService mScheduler;
+
+    /**
+     * Interfaces with at least one watched property.  Guarded by this.
+     */
+    private final Map<Interface, WatchedInterface> mWatched;
+
+    /**
+     * Creates a watcher without any watched properties that polls between
+     * {@link #MIN_POLL_MILLIS} and {@link #MAX_POLL_MILLIS}.
+     *
+     * @param reader Reads the properties of an interface
+     * @param callbackExecutor Executor to notify listeners on
+     */
+    public PropertyWatcher(Reader reader, Executor callbackExecutor) {
+        this(reader, callbackExecutor, MIN_POLL_MILLIS, MAX_POLL_MILLIS);
+    }
+
+    /**
+     * Creates a watcher without any watched properties.
+     *
+     * @param reader Reads the properties of an interface
+     * @param callbackExecutor Executor to notify listeners on
+     * @param minPollMillis Shortest interval between reads of an interface
+     * @param maxPollMillis Longest interval between reads of an interface
+     */
+    public PropertyWatcher(Reader reader, Executor callbackExecutor, long minPollMillis, long maxPollMillis) {
+        if (reader == null || callbackExecutor == null)
+            throw new NullPointerException(getClass().getSimpleName() + "<init>, Null reader or callback executor");
+        if (minPollMillis < 1 || maxPollMillis < minPollMillis)
+            throw new IllegalArgumentException(getClass().getSimpleName()
+                    + "<init>, Illegal poll intervals " + minPollMillis + " " + maxPollMillis);
+        mReader = reader;
+        mCallbackExecutor = callbackExecutor;
+        mMinPollMillis = minPollMillis;
+        mMaxPollMillis = maxPollMillis;
+        mWatched = new HashMap<Interface, WatchedInterface>();
+        mScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "TriumphPropertyWatcher");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    /**
+     * Starts watching a property.
+     *
+     * @param property Property to watch
+     * @param listener Listener to notify of changes
+     */
+    public synchronized void watch(Property property, WatchListener listener) {
+        Interface iface = property.getInterface();
+        WatchedInterface watched = mWatched.get(iface);
+        if (watched == null) {
+            watched = new WatchedInterface(iface);
+            mWatched.put(iface, watched);
+            watched.schedule(0);
+            watched.addListener(property, listener);
+        } else {
+            watched.addListener(property, listener);
+            watched.sendLastValue(property, listener);
+        }
+    }
+
+    /**
+     * Stops notifying the listener of changes of a property.
+     *
+     * @param property Property to stop watching
+     * @param listener Listener to remove
+     */
+    public synchronized void unwatch(Property property, WatchListener listener) {
+        Interface iface = property.getInterface();
+        WatchedInterface watched = mWatched.get(iface);
+        if (watched == null) return;
+        watched.removeListener(property, listener);
+        if (watched.isEmpty()) {
+            watched.cancel();
+            mWatched.remove(iface);
+        }
+    }
+
+    /**
+     * Stops watching every property of the endpoints.
+     *
+     * @param names Names of the endpoints that were lost
+     */
+    public synchronized void unwatchEndPoints(Collection<String> names) {
+        Iterator<WatchedInterface> iter = mWatched.values().iterator();
+        while (iter.hasNext()) {
+            WatchedInterface watched = iter.next();
+            if (names.contains(watched.mIface.getObject().getOwner().getName())) {
+                watched.cancel();
+                iter.remove();
+            }
+        }
+    }
+
+    /**
+     * @param property Property to check
+     * @return Whether the property is watched by any listener
+     */
+    public synchronized boolean isWatched(Property property) {
+        WatchedInterface watched = mWatched.get(property.getInterface());
+        return watched != null && watched.mListeners.containsKey(property);
+    }
+
+    @Override
+    public void onPropertiesChanged(String sender, String objectPath, String ifaceName,
+            Map<String, Variant> changed, String[] invalidated) {
+        List<WatchedInterface> targets = new ArrayList<WatchedInterface>();
+        synchronized (this) {
+            for (WatchedInterface watched: mWatched.values()) {
+                if (watched.mIface.getName().equals(ifaceName)
+                        && watched.mIface.getObject().getName().equals(objectPath)
+                        && watched.isSentBy(sender))
+                    targets.add(watched);
+            }
+        }
+        for (WatchedInterface watched: targets)
+            watched.onAnnounced(changed, invalidated);
+    }
+
+    @Override
+    public void destroy() {
+        mScheduler.shutdownNow();
+    }
+
+    /**
+     * Watch state of a single interface.  The values and the interval are only
+     * touched on the watcher thread.
+     */
+    private class WatchedInterface implements Runnable {
+
+        private final Interface mIface;
+
+        /**
+         * Listeners by property.  Guarded by the watcher.
+         */
+        private final Map<Property, List<WatchListener>> mListeners;
+
+        /**
+         * Last value reported of every property.
+         */
+        private final Map<Property, Argument<?>> mLastValues;
+
+        private long mIntervalMillis;
+
+        /**
+         * When the last announcement of the object arrived, 0 if it never announced anything.
+         */
+        private long mAnnouncedNanos;
+
+        /**
+         * Unique name of the owner of the endpoint, null until it is looked up.
+         */
+        private volatile String mSender;
+
+        private volatile boolean mCancelled;
+
+        private ScheduledFuture<?> mNext;
+
+        WatchedInterface(Interface iface) {
+            mIface = iface;
+            mListeners = new HashMap<Property, List<WatchListener>>();
+            mLastValues = new HashMap<Property, Argument<?>>();
+            mIntervalMillis = mMinPollMillis;
+        }
+
+        void addListener(Property property, WatchListener listener) {
+            List<WatchListener> listeners = mListeners.get(property);
+            if (listeners == null) {
+                listeners = new ArrayList<WatchListener>(1);
+                mListeners.put(property, listeners);
+            }
+            listeners.add(listener);
+        }
+
+        void removeListener(Property property, WatchListener listener) {
+            List<WatchListener> listeners = mListeners.get(property);
+            if (listeners == null) return;
+            listeners.remove(listener);
+            if (listeners.isEmpty())
+                mListeners.remove(property);
+        }
+
+        boolean isEmpty() {
+            return mListeners.isEmpty();
+        }
+
+        /**
+         * @param sender Unique name that sent a signal
+         * @return Whether the signal was sent by the owner of the watched endpoint
+         */
+        boolean isSentBy(String sender) {
+            if (sender == null) return false;
+            return sender.equals(mSender) 
+                    || sender.equals(mIface.getObject().getOwner().getName());
+        }
+
+        /**
+         * Looks up the unique name of the owner of the endpoint.
+         */
+        private void resolveSender() {
+            String name = mIface.getObject().getOwner().getName();
+            if (name.startsWith(":")) {
+                mSender = name;
+                return;
+            }
+            try {
+                mSender = mReader.getUniqueName(name);
+            } catch (Exception e) {
+                MainApplication.getLogger().fine("Unable to look up the owner of " + name + " " + e);
+            }
+        }
+
+        synchronized void cancel() {
+            mCancelled = true;
+            if (mNext != null)
+                mNext.cancel(false);
+        }
+
+        /**
+         * Schedules the next read of the interface.
+         */
+        synchronized void schedule(long delayMillis) {
+            if (mCancelled) return;
+            if (mNext != null)
+                mNext.cancel(false);
+            try {
+                mNext = mScheduler.schedule(this, delayMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // The watcher was destroyed.
+            }
+        }
+
+        /**
+         * Reads all the properties of the interface.
+         */
+        @Override
+        public void run() {
+            if (mCancelled) return;
+            if (mSender == null)
+                resolveSender();
+            boolean changed = false;
+            try {
+                changed = update(mReader.read(mIface));
+            } catch (Exception e) {
+                MainApplication.getLogger().fine("Unable to read properties of " + mIface.getName() + " " + e);
+            }
+
+            if (isAnnouncing()) {
+                mIntervalMillis = mMaxPollMillis;
+            } else if (changed) {
+                mIntervalMillis = mMinPollMillis;
+            } else {
+                mIntervalMillis = Math.min(mMaxPollMillis, mIntervalMillis * 2);
+            }
+            schedule(mIntervalMillis);
+        }
+
+        /**
+         * @return Whether the object announced a change within the last two longest intervals
+         */
+        private boolean isAnnouncing() {
+            return mAnnouncedNanos != 0 
+                    && System.nanoTime() - mAnnouncedNanos < TimeUnit.MILLISECONDS.toNanos(2 * mMaxPollMillis);
+        }
+
+        /**
+         * Sends the last value of a property to a listener that just started watching it.
+         * Nothing is sent if the property was not read yet, the first read reports it.
+         */
+        void sendLastValue(final Property property, final WatchListener listener) {
+            try {
+                mScheduler.execute(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        if (mCancelled) return;
+                        final Argument<?> value = mLastValues.get(property);
+                        if (value == null) return;
+                        synchronized (PropertyWatcher.this) {
+                            List<WatchListener> listeners = mListeners.get(property);
+                            if (listeners == null || !listeners.contains(listener)) return;
+                        }
+                        mCallbackExecutor.execute(new Runnable() {
+
+                            @Override
+                            public void run() {
+                                listener.onPropertyChanged(property, value);
+                            }
+                        });
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // The watcher was destroyed.
+            }
+        }
+
+        /**
+         * Hands values announced by the object to the watcher thread.
+         */
+        void onAnnounced(final Map<String, Variant> changed, final String[] invalidated) {
+            try {
+                mScheduler.execute(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        if (mCancelled) return;
+                        mAnnouncedNanos = System.nanoTime();
+
+                        Map<Property, Argument<?>> values = new LinkedHashMap<Property, Argument<?>>();
+                        for (Map.Entry<String, Variant> entry: changed.entrySet()) {
+                            Property property = mIface.getProperty(entry.getKey());
+                            if (property == null) continue;
+                            try {
+                                values.put(property, ArgumentFactory.getArgument(property.getName(),
+                                        property.getSignature(), entry.getValue().getObject(Object.class)));
+                            } catch (Exception e) {
+                                MainApplication.getLogger().fine("Unable to unmarshal " + entry.getKey() + " " + e);
+                            }
+                        }
+                        update(values);
+
+                        // Properties that changed without a value are read right away.
+                        if (invalidated.length > 0)
+                            schedule(0);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // The watcher was destroyed.
+            }
+        }
+
+        /**
+         * Reports every value that differs from the last value reported.
+         *
+         * @return Whether any value changed
+         */
+        private boolean update(Map<Property, Argument<?>> values) {
+            boolean changed = false;
+            for (Map.Entry<Property, Argument<?>> entry: values.entrySet()) {
+                Property property = entry.getKey();
+                Object value = entry.getValue().getValue();
+                Argument<?> last = mLastValues.get(property);
+                if (last != null && Arrays.deepEquals(new Object[] {last.getValue()}, new Object[] {value}))
+                    continue;
+                mLastValues.put(property, entry.getValue());
+                changed = true;
+                notifyListeners(property, entry.getValue());
+            }
+            return changed;
+        }
+
+        private void notifyListeners(final Property property, final Argument<?> value) {
+            final List<WatchListener> listeners;
+            synchronized (PropertyWatcher.this) {
+                List<WatchListener> current = mListeners.get(property);
+                if (current == null) return;
+                listeners = new ArrayList<WatchListener>(current);
+            }
+            mCallbackExecutor.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    for (WatchListener listener: listeners)
+                        listener.onPropertyChanged(property, value);
+                }
+            });
+        }
+    }
+}
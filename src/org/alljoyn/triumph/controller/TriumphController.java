@@ -16,39 +16,55 @@
 
 package org.alljoyn.triumph.controller;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
-import javafx.event.ActionEvent;
-import javafx.event.EventHandler;
-import javafx.util.Duration;
+import javafx.animation.AnimationTimer;
 
 import org.alljoyn.bus.BusAttachment;
 import org.alljoyn.bus.BusAttachment.RemoteMessage;
 import org.alljoyn.bus.BusException;
 import org.alljoyn.bus.BusObject;
 import org.alljoyn.bus.ProxyBusObject;
-import org.alljoyn.bus.SignalEmitter;
-import org.alljoyn.bus.SignalEmitter.GlobalBroadcast;
 import org.alljoyn.bus.Status;
+import org.alljoyn.bus.Variant;
+import org.alljoyn.bus.ifaces.Properties;
 import org.alljoyn.triumph.MainApplication;
 import org.alljoyn.triumph.TriumphCPPAdapter;
 import org.alljoyn.triumph.TriumphException;
-import org.alljoyn.triumph.controller.BusObserver.BusObserverListener;
+import org.alljoyn.triumph.controller.DiscoveryCore.DiscoveryListener;
+import org.alljoyn.triumph.controller.capture.CaptureMember;
+import org.alljoyn.triumph.controller.capture.CaptureReader;
+import org.alljoyn.triumph.controller.capture.CaptureWriter;
+import org.alljoyn.triumph.controller.flow.SignalStream;
+import org.alljoyn.triumph.controller.flow.SignalStreams;
+import org.alljoyn.triumph.controller.load.LoadGenerator;
+import org.alljoyn.triumph.controller.load.LoadOperation;
+import org.alljoyn.triumph.controller.load.SignalBurst;
+import org.alljoyn.triumph.controller.load.SignalReplay;
+import org.alljoyn.triumph.controller.metrics.MemberMetrics;
+import org.alljoyn.triumph.controller.metrics.MetricsRegistry;
 import org.alljoyn.triumph.controller.session.Session;
 import org.alljoyn.triumph.controller.session.SessionManager;
-import org.alljoyn.triumph.model.SessionPortStorage;
 import org.alljoyn.triumph.model.TransactionLogger;
 import org.alljoyn.triumph.model.components.AJObject;
 import org.alljoyn.triumph.model.components.EndPoint;
-import org.alljoyn.triumph.model.components.EndPoint.SERVICE_TYPE;
 import org.alljoyn.triumph.model.components.Interface;
 import org.alljoyn.triumph.model.components.Method;
 import org.alljoyn.triumph.model.components.Property;
@@ -58,6 +74,8 @@ import org.alljoyn.triumph.model.components.SignalHandler.SignalListener;
 import org.alljoyn.triumph.model.components.SignalHandlerManager;
 import org.alljoyn.triumph.model.components.arguments.Argument;
 import org.alljoyn.triumph.model.components.arguments.ArgumentFactory;
+import org.alljoyn.triumph.util.Filterable;
+import org.alljoyn.triumph.util.MpscRingBuffer;
 import org.alljoyn.triumph.view.TriumphViewable;
 
 /**
@@ -76,15 +94,25 @@ import org.alljoyn.triumph.view.TriumphViewable;
  * 
  * @author Michael Hotan mhotan@quicinc.com
  */
-public class TriumphController implements BusObserverListener, SignalListener, Destroyable {
+public class TriumphController implements DiscoveryListener, SignalListener, Destroyable {
 
     private static final Logger LOG = MainApplication.getLogger();
 
     /**
-     * 1s for to update the view.
+     * Number of received signals that can wait to be shown before new ones are dropped.
      */
-    private static final int PERIOD = 1; 
+    private static final int SIGNAL_BUFFER_CAPACITY = 8192;
+
+    /**
+     * Maximum number of received signals shown per JavaFX pulse.
+     */
+    private static final int MAX_SIGNALS_PER_PULSE = 256;
     
+    /**
+     * Default number of calls a batch keeps in flight.
+     */
+    public static final int DEFAULT_BATCH_WINDOW = 4;
+
     /**
      * Application name to register for bus attachment
      */
@@ -114,14 +142,9 @@ public class TriumphController implements BusObserverListener, SignalListener, D
     private final List<TriumphViewable> mViewables;
 
     /**
-     * All locally available Service.
+     * Discovers the endpoints and manages the sessions, independent of JavaFX.
      */
-    private final Set<EndPoint> mDistributedServices, mLocalServices;
-
-    /**
-     * Bus observer
-     */
-    private final BusObserver mBusObserver;
+    private final DiscoveryCore mDiscovery;
 
     /**
      * Manages independent calls to 
@@ -144,10 +167,55 @@ public class TriumphController implements BusObserverListener, SignalListener, D
     private final SignalHandlerManager mSignalHandlerManager;
     
     /**
-     * 
+     * Shows received signals on the JavaFX thread.
      */
     private final RecievedSignalBroadcaster mSignalBroadcaster;
 
+    /**
+     * Runs bus calls off of the JavaFX thread.
+     */
+    private final AsyncInvoker mInvoker;
+
+    /**
+     * Resolved method calls, reused until their session is lost.
+     */
+    private final Map<Method, InvocationHandle> mHandles;
+
+    /**
+     * Resolved signal emissions, reused until their session is lost.
+     */
+    private final Map<Signal, EmitterHandle> mEmitters, mSessionlessEmitters;
+
+    /**
+     * Metrics of the reads and writes of every property, resolved once per property.
+     */
+    private final Map<Property, MemberMetrics> mGetMetrics, mSetMetrics;
+
+    /**
+     * Metrics of the GetAll of every interface, resolved once per interface.
+     */
+    private final Map<Interface, MemberMetrics> mGetAllMetrics;
+
+    /**
+     * Keeps watched properties current.
+     */
+    private final PropertyWatcher mPropertyWatcher;
+
+    /**
+     * Latency and outcome of every operation on a member, exposed over JMX.
+     */
+    private final MetricsRegistry mMetrics;
+
+    /**
+     * Capture received signals are written to, null when not capturing.
+     */
+    private volatile CaptureWriter mCapture;
+
+    /**
+     * Streams of received signals for consumers off the FX thread.
+     */
+    private final SignalStreams mSignalStreams;
+
     /**
      * Returns an instance of the model. 
      * 
@@ -166,11 +234,6 @@ public class TriumphController implements BusObserverListener, SignalListener, D
      * Creates and initialize a model for 
      */
     private TriumphController() {
-        // Instantiate members for tracking variables
-        // Set to track the name for all the services
-        mDistributedServices = new HashSet<EndPoint>();
-        mLocalServices = new HashSet<EndPoint>();
-
         // Destroyable list
         mDestroyables = new ArrayList<Destroyable>();
         mViewables = new ArrayList<TriumphViewable>();
@@ -185,20 +248,48 @@ public class TriumphController implements BusObserverListener, SignalListener, D
             throw new IllegalStateException("Unable to register signal Emitter " + objectPath);
         }
 
-        mBusObserver = new BusObserver(mBus, this, true);
-        mSessionManager = new SessionManager(mBus, this);
+        mMetrics = new MetricsRegistry();
+        // Discovery runs in the background, changes are shown on the JavaFX thread.
+        mDiscovery = new DiscoveryCore(mBus, this, null, FXThreadExecutor.getInstance(), mMetrics);
+        mSessionManager = mDiscovery.getSessionManager();
         mSignalHandlerManager = new SignalHandlerManager(mBus);
         mSignalHandlerManager.setListener(this);
+        mInvoker = new AsyncInvoker(FXThreadExecutor.getInstance());
+        mHandles = new ConcurrentHashMap<Method, InvocationHandle>();
+        mEmitters = new ConcurrentHashMap<Signal, EmitterHandle>();
+        mSessionlessEmitters = new ConcurrentHashMap<Signal, EmitterHandle>();
+        mGetMetrics = new ConcurrentHashMap<Property, MemberMetrics>();
+        mSetMetrics = new ConcurrentHashMap<Property, MemberMetrics>();
+        mGetAllMetrics = new ConcurrentHashMap<Interface, MemberMetrics>();
+        mPropertyWatcher = new PropertyWatcher(new PropertyWatcher.Reader() {
+
+            @Override
+            public Map<Property, Argument<?>> read(Interface iface) throws Exception {
+                return readAllProperties(iface);
+            }
+
+            @Override
+            public String getUniqueName(String busName) throws Exception {
+                return mBus.getDBusProxyObj().GetNameOwner(busName);
+            }
+        }, FXThreadExecutor.getInstance());
+        // Without PropertiesChanged the watcher keeps polling.
+        status = mSignalHandlerManager.addPropertiesChangedListener(mPropertyWatcher);
+        if (status != Status.OK)
+            LOG.warning("Unable to listen for PropertiesChanged, watched properties are polled. Status: " + status);
         // TODO Add more Components
 
-        mDestroyables.add(mBusObserver);
-        mDestroyables.add(mSessionManager);
+        mDestroyables.add(mInvoker);
+        mDestroyables.add(mDiscovery);
         mDestroyables.add(mSignalHandlerManager);
+        mDestroyables.add(mPropertyWatcher);
+        mDestroyables.add(mMetrics);
+
+        mSignalStreams = new SignalStreams();
+        mDestroyables.add(mSignalStreams);
         
         mSignalBroadcaster = new RecievedSignalBroadcaster();
-        Timeline timeline = new Timeline(new KeyFrame(Duration.seconds(PERIOD), mSignalBroadcaster));
-        timeline.setCycleCount(Timeline.INDEFINITE);
-        timeline.play();
+        mSignalBroadcaster.start();
     }
 
     /**
@@ -219,6 +310,8 @@ public class TriumphController implements BusObserverListener, SignalListener, D
 
     @Override
     public void destroy() {
+        mSignalBroadcaster.stop();
+        stopCapture();
         for (Destroyable d: mDestroyables) 
             d.destroy();
     }
@@ -227,15 +320,20 @@ public class TriumphController implements BusObserverListener, SignalListener, D
     /* 	Getters													 */	  
     /* ********************************************************* */
 
-    public synchronized List<EndPoint> getDistributedServices() {
-        List<EndPoint> services = new ArrayList<EndPoint>(mDistributedServices);
-        return services;
+    public List<EndPoint> getDistributedServices() {
+        return mDiscovery.getDistributedServices();
+    }
+
+    public List<EndPoint> getLocalServices() {
+        return mDiscovery.getLocalServices();
     }
 
-    public synchronized List<EndPoint> getLocalServices() {
-        // Extract all the names of the local services
-        List<EndPoint> services = new ArrayList<EndPoint>(mLocalServices);
-        return services;
+    /**
+     * @param name Name of the service
+     * @return The distributed service with this name, else the local one, null if there is none
+     */
+    public EndPoint getService(String name) {
+        return mDiscovery.getService(name);
     }
 
     /**
@@ -245,7 +343,7 @@ public class TriumphController implements BusObserverListener, SignalListener, D
      * @param string 
      */
     public void sync() {
-        mBusObserver.sync();
+        mDiscovery.sync();
         //TODO Add more components
     }
 
@@ -254,44 +352,31 @@ public class TriumphController implements BusObserverListener, SignalListener, D
     /* ********************************************************* */
 
     @Override
-    public void onDistributedNameFound(Collection<String> names) {
-        for (String name : names) {
-            EndPoint ep = new EndPoint(name, SERVICE_TYPE.REMOTE);
-            if (!mDistributedServices.contains(ep))
-                mDistributedServices.add(ep);
-        }
-        broadcastUpdate();
-    }
-
-    @Override
-    public void onLocalNameFound(Collection<String> names) {
-        for (String name: names) {
-            EndPoint ep = new EndPoint(name, SERVICE_TYPE.LOCAL);
-            if (!mLocalServices.contains(ep))
-                mLocalServices.add(ep);
+    public void onEndPointChanges(List<EndPointChange> changes) {
+        Set<String> names = new HashSet<String>();
+        for (EndPointChange change: changes) {
+            if (change.getType() == EndPointChange.TYPE.REMOVED)
+                names.add(change.getEndPoint().getName());
         }
-        broadcastUpdate();
-    }
-
-    @Override
-    public void onNameLost(Collection<String> names) {
-        // Remove all the endpoints that have the same name
-        Collection<EndPoint> toRemove = new HashSet<EndPoint>();
-        for (EndPoint ep : mDistributedServices) {
-            if (names.contains(ep.getName()))
-                toRemove.add(ep);
-        }
-        mDistributedServices.removeAll(toRemove);
-        toRemove.clear();
-        
-        // Remove all the Endpoints that have the same name
-        for (EndPoint ep : mLocalServices) {
-            if (names.contains(ep.getName()))
-                toRemove.add(ep);
+        if (!names.isEmpty()) {
+            // Drop the handles of methods that belonged to a lost endpoint.
+            Iterator<InvocationHandle> iter = mHandles.values().iterator();
+            while (iter.hasNext()) {
+                InvocationHandle handle = iter.next();
+                if (names.contains(handle.getMethod().getInterface().getObject().getOwner().getName())) {
+                    handle.invalidate();
+                    iter.remove();
+                }
+            }
+            removeEmitters(mEmitters, names);
+            removeEmitters(mSessionlessEmitters, names);
+            removePropertyMetrics(mGetMetrics, names);
+            removePropertyMetrics(mSetMetrics, names);
+            removeInterfaceMetrics(mGetAllMetrics, names);
+            mPropertyWatcher.unwatchEndPoints(names);
         }
-        mLocalServices.removeAll(toRemove);
         
-        broadcastUpdate();
+        broadcastEndPointChanges(changes);
     }
 
     /**
@@ -301,14 +386,7 @@ public class TriumphController implements BusObserverListener, SignalListener, D
      * @return true on success, false otherwise
      */
     public boolean buildService(EndPoint service) {
-        Session session = mSessionManager.getSession(service);
-        if (session != null) {
-            return service.build(session);
-        } 
-        session = mSessionManager.createNewSession(service, SessionPortStorage.getPort(service.getName()));
-        assert service.equals(session.getEndPoint()): "Session EndPoint equality";
-        if (session == null) return false;
-        return service.build(session);
+        return mDiscovery.buildService(service);
     }
 
     /**
@@ -336,7 +414,169 @@ public class TriumphController implements BusObserverListener, SignalListener, D
      * @throws BusException Error
      */
     public Argument<?> onMethodInvoked(Method method, Argument<?>[] arguments) throws BusException {
+        Argument<?> outArg = invokeMethod(method, getInputValues(method, arguments));
+
+        // Log the transaction
+        TransactionLogger.getInstance().logMethodInvocation(method, arguments, outArg);
+        return outArg;
+    }
 
+    /**
+     * Calls remote method for this specific method instance without blocking the
+     * calling thread.  The call is made on a worker thread of a bounded pool.  The 
+     * callback is notified and the transaction is logged on the JavaFX thread.
+     * 
+     * @param method Method to invoke
+     * @param arguments indexed argument list
+     * @param callback Callback to notify with the unmarshaled result, or null
+     * @return Future that represents the pending unmarshaled result
+     * @throws java.util.concurrent.RejectedExecutionException Too many calls are pending
+     */
+    public Future<Argument<?>> onMethodInvokedAsync(Method method, List<Argument<?>> arguments, 
+            InvocationCallback<Argument<?>> callback) {
+        return onMethodInvokedAsync(method, arguments, callback, Deadline.NONE);
+    }
+
+    /**
+     * Calls remote method for this specific method instance without blocking the
+     * calling thread.  The call fails with a {@link java.util.concurrent.TimeoutException}
+     * if it does not return before the deadline.
+     * 
+     * @param method Method to invoke
+     * @param arguments indexed argument list
+     * @param callback Callback to notify with the unmarshaled result, or null
+     * @param deadline Deadline of the call
+     * @return Future that represents the pending unmarshaled result, cancel it to abandon the call
+     * @throws java.util.concurrent.RejectedExecutionException Too many calls are pending
+     */
+    public Future<Argument<?>> onMethodInvokedAsync(Method method, List<Argument<?>> arguments, 
+            InvocationCallback<Argument<?>> callback, Deadline deadline) {
+        Argument<?>[] args = new Argument<?>[arguments.size()];
+        for (int i = 0; i < args.length; ++i) {
+            args[i] = arguments.get(i);
+        }
+        return onMethodInvokedAsync(method, args, callback, deadline);
+    }
+
+    /**
+     * Calls remote method for this specific method instance without blocking the
+     * calling thread.  The call is made on a worker thread of a bounded pool.  The 
+     * callback is notified and the transaction is logged on the JavaFX thread.
+     * 
+     * @param method Method to invoke.
+     * @param arguments Array of arguments the correlate to method input arguments
+     * @param callback Callback to notify with the unmarshaled result, or null
+     * @return Future that represents the pending unmarshaled result
+     * @throws java.util.concurrent.RejectedExecutionException Too many calls are pending
+     */
+    public Future<Argument<?>> onMethodInvokedAsync(Method method, Argument<?>[] arguments, 
+            InvocationCallback<Argument<?>> callback) {
+        return onMethodInvokedAsync(method, arguments, callback, Deadline.NONE);
+    }
+
+    /**
+     * Calls remote method for this specific method instance without blocking the
+     * calling thread.  The time left until the deadline is used as the reply timeout
+     * of the call.  The call fails with a {@link java.util.concurrent.TimeoutException}
+     * if it does not return before the deadline.
+     * 
+     * @param method Method to invoke.
+     * @param arguments Array of arguments the correlate to method input arguments
+     * @param callback Callback to notify with the unmarshaled result, or null
+     * @param deadline Deadline of the call
+     * @return Future that represents the pending unmarshaled result, cancel it to abandon the call
+     * @throws java.util.concurrent.RejectedExecutionException Too many calls are pending
+     */
+    public Future<Argument<?>> onMethodInvokedAsync(final Method method, final Argument<?>[] arguments, 
+            final InvocationCallback<Argument<?>> callback, final Deadline deadline) {
+        // Capture the values now, the view is free to change the arguments
+        // while the call is pending.
+        final Object[] values = getInputValues(method, arguments);
+        return mInvoker.submit(new Callable<Argument<?>>() {
+
+            @Override
+            public Argument<?> call() throws Exception {
+                return getInvocationHandle(method).invoke(values, deadline);
+            }
+        }, new InvocationCallback<Argument<?>>() {
+
+            @Override
+            public void onSuccess(Argument<?> result) {
+                TransactionLogger.getInstance().logMethodInvocation(method, arguments, result);
+                if (callback != null)
+                    callback.onSuccess(result);
+            }
+
+            @Override
+            public void onFailure(Throwable error) {
+                if (callback != null)
+                    callback.onFailure(error);
+            }
+        }, deadline);
+    }
+
+    /**
+     * Calls the remote method once for every tuple of arguments, keeping up to
+     * window calls in flight through the same {@link InvocationHandle}.  Results
+     * are reported in the order of the tuples with a status for each call.  Every
+     * successful call is logged once the whole batch is done.
+     * 
+     * @param method Method to invoke
+     * @param argumentTuples Input arguments of each call
+     * @param window Maximum number of calls in flight, see {@link #DEFAULT_BATCH_WINDOW}
+     * @param callback Callback to notify on the JavaFX thread once every call finished, or null
+     * @return The running batch
+     * @throws java.util.concurrent.RejectedExecutionException Too many calls are pending
+     */
+    public MethodBatch onMethodInvokedBatch(final Method method, final List<Argument<?>[]> argumentTuples, 
+            int window, final InvocationCallback<List<InvocationResult>> callback) {
+        List<Object[]> values = new ArrayList<Object[]>(argumentTuples.size());
+        for (Argument<?>[] arguments: argumentTuples) 
+            values.add(getInputValues(method, arguments));
+
+        MethodBatch batch = new MethodBatch(method, values, window, new MethodBatch.Caller() {
+
+            @Override
+            public Argument<?> call(Object[] args) throws Exception {
+                return invokeMethod(method, args);
+            }
+
+            @Override
+            public Object[] callAll(Object[][] argSets) throws Exception {
+                return getInvocationHandle(method).invokeAll(argSets);
+            }
+        }, new InvocationCallback<List<InvocationResult>>() {
+
+            @Override
+            public void onSuccess(List<InvocationResult> results) {
+                for (InvocationResult result: results) {
+                    if (result.isSuccess()) 
+                        TransactionLogger.getInstance().logMethodInvocation(
+                                method, argumentTuples.get(result.getIndex()), result.getResult());
+                }
+                if (callback != null)
+                    callback.onSuccess(results);
+            }
+
+            @Override
+            public void onFailure(Throwable error) {
+                if (callback != null)
+                    callback.onFailure(error);
+            }
+        });
+        batch.start(mInvoker);
+        return batch;
+    }
+
+    /**
+     * Extracts all the values of the arguments in a sequential Object array 
+     * that conforms to the ProxyBusObject callMethod function.
+     * 
+     * @param method Method the arguments are for
+     * @param arguments Array of arguments the correlate to method input arguments
+     * @return Values of the arguments
+     */
+    private static Object[] getInputValues(Method method, Argument<?>[] arguments) {
         // Make sure that the number of input arguments
         // match the number of arguments we have
         int numInputArgs = method.getInputArguments().size();
@@ -344,41 +584,49 @@ public class TriumphController implements BusObserverListener, SignalListener, D
             throw new RuntimeException("Number of input arguments do not match");
         }
 
-        // Extract the chain of all the objects, interface, and services.
-        Interface iface = method.getInterface();
-        AJObject object = iface.getObject();
-        EndPoint service = object.getOwner();
-
-        // Get the ProxyBusObject to invoke the method.
-        Session session = mSessionManager.getSession(service);
-        ProxyBusObject proxy = session.getProxy(object.getName());
-
-        // Extract all the values of the arguments 
-        // in a sequential Object array that conforms
-        // to the ProxyBusObject callMethod function.
         Object[] args = new Object[arguments.length];
         for (int i = 0; i < args.length; ++i) 
-            args[i] = arguments[i].getValue();		
+            args[i] = arguments[i].getValue();
+        return args;
+    }
 
-        String ifaceName = iface.getName();
-        String methodName = method.getName();
-        String inputSig = method.getInputSignature();	
-        Object output = TriumphCPPAdapter.callMethod(mBus, proxy, ifaceName, methodName, inputSig, args);
-        
-     // Try to decipher the output argument name
-        List<Argument<?>> outargs = method.getOutputArguments();
-        String name = "Output";
-        if (outargs.size() == 1) {
-            String tmp = outargs.get(0).getName();
-            name = tmp == null || tmp.isEmpty() ? name : tmp;
-        }
-        
-        // Unmarshal based on the method output argument signature.
-        Argument<?> outArg = ArgumentFactory.getArgument(name, method.getOutputSignature(), output);
-        
-        // Log the transaction
-        TransactionLogger.getInstance().logMethodInvocation(method, arguments, outArg);
-        return outArg;
+    /**
+     * Makes the actual remote method call.  Does not log the transaction
+     * so it is safe to call from any thread.
+     * 
+     * @param method Method to invoke.
+     * @param args Values of the input arguments of the method
+     * @return Unmarshaled result
+     * @throws BusException Error
+     */
+    private Argument<?> invokeMethod(Method method, Object[] args) throws BusException {
+        return getInvocationHandle(method).invoke(args);
+    }
+
+    /**
+     * Returns a handle to call the method through without resolving the session,
+     * proxy and signatures on every call.  Handles are cached per method and 
+     * resolved again once the session they were bound to is lost.
+     * 
+     * @param method Method to get handle for
+     * @return Valid invocation handle
+     * @throws BusException Unable to get a session with the owner of the method
+     */
+    public InvocationHandle getInvocationHandle(Method method) throws BusException {
+        InvocationHandle handle = mHandles.get(method);
+        if (handle != null && handle.isValid() && handle.getMethod() == method)
+            return handle;
+
+        // Extract the chain of all the objects, interface, and services.
+        EndPoint service = method.getInterface().getObject().getOwner();
+        Session session = mSessionManager.getSession(service);
+        if (session == null || !session.isConnected())
+            throw new BusException("Unable to get session with " + service.getName());
+
+        handle = new InvocationHandle(mBus, method, session, 
+                mMetrics.getMetrics(MetricsRegistry.OPERATION.CALL, method));
+        mHandles.put(method, handle);
+        return handle;
     }
 
     /**
@@ -404,7 +652,21 @@ public class TriumphController implements BusObserverListener, SignalListener, D
      * @param arguments Arguments of the Signal to emit
      */
     public void onEmitSignal(Signal signal, Argument<?>[] arguments, boolean sessionless) throws BusException {
+        emitSignal(signal, getOutputValues(signal, arguments), sessionless);
+
+        // Log the transaction
+        TransactionLogger.getInstance().logSignalEmition(signal, arguments);
+    }
 
+    /**
+     * Extracts all the values of the arguments of a signal in a sequential 
+     * Object array that conforms to the SignalEmitter signal function.
+     * 
+     * @param signal Signal the arguments are for
+     * @param arguments Arguments of the Signal to emit
+     * @return Values of the arguments
+     */
+    private static Object[] getOutputValues(Signal signal, Argument<?>[] arguments) {
         // Make sure that the number of input arguments
         // match the number of arguments we have
         int numInputArgs = signal.getOutputArguments().size();
@@ -412,41 +674,119 @@ public class TriumphController implements BusObserverListener, SignalListener, D
             throw new RuntimeException("Number of input arguments do not match");
         }
 
-        // Extract the chain of all the objects, interface, and services.
-        Interface iface = signal.getInterface();
-        AJObject object = iface.getObject();
-        EndPoint service = object.getOwner();
-
-        // Destination endpoint
-        String destination = service.getName();
-        String ifaceName = iface.getName();
-        String signalName = signal.getName();
-        String signature = signal.getOutputSignature();
-
-        // Get the ProxyBusObject to invoke the method.
-        Session session = mSessionManager.getSession(service);
-
-        // Extract all the values of the arguments 
-        // in a sequential Object array that conforms
-        // to the ProxyBusObject callMethod function.
         Object[] args = new Object[arguments.length];
         for (int i = 0; i < args.length; ++i) 
             args[i] = arguments[i].getValue();
+        return args;
+    }
+
+    /**
+     * Emits the signal.  Does not log the transaction so it is safe 
+     * to call from any thread.
+     * 
+     * @param signal Signal to emit
+     * @param args Values of the arguments of the signal
+     * @param sessionless Whether to send the signal sessionless
+     * @throws BusException Error occured
+     */
+    private void emitSignal(Signal signal, Object[] args, boolean sessionless) throws BusException {
+        getEmitterHandle(signal, sessionless).emit(args);
+    }
 
-        // create an emitter that is capable of launching a signal
-        SignalEmitter emitter;
-        if (sessionless) {
-            emitter = new SignalEmitter(mSignalBusObject, destination, 
-                    0, GlobalBroadcast.Off);
-            emitter.setSessionlessFlag(true);
-        } else {
-            emitter = new SignalEmitter(mSignalBusObject, destination, 
-                    session.getSessionId(), GlobalBroadcast.Off);
+    /**
+     * Returns a handle to emit the signal through without creating an emitter
+     * on every emission.  Handles are cached per signal and kind of emission, 
+     * session handles are resolved again once the session they were bound to is lost.
+     * 
+     * @param signal Signal to get handle for
+     * @param sessionless Whether to send the signal sessionless
+     * @return Valid emitter handle
+     * @throws BusException Unable to get a session with the owner of the signal
+     */
+    public EmitterHandle getEmitterHandle(Signal signal, boolean sessionless) throws BusException {
+        Map<Signal, EmitterHandle> emitters = sessionless ? mSessionlessEmitters : mEmitters;
+        EmitterHandle handle = emitters.get(signal);
+        if (handle != null && handle.isValid() && handle.getSignal() == signal)
+            return handle;
+
+        Session session = null;
+        if (!sessionless) {
+            EndPoint service = signal.getInterface().getObject().getOwner();
+            session = mSessionManager.getSession(service);
+            if (session == null || !session.isConnected())
+                throw new BusException("Unable to get session with " + service.getName());
         }
-        TriumphCPPAdapter.emitSignal(emitter, ifaceName, signalName, signature, args);
-        
-        // Log the transaction
-        TransactionLogger.getInstance().logSignalEmition(signal, arguments);
+
+        handle = new EmitterHandle(mSignalBusObject, signal, session, sessionless, 
+                mMetrics.getMetrics(MetricsRegistry.OPERATION.EMIT, signal));
+        emitters.put(signal, handle);
+        return handle;
+    }
+
+    /**
+     * Drops the emitters of signals that belonged to a lost endpoint.
+     * 
+     * @param emitters Emitters to remove from
+     * @param names Names of the lost endpoints
+     */
+    private static void removeEmitters(Map<Signal, EmitterHandle> emitters, Collection<String> names) {
+        Iterator<EmitterHandle> iter = emitters.values().iterator();
+        while (iter.hasNext()) {
+            EmitterHandle handle = iter.next();
+            if (names.contains(handle.getSignal().getInterface().getObject().getOwner().getName())) {
+                handle.invalidate();
+                iter.remove();
+            }
+        }
+    }
+
+    /**
+     * Drops the metrics of properties that belonged to a lost endpoint.  The
+     * metrics stay in the registry and are found again if the endpoint comes back.
+     * 
+     * @param metrics Metrics to remove from
+     * @param names Names of the lost endpoints
+     */
+    private static void removePropertyMetrics(Map<Property, MemberMetrics> metrics, Collection<String> names) {
+        Iterator<Property> iter = metrics.keySet().iterator();
+        while (iter.hasNext()) {
+            if (names.contains(iter.next().getInterface().getObject().getOwner().getName()))
+                iter.remove();
+        }
+    }
+
+    /**
+     * Drops the metrics of interfaces that belonged to a lost endpoint.  The
+     * metrics stay in the registry and are found again if the endpoint comes back.
+     * 
+     * @param metrics Metrics to remove from
+     * @param names Names of the lost endpoints
+     */
+    private static void removeInterfaceMetrics(Map<Interface, MemberMetrics> metrics, Collection<String> names) {
+        Iterator<Interface> iter = metrics.keySet().iterator();
+        while (iter.hasNext()) {
+            if (names.contains(iter.next().getObject().getOwner().getName()))
+                iter.remove();
+        }
+    }
+
+    /**
+     * Returns the metrics of an operation on a property without creating the 
+     * name of the metrics on every read or write.
+     * 
+     * @param metrics Metrics of the operation by property
+     * @param operation Operation to measure
+     * @param property Property the operation is on
+     * @return Metrics of the operation
+     */
+    private MemberMetrics getPropertyMetrics(Map<Property, MemberMetrics> metrics, 
+            MetricsRegistry.OPERATION operation, Property property) {
+        MemberMetrics result = metrics.get(property);
+        if (result == null) {
+            result = mMetrics.getMetrics(operation, property);
+            metrics.put(property, result);
+        }
+        return result;
     }
 
     /**
@@ -458,6 +798,61 @@ public class TriumphController implements BusObserverListener, SignalListener, D
      * @param arg To set the property to.
      */
     public void setProperty(Property property, Argument<?> arg) {
+        writeProperty(property, arg.getValue());
+        
+        // Log the transaction
+        TransactionLogger.getInstance().logPropertySet(property, arg);
+    }
+
+    /**
+     * Sets the property without blocking the calling thread.  The callback is
+     * notified and the transaction is logged on the JavaFX thread.
+     * <p>
+     * The bus does not take a reply timeout for properties, so a write that is still 
+     * pending when the deadline expires is abandoned instead of aborted.
+     * 
+     * @param property Remote property
+     * @param arg To set the property to.
+     * @param callback Callback to notify once the property is set, or null
+     * @param deadline Deadline of the write
+     * @return Future that represents the pending write, cancel it to abandon the write
+     * @throws java.util.concurrent.RejectedExecutionException Too many calls are pending
+     */
+    public Future<Void> setPropertyAsync(final Property property, final Argument<?> arg, 
+            final InvocationCallback<Void> callback, Deadline deadline) {
+        final Object value = arg.getValue();
+        return mInvoker.submit(new Callable<Void>() {
+
+            @Override
+            public Void call() throws Exception {
+                writeProperty(property, value);
+                return null;
+            }
+        }, new InvocationCallback<Void>() {
+
+            @Override
+            public void onSuccess(Void result) {
+                TransactionLogger.getInstance().logPropertySet(property, arg);
+                if (callback != null)
+                    callback.onSuccess(result);
+            }
+
+            @Override
+            public void onFailure(Throwable error) {
+                if (callback != null)
+                    callback.onFailure(error);
+            }
+        }, deadline);
+    }
+
+    /**
+     * Sets the property.  Does not log the transaction so it is safe 
+     * to call from any thread.
+     * 
+     * @param property Remote property
+     * @param value Value to set the property to.
+     */
+    private void writeProperty(Property property, Object value) {
 
         Interface iface = property.getInterface();
         AJObject object = iface.getObject();
@@ -472,10 +867,15 @@ public class TriumphController implements BusObserverListener, SignalListener, D
         Session session = mSessionManager.getSession(service);
         ProxyBusObject proxy = session.getProxy(object.getName());
 
-        TriumphCPPAdapter.setProperty(mBus, proxy, ifaceName, propertyName, signature, arg.getValue());
-        
-        // Log the transaction
-        TransactionLogger.getInstance().logPropertySet(property, arg);
+        MemberMetrics metrics = getPropertyMetrics(mSetMetrics, MetricsRegistry.OPERATION.SET, property);
+        long start = System.nanoTime();
+        try {
+            TriumphCPPAdapter.setProperty(mBus, proxy, ifaceName, propertyName, signature, value);
+            metrics.recordSuccess(System.nanoTime() - start);
+        } catch (Exception e) {
+            metrics.recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
     }
 
     /**
@@ -486,6 +886,60 @@ public class TriumphController implements BusObserverListener, SignalListener, D
      * @throws BusException An error occured
      */
     public Argument<?> getProperty(Property property) throws BusException {
+        Argument<?> output = readProperty(property);
+        
+        // Log the transaction
+        TransactionLogger.getInstance().logPropertyGet(property, output);
+        return output;
+    }
+
+    /**
+     * Gets the property value without blocking the calling thread.  The callback is
+     * notified and the transaction is logged on the JavaFX thread.
+     * <p>
+     * The bus does not take a reply timeout for properties, so a read that is still 
+     * pending when the deadline expires is abandoned instead of aborted.
+     * 
+     * @param property Property that contains the value to get.
+     * @param callback Callback to notify with the value of the property, or null
+     * @param deadline Deadline of the read
+     * @return Future that represents the pending value, cancel it to abandon the read
+     * @throws java.util.concurrent.RejectedExecutionException Too many calls are pending
+     */
+    public Future<Argument<?>> getPropertyAsync(final Property property, 
+            final InvocationCallback<Argument<?>> callback, Deadline deadline) {
+        return mInvoker.submit(new Callable<Argument<?>>() {
+
+            @Override
+            public Argument<?> call() throws Exception {
+                return readProperty(property);
+            }
+        }, new InvocationCallback<Argument<?>>() {
+
+            @Override
+            public void onSuccess(Argument<?> result) {
+                TransactionLogger.getInstance().logPropertyGet(property, result);
+                if (callback != null)
+                    callback.onSuccess(result);
+            }
+
+            @Override
+            public void onFailure(Throwable error) {
+                if (callback != null)
+                    callback.onFailure(error);
+            }
+        }, deadline);
+    }
+
+    /**
+     * Gets the property value.  Does not log the transaction so it is safe 
+     * to call from any thread.
+     * 
+     * @param property Property that contains the value to get.
+     * @return Object value of the property
+     * @throws BusException An error occured
+     */
+    private Argument<?> readProperty(Property property) throws BusException {
 
         Interface iface = property.getInterface();
         AJObject object = iface.getObject();
@@ -499,12 +953,210 @@ public class TriumphController implements BusObserverListener, SignalListener, D
         Session session = mSessionManager.getSession(service);
         ProxyBusObject proxy = session.getProxy(object.getName());
         
-        Object propertyObj = TriumphCPPAdapter.getProperty(mBus, proxy, ifaceName, propertyName);
-        Argument<?> output = ArgumentFactory.getArgument(property.getName(), property.getSignature(), propertyObj);
-        
-        // Log the transaction
-        TransactionLogger.getInstance().logPropertyGet(property, output);
-        return output;
+        MemberMetrics metrics = getPropertyMetrics(mGetMetrics, MetricsRegistry.OPERATION.GET, property);
+        long start = System.nanoTime();
+        try {
+            Object propertyObj = TriumphCPPAdapter.getProperty(mBus, proxy, ifaceName, propertyName);
+            Argument<?> result = ArgumentFactory.getArgument(property.getName(), property.getSignature(), propertyObj);
+            metrics.recordSuccess(System.nanoTime() - start);
+            return result;
+        } catch (Exception e) {
+            metrics.recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the values of all the readable properties of an interface with a single
+     * call to org.freedesktop.DBus.Properties.GetAll, without blocking the calling thread.
+     * The callback is notified and the snapshot is logged as one transaction on the JavaFX thread.
+     * 
+     * @param iface Interface to get the properties of
+     * @param callback Callback to notify with the values of every property returned by the 
+     * remote object, in the order of the interface
+     * @return Future that represents the pending values
+     * @throws java.util.concurrent.RejectedExecutionException Too many calls are pending
+     */
+    public Future<Map<Property, Argument<?>>> getAllPropertiesAsync(final Interface iface, 
+            final InvocationCallback<Map<Property, Argument<?>>> callback) {
+        return mInvoker.submit(new Callable<Map<Property, Argument<?>>>() {
+
+            @Override
+            public Map<Property, Argument<?>> call() throws Exception {
+                return readAllProperties(iface);
+            }
+        }, new InvocationCallback<Map<Property, Argument<?>>>() {
+
+            @Override
+            public void onSuccess(Map<Property, Argument<?>> values) {
+                TransactionLogger.getInstance().logPropertyGetAll(iface, values);
+                callback.onSuccess(values);
+            }
+
+            @Override
+            public void onFailure(Throwable error) {
+                callback.onFailure(error);
+            }
+        });
+    }
+
+    /**
+     * Gets the values of all the readable properties of an interface.  Does not log
+     * the transaction so it is safe to call from any thread.
+     * 
+     * @param iface Interface to get the properties of
+     * @return Values of every property returned by the remote object, in the order of the interface
+     * @throws BusException An error occured
+     */
+    private Map<Property, Argument<?>> readAllProperties(Interface iface) throws BusException {
+        AJObject object = iface.getObject();
+        EndPoint service = object.getOwner();
+
+        // Get the ProxyBusObject to read the properties through.
+        Session session = mSessionManager.getSession(service);
+        if (session == null)
+            throw new BusException("Unable to get session with " + service.getName());
+        ProxyBusObject proxy = session.getProxy(object.getName());
+        MemberMetrics metrics = mGetAllMetrics.get(iface);
+        if (metrics == null) {
+            metrics = mMetrics.getMetrics(MetricsRegistry.OPERATION.GET_ALL, iface, MetricsRegistry.ALL_MEMBERS);
+            mGetAllMetrics.put(iface, metrics);
+        }
+        long start = System.nanoTime();
+        Map<String, Variant> raw;
+        try {
+            raw = proxy.getInterface(Properties.class).GetAll(iface.getName());
+            metrics.recordSuccess(System.nanoTime() - start);
+        } catch (Exception e) {
+            metrics.recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+
+        // Unmarshal every value the remote object returned.
+        Map<Property, Argument<?>> values = new LinkedHashMap<Property, Argument<?>>();
+        for (Property property: iface.getProperties()) {
+            Variant variant = raw.get(property.getName());
+            if (variant == null) continue;
+            values.put(property, ArgumentFactory.getArgument(property.getName(), 
+                    property.getSignature(), variant.getObject(Object.class)));
+        }
+        return values;
+    }
+
+    /* ********************************************************* */
+    /*  Operations for load generation                           */
+    /* ********************************************************* */
+
+    /**
+     * Creates an operation that calls the method with the current value of the
+     * arguments.  Calls made by the operation are not logged.
+     * 
+     * @param method Method to invoke
+     * @param arguments indexed argument list
+     * @return Operation for a {@link LoadGenerator}
+     */
+    public LoadOperation createLoadOperation(final Method method, List<Argument<?>> arguments) {
+        final Object[] values = getInputValues(method, arguments.toArray(new Argument<?>[arguments.size()]));
+        return new LoadOperation() {
+
+            private volatile InvocationHandle mHandle;
+
+            @Override
+            public void execute() throws Exception {
+                // Hold on to the handle so the hot loop skips the handle lookup.
+                InvocationHandle handle = mHandle;
+                if (handle == null || !handle.isValid())
+                    mHandle = handle = getInvocationHandle(method);
+                handle.invoke(values);
+            }
+        };
+    }
+
+    /**
+     * Creates an operation that emits the signal with the current value of the
+     * arguments.  Emissions made by the operation are not logged.
+     * 
+     * @param signal Signal to emit
+     * @param arguments Arguments of the signal
+     * @param sessionless Whether to send the signal sessionless
+     * @return Operation for a {@link LoadGenerator}
+     */
+    public LoadOperation createLoadOperation(final Signal signal, List<Argument<?>> arguments, 
+            final boolean sessionless) {
+        final Object[] values = getOutputValues(signal, arguments.toArray(new Argument<?>[arguments.size()]));
+        return new LoadOperation() {
+
+            @Override
+            public void execute() throws Exception {
+                emitSignal(signal, values, sessionless);
+            }
+        };
+    }
+
+    /**
+     * Creates a burst that emits the signal with the current value of the 
+     * arguments.  Emissions made by the burst are not logged.
+     * 
+     * @param signal Signal to emit
+     * @param arguments Arguments of the signal
+     * @param sessionless Whether to send the signal sessionless
+     * @param mode How to emit the signals
+     * @param amount Number of signals or signals per second, depending on mode
+     * @param duration Maximum length of the burst
+     * @param unit Unit of duration
+     * @return Burst that is not started yet
+     */
+    public SignalBurst createSignalBurst(final Signal signal, List<Argument<?>> arguments, 
+            final boolean sessionless, SignalBurst.MODE mode, int amount, long duration, TimeUnit unit) {
+        Object[] values = getOutputValues(signal, arguments.toArray(new Argument<?>[arguments.size()]));
+        return new SignalBurst(new SignalBurst.Target() {
+
+            private volatile EmitterHandle mHandle;
+
+            @Override
+            public int emitAll(Object[][] argSets, int[] emitted) throws Exception {
+                EmitterHandle handle = mHandle;
+                if (handle == null || !handle.isValid())
+                    mHandle = handle = getEmitterHandle(signal, sessionless);
+                return handle.emitAll(argSets, emitted);
+            }
+        }, values, mode, amount, duration, unit);
+    }
+
+    /**
+     * Creates an operation that gets the value of the property.
+     * Reads made by the operation are not logged.
+     * 
+     * @param property Property to get
+     * @return Operation for a {@link LoadGenerator}
+     */
+    public LoadOperation createGetPropertyLoadOperation(final Property property) {
+        return new LoadOperation() {
+
+            @Override
+            public void execute() throws Exception {
+                readProperty(property);
+            }
+        };
+    }
+
+    /**
+     * Creates an operation that sets the property to the current value of the 
+     * argument.  Writes made by the operation are not logged.
+     * 
+     * @param property Property to set
+     * @param arg Argument that holds the value to set
+     * @return Operation for a {@link LoadGenerator}
+     */
+    public LoadOperation createSetPropertyLoadOperation(final Property property, Argument<?> arg) {
+        final Object value = arg.getValue();
+        return new LoadOperation() {
+
+            @Override
+            public void execute() throws Exception {
+                writeProperty(property, value);
+            }
+        };
     }
 
     /* ********************************************************* */
@@ -528,18 +1180,135 @@ public class TriumphController implements BusObserverListener, SignalListener, D
             LOG.warning("Incorrect signal amount received for " + signal + " Expected: " + outargs.size() + " Actual " + objArgs.length);
             return;
         }
-        try {
-            Argument<?>[] args = new Argument<?>[objArgs.length];
-            for (int i = 0; i < args.length; ++i) {
-                Argument<?> outArg = outargs.get(i);
-                String name = outArg.getName();
-                String sig = outArg.getDBusSignature();
-                args[i] = ArgumentFactory.getArgument(name, sig, objArgs[i]);
+        CaptureWriter capture = mCapture;
+        if (capture != null)
+            capture.append(signal, objArgs);
+
+        // Arguments are only built once the signal is shown, not on the AllJoyn thread.
+        SignalContext context = new SignalContext(signal, objArgs);
+        mSignalStreams.publish(context);
+        mSignalBroadcaster.addSignalContext(context);
+    }
+
+    /**
+     * Creates a stream of the received signals within a scope.  Subscribers are
+     * notified on their own threads, at the pace they request signals.
+     * 
+     * @param scope Signals to publish, see {@link SignalStreams#forSignal(Signal)}, 
+     * {@link SignalStreams#forInterface(Interface)} and {@link SignalStreams#forEndPoint(EndPoint)}
+     * @param capacity Number of signals buffered for every subscriber
+     * @param policy What to drop when the buffer of a subscriber is full
+     * @return Stream to subscribe to
+     */
+    public SignalStream createSignalStream(Filterable<Signal> scope, int capacity, SignalStreams.POLICY policy) {
+        return mSignalStreams.createStream(scope, capacity, policy);
+    }
+
+    /**
+     * Starts writing every received signal to a capture file, replacing the capture in progress.
+     * 
+     * @param file File to capture to, replaced if it exists
+     * @throws IOException Unable to create the capture
+     */
+    public synchronized void startCapture(File file) throws IOException {
+        stopCapture();
+        mCapture = new CaptureWriter(file);
+        LOG.info("Capturing received signals to " + file);
+    }
+
+    /**
+     * Stops the capture in progress.
+     * 
+     * @return The closed capture, null if there was no capture in progress
+     */
+    public synchronized CaptureWriter stopCapture() {
+        CaptureWriter capture = mCapture;
+        if (capture == null) return null;
+        mCapture = null;
+        capture.close();
+        LOG.info("Captured " + capture.getSignalCount() + " signals to " + capture.getFile());
+        return capture;
+    }
+
+    /**
+     * @return The capture in progress, null if not capturing
+     */
+    public CaptureWriter getCapture() {
+        return mCapture;
+    }
+
+    /**
+     * Creates a replay of a capture.  Each captured signal is emitted on the signal with 
+     * the same object path, interface, name and signature.  Emissions made by the replay are not logged.
+     * Endpoints are not introspected by the replay, signals of endpoints that were never opened fail.
+     * 
+     * @param file Capture to replay
+     * @param target Endpoint to emit all the signals on, null for the endpoints they were captured from
+     * @param sessionless Whether to send the signals sessionless
+     * @param mode How the signals are timed
+     * @param speed Factor to speed up the replay by, 1 for the original timing
+     * @return Replay that is not started yet
+     * @throws IOException Unable to open the capture
+     */
+    public SignalReplay createSignalReplay(File file, final EndPoint target, final boolean sessionless, 
+            SignalReplay.MODE mode, double speed) throws IOException {
+        return new SignalReplay(new CaptureReader(file), new SignalReplay.Target() {
+
+            /**
+             * Signals already resolved, only touched by the replay thread.
+             */
+            private final Map<CaptureMember, Signal> mResolved = new HashMap<CaptureMember, Signal>();
+
+            /**
+             * Why each signal that could not be resolved failed, only touched by the replay thread.
+             */
+            private final Map<CaptureMember, BusException> mUnresolved = new HashMap<CaptureMember, BusException>();
+
+            @Override
+            public void emit(CaptureMember member, Object[] values) throws Exception {
+                Signal signal = mResolved.get(member);
+                if (signal == null) {
+                    BusException error = mUnresolved.get(member);
+                    if (error != null) throw error;
+                    try {
+                        signal = resolveSignal(member, target);
+                    } catch (BusException e) {
+                        mUnresolved.put(member, e);
+                        throw e;
+                    }
+                    mResolved.put(member, signal);
+                }
+                emitSignal(signal, values, sessionless);
+            }
+        }, mode, speed);
+    }
+
+    /**
+     * Finds the signal that matches a captured signal.
+     * 
+     * @param member Identity of the captured signal
+     * @param target Endpoint to look in, null for the endpoint the signal was captured from
+     * @return Matching signal
+     * @throws BusException There is no matching signal, or the endpoint was never introspected
+     */
+    private Signal resolveSignal(CaptureMember member, EndPoint target) throws BusException {
+        EndPoint service = target != null ? target : getService(member.getEndPoint());
+        if (service == null) 
+            throw new BusException("Unable to find " + member.getEndPoint());
+        if (!service.isBuilt())
+            throw new BusException(service.getName() + " is not introspected, open it before replaying");
+
+        AJObject object = service.getObject(member.getObjectPath());
+        Interface iface = object == null ? null : object.getInterface(member.getInterfaceName());
+        if (iface != null) {
+            for (Signal signal: iface.getSignals()) {
+                if (signal.getName().equals(member.getMemberName()) 
+                        && signal.getOutputSignature().equals(member.getSignature()))
+                    return signal;
             }
-            mSignalBroadcaster.addSignalContext(new SignalContext(signal, args));
-        } catch (TriumphException e) {
-            LOG.warning("Exception caught when when receiving signal " + signal + " Exception: " + e.getMessage());
         }
+        throw new BusException("Unable to find signal " + member.getInterfaceName() + "." 
+                + member.getMemberName() + " at " + member.getObjectPath() + " on " + service.getName());
     }
 
     /**
@@ -551,6 +1320,34 @@ public class TriumphController implements BusObserverListener, SignalListener, D
         return mSignalHandlerManager;
     }
 
+    /**
+     * Returns the number of received signals that were never shown because
+     * they arrived faster than the views could show them.
+     * 
+     * @return Number of dropped signals
+     */
+    public long getDroppedSignalCount() {
+        return mSignalBroadcaster.getDroppedCount();
+    }
+
+    /**
+     * Returns the registry of the metrics of every member operation.
+     * 
+     * @return The metrics registry
+     */
+    public MetricsRegistry getMetricsRegistry() {
+        return mMetrics;
+    }
+
+    /**
+     * Returns the watcher that keeps watched properties current.
+     * 
+     * @return The property watcher
+     */
+    public PropertyWatcher getPropertyWatcher() {
+        return mPropertyWatcher;
+    }
+
     /* ********************************************************* */
     /* 	Broadcast Change to all listeners						 */	  
     /* ********************************************************* */
@@ -560,11 +1357,14 @@ public class TriumphController implements BusObserverListener, SignalListener, D
     // and then implement it in ViewManager.
 
     /**
-     * Broadcast the update to all the known views that need it
+     * Broadcast the changes of the known endpoints to all the views.
+     * 
+     * @param changes Changes in the order they happened, nothing is broadcast if empty
      */
-    private void broadcastUpdate() {
+    private void broadcastEndPointChanges(List<EndPointChange> changes) {
+        if (changes.isEmpty()) return;
         for (TriumphViewable view: mViewables)
-            view.update();
+            view.updateEndPoints(changes);
     }
 
     /**
@@ -636,38 +1436,53 @@ public class TriumphController implements BusObserverListener, SignalListener, D
 //        return service.build(session);
 //    }
 
-    private class RecievedSignalBroadcaster implements EventHandler<ActionEvent> {
+    /**
+     * Hands received signals from the AllJoyn callback threads to the views.
+     * <p>
+     * Signals are queued in a bounded lock free buffer and drained on every JavaFX
+     * pulse, at most {@link #MAX_SIGNALS_PER_PULSE} at a time so a flood of signals
+     * cannot stall the UI.  Signals that arrive while the buffer is full are dropped and counted.
+     */
+    private class RecievedSignalBroadcaster extends AnimationTimer {
+
+        private final MpscRingBuffer<SignalContext> mReceivedSignals;
+
+        private final MpscRingBuffer.Consumer<SignalContext> mBroadcast;
 
-        private final List<SignalContext> mReceivedSignals;
+        private final AtomicLong mDropped;
         
         RecievedSignalBroadcaster() {
-            mReceivedSignals = new ArrayList<SignalContext>();
+            mReceivedSignals = new MpscRingBuffer<SignalContext>(SIGNAL_BUFFER_CAPACITY);
+            mDropped = new AtomicLong();
+            mBroadcast = new MpscRingBuffer.Consumer<SignalContext>() {
+
+                @Override
+                public void accept(SignalContext context) {
+                    broadcastSignalReceived(context);
+                }
+            };
         }
         
         /**
-         * Safely adds the signal context to later broadcast
+         * Safely adds the signal context to later broadcast.  Can be called from any thread.
          * @param context Signal Context to add
          */
-        synchronized void addSignalContext(SignalContext context) {
+        void addSignalContext(SignalContext context) {
             if (context == null) return;
-            mReceivedSignals.add(context);
+            if (!mReceivedSignals.offer(context))
+                mDropped.incrementAndGet();
         }
-        
+
         /**
-         * Broadcast all the received signals.
+         * @return Number of signals dropped because the buffer was full
          */
-        private synchronized void broadCast() {
-            if (mReceivedSignals.isEmpty()) return;
-            
-            for (SignalContext context: mReceivedSignals) {
-                broadcastSignalReceived(context);
-            }
-            mReceivedSignals.clear();
+        long getDroppedCount() {
+            return mDropped.get();
         }
 
         @Override
-        public void handle(ActionEvent event) {
-            broadCast();
+        public void handle(long now) {
+            mReceivedSignals.drain(mBroadcast, MAX_SIGNALS_PER_PULSE);
         }
         
     }
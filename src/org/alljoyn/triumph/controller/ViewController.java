@@ -23,6 +23,7 @@ import org.alljoyn.triumph.view.LogView;
 import org.alljoyn.triumph.view.LogView.OnClickListener;
 import org.alljoyn.triumph.view.MessagePane;
 import org.alljoyn.triumph.view.ServicesView;
+import org.alljoyn.triumph.view.SignalStatisticsTable;
 import org.alljoyn.triumph.view.SignalsReceivedView;
 import org.alljoyn.triumph.view.SignalsReceivedView.SignalReceivedListener;
 import org.alljoyn.triumph.view.TabbedSupportView;
@@ -70,6 +71,11 @@ public class ViewController implements EndPointListener, TriumphViewable, OnClic
 
     private final TabbedSupportView mTabbedView;
 
+    /**
+     * Table of the statistics of the received signals.
+     */
+    private final SignalStatisticsTable mSignalStatisticsTable;
+
     /**
      * Private cache for this endpoint
      */
@@ -101,6 +107,8 @@ public class ViewController implements EndPointListener, TriumphViewable, OnClic
         mTabbedView = new TabbedSupportView();
         mTabbedView.setLogView(mLogView);
         mTabbedView.setSignalReceivedView(mSignalsReceivedView);
+        mSignalStatisticsTable = new SignalStatisticsTable(mModel.getSignalHandlerManager());
+        mTabbedView.setSignalStatisticsView(mSignalStatisticsTable);
 
         // Compose the structure of this view
         mMainView = buildMainView();
@@ -110,6 +118,7 @@ public class ViewController implements EndPointListener, TriumphViewable, OnClic
 
             @Override
             public void handle(WindowEvent event) {
+                mSignalStatisticsTable.stop();
                 mModel.destroy();
                 Platform.exit();
             }
@@ -171,6 +180,7 @@ public class ViewController implements EndPointListener, TriumphViewable, OnClic
         }
         // Attempt to remove the endpoint view if it is currently being displayed
         removeContentPane(view);
+        view.destroy();
     }
     
     @Override
@@ -186,6 +196,11 @@ public class ViewController implements EndPointListener, TriumphViewable, OnClic
         mEndPointsView.updateState(distributed, locals);
     }
 
+    @Override
+    public void updateEndPoints(List<EndPointChange> changes) {
+        mEndPointsView.applyChanges(changes);
+    }
+
     @Override
     public void showError(String message) {
         showError("Error", message);
@@ -210,8 +225,9 @@ public class ViewController implements EndPointListener, TriumphViewable, OnClic
     @Override
     public void onTransactionClicked(Transaction transaction) {
         TYPE type = transaction.getType();
-        if (type == TYPE.METHOD_INVOKE || type == TYPE.SIGNAL_EMIT 
-                || type == TYPE.PROPERTY_GET || type == TYPE.PROPERTY_SET) {
+        if ((type == TYPE.METHOD_INVOKE || type == TYPE.SIGNAL_EMIT 
+                || type == TYPE.PROPERTY_GET || type == TYPE.PROPERTY_SET
+                || type == TYPE.PROPERTY_GET_ALL) && transaction.getInterfaceComponent() != null) {
             attemptToShow(transaction.getInterfaceComponent());
         }
     }
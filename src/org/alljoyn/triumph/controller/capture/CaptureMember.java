@@ -0,0 +1,105 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller.capture;
+
+import org.alljoyn.triumph.model.components.Signal;
+
+/**
+ * Identity of a captured signal that does not depend on the signal still being on the bus.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public final class CaptureMember {
+
+    private final String mEndPoint, mObjectPath, mInterfaceName, mMemberName, mSignature;
+
+    /**
+     * @param endPoint Bus name of the endpoint that owns the signal
+     * @param objectPath Path of the object that owns the signal
+     * @param interfaceName Name of the interface of the signal
+     * @param memberName Name of the signal
+     * @param signature Output signature of the signal
+     */
+    public CaptureMember(String endPoint, String objectPath, String interfaceName, 
+            String memberName, String signature) {
+        if (endPoint == null || objectPath == null || interfaceName == null 
+                || memberName == null || signature == null)
+            throw new NullPointerException(getClass().getSimpleName() + "<init>, Null identity");
+        mEndPoint = endPoint;
+        mObjectPath = objectPath;
+        mInterfaceName = interfaceName;
+        mMemberName = memberName;
+        mSignature = signature;
+    }
+
+    /**
+     * @param signal Signal to identify
+     * @return Identity of the signal
+     */
+    public static CaptureMember of(Signal signal) {
+        return new CaptureMember(signal.getInterface().getObject().getOwner().getName(),
+                signal.getInterface().getObject().getName(), signal.getInterface().getName(),
+                signal.getName(), signal.getOutputSignature());
+    }
+
+    public String getEndPoint() {
+        return mEndPoint;
+    }
+
+    public String getObjectPath() {
+        return mObjectPath;
+    }
+
+    public String getInterfaceName() {
+        return mInterfaceName;
+    }
+
+    public String getMemberName() {
+        return mMemberName;
+    }
+
+    /**
+     * @return Output signature of the signal, the concatenation of the signatures of its arguments
+     */
+    public String getSignature() {
+        return mSignature;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) return true;
+        if (!(o instanceof CaptureMember)) return false;
+        CaptureMember m = (CaptureMember) o;
+        return mEndPoint.equals(m.mEndPoint) && mObjectPath.equals(m.mObjectPath)
+                && mInterfaceName.equals(m.mInterfaceName) && mMemberName.equals(m.mMemberName)
+                && mSignature.equals(m.mSignature);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = mEndPoint.hashCode();
+        hash = 31 * hash + mObjectPath.hashCode();
+        hash = 31 * hash + mInterfaceName.hashCode();
+        hash = 31 * hash + mMemberName.hashCode();
+        return 31 * hash + mSignature.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return mEndPoint + " " + mObjectPath + " " + mInterfaceName + "." + mMemberName + "(" + mSignature + ")";
+    }
+}
@@ -0,0 +1,211 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller.capture;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads back the signals of a capture written by {@link CaptureWriter}, in the order they were received.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class CaptureReader implements Closeable {
+
+    private final DataInputStream mIn;
+
+    /**
+     * Counts the bytes read, to bound the lengths read from the capture.
+     */
+    private final CountingInputStream mCounter;
+
+    /**
+     * Length of the capture when it was opened.
+     */
+    private final long mLength;
+
+    private final Date mStartTime;
+
+    private final Map<Integer, CaptureMember> mMembers;
+
+    private final Map<Integer, String[]> mTypes;
+
+    private byte[] mRecord;
+
+    /**
+     * Opens a capture.
+     *
+     * @param file Capture to read
+     * @throws IOException The file is not a capture or cannot be read
+     */
+    public CaptureReader(File file) throws IOException {
+        mLength = file.length();
+        mCounter = new CountingInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+        mIn = new DataInputStream(mCounter);
+        mMembers = new HashMap<Integer, CaptureMember>();
+        mTypes = new HashMap<Integer, String[]>();
+        mRecord = new byte[256];
+        try {
+            if (mIn.readInt() != CaptureWriter.MAGIC)
+                throw new IOException(file + " is not a signal capture");
+            short version = mIn.readShort();
+            if (version != CaptureWriter.VERSION)
+                throw new IOException("Unsupported capture version " + version);
+            mStartTime = new Date(mIn.readLong());
+        } catch (IOException e) {
+            mIn.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return Time the capture started
+     */
+    public Date getStartTime() {
+        return mStartTime;
+    }
+
+    /**
+     * Reads the next signal.
+     *
+     * @return The next signal, or null at the end of the capture
+     * @throws IOException The capture is corrupt or cannot be read
+     */
+    public CapturedSignal next() throws IOException {
+        try {
+            while (true) {
+                int type = mIn.read();
+                switch (type) {
+                case -1:
+                case CaptureWriter.RECORD_END:
+                    return null;
+                case CaptureWriter.RECORD_MEMBER:
+                    readMember();
+                    break;
+                case CaptureWriter.RECORD_SIGNAL:
+                    return readSignal();
+                default:
+                    throw new IOException("Corrupt capture, unknown record " + type);
+                }
+            }
+        } catch (EOFException e) {
+            // The capture was not closed, the last record is incomplete.
+            return null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        mIn.close();
+    }
+
+    private void readMember() throws IOException {
+        int id = mIn.readInt();
+        CaptureMember member = new CaptureMember(readString(), readString(),
+                readString(), readString(), readString());
+        mMembers.put(id, member);
+        mTypes.put(id, SignalCodec.split(member.getSignature()));
+    }
+
+    private CapturedSignal readSignal() throws IOException {
+        int id = mIn.readInt();
+        long time = mIn.readLong();
+        int length = mIn.readInt();
+        CaptureMember member = mMembers.get(id);
+        if (member == null)
+            throw new IOException("Corrupt capture, unknown member " + id);
+        checkLength(length);
+        if (mRecord.length < length)
+            mRecord = new byte[Math.max(length, 2 * mRecord.length)];
+        mIn.readFully(mRecord, 0, length);
+
+        ByteBuffer values = ByteBuffer.wrap(mRecord, 0, length);
+        return new CapturedSignal(member, time, SignalCodec.readValues(mTypes.get(id), values));
+    }
+
+    private String readString() throws IOException {
+        int length = mIn.readInt();
+        checkLength(length);
+        byte[] bytes = new byte[length];
+        mIn.readFully(bytes);
+        return new String(bytes, "UTF-8");
+    }
+
+    /**
+     * Checks that a length read from the capture fits in what is left of it,
+     * before anything is allocated for it.
+     *
+     * @param length Length read from the capture
+     * @throws IOException The length is negative or beyond the end of the capture
+     */
+    private void checkLength(int length) throws IOException {
+        if (length < 0 || length > mLength - mCounter.mCount)
+            throw new IOException("Corrupt capture, illegal length " + length
+                    + " with " + (mLength - mCounter.mCount) + " bytes left");
+    }
+
+    /**
+     * Stream that counts the bytes read through it.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long mCount;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0)
+                mCount++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0)
+                mCount += read;
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            mCount += skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
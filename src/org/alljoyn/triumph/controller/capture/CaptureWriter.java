@@ -0,0 +1,342 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller.capture;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.alljoyn.triumph.MainApplication;
+import org.alljoyn.triumph.controller.Destroyable;
+import org.alljoyn.triumph.model.components.Signal;
+
+/**
+ * Appends received signals to a capture file.
+ * <p>
+ * The file is written through a memory mapped region that is extended
+ * {@link #MAP_SIZE} bytes at a time, so an append is a copy into memory.
+ * A capture starts with a header, then holds a member record the first time a
+ * signal is seen and a signal record for every received signal.  A signal record
+ * holds the id of its member, the nanoseconds since the capture started and the
+ * values of the signal in the form of {@link SignalCodec}.
+ * <p>
+ * Appending is safe from any thread.  Values are encoded on the calling thread,
+ * only the copy into the file is serialized.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class CaptureWriter implements Destroyable {
+
+    /**
+     * First four bytes of every capture, "TRCP".
+     */
+    static final int MAGIC = 0x54524350;
+
+    static final short VERSION = 1;
+
+    static final byte RECORD_END = 0, RECORD_MEMBER = 1, RECORD_SIGNAL = 2;
+
+    /**
+     * Number of bytes the file is extended by when the mapped region is full.
+     */
+    static final int MAP_SIZE = 16 << 20;
+
+    /**
+     * Encoding buffer of every appending thread.
+     */
+    private static final ThreadLocal<Scratch> SCRATCH = new ThreadLocal<Scratch>() {
+
+        @Override
+        protected Scratch initialValue() {
+            return new Scratch();
+        }
+    };
+
+    private final File mFile;
+
+    private final RandomAccessFile mRaf;
+
+    private final FileChannel mChannel;
+
+    private final long mStartNanos;
+
+    /**
+     * Members by the Signal or identity they were appended with.
+     */
+    private final ConcurrentMap<Object, Member> mMembers;
+
+    private MappedByteBuffer mBuffer;
+
+    /**
+     * Position of the mapped region in the file.
+     */
+    private long mMapStart;
+
+    private int mNextId;
+
+    private boolean mClosed;
+
+    private volatile long mSignals, mFailed;
+
+    private volatile String mLastError;
+
+    /**
+     * Creates a capture, replacing the file if it exists.
+     *
+     * @param file File to capture to
+     * @throws IOException Unable to create the file
+     */
+    public CaptureWriter(File file) throws IOException {
+        mFile = file;
+        mMembers = new ConcurrentHashMap<Object, Member>();
+        mRaf = new RandomAccessFile(file, "rw");
+        try {
+            mRaf.setLength(0);
+            mChannel = mRaf.getChannel();
+            mBuffer = mChannel.map(FileChannel.MapMode.READ_WRITE, 0, MAP_SIZE);
+        } catch (IOException e) {
+            mRaf.close();
+            throw e;
+        }
+        mStartNanos = System.nanoTime();
+        mBuffer.putInt(MAGIC);
+        mBuffer.putShort(VERSION);
+        mBuffer.putLong(System.currentTimeMillis());
+    }
+
+    /**
+     * Appends a received signal.
+     *
+     * @param signal Signal that was received
+     * @param values Values of the signal as delivered by the bus
+     * @return Whether the signal was written, false if its values could not be
+     * encoded or the capture is closed
+     */
+    public boolean append(Signal signal, Object[] values) {
+        long time = System.nanoTime() - mStartNanos;
+        Member member = mMembers.get(signal);
+        try {
+            if (member == null)
+                member = addMember(signal, CaptureMember.of(signal));
+        } catch (IOException e) {
+            return fail(signal.getName() + ": " + e.getMessage());
+        }
+        return append(member, time, values);
+    }
+
+    /**
+     * Appends a signal that is identified without a {@link Signal}.
+     *
+     * @param identity Identity of the signal
+     * @param values Values of the signal as delivered by the bus
+     * @return Whether the signal was written, false if its values could not be
+     * encoded or the capture is closed
+     */
+    public boolean append(CaptureMember identity, Object[] values) {
+        long time = System.nanoTime() - mStartNanos;
+        Member member = mMembers.get(identity);
+        try {
+            if (member == null)
+                member = addMember(identity, identity);
+        } catch (IOException e) {
+            return fail(identity.getMemberName() + ": " + e.getMessage());
+        }
+        return append(member, time, values);
+    }
+
+    private boolean append(Member member, long time, Object[] values) {
+        Scratch scratch = SCRATCH.get();
+        scratch.reset();
+        try {
+            SignalCodec.writeValues(member.mTypes, values, scratch.mOut);
+        } catch (IOException e) {
+            return fail(member.mMember.getMemberName() + ": " + e.getMessage());
+        }
+
+        synchronized (this) {
+            if (mClosed) return false;
+            try {
+                if (member.mId < 0)
+                    writeMember(member);
+                ensure(1 + 4 + 8 + 4 + scratch.size());
+                mBuffer.put(RECORD_SIGNAL);
+                mBuffer.putInt(member.mId);
+                mBuffer.putLong(time);
+                mBuffer.putInt(scratch.size());
+                mBuffer.put(scratch.getBuffer(), 0, scratch.size());
+                mSignals++;
+                return true;
+            } catch (IOException e) {
+                return fail(e.getMessage());
+            }
+        }
+    }
+
+    private boolean fail(String error) {
+        synchronized (this) {
+            mFailed++;
+        }
+        mLastError = error;
+        return false;
+    }
+
+    /**
+     * Flushes the capture and closes the file.  Signals appended afterwards are ignored.
+     */
+    public synchronized void close() {
+        if (mClosed) return;
+        mClosed = true;
+        long length = getByteCount();
+        mBuffer.force();
+        // The region stays mapped until it is collected, there is no way to release it earlier.
+        mBuffer = null;
+        mMapStart = length;
+        try {
+            mChannel.truncate(length);
+        } catch (IOException e) {
+            // Some platforms refuse to truncate a mapped file, the zeros that follow read as the end.
+            MainApplication.getLogger().info("Unable to trim capture " + mFile + " " + e.getMessage());
+        }
+        try {
+            mRaf.close();
+        } catch (IOException e) {
+            MainApplication.getLogger().warning("Unable to close capture " + mFile + " " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        close();
+    }
+
+    /**
+     * @return File the capture is written to
+     */
+    public File getFile() {
+        return mFile;
+    }
+
+    /**
+     * @return Number of signals written
+     */
+    public long getSignalCount() {
+        return mSignals;
+    }
+
+    /**
+     * @return Number of signals that could not be written
+     */
+    public long getFailedCount() {
+        return mFailed;
+    }
+
+    /**
+     * @return Message of the last failure, null if nothing failed
+     */
+    public String getLastError() {
+        return mLastError;
+    }
+
+    /**
+     * @return Number of bytes written
+     */
+    public synchronized long getByteCount() {
+        return mBuffer == null ? mMapStart : mMapStart + mBuffer.position();
+    }
+
+    /**
+     * @return Whether the capture was closed
+     */
+    public synchronized boolean isClosed() {
+        return mClosed;
+    }
+
+    private Member addMember(Object key, CaptureMember identity) throws IOException {
+        Member member = new Member(identity);
+        Member existing = mMembers.putIfAbsent(key, member);
+        return existing == null ? member : existing;
+    }
+
+    /**
+     * Assigns the member its id and records it.  Called with the lock held.
+     */
+    private void writeMember(Member member) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        CaptureMember id = member.mMember;
+        SignalCodec.writeString(id.getEndPoint(), out);
+        SignalCodec.writeString(id.getObjectPath(), out);
+        SignalCodec.writeString(id.getInterfaceName(), out);
+        SignalCodec.writeString(id.getMemberName(), out);
+        SignalCodec.writeString(id.getSignature(), out);
+
+        ensure(1 + 4 + bytes.size());
+        member.mId = mNextId++;
+        mBuffer.put(RECORD_MEMBER);
+        mBuffer.putInt(member.mId);
+        mBuffer.put(bytes.toByteArray());
+    }
+
+    /**
+     * Maps a new region when the current one cannot hold the next record.
+     */
+    private void ensure(int length) throws IOException {
+        if (mBuffer.remaining() >= length) return;
+        long position = mMapStart + mBuffer.position();
+        mBuffer = mChannel.map(FileChannel.MapMode.READ_WRITE, position, Math.max(MAP_SIZE, length));
+        mMapStart = position;
+    }
+
+    /**
+     * A captured signal, its id is assigned when it is first written.
+     */
+    private static class Member {
+
+        private final CaptureMember mMember;
+
+        private final String[] mTypes;
+
+        private int mId = -1;
+
+        Member(CaptureMember member) throws IOException {
+            mMember = member;
+            mTypes = SignalCodec.split(member.getSignature());
+        }
+    }
+
+    /**
+     * Byte stream that exposes its buffer to avoid a copy per signal.
+     */
+    private static class Scratch extends ByteArrayOutputStream {
+
+        private final DataOutputStream mOut = new DataOutputStream(this);
+
+        Scratch() {
+            super(256);
+        }
+
+        byte[] getBuffer() {
+            return buf;
+        }
+    }
+}
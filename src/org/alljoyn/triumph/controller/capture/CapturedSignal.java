@@ -0,0 +1,58 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller.capture;
+
+/**
+ * A signal read back from a capture.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public final class CapturedSignal {
+
+    private final CaptureMember mMember;
+
+    private final long mTimeNanos;
+
+    private final Object[] mValues;
+
+    CapturedSignal(CaptureMember member, long timeNanos, Object[] values) {
+        mMember = member;
+        mTimeNanos = timeNanos;
+        mValues = values;
+    }
+
+    /**
+     * @return Identity of the signal
+     */
+    public CaptureMember getMember() {
+        return mMember;
+    }
+
+    /**
+     * @return Time the signal was received, in nanoseconds since the capture started
+     */
+    public long getTimeNanos() {
+        return mTimeNanos;
+    }
+
+    /**
+     * @return Values of the arguments of the signal, in the form the bus delivered them
+     */
+    public Object[] getValues() {
+        return mValues;
+    }
+}
@@ -0,0 +1,361 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller.capture;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.alljoyn.bus.BusException;
+import org.alljoyn.bus.Variant;
+import org.alljoyn.triumph.util.AJConstant;
+
+/**
+ * Compact binary form of signal values, driven by their D-Bus signature.
+ * <p>
+ * Values are expected in the form the bus delivers them: boxed basic types,
+ * primitive arrays, Object arrays for structs and other arrays, Maps for
+ * dictionaries and Variants.  Only the values are written, the signature
+ * is recorded once per member.  All numbers are big endian.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+final class SignalCodec {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private SignalCodec() {
+        // Static helpers only
+    }
+
+    /**
+     * Splits a signature into the signatures of its complete types.
+     *
+     * @param signature Signature to split
+     * @return Signature of every complete type
+     * @throws IOException The signature is malformed
+     */
+    static String[] split(String signature) throws IOException {
+        List<String> types = new ArrayList<String>();
+        int start = 0;
+        while (start < signature.length()) {
+            int end = endOf(signature, start);
+            types.add(signature.substring(start, end));
+            start = end;
+        }
+        return types.toArray(new String[types.size()]);
+    }
+
+    /**
+     * @return Index just after the complete type that starts at index
+     */
+    private static int endOf(String signature, int index) throws IOException {
+        if (index >= signature.length())
+            throw new IOException("Malformed signature " + signature);
+        char c = signature.charAt(index);
+        switch (c) {
+        case AJConstant.ALLJOYN_ARRAY:
+            return endOf(signature, index + 1);
+        case AJConstant.ALLJOYN_STRUCT_OPEN:
+        case AJConstant.ALLJOYN_DICT_ENTRY_OPEN:
+            char close = c == AJConstant.ALLJOYN_STRUCT_OPEN
+                    ? AJConstant.ALLJOYN_STRUCT_CLOSE : AJConstant.ALLJOYN_DICT_ENTRY_CLOSE;
+            int i = index + 1;
+            while (i < signature.length() && signature.charAt(i) != close)
+                i = endOf(signature, i);
+            if (i >= signature.length())
+                throw new IOException("Malformed signature " + signature);
+            return i + 1;
+        default:
+            return index + 1;
+        }
+    }
+
+    /**
+     * @return Signatures of the members of a struct or dictionary entry signature
+     */
+    private static String[] inner(String signature) throws IOException {
+        return split(signature.substring(1, signature.length() - 1));
+    }
+
+    /**
+     * Writes the values of all the complete types of a signature.
+     *
+     * @param types Signature of every value
+     * @param values Values to write
+     * @param out Output to write to
+     * @throws IOException A value does not match its signature
+     */
+    static void writeValues(String[] types, Object[] values, DataOutput out) throws IOException {
+        if (types.length != values.length)
+            throw new IOException("Expected " + types.length + " values, got " + values.length);
+        for (int i = 0; i < types.length; ++i)
+            write(types[i], values[i], out);
+    }
+
+    /**
+     * Reads the values of all the complete types of a signature.
+     *
+     * @param types Signature of every value
+     * @param in Buffer positioned at the first value
+     * @return Values read
+     * @throws IOException The buffer does not hold values of the signature
+     */
+    static Object[] readValues(String[] types, ByteBuffer in) throws IOException {
+        Object[] values = new Object[types.length];
+        try {
+            for (int i = 0; i < types.length; ++i)
+                values[i] = read(types[i], in);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated values for " + join(types));
+        }
+        return values;
+    }
+
+    static void writeString(String s, DataOutput out) throws IOException {
+        byte[] bytes = s.getBytes(UTF8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer in) throws IOException {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining())
+            throw new IOException("Illegal string length " + length);
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    private static void write(String type, Object value, DataOutput out) throws IOException {
+        if (value == null)
+            throw new IOException("Null value for signature " + type);
+        try {
+            switch (type.charAt(0)) {
+            case AJConstant.ALLJOYN_BYTE:
+                out.writeByte((Byte) value);
+                return;
+            case AJConstant.ALLJOYN_BOOLEAN:
+                out.writeBoolean((Boolean) value);
+                return;
+            case AJConstant.ALLJOYN_INT16:
+            case AJConstant.ALLJOYN_UINT16:
+                out.writeShort((Short) value);
+                return;
+            case AJConstant.ALLJOYN_INT32:
+            case AJConstant.ALLJOYN_UINT32:
+                out.writeInt((Integer) value);
+                return;
+            case AJConstant.ALLJOYN_INT64:
+            case AJConstant.ALLJOYN_UINT64:
+                out.writeLong((Long) value);
+                return;
+            case AJConstant.ALLJOYN_DOUBLE:
+                out.writeDouble((Double) value);
+                return;
+            case AJConstant.ALLJOYN_STRING:
+            case AJConstant.ALLJOYN_SIGNATURE:
+            case AJConstant.ALLJOYN_OBJECT_PATH:
+                writeString((String) value, out);
+                return;
+            case AJConstant.ALLJOYN_ARRAY:
+                writeArray(type, value, out);
+                return;
+            case AJConstant.ALLJOYN_STRUCT_OPEN:
+                writeValues(inner(type), (Object[]) value, out);
+                return;
+            case AJConstant.ALLJOYN_DICT_ENTRY_OPEN:
+                Map.Entry<?, ?> entry = (Map.Entry<?, ?>) value;
+                writeValues(inner(type), new Object[] {entry.getKey(), entry.getValue()}, out);
+                return;
+            case AJConstant.ALLJOYN_VARIANT:
+                Variant variant = (Variant) value;
+                String signature = variant.getSignature();
+                writeString(signature, out);
+                writeValues(split(signature), new Object[] {variant.getObject(Object.class)}, out);
+                return;
+            default:
+                throw new IOException("Unsupported signature " + type);
+            }
+        } catch (ClassCastException e) {
+            throw new IOException("Value " + value + " does not match signature " + type);
+        } catch (BusException e) {
+            throw new IOException("Unable to read variant " + e.getMessage());
+        }
+    }
+
+    private static void writeArray(String type, Object value, DataOutput out) throws IOException {
+        String element = type.substring(1);
+        switch (element.charAt(0)) {
+        case AJConstant.ALLJOYN_DICT_ENTRY_OPEN:
+            String[] kv = inner(element);
+            Map<?, ?> map = (Map<?, ?>) value;
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> entry: map.entrySet()) {
+                write(kv[0], entry.getKey(), out);
+                write(kv[1], entry.getValue(), out);
+            }
+            return;
+        case AJConstant.ALLJOYN_BYTE:
+            byte[] bytes = (byte[]) value;
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            return;
+        case AJConstant.ALLJOYN_BOOLEAN:
+            boolean[] booleans = (boolean[]) value;
+            out.writeInt(booleans.length);
+            for (boolean b: booleans)
+                out.writeBoolean(b);
+            return;
+        case AJConstant.ALLJOYN_INT16:
+        case AJConstant.ALLJOYN_UINT16:
+            short[] shorts = (short[]) value;
+            out.writeInt(shorts.length);
+            for (short s: shorts)
+                out.writeShort(s);
+            return;
+        case AJConstant.ALLJOYN_INT32:
+        case AJConstant.ALLJOYN_UINT32:
+            int[] ints = (int[]) value;
+            out.writeInt(ints.length);
+            for (int i: ints)
+                out.writeInt(i);
+            return;
+        case AJConstant.ALLJOYN_INT64:
+        case AJConstant.ALLJOYN_UINT64:
+            long[] longs = (long[]) value;
+            out.writeInt(longs.length);
+            for (long l: longs)
+                out.writeLong(l);
+            return;
+        case AJConstant.ALLJOYN_DOUBLE:
+            double[] doubles = (double[]) value;
+            out.writeInt(doubles.length);
+            for (double d: doubles)
+                out.writeDouble(d);
+            return;
+        default:
+            Object[] objects = (Object[]) value;
+            out.writeInt(objects.length);
+            for (Object o: objects)
+                write(element, o, out);
+        }
+    }
+
+    private static Object read(String type, ByteBuffer in) throws IOException {
+        switch (type.charAt(0)) {
+        case AJConstant.ALLJOYN_BYTE:
+            return in.get();
+        case AJConstant.ALLJOYN_BOOLEAN:
+            return in.get() != 0;
+        case AJConstant.ALLJOYN_INT16:
+        case AJConstant.ALLJOYN_UINT16:
+            return in.getShort();
+        case AJConstant.ALLJOYN_INT32:
+        case AJConstant.ALLJOYN_UINT32:
+            return in.getInt();
+        case AJConstant.ALLJOYN_INT64:
+        case AJConstant.ALLJOYN_UINT64:
+            return in.getLong();
+        case AJConstant.ALLJOYN_DOUBLE:
+            return in.getDouble();
+        case AJConstant.ALLJOYN_STRING:
+        case AJConstant.ALLJOYN_SIGNATURE:
+        case AJConstant.ALLJOYN_OBJECT_PATH:
+            return readString(in);
+        case AJConstant.ALLJOYN_ARRAY:
+            return readArray(type, in);
+        case AJConstant.ALLJOYN_STRUCT_OPEN:
+            return readValues(inner(type), in);
+        case AJConstant.ALLJOYN_DICT_ENTRY_OPEN:
+            Object[] kv = readValues(inner(type), in);
+            return new AbstractMap.SimpleEntry<Object, Object>(kv[0], kv[1]);
+        case AJConstant.ALLJOYN_VARIANT:
+            String signature = readString(in);
+            return new Variant(readValues(split(signature), in)[0], signature);
+        default:
+            throw new IOException("Unsupported signature " + type);
+        }
+    }
+
+    private static Object readArray(String type, ByteBuffer in) throws IOException {
+        String element = type.substring(1);
+        int length = in.getInt();
+        // Every element takes at least one byte, except for empty structs which do not exist.
+        if (length < 0 || length > in.remaining())
+            throw new IOException("Illegal array length " + length);
+        switch (element.charAt(0)) {
+        case AJConstant.ALLJOYN_DICT_ENTRY_OPEN:
+            String[] kv = inner(element);
+            Map<Object, Object> map = new LinkedHashMap<Object, Object>();
+            for (int i = 0; i < length; ++i)
+                map.put(read(kv[0], in), read(kv[1], in));
+            return map;
+        case AJConstant.ALLJOYN_BYTE:
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            return bytes;
+        case AJConstant.ALLJOYN_BOOLEAN:
+            boolean[] booleans = new boolean[length];
+            for (int i = 0; i < length; ++i)
+                booleans[i] = in.get() != 0;
+            return booleans;
+        case AJConstant.ALLJOYN_INT16:
+        case AJConstant.ALLJOYN_UINT16:
+            short[] shorts = new short[length];
+            in.asShortBuffer().get(shorts);
+            in.position(in.position() + 2 * length);
+            return shorts;
+        case AJConstant.ALLJOYN_INT32:
+        case AJConstant.ALLJOYN_UINT32:
+            int[] ints = new int[length];
+            in.asIntBuffer().get(ints);
+            in.position(in.position() + 4 * length);
+            return ints;
+        case AJConstant.ALLJOYN_INT64:
+        case AJConstant.ALLJOYN_UINT64:
+            long[] longs = new long[length];
+            in.asLongBuffer().get(longs);
+            in.position(in.position() + 8 * length);
+            return longs;
+        case AJConstant.ALLJOYN_DOUBLE:
+            double[] doubles = new double[length];
+            in.asDoubleBuffer().get(doubles);
+            in.position(in.position() + 8 * length);
+            return doubles;
+        default:
+            Object[] objects = new Object[length];
+            for (int i = 0; i < length; ++i)
+                objects[i] = read(element, in);
+            return objects;
+        }
+    }
+
+    private static String join(String[] types) {
+        StringBuffer buf = new StringBuffer();
+        for (String type: types)
+            buf.append(type);
+        return buf.toString();
+    }
+}
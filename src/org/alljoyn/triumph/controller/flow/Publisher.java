@@ -0,0 +1,39 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller.flow;
+
+/**
+ * Producer of items that subscribers receive as they request them.
+ * <p>
+ * Same contract as java.util.concurrent.Flow.Publisher, which is not available
+ * on the Java version Triumph runs on.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ *
+ * @param <T> Type of the published items
+ */
+public interface Publisher<T> {
+
+    /**
+     * Adds a subscriber.  The subscriber is first notified with
+     * {@link Subscriber#onSubscribe(Subscription)} and receives nothing until
+     * it requests items.
+     *
+     * @param subscriber Subscriber to add
+     */
+    public void subscribe(Subscriber<? super T> subscriber);
+}
@@ -0,0 +1,257 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller.flow;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.alljoyn.triumph.MainApplication;
+import org.alljoyn.triumph.controller.flow.SignalStreams.POLICY;
+import org.alljoyn.triumph.model.components.Signal;
+import org.alljoyn.triumph.model.components.SignalContext;
+import org.alljoyn.triumph.util.Filterable;
+
+/**
+ * Stream of the received signals within a scope.
+ * <p>
+ * Every subscriber gets its own buffer of a fixed capacity.  Signals are buffered
+ * until the subscriber requests them, once the buffer is full the policy of the stream
+ * decides which signal is dropped.  A slow subscriber therefore never slows down the
+ * reception of signals nor the other subscribers.
+ * <p>
+ * The subscriber is called on a thread of the hub, never on the FX thread nor the
+ * AllJoyn thread, and never concurrently.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class SignalStream implements Publisher<SignalContext> {
+
+    private final SignalStreams mHub;
+
+    private final Filterable<Signal> mScope;
+
+    private final int mCapacity;
+
+    private final POLICY mPolicy;
+
+    private final CopyOnWriteArrayList<StreamSubscription> mSubscriptions;
+
+    SignalStream(SignalStreams hub, Filterable<Signal> scope, int capacity, POLICY policy) {
+        mHub = hub;
+        mScope = scope;
+        mCapacity = capacity;
+        mPolicy = policy;
+        mSubscriptions = new CopyOnWriteArrayList<StreamSubscription>();
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super SignalContext> subscriber) {
+        if (subscriber == null)
+            throw new NullPointerException(getClass().getSimpleName() + ".subscribe(), Null subscriber");
+        StreamSubscription subscription = new StreamSubscription(subscriber);
+        mSubscriptions.add(subscription);
+        mHub.add(subscription);
+        subscription.schedule();
+    }
+
+    /**
+     * @return Number of signals dropped because a subscriber was too slow
+     */
+    public long getDroppedCount() {
+        long dropped = 0;
+        for (StreamSubscription subscription: mSubscriptions)
+            dropped += subscription.mDropped.get();
+        return dropped;
+    }
+
+    /**
+     * @return Number of subscribers that did not cancel nor complete
+     */
+    public int getSubscriberCount() {
+        return mSubscriptions.size();
+    }
+
+    /**
+     * Subscription of a single subscriber.
+     * <p>
+     * Signals are added on the receiving thread and drained by at most one
+     * hub thread at a time.  Every state change schedules a drain, the work counter
+     * guarantees a single drain runs and that no change is missed.
+     */
+    class StreamSubscription implements Subscription, Runnable {
+
+        private final Subscriber<? super SignalContext> mSubscriber;
+
+        /**
+         * Buffered signals.  Guarded by itself.
+         */
+        private final ArrayDeque<SignalContext> mBuffer;
+
+        private final AtomicLong mRequested, mDropped;
+
+        private final AtomicInteger mWork;
+
+        private volatile boolean mCancelled, mCompleted;
+
+        private volatile Throwable mError;
+
+        /**
+         * Only touched by the draining thread.
+         */
+        private boolean mSubscribed, mTerminated;
+
+        StreamSubscription(Subscriber<? super SignalContext> subscriber) {
+            mSubscriber = subscriber;
+            mBuffer = new ArrayDeque<SignalContext>(Math.min(mCapacity, 64));
+            mRequested = new AtomicLong();
+            mDropped = new AtomicLong();
+            mWork = new AtomicInteger();
+        }
+
+        boolean accepts(Signal signal) {
+            return mScope.filter(signal);
+        }
+
+        /**
+         * Buffers a signal, dropping one if the buffer is full.
+         */
+        void offer(SignalContext context) {
+            if (mCancelled || mCompleted) return;
+            synchronized (mBuffer) {
+                if (mBuffer.size() >= mCapacity) {
+                    mDropped.incrementAndGet();
+                    if (mPolicy == POLICY.DROP_NEWEST) return;
+                    mBuffer.pollFirst();
+                }
+                mBuffer.addLast(context);
+            }
+            if (mRequested.get() > 0)
+                schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                mError = new IllegalArgumentException("Non positive request " + n);
+            } else {
+                long current, next;
+                do {
+                    current = mRequested.get();
+                    next = current + n < 0 ? Long.MAX_VALUE : current + n;
+                } while (!mRequested.compareAndSet(current, next));
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            mCancelled = true;
+            detach();
+            schedule();
+        }
+
+        /**
+         * Ends the subscription.  The subscriber gets the buffered signals it already
+         * requested, then the completion.  The buffered signals beyond its demand are dropped.
+         */
+        void complete() {
+            mCompleted = true;
+            schedule();
+        }
+
+        void schedule() {
+            if (mWork.getAndIncrement() != 0) return;
+            try {
+                mHub.getExecutor().execute(this);
+            } catch (RejectedExecutionException e) {
+                // The hub was destroyed and its executor shut down.  Nothing will drain
+                // this subscription any more, so complete it on this thread instead.
+                mCompleted = true;
+                run();
+            }
+        }
+
+        private void detach() {
+            mHub.remove(this);
+            mSubscriptions.remove(this);
+        }
+
+        /**
+         * Delivers what was requested, then the completion or the error.  A completion
+         * only waits for the signals that are both buffered and requested.
+         */
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                if (!mTerminated)
+                    drain();
+                missed = mWork.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+            try {
+                if (!mSubscribed) {
+                    mSubscribed = true;
+                    mSubscriber.onSubscribe(this);
+                }
+
+                long requested = mRequested.get();
+                long emitted = 0;
+                // A completed subscription still gets the buffered signals it requested.
+                while (emitted != requested && !mCancelled && mError == null) {
+                    SignalContext next;
+                    synchronized (mBuffer) {
+                        next = mBuffer.pollFirst();
+                    }
+                    if (next == null) break;
+                    mSubscriber.onNext(next);
+                    emitted++;
+                }
+                if (emitted != 0 && requested != Long.MAX_VALUE)
+                    mRequested.addAndGet(-emitted);
+
+                if (mCancelled) {
+                    terminate();
+                } else if (mError != null) {
+                    terminate();
+                    mSubscriber.onError(mError);
+                } else if (mCompleted) {
+                    terminate();
+                    mSubscriber.onComplete();
+                }
+            } catch (RuntimeException e) {
+                // A subscriber that throws breaks its contract, it gets nothing more.
+                MainApplication.getLogger().warning("Subscriber " + mSubscriber + " failed, cancelling: " + e);
+                mCancelled = true;
+                terminate();
+            }
+        }
+
+        private void terminate() {
+            mTerminated = true;
+            detach();
+            synchronized (mBuffer) {
+                mBuffer.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller.flow;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.alljoyn.triumph.controller.Destroyable;
+import org.alljoyn.triumph.model.components.EndPoint;
+import org.alljoyn.triumph.model.components.Interface;
+import org.alljoyn.triumph.model.components.Signal;
+import org.alljoyn.triumph.model.components.SignalContext;
+import org.alljoyn.triumph.util.Filterable;
+
+/**
+ * Source of the {@link SignalStream}s of received signals.
+ * <p>
+ * Every received signal is published once to the hub, which offers it to the
+ * subscriptions whose stream scope accepts the signal.  Publishing only appends
+ * to the bounded buffer of every matching subscription, delivery happens on
+ * a pool of daemon threads at the pace the subscribers request.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class SignalStreams implements Destroyable {
+
+    /**
+     * What a subscription does with a signal when its buffer is full.
+     */
+    public enum POLICY {
+
+        /**
+         * Drop the oldest buffered signal to make room.
+         */
+        DROP_OLDEST,
+
+        /**
+         * Drop the received signal.
+         */
+        DROP_NEWEST
+    }
+
+    /**
+     * Default number of signals buffered for a subscriber.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final AtomicInteger COUNT = new AtomicInteger();
+
+    private final Executor mExecutor;
+
+    /**
+     * Executor created by this hub, null if it was provided.
+     */
+    private final ExecutorService mOwnExecutor;
+
+    private final CopyOnWriteArrayList<SignalStream.StreamSubscription> mSubscriptions;
+
+    private volatile boolean mDestroyed;
+
+    /**
+     * Creates a hub that delivers on its own daemon threads.
+     */
+    public SignalStreams() {
+        this(Executors.newCachedThreadPool(new ThreadFactory() {
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "TriumphStream-" + COUNT.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        }), true);
+    }
+
+    /**
+     * Creates a hub that delivers on an executor.
+     *
+     * @param executor Executor to deliver to subscribers on
+     */
+    public SignalStreams(Executor executor) {
+        this(executor, false);
+    }
+
+    private SignalStreams(Executor executor, boolean owned) {
+        if (executor == null)
+            throw new NullPointerException(getClass().getSimpleName() + "<init>, Null executor");
+        mExecutor = executor;
+        mOwnExecutor = owned ? (ExecutorService) executor : null;
+        mSubscriptions = new CopyOnWriteArrayList<SignalStream.StreamSubscription>();
+    }
+
+    /**
+     * Creates a stream of the received signals within a scope.
+     *
+     * @param scope Signals to publish, see {@link #all()}, {@link #forSignal(Signal)},
+     * {@link #forInterface(Interface)} and {@link #forEndPoint(EndPoint)}
+     * @param capacity Number of signals buffered for every subscriber
+     * @param policy What to drop when the buffer of a subscriber is full
+     * @return Stream that can be subscribed to any number of times
+     */
+    public SignalStream createStream(Filterable<Signal> scope, int capacity, POLICY policy) {
+        if (scope == null || policy == null)
+            throw new NullPointerException(getClass().getSimpleName() + ".createStream(), Null scope or policy");
+        if (capacity < 1)
+            throw new IllegalArgumentException(getClass().getSimpleName()
+                    + ".createStream(), Illegal capacity " + capacity);
+        return new SignalStream(this, scope, capacity, policy);
+    }
+
+    /**
+     * Offers a received signal to every subscription whose scope accepts it.
+     * Called on the thread that received the signal.
+     *
+     * @param context Received signal
+     */
+    public void publish(SignalContext context) {
+        Signal signal = context.getSignal();
+        for (SignalStream.StreamSubscription subscription: mSubscriptions) {
+            if (subscription.accepts(signal))
+                subscription.offer(context);
+        }
+    }
+
+    /**
+     * @return Number of active subscriptions
+     */
+    public int getSubscriptionCount() {
+        return mSubscriptions.size();
+    }
+
+    /**
+     * Completes every subscription.  Every subscriber first gets the buffered signals
+     * it already requested, the buffered signals beyond its demand are dropped.
+     */
+    @Override
+    public void destroy() {
+        mDestroyed = true;
+        for (SignalStream.StreamSubscription subscription: mSubscriptions)
+            subscription.complete();
+        mSubscriptions.clear();
+        if (mOwnExecutor != null)
+            mOwnExecutor.shutdown();
+    }
+
+    /**
+     * Registers a new subscription, completing it at once if the hub is destroyed.
+     */
+    void add(SignalStream.StreamSubscription subscription) {
+        mSubscriptions.add(subscription);
+        if (mDestroyed) {
+            mSubscriptions.remove(subscription);
+            subscription.complete();
+        }
+    }
+
+    void remove(SignalStream.StreamSubscription subscription) {
+        mSubscriptions.remove(subscription);
+    }
+
+    Executor getExecutor() {
+        return mExecutor;
+    }
+
+    /**
+     * @return Scope of every received signal
+     */
+    public static Filterable<Signal> all() {
+        return new Filterable<Signal>() {
+
+            @Override
+            public boolean filter(Signal item) {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @param signal Signal to publish
+     * @return Scope of a single signal
+     */
+    public static Filterable<Signal> forSignal(final Signal signal) {
+        return new Filterable<Signal>() {
+
+            @Override
+            public boolean filter(Signal item) {
+                return signal.equals(item);
+            }
+        };
+    }
+
+    /**
+     * @param iface Interface to publish the signals of
+     * @return Scope of every signal of an interface
+     */
+    public static Filterable<Signal> forInterface(final Interface iface) {
+        return new Filterable<Signal>() {
+
+            @Override
+            public boolean filter(Signal item) {
+                return iface.equals(item.getInterface());
+            }
+        };
+    }
+
+    /**
+     * @param endPoint EndPoint to publish the signals of
+     * @return Scope of every signal of every object of an endpoint
+     */
+    public static Filterable<Signal> forEndPoint(final EndPoint endPoint) {
+        return new Filterable<Signal>() {
+
+            @Override
+            public boolean filter(Signal item) {
+                return endPoint.equals(item.getInterface().getObject().getOwner());
+            }
+        };
+    }
+}
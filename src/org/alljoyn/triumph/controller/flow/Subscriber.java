@@ -0,0 +1,56 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller.flow;
+
+/**
+ * Receiver of the items of a {@link Publisher}.
+ * <p>
+ * Same contract as java.util.concurrent.Flow.Subscriber.  The methods of a
+ * subscriber are never called concurrently.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ *
+ * @param <T> Type of the received items
+ */
+public interface Subscriber<T> {
+
+    /**
+     * Called once before any other method.
+     *
+     * @param subscription Subscription to request items with
+     */
+    public void onSubscribe(Subscription subscription);
+
+    /**
+     * Called for every item, at most as many times as items were requested.
+     *
+     * @param item The next item
+     */
+    public void onNext(T item);
+
+    /**
+     * Called once if the subscription failed.  Nothing is called afterwards.
+     *
+     * @param throwable Cause of the failure
+     */
+    public void onError(Throwable throwable);
+
+    /**
+     * Called once when the publisher has no more items.  Nothing is called afterwards.
+     */
+    public void onComplete();
+}
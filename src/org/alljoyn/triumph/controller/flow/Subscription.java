@@ -0,0 +1,40 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller.flow;
+
+/**
+ * Link between a {@link Publisher} and one of its {@link Subscriber}s.
+ * <p>
+ * Same contract as java.util.concurrent.Flow.Subscription.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public interface Subscription {
+
+    /**
+     * Requests more items.  Requests add up.
+     *
+     * @param n Number of additional items, a request that is not positive
+     * fails the subscription with an IllegalArgumentException
+     */
+    public void request(long n);
+
+    /**
+     * Stops the delivery of items.  Items already requested may still be delivered.
+     */
+    public void cancel();
+}
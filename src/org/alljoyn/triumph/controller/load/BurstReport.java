@@ -0,0 +1,65 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller.load;
+
+/**
+ * Immutable snapshot of the state of a signal burst or replay.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class BurstReport extends RunReport {
+
+    private final long mEmitted, mFailed;
+
+    BurstReport(boolean finished, long elapsedNanos, long emitted, long failed, String lastError) {
+        super(finished, elapsedNanos, lastError);
+        mEmitted = emitted;
+        mFailed = failed;
+    }
+
+    /**
+     * @return Number of signals handed to the bus
+     */
+    public long getEmittedCount() {
+        return mEmitted;
+    }
+
+    /**
+     * @return Number of signals that could not be emitted
+     */
+    public long getFailedCount() {
+        return mFailed;
+    }
+
+    /**
+     * @return Emitted signals per second
+     */
+    public double getAchievedRate() {
+        return getRate(mEmitted);
+    }
+
+    @Override
+    public String toString() {
+        StringBuffer buf = new StringBuffer();
+        buf.append(String.format("%s: %d signals (%.1f/s), %d failed",
+                getStateString(), mEmitted, getAchievedRate(), mFailed));
+        if (getLastError() != null) {
+            buf.append("\nLast error: " + getLastError());
+        }
+        return buf.toString();
+    }
+}
@@ -0,0 +1,255 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller.load;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.alljoyn.triumph.util.LatencyHistogram;
+
+/**
+ * Repeats a {@link LoadOperation} for a fixed duration and records the latency
+ * of every repetition.
+ * <p>
+ * The load is either a fixed number of workers that issue operations back to back,
+ * or a fixed rate of operations per second.  In the fixed rate mode the latency of
+ * an operation is measured from the time it was scheduled to be issued, so a device
+ * that falls behind shows up in the latency instead of silently lowering the rate.
+ * <p>
+ * Every generator runs once and owns its threads, so a run never competes with
+ * the calls made from the views.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class LoadGenerator extends LoadRun<LoadReport> {
+
+    /**
+     * How the load is applied.
+     */
+    public enum MODE {
+        RATE, CONCURRENCY
+    }
+
+    /**
+     * Maximum number of operations in flight at once.
+     */
+    public static final int MAX_CONCURRENCY = 64;
+
+    /**
+     * Maximum number of operations waiting for a worker in fixed rate mode.
+     */
+    private static final int MAX_BACKLOG = 10000;
+
+    /**
+     * Period for issuing operations and checking for completion.
+     */
+    private static final long TICK_MILLIS = 10;
+
+    private final LoadOperation mOperation;
+
+    private final MODE mMode;
+
+    /**
+     * Operations per second or number of workers, depending on mode.
+     */
+    private final int mTarget;
+
+    private final long mDurationNanos;
+
+    private final LatencyHistogram mHistogram;
+
+    private final AtomicLong mErrors, mMissed;
+
+    private ThreadPoolExecutor mWorkers;
+
+    private ScheduledExecutorService mScheduler;
+
+    private long mIssued;
+
+    private boolean mIssuing;
+
+    /**
+     * Creates a load generator that is not started yet.
+     *
+     * @param operation Operation to repeat
+     * @param mode How to apply the load
+     * @param target Operations per second for {@link MODE#RATE},
+     * number of workers for {@link MODE#CONCURRENCY}
+     * @param duration Length of the run
+     * @param unit Unit of duration
+     */
+    public LoadGenerator(LoadOperation operation, MODE mode, int target, long duration, TimeUnit unit) {
+        if (operation == null || mode == null)
+            throw new NullPointerException(getClass().getSimpleName() + "<init>, Null operation or mode");
+        if (target < 1)
+            throw new IllegalArgumentException(getClass().getSimpleName() + "<init>, Illegal target " + target);
+        if (mode == MODE.CONCURRENCY && target > MAX_CONCURRENCY)
+            throw new IllegalArgumentException(getClass().getSimpleName()
+                    + "<init>, Concurrency cannot exceed " + MAX_CONCURRENCY);
+        if (duration <= 0)
+            throw new IllegalArgumentException(getClass().getSimpleName() + "<init>, Illegal duration " + duration);
+        mOperation = operation;
+        mMode = mode;
+        mTarget = target;
+        mDurationNanos = unit.toNanos(duration);
+        mHistogram = new LatencyHistogram();
+        mErrors = new AtomicLong();
+        mMissed = new AtomicLong();
+    }
+
+    @Override
+    protected void onStart() {
+        ThreadFactory factory = new LoadThreadFactory();
+        int workers = mMode == MODE.CONCURRENCY ? mTarget : Math.min(mTarget, MAX_CONCURRENCY);
+        // Allow up to a second of backlog before operations are missed.
+        mWorkers = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(mMode == MODE.RATE ? Math.min(mTarget, MAX_BACKLOG) : 1), factory);
+        mScheduler = Executors.newSingleThreadScheduledExecutor(factory);
+
+        mIssuing = true;
+        if (mMode == MODE.CONCURRENCY) {
+            for (int i = 0; i < mTarget; ++i)
+                mWorkers.execute(new ClosedLoopWorker());
+        }
+
+        mScheduler.scheduleAtFixedRate(new Runnable() {
+
+            @Override
+            public void run() {
+                tick();
+            }
+        }, 0, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected LoadReport createReport(boolean finished, long elapsedNanos, String lastError) {
+        return new LoadReport(finished, elapsedNanos, mHistogram, mErrors.get(), mMissed.get(), lastError);
+    }
+
+    /**
+     * Issues operations that are due, reports progress, and detects the end of the run.
+     * Always called on the scheduler thread.
+     */
+    private void tick() {
+        long now = System.nanoTime();
+        boolean expired = isStopped() || now - getStartNanos() >= mDurationNanos;
+
+        if (mIssuing && expired) {
+            mIssuing = false;
+            mWorkers.shutdown();
+        } else if (mIssuing && mMode == MODE.RATE) {
+            issueDue(now);
+        }
+
+        if (!mIssuing && mWorkers.isTerminated()) {
+            mScheduler.shutdown();
+            finish();
+            return;
+        }
+        reportProgress(now);
+    }
+
+    /**
+     * Submits every operation that is due to be issued before the next tick at the 
+     * target rate.  Each operation waits on its worker until its scheduled time.
+     */
+    private void issueDue(long now) {
+        long horizon = now + TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+        long start = getStartNanos();
+        long due = (horizon - start) * mTarget / 1000000000L;
+        for (; mIssued < due; ++mIssued) {
+            long scheduled = start + mIssued * 1000000000L / mTarget;
+            try {
+                mWorkers.execute(new ScheduledOperation(scheduled));
+            } catch (RejectedExecutionException e) {
+                mMissed.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Executes the operation once and records the outcome.
+     *
+     * @param startNanos Time to measure the latency from
+     */
+    private void executeOnce(long startNanos) {
+        try {
+            mOperation.execute();
+        } catch (Exception e) {
+            mErrors.incrementAndGet();
+            recordError(e);
+        }
+        mHistogram.recordValue(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Worker that issues operations back to back until the run is over.
+     */
+    private class ClosedLoopWorker implements Runnable {
+
+        @Override
+        public void run() {
+            while (!isStopped() && System.nanoTime() - getStartNanos() < mDurationNanos) {
+                executeOnce(System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * A single operation that was scheduled for a specific time.
+     */
+    private class ScheduledOperation implements Runnable {
+
+        private final long mScheduledNanos;
+
+        ScheduledOperation(long scheduledNanos) {
+            mScheduledNanos = scheduledNanos;
+        }
+
+        @Override
+        public void run() {
+            long wait = mScheduledNanos - System.nanoTime();
+            if (wait > 0)
+                LockSupport.parkNanos(wait);
+            if (isStopped()) return;
+            executeOnce(mScheduledNanos);
+        }
+    }
+
+    /**
+     * Creates named daemon threads so a run never keeps the application alive.
+     */
+    private static class LoadThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger COUNT = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "TriumphLoad-" + COUNT.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
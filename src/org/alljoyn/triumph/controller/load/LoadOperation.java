@@ -0,0 +1,36 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller.load;
+
+/**
+ * A single bus operation that a {@link LoadGenerator} repeats.
+ * <p>
+ * Implementations are called from several threads at once and must not
+ * touch any JavaFX state.
+ * 
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public interface LoadOperation {
+
+    /**
+     * Performs the operation once, blocking until it completes.
+     * 
+     * @throws Exception The operation failed
+     */
+    public void execute() throws Exception;
+
+}
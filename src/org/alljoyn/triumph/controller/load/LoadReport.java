@@ -0,0 +1,116 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller.load;
+
+import org.alljoyn.triumph.util.LatencyHistogram;
+
+/**
+ * Immutable snapshot of the state of a load run.
+ * <p>
+ * All latencies are in nanoseconds.
+ * 
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class LoadReport extends RunReport {
+
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    private final long mCompleted, mErrors, mMissed;
+
+    private final long mP50, mP90, mP99, mMax;
+
+    private final double mMean;
+
+    LoadReport(boolean finished, long elapsedNanos, LatencyHistogram histogram, 
+            long errors, long missed, String lastError) {
+        super(finished, elapsedNanos, lastError);
+        mCompleted = histogram.getTotalCount();
+        mErrors = errors;
+        mMissed = missed;
+        mP50 = histogram.getValueAtPercentile(50);
+        mP90 = histogram.getValueAtPercentile(90);
+        mP99 = histogram.getValueAtPercentile(99);
+        mMax = histogram.getMaxValue();
+        mMean = histogram.getMean();
+    }
+
+    /**
+     * @return Number of operations that completed, including failed ones
+     */
+    public long getCompletedCount() {
+        return mCompleted;
+    }
+
+    /**
+     * @return Number of operations that failed
+     */
+    public long getErrorCount() {
+        return mErrors;
+    }
+
+    /**
+     * @return Number of operations that could not be issued on time because
+     * every worker was busy, only applies to a fixed rate run
+     */
+    public long getMissedCount() {
+        return mMissed;
+    }
+
+    /**
+     * @return Completed operations per second
+     */
+    public double getThroughput() {
+        return getRate(mCompleted);
+    }
+
+    public long getP50() {
+        return mP50;
+    }
+
+    public long getP90() {
+        return mP90;
+    }
+
+    public long getP99() {
+        return mP99;
+    }
+
+    public long getMax() {
+        return mMax;
+    }
+
+    public double getMean() {
+        return mMean;
+    }
+
+    @Override
+    public String toString() {
+        StringBuffer buf = new StringBuffer();
+        buf.append(String.format("%s: %d ops (%.1f/s), %d errors", 
+                getStateString(), mCompleted, getThroughput(), mErrors));
+        if (mMissed > 0) {
+            buf.append(", " + mMissed + " missed");
+        }
+        buf.append(String.format("\nLatency ms  p50: %.3f  p90: %.3f  p99: %.3f  max: %.3f  mean: %.3f",
+                mP50 / NANOS_PER_MILLI, mP90 / NANOS_PER_MILLI, mP99 / NANOS_PER_MILLI, 
+                mMax / NANOS_PER_MILLI, mMean / NANOS_PER_MILLI));
+        if (getLastError() != null) {
+            buf.append("\nLast error: " + getLastError());
+        }
+        return buf.toString();
+    }
+}
@@ -0,0 +1,194 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+
+package org.alljoyn.triumph.controller.load;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.alljoyn.triumph.controller.Destroyable;
+
+/**
+ * A run that applies load to the bus once, reports its progress periodically
+ * and can be stopped early.
+ * <p>
+ * Subclasses start their own threads in {@link #onStart()}, report with
+ * {@link #reportProgress(long)} while they run and call {@link #finish()} once they are over.
+ *
+ * @param <R> Type of the report of the run
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public abstract class LoadRun<R extends RunReport> implements Destroyable {
+
+    /**
+     * Listener for the progress of a run.  Called on the callback executor.
+     */
+    public interface RunListener<R> {
+
+        /**
+         * @param report Snapshot of the running load
+         */
+        public void onProgress(R report);
+
+        /**
+         * @param report Final report of the load
+         */
+        public void onFinished(R report);
+    }
+
+    /**
+     * Period for progress reports.
+     */
+    private static final long PROGRESS_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private volatile boolean mStopped;
+
+    private volatile String mLastError;
+
+    private RunListener<? super R> mListener;
+
+    private Executor mCallbackExecutor;
+
+    private boolean mStarted;
+
+    private long mStartNanos, mLastProgressNanos;
+
+    private volatile long mEndNanos;
+
+    /**
+     * Starts the run.  Can only be called once.
+     *
+     * @param listener Listener to notify of progress, or null
+     * @param callbackExecutor Executor to notify the listener on
+     */
+    public synchronized void start(RunListener<? super R> listener, Executor callbackExecutor) {
+        if (mStarted)
+            throw new IllegalStateException(getClass().getSimpleName() + " already started");
+        mStarted = true;
+        mListener = listener;
+        mCallbackExecutor = callbackExecutor;
+        mStartNanos = mLastProgressNanos = System.nanoTime();
+        onStart();
+    }
+
+    /**
+     * Starts the threads of the run.  Called once while the run is locked.
+     */
+    protected abstract void onStart();
+
+    /**
+     * @param finished Whether the run is over
+     * @param elapsedNanos Length of the run so far
+     * @param lastError Message of the last failure, null if nothing failed
+     * @return Snapshot of the current state of the run
+     */
+    protected abstract R createReport(boolean finished, long elapsedNanos, String lastError);
+
+    /**
+     * Stops the run early.
+     */
+    public void stop() {
+        mStopped = true;
+    }
+
+    @Override
+    public void destroy() {
+        stop();
+    }
+
+    /**
+     * @return Whether the run has been started and has not finished
+     */
+    public synchronized boolean isRunning() {
+        return mStarted && mEndNanos == 0;
+    }
+
+    /**
+     * @return Snapshot of the current state of the run
+     */
+    public synchronized R getReport() {
+        long end = mEndNanos == 0 ? System.nanoTime() : mEndNanos;
+        long elapsed = mStarted ? end - mStartNanos : 0;
+        return createReport(mEndNanos != 0, elapsed, mLastError);
+    }
+
+    /**
+     * @return Whether the run was stopped early
+     */
+    protected boolean isStopped() {
+        return mStopped;
+    }
+
+    /**
+     * @return Time the run was started at, set before {@link #onStart()} is called
+     */
+    protected long getStartNanos() {
+        return mStartNanos;
+    }
+
+    /**
+     * @param e Failure to report as the last error
+     */
+    protected void recordError(Exception e) {
+        recordError(e.getMessage() == null ? e.toString() : e.getMessage());
+    }
+
+    /**
+     * @param message Message to report as the last error
+     */
+    protected void recordError(String message) {
+        mLastError = message;
+    }
+
+    /**
+     * Notifies the listener of the progress if the last report is old enough.
+     * Only called on the thread that calls {@link #finish()}.
+     *
+     * @param now Current time
+     */
+    protected void reportProgress(long now) {
+        if (now - mLastProgressNanos < PROGRESS_NANOS) return;
+        mLastProgressNanos = now;
+        publish(getReport(), false);
+    }
+
+    /**
+     * Ends the run and notifies the listener of the final report.
+     */
+    protected void finish() {
+        synchronized (this) {
+            mEndNanos = System.nanoTime();
+        }
+        publish(getReport(), true);
+    }
+
+    private void publish(final R report, final boolean finished) {
+        final RunListener<? super R> listener = mListener;
+        if (listener == null) return;
+        mCallbackExecutor.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                if (finished) {
+                    listener.onFinished(report);
+                } else {
+                    listener.onProgress(report);
+                }
+            }
+        });
+    }
+}
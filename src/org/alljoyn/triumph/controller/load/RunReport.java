@@ -0,0 +1,71 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+
+package org.alljoyn.triumph.controller.load;
+
+/**
+ * Immutable snapshot of the state of a {@link LoadRun}.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public abstract class RunReport {
+
+    private final boolean mFinished;
+
+    private final long mElapsedNanos;
+
+    private final String mLastError;
+
+    RunReport(boolean finished, long elapsedNanos, String lastError) {
+        mFinished = finished;
+        mElapsedNanos = elapsedNanos;
+        mLastError = lastError;
+    }
+
+    /**
+     * @return Whether the run is over
+     */
+    public boolean isFinished() {
+        return mFinished;
+    }
+
+    public long getElapsedNanos() {
+        return mElapsedNanos;
+    }
+
+    /**
+     * @return Message of the last failure, null if nothing failed
+     */
+    public String getLastError() {
+        return mLastError;
+    }
+
+    /**
+     * @param count Number of events of the run
+     * @return Events per second over the elapsed time
+     */
+    protected double getRate(long count) {
+        return mElapsedNanos == 0 ? 0 : count * 1000000000.0 / mElapsedNanos;
+    }
+
+    /**
+     * @return Whether the run is over and how long it took, the start of {@link #toString()}
+     */
+    protected String getStateString() {
+        return String.format("%s %.1fs", mFinished ? "Finished" : "Running", mElapsedNanos / 1000000000.0);
+    }
+}
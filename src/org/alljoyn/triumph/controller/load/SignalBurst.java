@@ -0,0 +1,189 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller.load;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Emits the same signal many times with argument values that were extracted once.
+ * The values are still marshalled for every emission.
+ * <p>
+ * A burst either emits a fixed number of signals as fast as the bus accepts them,
+ * or emits at a fixed rate for a fixed duration.  Emissions are handed to the bus
+ * in chunks of up to {@link #MAX_CHUNK} signals per native call, so the achieved
+ * rate is bound by the bus instead of the crossing into native code.  A chunk stops
+ * at its first failure, only that signal is counted as failed and the signals after it
+ * are emitted again with the next chunk.
+ * <p>
+ * Every burst runs once on its own thread.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class SignalBurst extends LoadRun<BurstReport> {
+
+    /**
+     * How the signals are emitted.
+     */
+    public enum MODE {
+        COUNT, RATE
+    }
+
+    /**
+     * Emits a chunk of signals.  Called on the burst thread.
+     */
+    public interface Target {
+
+        /**
+         * Emits the signals in order and stops at the first failure.
+         *
+         * @param argSets Values of the arguments of every emission
+         * @param emitted Its first element is set to the number of signals emitted before a failure
+         * @return Number of signals emitted
+         * @throws Exception The emission after the emitted ones failed
+         */
+        public int emitAll(Object[][] argSets, int[] emitted) throws Exception;
+    }
+
+    /**
+     * Maximum number of signals handed to the bus in one native call.
+     */
+    public static final int MAX_CHUNK = 64;
+
+    private static final AtomicInteger COUNT = new AtomicInteger();
+
+    private final Target mTarget;
+
+    private final MODE mMode;
+
+    /**
+     * Number of signals or signals per second, depending on mode.
+     */
+    private final int mAmount;
+
+    private final long mDurationNanos;
+
+    /**
+     * A full chunk of emissions that all share the same argument values.
+     */
+    private final Object[][] mChunk;
+
+    /**
+     * Number of signals of a chunk emitted before its failure, only touched by the burst thread.
+     */
+    private final int[] mChunkEmitted;
+
+    private volatile long mEmitted, mFailed;
+
+    /**
+     * Creates a burst that is not started yet.
+     *
+     * @param target Target to emit the signals through
+     * @param values Values of the arguments of the signal
+     * @param mode How to emit the signals
+     * @param amount Number of signals for {@link MODE#COUNT},
+     * signals per second for {@link MODE#RATE}
+     * @param duration Maximum length of the burst
+     * @param unit Unit of duration
+     */
+    public SignalBurst(Target target, Object[] values, MODE mode, int amount, long duration, TimeUnit unit) {
+        if (target == null || values == null || mode == null)
+            throw new NullPointerException(getClass().getSimpleName() + "<init>, Null target, values or mode");
+        if (amount < 1)
+            throw new IllegalArgumentException(getClass().getSimpleName() + "<init>, Illegal amount " + amount);
+        if (duration <= 0)
+            throw new IllegalArgumentException(getClass().getSimpleName() + "<init>, Illegal duration " + duration);
+        mTarget = target;
+        mMode = mode;
+        mAmount = amount;
+        mDurationNanos = unit.toNanos(duration);
+        mChunk = new Object[MAX_CHUNK][];
+        Arrays.fill(mChunk, values);
+        mChunkEmitted = new int[1];
+    }
+
+    @Override
+    protected void onStart() {
+        Thread thread = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                emitLoop();
+            }
+        }, "TriumphBurst-" + COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    protected BurstReport createReport(boolean finished, long elapsedNanos, String lastError) {
+        return new BurstReport(finished, elapsedNanos, mEmitted, mFailed, lastError);
+    }
+
+    /**
+     * Emits signals until the burst is over.  Always called on the burst thread.
+     */
+    private void emitLoop() {
+        long start = getStartNanos();
+        long issued = 0;
+        while (!isStopped()) {
+            long now = System.nanoTime();
+            long elapsed = now - start;
+            if (elapsed >= mDurationNanos) break;
+
+            long due;
+            if (mMode == MODE.COUNT) {
+                if (issued >= mAmount) break;
+                due = mAmount;
+            } else {
+                due = elapsed * mAmount / 1000000000L + 1;
+            }
+
+            int n = (int) Math.min(MAX_CHUNK, due - issued);
+            if (n <= 0) {
+                // Wait for the next signal to be due.
+                LockSupport.parkNanos(start + issued * 1000000000L / mAmount - now);
+                continue;
+            }
+            issued += emitChunk(n);
+            reportProgress(now);
+        }
+        finish();
+    }
+
+    /**
+     * Emits a chunk of signals and records the outcome.
+     *
+     * @param n Number of signals to emit
+     * @return Number of signals that were attempted, up to and including the one that failed
+     */
+    private int emitChunk(int n) {
+        Object[][] argSets = n == MAX_CHUNK ? mChunk : Arrays.copyOf(mChunk, n);
+        mChunkEmitted[0] = 0;
+        try {
+            mEmitted += mTarget.emitAll(argSets, mChunkEmitted);
+            return n;
+        } catch (Exception e) {
+            mEmitted += mChunkEmitted[0];
+            mFailed++;
+            recordError(e);
+            return mChunkEmitted[0] + 1;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller.load;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.alljoyn.triumph.MainApplication;
+import org.alljoyn.triumph.controller.capture.CaptureMember;
+import org.alljoyn.triumph.controller.capture.CaptureReader;
+import org.alljoyn.triumph.controller.capture.CapturedSignal;
+
+/**
+ * Emits the signals of a capture again.
+ * <p>
+ * Signals are either emitted with the gaps they were received with, divided by
+ * a speed factor, or back to back as fast as the bus accepts them.  The capture is
+ * streamed from disk while it is replayed, so captures of any length can be replayed.
+ * <p>
+ * Every replay runs once on its own thread and reports its progress with
+ * the report of a {@link SignalBurst}.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class SignalReplay extends LoadRun<BurstReport> {
+
+    /**
+     * How the signals are timed.
+     */
+    public enum MODE {
+
+        /**
+         * Keep the gaps between the signals, divided by the speed.
+         */
+        TIMED,
+
+        /**
+         * Emit every signal as soon as the previous one was emitted.
+         */
+        AS_FAST_AS_POSSIBLE
+    }
+
+    /**
+     * Emits a captured signal.  Called on the replay thread.
+     */
+    public interface Target {
+
+        /**
+         * @param member Identity of the signal
+         * @param values Values of the arguments of the signal
+         * @throws Exception Emission failed, the signal is counted as failed
+         */
+        public void emit(CaptureMember member, Object[] values) throws Exception;
+    }
+
+    private static final AtomicInteger COUNT = new AtomicInteger();
+
+    private final CaptureReader mReader;
+
+    private final Target mTarget;
+
+    private final MODE mMode;
+
+    private final double mSpeed;
+
+    private volatile long mEmitted, mFailed;
+
+    private Thread mThread;
+
+    /**
+     * Creates a replay that is not started yet.
+     *
+     * @param reader Capture to replay, closed once the replay is over
+     * @param target Target to emit the signals through
+     * @param mode How the signals are timed
+     * @param speed Factor to speed up the replay by for {@link MODE#TIMED}, 1 for the original timing
+     */
+    public SignalReplay(CaptureReader reader, Target target, MODE mode, double speed) {
+        if (reader == null || target == null || mode == null)
+            throw new NullPointerException(getClass().getSimpleName() + "<init>, Null reader, target or mode");
+        if (!(speed > 0) || Double.isInfinite(speed))
+            throw new IllegalArgumentException(getClass().getSimpleName() + "<init>, Illegal speed " + speed);
+        mReader = reader;
+        mTarget = target;
+        mMode = mode;
+        mSpeed = speed;
+    }
+
+    @Override
+    protected void onStart() {
+        mThread = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    replayLoop();
+                } finally {
+                    try {
+                        mReader.close();
+                    } catch (IOException e) {
+                        MainApplication.getLogger().warning("Unable to close capture " + e.getMessage());
+                    }
+                }
+            }
+        }, "TriumphReplay-" + COUNT.incrementAndGet());
+        mThread.setDaemon(true);
+        mThread.start();
+    }
+
+    /**
+     * Stops the replay early.
+     */
+    @Override
+    public void stop() {
+        super.stop();
+        Thread thread;
+        synchronized (this) {
+            thread = mThread;
+        }
+        // Wake the replay if it waits for the next signal.
+        if (thread != null)
+            LockSupport.unpark(thread);
+    }
+
+    @Override
+    protected BurstReport createReport(boolean finished, long elapsedNanos, String lastError) {
+        return new BurstReport(finished, elapsedNanos, mEmitted, mFailed, lastError);
+    }
+
+    /**
+     * Emits signals until the capture is over.  Always called on the replay thread.
+     */
+    private void replayLoop() {
+        long start = getStartNanos();
+        long first = -1;
+        try {
+            CapturedSignal signal;
+            while (!isStopped() && (signal = mReader.next()) != null) {
+                if (first < 0)
+                    first = signal.getTimeNanos();
+                if (mMode == MODE.TIMED) {
+                    long due = start + (long) ((signal.getTimeNanos() - first) / mSpeed);
+                    long wait;
+                    while (!isStopped() && (wait = due - System.nanoTime()) > 0)
+                        LockSupport.parkNanos(wait);
+                    if (isStopped()) break;
+                }
+                emit(signal);
+                reportProgress(System.nanoTime());
+            }
+        } catch (IOException e) {
+            recordError("Unable to read capture " + e.getMessage());
+        } catch (RuntimeException e) {
+            recordError(e);
+        } finally {
+            // The run always ends, even if the capture or the target failed unexpectedly.
+            finish();
+        }
+    }
+
+    private void emit(CapturedSignal signal) {
+        try {
+            mTarget.emit(signal.getMember(), signal.getValues());
+            mEmitted++;
+        } catch (Exception e) {
+            mFailed++;
+            recordError(e);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+
+package org.alljoyn.triumph.controller.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of an event coalescer.
+ * <p>
+ * Recording is lock free and may be done from any thread.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class CoalescerMetrics implements CoalescerMetricsMBean {
+
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    private final String mName;
+
+    private final AtomicLong mEvents, mFlushes, mFlushedEvents;
+
+    private volatile int mQueueDepth, mLastBatch, mMaxBatch;
+
+    private volatile long mWindowNanos;
+
+    /**
+     * Creates metrics that are not registered with any MBean server,
+     * see {@link MetricsRegistry#getCoalescerMetrics(String)} for exposed ones.
+     *
+     * @param name Name of the coalescer
+     */
+    public CoalescerMetrics(String name) {
+        if (name == null)
+            throw new NullPointerException(getClass().getSimpleName() + "<init>, Null name");
+        mName = name;
+        mEvents = new AtomicLong();
+        mFlushes = new AtomicLong();
+        mFlushedEvents = new AtomicLong();
+    }
+
+    /**
+     * Records an event that waits for a flush.
+     *
+     * @param queueDepth Number of events waiting, including this one
+     * @param windowNanos Window of the flush the event waits for
+     */
+    public void recordEvent(int queueDepth, long windowNanos) {
+        mEvents.incrementAndGet();
+        mQueueDepth = queueDepth;
+        mWindowNanos = windowNanos;
+    }
+
+    /**
+     * Records a flush.
+     *
+     * @param batchSize Number of events flushed
+     * @param windowNanos Window of the next flush
+     */
+    public void recordFlush(int batchSize, long windowNanos) {
+        mFlushes.incrementAndGet();
+        mFlushedEvents.addAndGet(batchSize);
+        mQueueDepth = 0;
+        mLastBatch = batchSize;
+        if (batchSize > mMaxBatch)
+            mMaxBatch = batchSize;
+        mWindowNanos = windowNanos;
+    }
+
+    @Override
+    public String getName() {
+        return mName;
+    }
+
+    @Override
+    public long getEventCount() {
+        return mEvents.get();
+    }
+
+    @Override
+    public long getFlushCount() {
+        return mFlushes.get();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return mQueueDepth;
+    }
+
+    @Override
+    public double getWindowMillis() {
+        return mWindowNanos / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public int getLastBatchSize() {
+        return mLastBatch;
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return mMaxBatch;
+    }
+
+    @Override
+    public double getMeanBatchSize() {
+        long flushes = mFlushes.get();
+        return flushes == 0 ? 0 : mFlushedEvents.get() / (double) flushes;
+    }
+
+    @Override
+    public void reset() {
+        mEvents.set(0);
+        mFlushes.set(0);
+        mFlushedEvents.set(0);
+        mLastBatch = 0;
+        mMaxBatch = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d events, %d flushes, window %.1f ms, queue %d, max batch %d",
+                mName, getEventCount(), getFlushCount(), getWindowMillis(), getQueueDepth(), getMaxBatchSize());
+    }
+}
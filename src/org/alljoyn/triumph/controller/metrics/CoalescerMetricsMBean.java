@@ -0,0 +1,72 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+
+package org.alljoyn.triumph.controller.metrics;
+
+/**
+ * Management interface of the metrics of an event coalescer, as presented
+ * by JConsole, VisualVM or any other JMX client.
+ * 
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public interface CoalescerMetricsMBean {
+
+    /**
+     * @return Name of the coalescer
+     */
+    public String getName();
+
+    /**
+     * @return Number of events received
+     */
+    public long getEventCount();
+
+    /**
+     * @return Number of flushes
+     */
+    public long getFlushCount();
+
+    /**
+     * @return Number of events waiting for the next flush
+     */
+    public int getQueueDepth();
+
+    /**
+     * @return Current time events are gathered for before a flush
+     */
+    public double getWindowMillis();
+
+    /**
+     * @return Number of events of the last flush
+     */
+    public int getLastBatchSize();
+
+    /**
+     * @return Largest number of events of a single flush
+     */
+    public int getMaxBatchSize();
+
+    /**
+     * @return Mean number of events of a flush
+     */
+    public double getMeanBatchSize();
+
+    /**
+     * Clears the counters.  The queue depth and window are kept.
+     */
+    public void reset();
+}
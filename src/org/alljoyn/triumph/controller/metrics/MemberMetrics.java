@@ -0,0 +1,154 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.alljoyn.triumph.util.LatencyHistogram;
+
+/**
+ * Counters and latency distribution of one operation on one member.
+ * <p>
+ * Recording is lock free and may be done from any thread.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class MemberMetrics implements MemberMetricsMBean {
+
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    private final String mEndPoint, mObjectPath, mInterfaceName, mMemberName;
+
+    private final MetricsRegistry.OPERATION mOperation;
+
+    private final LatencyHistogram mHistogram;
+
+    private final AtomicLong mErrors;
+
+    private volatile String mLastError;
+
+    MemberMetrics(String endPoint, String objectPath, String interfaceName,
+            String memberName, MetricsRegistry.OPERATION operation) {
+        mEndPoint = endPoint;
+        mObjectPath = objectPath;
+        mInterfaceName = interfaceName;
+        mMemberName = memberName;
+        mOperation = operation;
+        mHistogram = new LatencyHistogram();
+        mErrors = new AtomicLong();
+    }
+
+    /**
+     * Records an operation that completed.
+     *
+     * @param latencyNanos Time the operation took
+     */
+    public void recordSuccess(long latencyNanos) {
+        mHistogram.recordValue(latencyNanos);
+    }
+
+    /**
+     * Records an operation that failed.
+     *
+     * @param latencyNanos Time until the operation failed
+     * @param error Cause of the failure
+     */
+    public void recordFailure(long latencyNanos, Throwable error) {
+        mHistogram.recordValue(latencyNanos);
+        mErrors.incrementAndGet();
+        mLastError = error.getMessage() == null ? error.toString() : error.getMessage();
+    }
+
+    @Override
+    public String getEndPoint() {
+        return mEndPoint;
+    }
+
+    @Override
+    public String getObjectPath() {
+        return mObjectPath;
+    }
+
+    @Override
+    public String getInterfaceName() {
+        return mInterfaceName;
+    }
+
+    @Override
+    public String getMemberName() {
+        return mMemberName;
+    }
+
+    @Override
+    public String getOperation() {
+        return mOperation.name();
+    }
+
+    @Override
+    public long getCount() {
+        return mHistogram.getTotalCount();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return mErrors.get();
+    }
+
+    @Override
+    public double getMeanLatencyMillis() {
+        return mHistogram.getMean() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP50LatencyMillis() {
+        return mHistogram.getValueAtPercentile(50) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP90LatencyMillis() {
+        return mHistogram.getValueAtPercentile(90) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP99LatencyMillis() {
+        return mHistogram.getValueAtPercentile(99) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getMaxLatencyMillis() {
+        return mHistogram.getMaxValue() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public String getLastError() {
+        return mLastError;
+    }
+
+    @Override
+    public void reset() {
+        mHistogram.reset();
+        mErrors.set(0);
+        mLastError = null;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s %s.%s: %d ops, %d errors, p50 %.3f ms, p99 %.3f ms",
+                mOperation, mObjectPath, mInterfaceName, mMemberName, getCount(),
+                getErrorCount(), getP50LatencyMillis(), getP99LatencyMillis());
+    }
+}
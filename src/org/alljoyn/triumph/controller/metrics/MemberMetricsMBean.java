@@ -0,0 +1,81 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller.metrics;
+
+/**
+ * Management interface of the metrics of a single member operation, as presented
+ * by JConsole, VisualVM or any other JMX client.
+ * 
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public interface MemberMetricsMBean {
+
+    /**
+     * @return Name of the endpoint that owns the member
+     */
+    public String getEndPoint();
+
+    /**
+     * @return Path of the object that owns the member
+     */
+    public String getObjectPath();
+
+    /**
+     * @return Name of the interface that owns the member
+     */
+    public String getInterfaceName();
+
+    /**
+     * @return Name of the member, "*" for operations on the whole interface
+     */
+    public String getMemberName();
+
+    /**
+     * @return Operation that is measured, one of {@link MetricsRegistry.OPERATION}
+     */
+    public String getOperation();
+
+    /**
+     * @return Number of operations, including failed ones
+     */
+    public long getCount();
+
+    /**
+     * @return Number of operations that failed
+     */
+    public long getErrorCount();
+
+    public double getMeanLatencyMillis();
+
+    public double getP50LatencyMillis();
+
+    public double getP90LatencyMillis();
+
+    public double getP99LatencyMillis();
+
+    public double getMaxLatencyMillis();
+
+    /**
+     * @return Message of the last failure, null if nothing failed
+     */
+    public String getLastError();
+
+    /**
+     * Clears all the recorded operations.
+     */
+    public void reset();
+}
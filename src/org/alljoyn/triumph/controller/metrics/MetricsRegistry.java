@@ -0,0 +1,212 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.controller.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.alljoyn.triumph.MainApplication;
+import org.alljoyn.triumph.controller.Destroyable;
+import org.alljoyn.triumph.model.components.Interface;
+import org.alljoyn.triumph.model.components.InterfaceComponent;
+
+/**
+ * Keeps the {@link MemberMetrics} of every member operation and exposes each one
+ * as an MBean of the platform MBean server.
+ * <p>
+ * MBeans are registered under the domain {@link #DOMAIN} with the keys endpoint,
+ * object, interface, member and operation, so JMX clients present them as a tree.
+ * Metrics are kept for the life of the registry, including the metrics of
+ * endpoints that left the bus.
+ * <p>
+ * The {@link CoalescerMetrics} of the event coalescers are registered with the type
+ * Coalescer and their name.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class MetricsRegistry implements Destroyable {
+
+    /**
+     * JMX domain of all the metrics.
+     */
+    public static final String DOMAIN = "org.alljoyn.triumph";
+
+    /**
+     * Member name for operations on a whole interface.
+     */
+    public static final String ALL_MEMBERS = "*";
+
+    /**
+     * Operations that are measured.
+     */
+    public enum OPERATION {
+        CALL, GET, GET_ALL, SET, EMIT
+    }
+
+    private final MBeanServer mServer;
+
+    private final ConcurrentMap<ObjectName, MemberMetrics> mMetrics;
+
+    private final ConcurrentMap<ObjectName, CoalescerMetrics> mCoalescers;
+
+    /**
+     * Creates a registry that registers its metrics with the platform MBean server.
+     */
+    public MetricsRegistry() {
+        this(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    /**
+     * Creates a registry.
+     *
+     * @param server Server to register the metrics with, or null to not expose them
+     */
+    public MetricsRegistry(MBeanServer server) {
+        mServer = server;
+        mMetrics = new ConcurrentHashMap<ObjectName, MemberMetrics>();
+        mCoalescers = new ConcurrentHashMap<ObjectName, CoalescerMetrics>();
+    }
+
+    /**
+     * Returns the metrics of an operation on a method, signal or property,
+     * creating them on first use.
+     *
+     * @param operation Operation to measure
+     * @param component Member the operation is on
+     * @return Metrics of the operation
+     */
+    public MemberMetrics getMetrics(OPERATION operation, InterfaceComponent component) {
+        return getMetrics(operation, component.getInterface(), component.getName());
+    }
+
+    /**
+     * Returns the metrics of an operation on a member of an interface, creating
+     * them on first use.
+     *
+     * @param operation Operation to measure
+     * @param iface Interface that owns the member
+     * @param memberName Name of the member, {@link #ALL_MEMBERS} for the whole interface
+     * @return Metrics of the operation
+     */
+    public MemberMetrics getMetrics(OPERATION operation, Interface iface, String memberName) {
+        String endPoint = iface.getObject().getOwner().getName();
+        String objectPath = iface.getObject().getName();
+        ObjectName name = createName(endPoint, objectPath, iface.getName(), memberName, operation);
+
+        MemberMetrics metrics = mMetrics.get(name);
+        if (metrics != null) return metrics;
+
+        metrics = new MemberMetrics(endPoint, objectPath, iface.getName(), memberName, operation);
+        MemberMetrics existing = mMetrics.putIfAbsent(name, metrics);
+        if (existing != null) return existing;
+
+        // Only the thread that created the metrics registers them.
+        if (mServer != null) {
+            try {
+                mServer.registerMBean(metrics, name);
+            } catch (JMException e) {
+                MainApplication.getLogger().warning("Unable to register metrics " + name + " " + e);
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns the metrics of an event coalescer, creating them on first use.
+     *
+     * @param coalescerName Name of the coalescer
+     * @return Metrics of the coalescer
+     */
+    public CoalescerMetrics getCoalescerMetrics(String coalescerName) {
+        ObjectName name;
+        try {
+            name = new ObjectName(DOMAIN + ":type=Coalescer,name=" + ObjectName.quote(coalescerName));
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Illegal metrics name " + coalescerName, e);
+        }
+
+        CoalescerMetrics metrics = mCoalescers.get(name);
+        if (metrics != null) return metrics;
+
+        metrics = new CoalescerMetrics(coalescerName);
+        CoalescerMetrics existing = mCoalescers.putIfAbsent(name, metrics);
+        if (existing != null) return existing;
+
+        if (mServer != null) {
+            try {
+                mServer.registerMBean(metrics, name);
+            } catch (JMException e) {
+                MainApplication.getLogger().warning("Unable to register metrics " + name + " " + e);
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * @return Snapshot of all the metrics that were recorded
+     */
+    public List<MemberMetrics> getAllMetrics() {
+        return new ArrayList<MemberMetrics>(mMetrics.values());
+    }
+
+    /**
+     * Clears the recorded operations of every metric.
+     */
+    public void resetAll() {
+        for (MemberMetrics metrics: mMetrics.values())
+            metrics.reset();
+    }
+
+    @Override
+    public void destroy() {
+        if (mServer == null) return;
+        List<ObjectName> names = new ArrayList<ObjectName>(mMetrics.keySet());
+        names.addAll(mCoalescers.keySet());
+        for (ObjectName name: names) {
+            try {
+                if (mServer.isRegistered(name))
+                    mServer.unregisterMBean(name);
+            } catch (JMException e) {
+                MainApplication.getLogger().warning("Unable to unregister metrics " + name + " " + e);
+            }
+        }
+    }
+
+    private static ObjectName createName(String endPoint, String objectPath, String ifaceName,
+            String memberName, OPERATION operation) {
+        // Bus names and paths contain characters that are reserved in object names.
+        StringBuffer buf = new StringBuffer(DOMAIN);
+        buf.append(":type=Member");
+        buf.append(",endpoint=").append(ObjectName.quote(endPoint));
+        buf.append(",object=").append(ObjectName.quote(objectPath));
+        buf.append(",interface=").append(ObjectName.quote(ifaceName));
+        buf.append(",member=").append(ObjectName.quote(memberName));
+        buf.append(",operation=").append(operation.name());
+        try {
+            return new ObjectName(buf.toString());
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Illegal metrics name " + buf, e);
+        }
+    }
+}
@@ -67,7 +67,7 @@ public abstract class Session extends SessionListener {
     /**
      * Boolean flag that maintains the connection status.
      */
-    private boolean mIsConnected;
+    private volatile boolean mIsConnected;
     
     /**
      * Hold an array of standard interfaces that we know all 
@@ -216,7 +216,7 @@ public abstract class Session extends SessionListener {
      * @param ifaceClasses Interface .class files
      * @return ProxyBusObject for the following class
      */
-    private ProxyBusObject getProxy(String objPath, Class<?>[] ifaceClasses) {
+    private synchronized ProxyBusObject getProxy(String objPath, Class<?>[] ifaceClasses) {
         // Check if we had a proxy object already established
         ProxyBusObject proxy = mProxies.get(objPath);
 
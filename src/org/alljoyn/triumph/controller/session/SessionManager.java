@@ -16,18 +16,16 @@
 
 package org.alljoyn.triumph.controller.session;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.logging.Logger;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
-import javafx.event.ActionEvent;
-import javafx.event.EventHandler;
-import javafx.util.Duration;
-
 import org.alljoyn.about.AboutService;
 import org.alljoyn.about.AboutServiceImpl;
 import org.alljoyn.bus.BusAttachment;
@@ -37,8 +35,11 @@ import org.alljoyn.bus.Variant;
 import org.alljoyn.services.common.AnnouncementHandler;
 import org.alljoyn.services.common.BusObjectDescription;
 import org.alljoyn.triumph.TriumphException;
+import org.alljoyn.triumph.controller.AdaptiveCoalescer;
 import org.alljoyn.triumph.controller.BusObserver.BusObserverListener;
 import org.alljoyn.triumph.controller.Destroyable;
+import org.alljoyn.triumph.controller.FXThreadExecutor;
+import org.alljoyn.triumph.controller.metrics.CoalescerMetrics;
 import org.alljoyn.triumph.model.SessionPortStorage;
 import org.alljoyn.triumph.model.components.EndPoint;
 
@@ -52,11 +53,6 @@ public class SessionManager implements Destroyable, TriumphSessionListener, Anno
 
     private static final Logger LOG = Logger.getLogger(SecurityManager.class.getSimpleName());
 
-    /**
-     * Number of seconds to wait between calls to flush.
-     */
-    private static final int SECONDS_PER_FLUSH = 3;
-
     /**
      * Mapping of sessions that currently exist between
      */
@@ -82,13 +78,52 @@ public class SessionManager implements Destroyable, TriumphSessionListener, Anno
      */
     private final AboutService mAboutService;
 
+    /**
+     * Decides when the lost endpoints are flushed.
+     */
+    private final AdaptiveCoalescer mLostCoalescer;
+
+    /**
+     * Executor to notify the listener on.
+     */
+    private final Executor mCallbackExecutor;
+
     /**
      * Creates a Bus 
      * @param busAttachment
      * @param listener
      */
     public SessionManager(BusAttachment busAttachment, BusObserverListener listener) {
+        this(busAttachment, listener, new CoalescerMetrics(SessionManager.class.getSimpleName()));
+    }
+
+    /**
+     * Creates a Bus 
+     * @param busAttachment
+     * @param listener
+     * @param metrics Metrics of the coalescing of lost endpoints
+     */
+    public SessionManager(BusAttachment busAttachment, BusObserverListener listener, CoalescerMetrics metrics) {
+        this(busAttachment, listener, metrics, null, FXThreadExecutor.getInstance());
+    }
+
+    /**
+     * Creates a Bus.  Does not depend on JavaFX unless the listener
+     * is notified on the JavaFX thread.
+     * 
+     * @param busAttachment
+     * @param listener
+     * @param metrics Metrics of the coalescing of lost endpoints
+     * @param scheduler Scheduler to flush lost endpoints on, not shut down by {@link #destroy()}.
+     * Null to use a thread of this manager.
+     * @param callbackExecutor Executor to notify the listener on
+     */
+    public SessionManager(BusAttachment busAttachment, BusObserverListener listener, CoalescerMetrics metrics,
+            ScheduledExecutorService scheduler, Executor callbackExecutor) {
+        if (callbackExecutor == null)
+            throw new NullPointerException(getClass().getSimpleName() + "<init>, Null callback executor");
         mBusListener = listener;
+        mCallbackExecutor = callbackExecutor;
         mSessions = new HashMap<EndPoint, Session>();
 
         if (!busAttachment.isConnected())
@@ -102,19 +137,19 @@ public class SessionManager implements Destroyable, TriumphSessionListener, Anno
         // Attempt to start about service
         mAboutService = getAboutService();
 
-        // Start a timeline to flush out lost names.
-        Timeline threeSecondCacheFlush = new Timeline(
-                new KeyFrame(Duration.seconds(SECONDS_PER_FLUSH), new EventHandler<ActionEvent>(){
-
-                    @Override
-                    public void handle(ActionEvent event) {
-                        // Flush the cache on the UI thread
-                        flushLostEPs();
-                    }
+        // Flush out lost names once they stop arriving.
+        Runnable flush = new Runnable() {
 
-                }));
-        threeSecondCacheFlush.setCycleCount(Timeline.INDEFINITE);
-        threeSecondCacheFlush.play();
+            @Override
+            public void run() {
+                flushLostEPs();
+            }
+        };
+        if (scheduler == null)
+            mLostCoalescer = new AdaptiveCoalescer("TriumphSessionManager", flush, metrics);
+        else
+            mLostCoalescer = new AdaptiveCoalescer(scheduler, flush, AdaptiveCoalescer.DEFAULT_MIN_DELAY_MILLIS,
+                    AdaptiveCoalescer.DEFAULT_MAX_DELAY_MILLIS, metrics);
     }
 
     /**
@@ -175,6 +210,7 @@ public class SessionManager implements Destroyable, TriumphSessionListener, Anno
 
     @Override
     public void destroy() {
+        mLostCoalescer.destroy();
 
         // Disconnect all the sessions.
         for (Session s: mSessions.values())
@@ -194,16 +230,32 @@ public class SessionManager implements Destroyable, TriumphSessionListener, Anno
         addLostEP(session.getEndPointName());
     }
 
-    private synchronized void addLostEP(String nameLost) {
-        mLostEPs.add(nameLost);
+    private void addLostEP(String nameLost) {
+        synchronized (this) {
+            mLostEPs.add(nameLost);
+        }
+        mLostCoalescer.signal();
     }
 
-    private synchronized void flushLostEPs() {
-        if (mBusListener == null || mLostEPs.isEmpty()) {
-            return;
+    /**
+     * Notifies the listener of the lost endpoints on the callback executor.
+     */
+    private void flushLostEPs() {
+        final List<String> lost;
+        synchronized (this) {
+            if (mBusListener == null || mLostEPs.isEmpty()) {
+                return;
+            }
+            lost = new ArrayList<String>(mLostEPs);
+            mLostEPs.clear();
         }
-        mBusListener.onNameLost(mLostEPs);
-        mLostEPs.clear();
+        mCallbackExecutor.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                mBusListener.onNameLost(lost);
+            }
+        });
     }
 
     //////////////////////////////////////////////////////////////
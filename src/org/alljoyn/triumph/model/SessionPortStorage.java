@@ -25,6 +25,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
 
@@ -38,6 +39,20 @@ import org.alljoyn.bus.BusAttachment;
  */
 public class SessionPortStorage {
 
+    /**
+     * Listener of the ports that are saved.
+     */
+    public interface PortListener {
+
+        /**
+         * Called on the thread that saved the port.
+         *
+         * @param serviceName Service name the port was saved for
+         * @param portNumber Saved port number
+         */
+        public void onPortSaved(String serviceName, short portNumber);
+    }
+
     private static final Logger LOGGER = Logger.getLogger(SessionPortStorage.class.getSimpleName());
 
     private static final String DELIMINATOR = ";;";
@@ -48,6 +63,8 @@ public class SessionPortStorage {
 
     private static SessionPortStorage mInstance;
 
+    private static final CopyOnWriteArrayList<PortListener> LISTENERS = new CopyOnWriteArrayList<PortListener>();
+
     /**
      * Internal Mapping that allows fast access.
      */
@@ -158,6 +175,25 @@ public class SessionPortStorage {
                 throw new RuntimeException("Error trying to extract port: " + e.getMessage());
             } 
         }
+        for (PortListener listener: LISTENERS)
+            listener.onPortSaved(serviceName, portNumber);
+    }
+
+    /**
+     * Adds a listener of the ports that are saved.
+     *
+     * @param listener Listener to add
+     */
+    public static void addPortListener(PortListener listener) {
+        if (listener != null)
+            LISTENERS.addIfAbsent(listener);
+    }
+
+    /**
+     * @param listener Listener to remove
+     */
+    public static void removePortListener(PortListener listener) {
+        LISTENERS.remove(listener);
     }
 
     /**
@@ -2,6 +2,7 @@ package org.alljoyn.triumph.model;
 
 import java.text.DateFormat;
 import java.util.Date;
+import java.util.Map;
 
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
@@ -9,6 +10,7 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 import org.alljoyn.triumph.model.TransactionLogger.Transaction.TYPE;
+import org.alljoyn.triumph.model.components.Interface;
 import org.alljoyn.triumph.model.components.InterfaceComponent;
 import org.alljoyn.triumph.model.components.Method;
 import org.alljoyn.triumph.model.components.Property;
@@ -70,6 +72,17 @@ public class TransactionLogger {
         mList.add(t);
     }
     
+    /**
+     * Logs the values of all the properties of an interface that were read at once.
+     * 
+     * @param iface Interface that owns the properties
+     * @param values Values of the properties that were read
+     */
+    public void logPropertyGetAll(Interface iface, Map<Property, Argument<?>> values) {
+        Transaction t = new PropertySnapshotTransaction(iface, values);
+        mList.add(t);
+    }
+    
     public void logPropertySet(Property prop, Argument<?> arg) {
         Transaction t = new PropertyTransaction(prop, arg, TYPE.PROPERTY_SET);
         mList.add(t);
@@ -91,7 +104,7 @@ public class TransactionLogger {
         private String mDescription;
         
         public enum TYPE {
-            METHOD_INVOKE, SIGNAL_EMIT, PROPERTY_GET, PROPERTY_SET
+            METHOD_INVOKE, SIGNAL_EMIT, PROPERTY_GET, PROPERTY_SET, PROPERTY_GET_ALL
         }
         
         protected Transaction(InterfaceComponent ifaceComp, TYPE type) {
@@ -191,4 +204,24 @@ public class TransactionLogger {
         
     }
     
+    public static class PropertySnapshotTransaction extends Transaction {
+        
+        public final Interface mInterface;
+        
+        public final Map<Property, Argument<?>> mValues;
+        
+        private PropertySnapshotTransaction(Interface iface, Map<Property, Argument<?>> values) {
+            // Present the snapshot through the first property that was read.
+            super(values.isEmpty() ? null : values.keySet().iterator().next(), TYPE.PROPERTY_GET_ALL);
+            mInterface = iface;
+            mValues = values;
+        }
+        
+        @Override
+        public String getDescriptionPrivate() {
+            return getDateTimeStamp() + " Properties: " + mInterface.getName() + " (" + mValues.size() + ")";
+        }
+        
+    }
+    
 }
@@ -129,6 +129,13 @@ public class EndPoint extends AllJoynComponent {
         return isBuilt;
     }
 
+    /**
+     * @return Whether this endpoint was built and its objects are known
+     */
+    public boolean isBuilt() {
+        return isBuilt;
+    }
+
     public SERVICE_TYPE getServiceType() {
         return mServiceType;
     }
@@ -70,6 +70,19 @@ public class Property extends InterfaceComponent implements Attributable {
         readAccess = writeAccess = true;
     }
 
+    /**
+     * Creates a property with full read write access.
+     *
+     * @param name Name of the property
+     * @param signature Signature of the property
+     * @param iface Owning interface
+     */
+    public Property(String name, String signature, Interface iface) {
+        this(iface);
+        setName(name);
+        mSignature = signature;
+    }
+
     /**
      * Creates a property object based off this node
      * @param node Node to build from
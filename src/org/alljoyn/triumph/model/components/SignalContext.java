@@ -18,24 +18,64 @@ package org.alljoyn.triumph.model.components;
 
 import java.text.DateFormat;
 import java.util.Date;
+import java.util.List;
 
+import org.alljoyn.triumph.MainApplication;
+import org.alljoyn.triumph.TriumphException;
 import org.alljoyn.triumph.model.components.arguments.Argument;
+import org.alljoyn.triumph.model.components.arguments.ArgumentFactory;
 
 /**
  * Wrapper class that encapsulates the reception of a signal and all the
  * relevant facts of the received signal.
+ * <p>
+ * A context created from the raw values of a signal only keeps those values and
+ * the time of reception.  The arguments and the description are built the first
+ * time they are requested, which for a received signal is when it is shown.
  * 
  * @author mhotan
  */
 public class SignalContext {
 
+    /**
+     * Formats are not thread safe, every thread that describes a context gets its own.
+     */
+    private static final ThreadLocal<DateFormat[]> FORMATS = new ThreadLocal<DateFormat[]>() {
+
+        @Override
+        protected DateFormat[] initialValue() {
+            return new DateFormat[] { 
+                    DateFormat.getDateInstance(DateFormat.SHORT), 
+                    DateFormat.getTimeInstance(DateFormat.DEFAULT) };
+        }
+    };
+
     private final Signal mSignal;
+
+    /**
+     * Raw values of the signal, null once the arguments are built.
+     */
+    private Object[] mValues;
     
-    private final Argument<?>[] mArgs;
+    private Argument<?>[] mArgs;
     
-    private final Date mTimeRecieved;
+    private final long mTimeReceivedMillis, mTimeReceivedNanos;
     
     private String mDescription;
+
+    /**
+     * Creates a signal context from the raw values of a received signal using the 
+     * current time as the time received.  Nothing is converted until it is requested.
+     * 
+     * @param s Signal to assign to this context
+     * @param values Values received in this signal, one for every output argument of the signal.
+     */
+    public SignalContext(Signal s, Object[] values) {
+        mSignal = s;
+        mValues = values;
+        mTimeReceivedMillis = System.currentTimeMillis();
+        mTimeReceivedNanos = System.nanoTime();
+    }
     
     /**
      * Creates a signal context using the current time as the time received.
@@ -58,35 +98,61 @@ public class SignalContext {
         mArgs = new Argument<?>[args.length];
         for (int i = 0; i < args.length; ++i)
             mArgs[i] = args[i];
-        mTimeRecieved = timeRecieved;
-        
-        StringBuffer buf = new StringBuffer();
-        buf.append(DateFormat.getDateInstance(DateFormat.SHORT).format(mTimeRecieved));
-        buf.append(" " + DateFormat.getTimeInstance(DateFormat.DEFAULT).format(mTimeRecieved));
-        buf.append(" Source: ");
-        buf.append(mSignal.getInterface().getObject().getName());
-        buf.append(" Data received: ");
-        for (Argument<?> arg: mArgs) {
-            buf.append(arg.getValue());
-            buf.append(" ");
-        }
-        
-        mDescription = buf.toString().trim();
+        mTimeReceivedMillis = timeRecieved.getTime();
+        mTimeReceivedNanos = System.nanoTime();
     }
     
     public Signal getSignal() {
         return mSignal;
     }
     
-    public Argument<?>[] getArgs() {
+    /**
+     * Returns the arguments of the signal, building them on the first call.
+     * 
+     * @return Arguments with the received values, empty if the values could not be converted.
+     */
+    public synchronized Argument<?>[] getArgs() {
+        if (mArgs == null) {
+            mArgs = buildArguments(mSignal, mValues);
+            mValues = null;
+        }
         return mArgs;
     }
     
     public Date getTimeReceived() {
-        return mTimeRecieved;
+        return new Date(mTimeReceivedMillis);
+    }
+
+    /**
+     * @return Value of {@link System#nanoTime()} when the signal was received, 
+     * only comparable to other values of the same process.
+     */
+    public long getTimeReceivedNanos() {
+        return mTimeReceivedNanos;
     }
     
-    public String getDescription() {
+    /**
+     * Returns the description of the signal, building it on the first call.
+     * 
+     * @return Time, source and data of the signal
+     */
+    public synchronized String getDescription() {
+        if (mDescription != null) return mDescription;
+
+        DateFormat[] formats = FORMATS.get();
+        Date received = getTimeReceived();
+        StringBuffer buf = new StringBuffer();
+        buf.append(formats[0].format(received));
+        buf.append(" " + formats[1].format(received));
+        buf.append(" Source: ");
+        buf.append(mSignal.getInterface().getObject().getName());
+        buf.append(" Data received: ");
+        for (Argument<?> arg: getArgs()) {
+            buf.append(arg.getValue());
+            buf.append(" ");
+        }
+        
+        mDescription = buf.toString().trim();
         return mDescription;
     }
     
@@ -94,4 +160,19 @@ public class SignalContext {
     public String toString() {
         return getDescription();
     }
+
+    private static Argument<?>[] buildArguments(Signal signal, Object[] values) {
+        List<Argument<?>> outargs = signal.getOutputArguments();
+        Argument<?>[] args = new Argument<?>[values.length];
+        try {
+            for (int i = 0; i < args.length; ++i) {
+                Argument<?> outArg = outargs.get(i);
+                args[i] = ArgumentFactory.getArgument(outArg.getName(), outArg.getDBusSignature(), values[i]);
+            }
+            return args;
+        } catch (TriumphException e) {
+            MainApplication.getLogger().warning("Exception caught when when reading signal " + signal + " Exception: " + e.getMessage());
+            return new Argument<?>[0];
+        }
+    }
 }
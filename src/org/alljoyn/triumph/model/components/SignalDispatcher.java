@@ -0,0 +1,418 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.model.components;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.alljoyn.bus.BusAttachment;
+import org.alljoyn.bus.MessageContext;
+import org.alljoyn.bus.Status;
+import org.alljoyn.triumph.controller.Destroyable;
+
+/**
+ * Routes received signals to any number of receivers through a single
+ * bus registration per interface member.
+ * <p>
+ * A receiver subscribes to a member of an interface, optionally restricted to a
+ * sender and an object path.  A null sender or path matches any sender or path.
+ * The first subscription to a member registers a handler, and with it a match rule,
+ * on the bus, later subscriptions to the same member only add a route.  Received signals
+ * are routed on (sender, path) through hash maps, so the number of subscriptions
+ * does not change the size of the handler table of the bus nor the cost of routing.
+ * <p>
+ * Subscribing and unsubscribing are serialized, routing is lock free and happens
+ * on the AllJoyn thread that delivered the signal.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class SignalDispatcher implements Destroyable {
+
+    /**
+     * Receives the signals it subscribed to.
+     */
+    public interface Receiver {
+
+        /**
+         * Called on the AllJoyn thread for every received signal that matches
+         * a subscription of this receiver.
+         *
+         * @param sender Unique name of the sender
+         * @param objectPath Path of the object that emitted the signal
+         * @param ifaceName Name of the interface of the signal
+         * @param memberName Name of the signal
+         * @param args Raw arguments of the signal
+         */
+        public void onSignal(String sender, String objectPath, String ifaceName,
+                String memberName, Object[] args);
+    }
+
+    /**
+     * Operations on the bus the dispatcher depends on.
+     */
+    public interface Registrar {
+
+        /**
+         * Registers a handler for every signal of an interface member.
+         *
+         * @param ifaceName Name of the interface
+         * @param memberName Name of the signal
+         * @param handler Object to invoke the method on
+         * @param method Method to invoke with the arguments of the signal
+         * @return Status of the registration
+         */
+        public Status registerSignalHandler(String ifaceName, String memberName,
+                Object handler, java.lang.reflect.Method method);
+
+        /**
+         * Unregisters a handler.
+         *
+         * @param handler Object that was registered
+         * @param method Method that was registered
+         */
+        public void unregisterSignalHandler(Object handler, java.lang.reflect.Method method);
+
+        /**
+         * @return Context of the signal that is being delivered on the calling thread
+         */
+        public MessageContext getMessageContext();
+    }
+
+    private static final java.lang.reflect.Method HANDLE;
+
+    static {
+        try {
+            HANDLE = Entry.class.getDeclaredMethod("handle", Object[].class);
+            // The bus invokes the handler reflectively from outside this class.
+            HANDLE.setAccessible(true);
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException("Unable to find method handle() Was this method's name changed or removed?");
+        }
+    }
+
+    private static final Receiver[] NONE = new Receiver[0];
+
+    private final Registrar mRegistrar;
+
+    /**
+     * Registered members by interface name and member name.
+     */
+    private final ConcurrentMap<String, Entry> mEntries;
+
+    /**
+     * Creates a dispatcher that registers with the bus.
+     *
+     * @param bus Bus to receive signals from
+     */
+    public SignalDispatcher(final BusAttachment bus) {
+        this(new Registrar() {
+
+            @Override
+            public Status registerSignalHandler(String ifaceName, String memberName,
+                    Object handler, java.lang.reflect.Method method) {
+                return bus.registerSignalHandler(ifaceName, memberName, handler, method);
+            }
+
+            @Override
+            public void unregisterSignalHandler(Object handler, java.lang.reflect.Method method) {
+                bus.unregisterSignalHandler(handler, method);
+            }
+
+            @Override
+            public MessageContext getMessageContext() {
+                return bus.getMessageContext();
+            }
+        });
+        if (bus == null)
+            throw new NullPointerException(getClass().getSimpleName() + "<init>, Null BusAttachment");
+    }
+
+    /**
+     * Creates a dispatcher.
+     *
+     * @param registrar Operations on the bus
+     */
+    public SignalDispatcher(Registrar registrar) {
+        if (registrar == null)
+            throw new NullPointerException(getClass().getSimpleName() + "<init>, Null registrar");
+        mRegistrar = registrar;
+        mEntries = new ConcurrentHashMap<String, Entry>();
+    }
+
+    /**
+     * @return Method the bus invokes for every signal, for tests and diagnostics
+     */
+    public static java.lang.reflect.Method getHandleMethod() {
+        return HANDLE;
+    }
+
+    /**
+     * Subscribes a receiver to a signal.  Subscribing the same receiver twice
+     * to the same route has no effect.
+     *
+     * @param sender Unique name of the sender, or null for any sender
+     * @param objectPath Path of the emitting object, or null for any object
+     * @param ifaceName Name of the interface
+     * @param memberName Name of the signal
+     * @param receiver Receiver to notify
+     * @return Status of the bus registration, OK if the member was already registered
+     */
+    public synchronized Status subscribe(String sender, String objectPath, String ifaceName,
+            String memberName, Receiver receiver) {
+        if (ifaceName == null || memberName == null || receiver == null)
+            throw new NullPointerException(getClass().getSimpleName()
+                    + ".subscribe(), Null interface, member or receiver");
+        String key = key(ifaceName, memberName);
+        Entry entry = mEntries.get(key);
+        if (entry == null) {
+            entry = new Entry(ifaceName, memberName);
+            Status status = mRegistrar.registerSignalHandler(ifaceName, memberName, entry, HANDLE);
+            if (status != Status.OK)
+                return status;
+            mEntries.put(key, entry);
+        }
+        entry.add(sender, objectPath, receiver);
+        return Status.OK;
+    }
+
+    /**
+     * Subscribes a receiver to every signal of an interface.
+     *
+     * @param sender Unique name of the sender, or null for any sender
+     * @param objectPath Path of the emitting object, or null for any object
+     * @param ifaceName Name of the interface
+     * @param memberNames Names of the signals of the interface
+     * @param receiver Receiver to notify
+     * @return OK, or the status of the first member that could not be registered
+     */
+    public synchronized Status subscribeAll(String sender, String objectPath, String ifaceName,
+            Iterable<String> memberNames, Receiver receiver) {
+        Status result = Status.OK;
+        for (String memberName: memberNames) {
+            Status status = subscribe(sender, objectPath, ifaceName, memberName, receiver);
+            if (status != Status.OK && result == Status.OK)
+                result = status;
+        }
+        return result;
+    }
+
+    /**
+     * Removes a subscription.  The member is unregistered from the bus
+     * once its last subscription is removed.
+     *
+     * @param sender Sender the receiver subscribed with
+     * @param objectPath Object path the receiver subscribed with
+     * @param ifaceName Name of the interface
+     * @param memberName Name of the signal
+     * @param receiver Receiver to remove
+     */
+    public synchronized void unsubscribe(String sender, String objectPath, String ifaceName,
+            String memberName, Receiver receiver) {
+        String key = key(ifaceName, memberName);
+        Entry entry = mEntries.get(key);
+        if (entry == null) return;
+        entry.remove(sender, objectPath, receiver);
+        if (entry.isEmpty()) {
+            mEntries.remove(key);
+            mRegistrar.unregisterSignalHandler(entry, HANDLE);
+        }
+    }
+
+    /**
+     * @return Number of members registered with the bus
+     */
+    public int getRegistrationCount() {
+        return mEntries.size();
+    }
+
+    /**
+     * Routes a signal to every receiver whose subscription matches.
+     *
+     * @param sender Unique name of the sender
+     * @param objectPath Path of the emitting object
+     * @param ifaceName Name of the interface
+     * @param memberName Name of the signal
+     * @param args Raw arguments of the signal
+     * @return Number of receivers notified
+     */
+    public int dispatch(String sender, String objectPath, String ifaceName, String memberName, Object[] args) {
+        Entry entry = mEntries.get(key(ifaceName, memberName));
+        return entry == null ? 0 : entry.dispatch(sender, objectPath, args);
+    }
+
+    @Override
+    public synchronized void destroy() {
+        for (Entry entry: mEntries.values())
+            mRegistrar.unregisterSignalHandler(entry, HANDLE);
+        mEntries.clear();
+    }
+
+    private static String key(String ifaceName, String memberName) {
+        // Member names never contain a dot, so the key is unique.
+        return ifaceName + '.' + memberName;
+    }
+
+    private static Receiver[] with(Receiver[] receivers, Receiver receiver) {
+        for (Receiver r: receivers) {
+            if (r == receiver) return receivers;
+        }
+        Receiver[] result = Arrays.copyOf(receivers, receivers.length + 1);
+        result[receivers.length] = receiver;
+        return result;
+    }
+
+    private static Receiver[] without(Receiver[] receivers, Receiver receiver) {
+        for (int i = 0; i < receivers.length; ++i) {
+            if (receivers[i] != receiver) continue;
+            Receiver[] result = new Receiver[receivers.length - 1];
+            System.arraycopy(receivers, 0, result, 0, i);
+            System.arraycopy(receivers, i + 1, result, i, result.length - i);
+            return result;
+        }
+        return receivers;
+    }
+
+    /**
+     * Receivers of one object path, or of any object path, by sender.
+     * Modified with the dispatcher lock held, read without a lock.
+     */
+    private static class Routes {
+
+        private final ConcurrentMap<String, Receiver[]> mBySender = new ConcurrentHashMap<String, Receiver[]>();
+
+        private volatile Receiver[] mAnySender = NONE;
+
+        void add(String sender, Receiver receiver) {
+            if (sender == null) {
+                mAnySender = with(mAnySender, receiver);
+            } else {
+                Receiver[] current = mBySender.get(sender);
+                mBySender.put(sender, with(current == null ? NONE : current, receiver));
+            }
+        }
+
+        void remove(String sender, Receiver receiver) {
+            if (sender == null) {
+                mAnySender = without(mAnySender, receiver);
+                return;
+            }
+            Receiver[] current = mBySender.get(sender);
+            if (current == null) return;
+            Receiver[] result = without(current, receiver);
+            if (result.length == 0) {
+                mBySender.remove(sender);
+            } else {
+                mBySender.put(sender, result);
+            }
+        }
+
+        boolean isEmpty() {
+            return mAnySender.length == 0 && mBySender.isEmpty();
+        }
+
+        int dispatch(String sender, String objectPath, String ifaceName, String memberName, Object[] args) {
+            int count = notify(mAnySender, sender, objectPath, ifaceName, memberName, args);
+            if (sender != null && !mBySender.isEmpty()) {
+                Receiver[] receivers = mBySender.get(sender);
+                if (receivers != null)
+                    count += notify(receivers, sender, objectPath, ifaceName, memberName, args);
+            }
+            return count;
+        }
+
+        private static int notify(Receiver[] receivers, String sender, String objectPath,
+                String ifaceName, String memberName, Object[] args) {
+            for (Receiver receiver: receivers)
+                receiver.onSignal(sender, objectPath, ifaceName, memberName, args);
+            return receivers.length;
+        }
+    }
+
+    /**
+     * The single bus registration of an interface member.
+     */
+    private class Entry {
+
+        private final String mIfaceName, mMemberName;
+
+        /**
+         * Routes by object path, and the routes of any object path.
+         */
+        private final Map<String, Routes> mByPath;
+
+        private final Routes mAnyPath;
+
+        Entry(String ifaceName, String memberName) {
+            mIfaceName = ifaceName;
+            mMemberName = memberName;
+            mByPath = new ConcurrentHashMap<String, Routes>();
+            mAnyPath = new Routes();
+        }
+
+        void add(String sender, String objectPath, Receiver receiver) {
+            if (objectPath == null) {
+                mAnyPath.add(sender, receiver);
+                return;
+            }
+            Routes routes = mByPath.get(objectPath);
+            if (routes == null) {
+                routes = new Routes();
+                mByPath.put(objectPath, routes);
+            }
+            routes.add(sender, receiver);
+        }
+
+        void remove(String sender, String objectPath, Receiver receiver) {
+            if (objectPath == null) {
+                mAnyPath.remove(sender, receiver);
+                return;
+            }
+            Routes routes = mByPath.get(objectPath);
+            if (routes == null) return;
+            routes.remove(sender, receiver);
+            if (routes.isEmpty())
+                mByPath.remove(objectPath);
+        }
+
+        boolean isEmpty() {
+            return mAnyPath.isEmpty() && mByPath.isEmpty();
+        }
+
+        int dispatch(String sender, String objectPath, Object[] args) {
+            int count = mAnyPath.dispatch(sender, objectPath, mIfaceName, mMemberName, args);
+            if (objectPath != null && !mByPath.isEmpty()) {
+                Routes routes = mByPath.get(objectPath);
+                if (routes != null)
+                    count += routes.dispatch(sender, objectPath, mIfaceName, mMemberName, args);
+            }
+            return count;
+        }
+
+        /**
+         * The method that it is invoked via the alljoyn JNI on reception of
+         * a signal of this member.
+         *
+         * @param args Arguments of the received signal
+         */
+        public void handle(Object[] args) {
+            MessageContext context = mRegistrar.getMessageContext();
+            dispatch(context.sender, context.objectPath, args);
+        }
+    }
+}
@@ -1,23 +1,39 @@
 package org.alljoyn.triumph.model.components;
 
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.alljoyn.triumph.util.ArrivalStatistics;
+import org.alljoyn.triumph.util.SignalFilter;
+
 /**
  * Class that represents Signal Handler 
  */
-public class SignalHandler {
+public class SignalHandler implements SignalDispatcher.Receiver {
 
     /**
      * Signal to handle
      */
     private final Signal mSignal;
     
-    private final java.lang.reflect.Method mHandle;
-    
     /**
-     * Listener for this
+     * Rate, bursts and gaps of the received signals.
+     */
+    private final ArrivalStatistics mStatistics;
+
+    /**
+     * Number of received signals the filter discarded.
      */
-    private SignalListener mListener;
+    private final AtomicLong mFiltered;
+
+    /**
+     * Filter on the raw arguments, null to pass every signal.
+     */
+    private volatile SignalFilter mFilter;
     
-    private static final String HANDLE_NAME = "handle";
+    /**
+     * Listener for this, set on the FX thread and read on AllJoyn threads.
+     */
+    private volatile SignalListener mListener;
     
     /**
      * Signal Handler for a specific signal.
@@ -25,39 +41,62 @@ public class SignalHandler {
      */
     SignalHandler(Signal signal) {
         mSignal = signal;
-        
-        java.lang.reflect.Method handle = null;
-        java.lang.reflect.Method[] methods = getClass().getDeclaredMethods();
-        for (java.lang.reflect.Method method: methods) {
-            if (method.getName().equals(HANDLE_NAME)) {
-                handle = method;
-                mHandle = handle;
-                return;
-            }
-        }
-        mHandle = null;
-        // Should always be able to find the handle.
-        // If we dont then something is terribly wrong.
-        throw new RuntimeException("Unable to find method " + HANDLE_NAME + "() Was this method's name changed or removed?");
+        mStatistics = new ArrivalStatistics();
+        mFiltered = new AtomicLong();
     }
-    
-    /**
-     * Returns the specific method to handle incoming signals.
-     * @return The Method handler.
-     */
-    java.lang.reflect.Method getHandleMethod() {
-        return mHandle;
+
+    @Override
+    public void onSignal(String sender, String objectPath, String ifaceName,
+            String memberName, Object[] args) {
+        handle(args);
     }
-    
+
     /**
-     * The method that it is invoked via the alljoyn JNI on reception of
-     * a signal. 
+     * Handles a received signal.  Signals the filter rejects are dropped here, before anything
+     * is built from their arguments.
      * 
      * @param args Arguments of the received signal
      */
     public void handle(Object[] args) {
-        if (mListener == null) return;
-        mListener.onSignalReceived(mSignal, args);
+        mStatistics.record();
+        SignalFilter filter = mFilter;
+        if (filter != null && !filter.filter(args)) {
+            mFiltered.incrementAndGet();
+            return;
+        }
+        SignalListener listener = mListener;
+        if (listener == null) return;
+        listener.onSignalReceived(mSignal, args);
+    }
+
+    /**
+     * Sets the filter received signals have to pass to reach the listener.
+     * 
+     * @param filter Filter to use, null or empty to pass every signal
+     */
+    public void setFilter(SignalFilter filter) {
+        mFilter = filter == null || filter.isEmpty() ? null : filter;
+    }
+
+    /**
+     * @return Current filter, or null if every signal passes
+     */
+    public SignalFilter getFilter() {
+        return mFilter;
+    }
+
+    /**
+     * @return Number of received signals the filter discarded
+     */
+    public long getFilteredCount() {
+        return mFiltered.get();
+    }
+
+    /**
+     * @return Statistics of the signals received by this handler
+     */
+    public ArrivalStatistics getStatistics() {
+        return mStatistics;
     }
 
     /**
@@ -16,43 +16,75 @@
 
 package org.alljoyn.triumph.model.components;
 
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.alljoyn.bus.BusAttachment;
+import org.alljoyn.bus.MessageContext;
 import org.alljoyn.bus.Status;
+import org.alljoyn.bus.Variant;
 import org.alljoyn.triumph.controller.Destroyable;
 import org.alljoyn.triumph.model.components.SignalHandler.SignalListener;
+import org.alljoyn.triumph.util.ArrivalStatistics;
+import org.alljoyn.triumph.util.SignalFilter;
 
 /**
  * Class that manages the signal handler 
+ * <p>
+ * Handlers are added and removed on the FX thread while signals are delivered on
+ * AllJoyn threads.  Changes to the handlers are serialized, lookups and delivery do
+ * not lock.  A signal that is being delivered while its handler is removed may still
+ * reach the handler once.
  * 
  * @author mhotan@quicinc.com, Michael Hotan 
  */
 public class SignalHandlerManager implements Destroyable {
 
-    private final Map<Signal, SignalHandler> mMap;
+    private final ConcurrentMap<Signal, SignalHandler> mMap;
+
+    /**
+     * Filters by signal, kept while the signal is not received.
+     */
+    private final ConcurrentMap<Signal, SignalFilter> mFilters;
     
     private final BusAttachment mBus;
+
+    /**
+     * Single bus registration per interface member for every handler.
+     */
+    private final SignalDispatcher mDispatcher;
     
-    private SignalListener mListener;
+    private volatile SignalListener mListener;
     
     private static final String SESSIONLESS_MATCH = "sessionless='t'";
+
+    private static final String PROPERTIES_IFACE = "org.freedesktop.DBus.Properties";
+
+    private static final String PROPERTIES_CHANGED = "PropertiesChanged";
+
+    /**
+     * Handler for PropertiesChanged signals of every remote object, null if not registered.
+     */
+    private PropertiesChangedHandler mPropertiesChangedHandler;
     
     public SignalHandlerManager(BusAttachment bus) {
         if (bus == null)
             throw new NullPointerException(getClass().getSimpleName() + "<init>, Null BusAttachment");
         mBus = bus;
-        mMap = new HashMap<Signal, SignalHandler>();
+        mMap = new ConcurrentHashMap<Signal, SignalHandler>();
+        mFilters = new ConcurrentHashMap<Signal, SignalFilter>();
+        mDispatcher = new SignalDispatcher(bus);
     }
     
     /**
      * Sets the single listener for all current Signal Handlers
      * @param list Listener to use.
      */
-    public void setListener(SignalListener list) {
+    public synchronized void setListener(SignalListener list) {
         mListener = list;
         for (SignalHandler handler: mMap.values()) {
             handler.setListener(mListener);
@@ -62,7 +94,7 @@ public class SignalHandlerManager implements Destroyable {
     /**
      * Remove the listener for all current signal handler.
      */
-    public void removeListener() {
+    public synchronized void removeListener() {
         mListener = null;
         for (SignalHandler handler: mMap.values()) {
             handler.removeListener();
@@ -94,6 +126,18 @@ public class SignalHandlerManager implements Destroyable {
         return mMap.get(signal);
     }
     
+    /**
+     * Returns the statistics of every signal that has a handler.
+     * 
+     * @return Statistics by signal
+     */
+    public Map<Signal, ArrivalStatistics> getStatistics() {
+        Map<Signal, ArrivalStatistics> statistics = new LinkedHashMap<Signal, ArrivalStatistics>();
+        for (Map.Entry<Signal, SignalHandler> entry: mMap.entrySet())
+            statistics.put(entry.getKey(), entry.getValue().getStatistics());
+        return statistics;
+    }
+    
     /**
      * Checks for a SignalHandler for this Signal.  That means there is
      * an active object that is listening for this signal.
@@ -106,23 +150,25 @@ public class SignalHandlerManager implements Destroyable {
     }
     
     /**
-     * Creates a handler for a specific signal.
+     * Creates a handler for a specific signal.  Only signals of the object of this
+     * signal are routed to the handler.
      * 
      * @param signal Signal to create a handler for
      * @return Signal handler for this signal
      */
-    public Status addSignalHandler(Signal signal) {
+    public synchronized Status addSignalHandler(Signal signal) {
         if (mMap.containsKey(signal)) // we are already handling 
             return Status.OK;
         
         // create the handler add
         SignalHandler handler = new SignalHandler(signal);
         handler.setListener(mListener);
+        handler.setFilter(mFilters.get(signal));
         
-        // Create the interface name 
-        String ifaceName = signal.getInterface().getName();
-        String signalName = signal.getName();
-        Status status = mBus.registerSignalHandler(ifaceName, signalName, handler, handler.getHandleMethod());
+        // Route the signal of this object to the handler.
+        Interface iface = signal.getInterface();
+        Status status = mDispatcher.subscribe(getSender(signal), iface.getObject().getName(), 
+                iface.getName(), signal.getName(), handler);
         
         // If we were able to register the Signal handler
         if (status == Status.OK) {
@@ -130,30 +176,171 @@ public class SignalHandlerManager implements Destroyable {
         }
         return status;
     }
+
+    /**
+     * Returns the dispatcher of received signals.  Wildcard subscriptions,
+     * such as a signal of any object or of any sender, are made directly with it.
+     * 
+     * @return The dispatcher every handler is registered with
+     */
+    public SignalDispatcher getDispatcher() {
+        return mDispatcher;
+    }
+    
+    /**
+     * Sets the filter that received instances of this signal have to pass.
+     * The filter is kept when the signal handler is removed and added again.
+     * 
+     * @param signal Signal to filter
+     * @param filter Filter to use, null or empty to receive every instance
+     */
+    public synchronized void setSignalFilter(Signal signal, SignalFilter filter) {
+        if (filter == null || filter.isEmpty()) {
+            mFilters.remove(signal);
+        } else {
+            mFilters.put(signal, filter);
+        }
+        SignalHandler handler = mMap.get(signal);
+        if (handler != null)
+            handler.setFilter(filter);
+    }
+
+    /**
+     * Returns the filter of this signal.
+     * 
+     * @param signal Signal to get the filter of
+     * @return The filter, or null if every instance is received
+     */
+    public SignalFilter getSignalFilter(Signal signal) {
+        return mFilters.get(signal);
+    }
     
     /**
      * Unregisters the signal handler for this signal. 
      * @param signal signal to stop listening for.
      */
-    public void removeSignalHandler(Signal signal) {
+    public synchronized void removeSignalHandler(Signal signal) {
         SignalHandler handler = getSignalHandler(signal);
         
         // If we dont have a handler then it is ok.
         if (handler == null) return; 
         
-        // Unregister the handler and the method contained in it.
-        mBus.unregisterSignalHandler(handler, handler.getHandleMethod());
+        // Remove the route, the member is unregistered with its last route.
+        Interface iface = signal.getInterface();
+        mDispatcher.unsubscribe(getSender(signal), iface.getObject().getName(), 
+                iface.getName(), signal.getName(), handler);
         mMap.remove(signal);
     }
 
+    /**
+     * Returns the sender to route the signal on.  Only endpoints known by their
+     * unique name can be matched to a sender, signals of endpoints known by a 
+     * well known name are routed from any sender.
+     */
+    private static String getSender(Signal signal) {
+        String name = signal.getInterface().getObject().getOwner().getName();
+        return name != null && name.startsWith(":") ? name : null;
+    }
+
+    /**
+     * Registers a listener for the PropertiesChanged signal of every remote object.
+     * Only one listener is supported at a time.
+     * 
+     * @param listener Listener to notify on the AllJoyn thread
+     * @return Status of the registration, not OK if the bus does not know the signal
+     */
+    public synchronized Status addPropertiesChangedListener(PropertiesChangedListener listener) {
+        if (mPropertiesChangedHandler != null) 
+            removePropertiesChangedListener();
+
+        PropertiesChangedHandler handler = new PropertiesChangedHandler(mBus, listener);
+        Status status = mBus.registerSignalHandler(PROPERTIES_IFACE, PROPERTIES_CHANGED, 
+                handler, PropertiesChangedHandler.getHandleMethod());
+        if (status == Status.OK) {
+            mPropertiesChangedHandler = handler;
+        }
+        return status;
+    }
+
+    /**
+     * Unregisters the listener for PropertiesChanged signals.
+     */
+    public synchronized void removePropertiesChangedListener() {
+        if (mPropertiesChangedHandler == null) return;
+        mBus.unregisterSignalHandler(mPropertiesChangedHandler, PropertiesChangedHandler.getHandleMethod());
+        mPropertiesChangedHandler = null;
+    }
+
     @Override
-    public void destroy() {
+    public synchronized void destroy() {
         Set<Signal> toRemove = new HashSet<Signal>();
         for (Signal signal : mMap.keySet()) 
             toRemove.add(signal);
         
         for (Signal signal : toRemove) 
             removeSignalHandler(signal);
+        mDispatcher.destroy();
+        removePropertiesChangedListener();
+    }
+
+    /**
+     * Listener for changes of properties announced by remote objects.
+     */
+    public interface PropertiesChangedListener {
+
+        /**
+         * Called everytime a remote object announces changed properties.
+         * 
+         * @param sender Unique name of the sender
+         * @param objectPath Path of the object that owns the properties
+         * @param ifaceName Name of the interface that owns the properties
+         * @param changed New values of the properties that changed
+         * @param invalidated Names of the properties that changed without a value
+         */
+        public void onPropertiesChanged(String sender, String objectPath, String ifaceName, 
+                Map<String, Variant> changed, String[] invalidated);
+    }
+
+    /**
+     * Signal handler for org.freedesktop.DBus.Properties.PropertiesChanged.
+     */
+    private static class PropertiesChangedHandler {
+
+        private static final java.lang.reflect.Method HANDLE;
+
+        static {
+            try {
+                HANDLE = PropertiesChangedHandler.class.getDeclaredMethod(
+                        "handle", String.class, Map.class, String[].class);
+                // The bus invokes the handler reflectively from outside this class.
+                HANDLE.setAccessible(true);
+            } catch (NoSuchMethodException e) {
+                throw new RuntimeException("Unable to find method handle() Was this method's name changed or removed?");
+            }
+        }
+
+        private final BusAttachment mBus;
+
+        private final PropertiesChangedListener mListener;
+
+        PropertiesChangedHandler(BusAttachment bus, PropertiesChangedListener listener) {
+            mBus = bus;
+            mListener = listener;
+        }
+
+        static java.lang.reflect.Method getHandleMethod() {
+            return HANDLE;
+        }
+
+        /**
+         * The method that it is invoked via the alljoyn JNI on reception of
+         * a PropertiesChanged signal. 
+         */
+        public void handle(String ifaceName, Map<String, Variant> changed, String[] invalidated) {
+            MessageContext context = mBus.getMessageContext();
+            mListener.onPropertiesChanged(context.sender, context.objectPath, ifaceName, 
+                    changed, invalidated == null ? new String[0] : invalidated);
+        }
     }
     
 }
@@ -16,6 +16,14 @@
 
 package org.alljoyn.triumph.model.components.arguments;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
 import org.alljoyn.triumph.util.AJConstant;
 import org.w3c.dom.Node;
 
@@ -50,6 +58,63 @@ public class ByteArrayArgument extends NumberArrayArgument<byte[]> {
         return "" + AJConstant.ALLJOYN_ARRAY + AJConstant.ALLJOYN_BYTE;
     }
 
+    /**
+     * Sets the value of this argument to the contents of a file.  The file is memory
+     * mapped and copied once into the array that is handed to the bus, so large payloads
+     * do not pass through any intermediate stream buffers.
+     * 
+     * @param file File to read
+     * @throws IOException Unable to read the file, or the file does not fit in an array
+     */
+    public void setValue(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IOException(file.getName() + " is too large for a byte array");
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            setValue(buffer);
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Sets the value of this argument to the remaining bytes of buffer.
+     * The bytes are copied with a single bulk transfer.  The position of 
+     * buffer is not changed.
+     * 
+     * @param buffer Buffer to read, for example a direct or mapped buffer
+     */
+    public void setValue(ByteBuffer buffer) {
+        ByteBuffer src = buffer.duplicate();
+        byte[] value = new byte[src.remaining()];
+        src.get(value);
+        setValue(value);
+    }
+
+    /**
+     * Writes the value of this argument to a file.  The value is wrapped, not copied
+     * into a new array, but the channel still copies the heap buffer through a
+     * temporary direct buffer before writing it.
+     * 
+     * @param file File to write, replaced if it exists
+     * @throws IOException Unable to write the file
+     */
+    public void writeValue(File file) throws IOException {
+        byte[] value = getValue();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(value == null ? new byte[0] : value);
+            FileChannel channel = out.getChannel();
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        } finally {
+            out.close();
+        }
+    }
+
 //    //////////////////////////////////////////////////////////////////////////////////////
 //    //////  Methods that are used for Serialization.
 //    //////  
@@ -0,0 +1,226 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Constant memory statistics of the arrivals of an event: rate over sliding
+ * windows of up to {@link #MAX_WINDOW_SECONDS}, bursts and the distribution of
+ * the time between arrivals.
+ * <p>
+ * Arrivals are counted per second in a ring of slots.  Every slot packs the second
+ * it counts for and its count in one long, so a slot is reused for a new second with
+ * a single compare and set.  Arrivals closer together than the burst gap belong to the
+ * same burst.
+ * <p>
+ * Recording is lock free and may be done from any number of threads.  Reads are
+ * not atomic with respect to concurrent recording, which is fine for reporting.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class ArrivalStatistics {
+
+    /**
+     * Longest window a rate can be computed over.
+     */
+    public static final int MAX_WINDOW_SECONDS = 60;
+
+    /**
+     * Default largest gap between two arrivals of the same burst.
+     */
+    public static final long DEFAULT_BURST_GAP_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final long NANOS_PER_SECOND = 1000000000L;
+
+    /**
+     * Number of per second slots, a power of two above the longest window.
+     */
+    private static final int SLOTS = 64;
+
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final long mOrigin, mBurstGap;
+
+    private final AtomicLongArray mSlots;
+
+    private final AtomicLong mCount, mLast, mBurst, mLastBurst, mMaxBurst;
+
+    private final LatencyHistogram mGaps;
+
+    /**
+     * Creates statistics with the default burst gap.
+     */
+    public ArrivalStatistics() {
+        this(DEFAULT_BURST_GAP_NANOS, System.nanoTime());
+    }
+
+    /**
+     * Creates statistics.
+     *
+     * @param burstGapNanos Largest gap between two arrivals of the same burst
+     * @param originNanos Time no arrival is recorded before, in the time base of {@link System#nanoTime()}
+     */
+    public ArrivalStatistics(long burstGapNanos, long originNanos) {
+        mOrigin = originNanos;
+        mBurstGap = burstGapNanos;
+        mSlots = new AtomicLongArray(SLOTS);
+        mCount = new AtomicLong();
+        mLast = new AtomicLong(NEVER);
+        mBurst = new AtomicLong();
+        mLastBurst = new AtomicLong();
+        mMaxBurst = new AtomicLong();
+        mGaps = new LatencyHistogram();
+    }
+
+    /**
+     * Records an arrival now.
+     */
+    public void record() {
+        record(System.nanoTime());
+    }
+
+    /**
+     * Records an arrival.
+     *
+     * @param nowNanos Time of the arrival
+     */
+    public void record(long nowNanos) {
+        mCount.incrementAndGet();
+
+        long second = second(nowNanos);
+        int index = (int) (second & (SLOTS - 1));
+        while (true) {
+            long slot = mSlots.get(index);
+            long next = (slot >>> 32) == second ? slot + 1 : (second << 32) | 1;
+            if (mSlots.compareAndSet(index, slot, next)) break;
+        }
+
+        long previous = mLast.getAndSet(nowNanos);
+        if (previous == NEVER) {
+            mBurst.set(1);
+            return;
+        }
+        long gap = nowNanos - previous;
+        mGaps.recordValue(gap);
+        if (gap <= mBurstGap) {
+            updateMax(mBurst.incrementAndGet());
+        } else {
+            long finished = mBurst.getAndSet(1);
+            mLastBurst.set(finished);
+            updateMax(finished);
+        }
+    }
+
+    /**
+     * @return Number of arrivals
+     */
+    public long getCount() {
+        return mCount.get();
+    }
+
+    /**
+     * Returns the average rate over the last complete seconds.
+     *
+     * @param windowSeconds Number of seconds to average over, at most {@link #MAX_WINDOW_SECONDS}
+     * @return Arrivals per second
+     */
+    public double getRate(int windowSeconds) {
+        return getRate(windowSeconds, System.nanoTime());
+    }
+
+    /**
+     * Returns the average rate over the complete seconds before a time.
+     *
+     * @param windowSeconds Number of seconds to average over, at most {@link #MAX_WINDOW_SECONDS}
+     * @param nowNanos Time to compute the rate at
+     * @return Arrivals per second
+     */
+    public double getRate(int windowSeconds, long nowNanos) {
+        if (windowSeconds < 1 || windowSeconds > MAX_WINDOW_SECONDS)
+            throw new IllegalArgumentException(getClass().getSimpleName()
+                    + ".getRate(), Illegal window " + windowSeconds);
+        long current = second(nowNanos);
+        long total = 0;
+        for (long second = current - windowSeconds; second < current; ++second) {
+            if (second < 0) continue;
+            long slot = mSlots.get((int) (second & (SLOTS - 1)));
+            if ((slot >>> 32) == second)
+                total += slot & COUNT_MASK;
+        }
+        return (double) total / windowSeconds;
+    }
+
+    /**
+     * @return Time since the last arrival in nanoseconds, or -1 if nothing arrived
+     */
+    public long getQuietNanos() {
+        return getQuietNanos(System.nanoTime());
+    }
+
+    /**
+     * @param nowNanos Time to measure up to
+     * @return Time since the last arrival in nanoseconds, or -1 if nothing arrived
+     */
+    public long getQuietNanos(long nowNanos) {
+        long last = mLast.get();
+        return last == NEVER ? -1 : nowNanos - last;
+    }
+
+    /**
+     * @return Number of arrivals in the burst that is in progress or ended last
+     */
+    public long getCurrentBurst() {
+        return mBurst.get();
+    }
+
+    /**
+     * @return Number of arrivals in the last burst that ended
+     */
+    public long getLastBurst() {
+        return mLastBurst.get();
+    }
+
+    /**
+     * @return Number of arrivals of the largest burst
+     */
+    public long getMaxBurst() {
+        return mMaxBurst.get();
+    }
+
+    /**
+     * @return Distribution of the nanoseconds between consecutive arrivals
+     */
+    public LatencyHistogram getInterArrivalHistogram() {
+        return mGaps;
+    }
+
+    private long second(long nowNanos) {
+        return Math.max(0, nowNanos - mOrigin) / NANOS_PER_SECOND;
+    }
+
+    private void updateMax(long burst) {
+        long max = mMaxBurst.get();
+        while (burst > max && !mMaxBurst.compareAndSet(max, burst)) {
+            max = mMaxBurst.get();
+        }
+    }
+}
@@ -0,0 +1,318 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * History of a bounded number of elements, oldest first.
+ * <p>
+ * When an element arrives while the history is full the {@link POLICY} decides which
+ * element is lost.  Every lost element is counted against its key, so the user can
+ * tell which sources lost data.  Listeners are told about every element that enters
+ * or leaves the history so views can mirror it without copying.
+ * <p>
+ * This class is not thread safe, it is meant to be used from the JavaFX thread.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ * @param <K> Type of the key drops are counted by
+ * @param <E> Type of the elements
+ */
+public class BoundedHistory<K, E> {
+
+    /**
+     * What to do with new elements.
+     */
+    public enum POLICY {
+
+        /**
+         * Keep every element, remove the oldest when full.
+         */
+        DROP_OLDEST,
+
+        /**
+         * Keep the oldest elements, reject new ones when full.
+         */
+        DROP_NEWEST,
+
+        /**
+         * Keep one out of every N elements of each key, remove the oldest when full.
+         */
+        SAMPLE
+    }
+
+    /**
+     * Classifies the elements for drop accounting.
+     *
+     * @param <K> Type of the key
+     * @param <E> Type of the elements
+     */
+    public interface KeyExtractor<K, E> {
+
+        /**
+         * @param element Element to classify
+         * @return Key to count drops of the element against
+         */
+        public K getKey(E element);
+    }
+
+    /**
+     * Follows the content of the history.
+     *
+     * @param <E> Type of the elements
+     */
+    public interface HistoryListener<E> {
+
+        /**
+         * The element was appended to the end of the history.
+         *
+         * @param element Added element
+         */
+        public void onAdded(E element);
+
+        /**
+         * The element was removed from the front of the history.
+         *
+         * @param element Removed element
+         */
+        public void onRemoved(E element);
+    }
+
+    private final KeyExtractor<K, E> mKeys;
+
+    private final Deque<E> mElements;
+
+    private final Map<K, Counter> mCounters;
+
+    private final List<HistoryListener<E>> mListeners;
+
+    private int mCapacity, mSampleRate;
+
+    private POLICY mPolicy;
+
+    private long mTotalDropped;
+
+    /**
+     * Creates an empty history.
+     *
+     * @param capacity Maximum number of elements to keep
+     * @param policy What to do with new elements
+     * @param sampleRate Keep one out of this many elements per key when sampling
+     * @param keys Classifies elements for drop accounting
+     */
+    public BoundedHistory(int capacity, POLICY policy, int sampleRate, KeyExtractor<K, E> keys) {
+        if (keys == null)
+            throw new NullPointerException(getClass().getSimpleName() + "<init>, Null key extractor");
+        mKeys = keys;
+        mElements = new ArrayDeque<E>();
+        mCounters = new LinkedHashMap<K, Counter>();
+        mListeners = new ArrayList<HistoryListener<E>>();
+        setCapacity(capacity);
+        setPolicy(policy, sampleRate);
+    }
+
+    /**
+     * @param listener Listener to add
+     */
+    public void addListener(HistoryListener<E> listener) {
+        if (listener == null) return;
+        mListeners.add(listener);
+    }
+
+    /**
+     * @param listener Listener to remove
+     */
+    public void removeListener(HistoryListener<E> listener) {
+        mListeners.remove(listener);
+    }
+
+    /**
+     * Adds an element according to the policy.
+     *
+     * @param element Element to add
+     * @return Whether the element was kept
+     */
+    public boolean add(E element) {
+        if (element == null) return false;
+        Counter counter = getCounter(mKeys.getKey(element));
+        long seen = counter.mSeen++;
+
+        if (mPolicy == POLICY.SAMPLE && seen % mSampleRate != 0) {
+            drop(counter);
+            return false;
+        }
+        if (mElements.size() >= mCapacity) {
+            if (mPolicy == POLICY.DROP_NEWEST) {
+                drop(counter);
+                return false;
+            }
+            removeOldest();
+        }
+
+        mElements.addLast(element);
+        for (HistoryListener<E> listener: mListeners)
+            listener.onAdded(element);
+        return true;
+    }
+
+    /**
+     * Removes every element without counting them as dropped.
+     */
+    public void clear() {
+        while (!mElements.isEmpty()) {
+            E element = mElements.removeFirst();
+            for (HistoryListener<E> listener: mListeners)
+                listener.onRemoved(element);
+        }
+    }
+
+    /**
+     * Changes the capacity, dropping the oldest elements that no longer fit.
+     *
+     * @param capacity Maximum number of elements to keep
+     */
+    public void setCapacity(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException(getClass().getSimpleName()
+                    + ".setCapacity(), Illegal capacity " + capacity);
+        mCapacity = capacity;
+        while (mElements.size() > mCapacity)
+            removeOldest();
+    }
+
+    /**
+     * Changes what happens to new elements.  Elements already in the history are kept.
+     *
+     * @param policy What to do with new elements
+     * @param sampleRate Keep one out of this many elements per key, only used when sampling
+     */
+    public void setPolicy(POLICY policy, int sampleRate) {
+        if (policy == null)
+            throw new NullPointerException(getClass().getSimpleName() + ".setPolicy(), Null policy");
+        if (sampleRate < 1)
+            throw new IllegalArgumentException(getClass().getSimpleName()
+                    + ".setPolicy(), Illegal sample rate " + sampleRate);
+        mPolicy = policy;
+        mSampleRate = sampleRate;
+    }
+
+    /**
+     * @return What happens to new elements
+     */
+    public POLICY getPolicy() {
+        return mPolicy;
+    }
+
+    /**
+     * @return One out of this many elements per key is kept when sampling
+     */
+    public int getSampleRate() {
+        return mSampleRate;
+    }
+
+    /**
+     * @return Maximum number of elements kept
+     */
+    public int getCapacity() {
+        return mCapacity;
+    }
+
+    /**
+     * @return Number of elements in the history
+     */
+    public int size() {
+        return mElements.size();
+    }
+
+    /**
+     * @return Elements of the history, oldest first
+     */
+    public List<E> getElements() {
+        return new ArrayList<E>(mElements);
+    }
+
+    /**
+     * @param key Key to get the drops of
+     * @return Number of elements of the key that were dropped
+     */
+    public long getDroppedCount(K key) {
+        Counter counter = mCounters.get(key);
+        return counter == null ? 0 : counter.mDropped;
+    }
+
+    /**
+     * @return Number of elements that were dropped
+     */
+    public long getTotalDroppedCount() {
+        return mTotalDropped;
+    }
+
+    /**
+     * @return Number of dropped elements of every key that lost at least one,
+     * in the order the keys were first seen
+     */
+    public Map<K, Long> getDroppedCounts() {
+        Map<K, Long> drops = new LinkedHashMap<K, Long>();
+        for (Map.Entry<K, Counter> entry: mCounters.entrySet()) {
+            if (entry.getValue().mDropped > 0)
+                drops.put(entry.getKey(), entry.getValue().mDropped);
+        }
+        return Collections.unmodifiableMap(drops);
+    }
+
+    /**
+     * Clears the drop counters and the sampling position of every key.
+     */
+    public void resetDroppedCounts() {
+        mCounters.clear();
+        mTotalDropped = 0;
+    }
+
+    private void removeOldest() {
+        E oldest = mElements.removeFirst();
+        drop(getCounter(mKeys.getKey(oldest)));
+        for (HistoryListener<E> listener: mListeners)
+            listener.onRemoved(oldest);
+    }
+
+    private void drop(Counter counter) {
+        counter.mDropped++;
+        mTotalDropped++;
+    }
+
+    private Counter getCounter(K key) {
+        Counter counter = mCounters.get(key);
+        if (counter == null) {
+            counter = new Counter();
+            mCounters.put(key, counter);
+        }
+        return counter;
+    }
+
+    /**
+     * Elements seen and dropped of a single key.
+     */
+    private static class Counter {
+        private long mSeen, mDropped;
+    }
+}
@@ -4,7 +4,6 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.util.Date;
 
-import org.alljoyn.triumph.model.SessionPortStorage;
 import org.alljoyn.triumph.view.EndPointTable.EndPointRow;
 
 /**
@@ -77,7 +76,8 @@ public class EndPointFilter implements Filterable<EndPointRow>, Serializable {
         String name = object.getName();
         boolean nameMatch = name.startsWith(mPrefix) && name.endsWith(mSuffix);
         if (mPort == null) return nameMatch;
-        short port = SessionPortStorage.getPort(name);
+        // The port of the row, the same port the index of the table answers with.
+        short port = (short) object.getPort();
         return (port == mPort.shortValue() && nameMatch);
     }
 
@@ -0,0 +1,38 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+
+package org.alljoyn.triumph.util;
+
+import java.util.Set;
+
+/**
+ * Index that answers filters without evaluating them on every item.
+ * 
+ * @author Michael Hotan, mhotan@quicinc.com
+ *
+ * @param <T> Type of the indexed items
+ */
+public interface FilterIndex<T> {
+
+    /**
+     * Returns the indexed items that pass a filter.
+     * 
+     * @param filter Filter to answer
+     * @return New set of the items that pass the filter, or null if the index cannot answer this filter
+     */
+    public Set<T> getMatches(Filterable<T> filter);
+}
@@ -0,0 +1,194 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed memory histogram of latencies in the style of an HDR histogram.
+ * <p>
+ * Values below {@link #SUB_BUCKET_COUNT} are counted exactly.  Larger values are
+ * placed in log linear buckets: every power of two range is split in 64 equally
+ * sized buckets, which keeps the relative error of any reported value under 1.6%
+ * for the complete range of a long.
+ * <p>
+ * Recording is lock free and may be done from any number of threads.  Reads are
+ * not atomic with respect to concurrent recording, which is fine for reporting.
+ *
+ * @author mhotan@quicinc.com, Michael Hotan
+ */
+public class LatencyHistogram {
+
+    /**
+     * Number of bits of precision kept for every value.
+     */
+    private static final int SUB_BUCKET_BITS = 7;
+
+    /**
+     * Number of values that are counted exactly.
+     */
+    public static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private static final int HALF_COUNT = SUB_BUCKET_COUNT / 2;
+
+    /**
+     * Exact buckets, plus half a sub bucket range for every remaining power of two.
+     */
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (64 - SUB_BUCKET_BITS) * HALF_COUNT;
+
+    private final AtomicLongArray mCounts;
+
+    private final AtomicLong mTotalCount, mTotalValue, mMax;
+
+    /**
+     * Creates an empty histogram.
+     */
+    public LatencyHistogram() {
+        mCounts = new AtomicLongArray(BUCKET_COUNT);
+        mTotalCount = new AtomicLong();
+        mTotalValue = new AtomicLong();
+        mMax = new AtomicLong();
+    }
+
+    /**
+     * Records a single value.
+     *
+     * @param value Value to record, negative values are recorded as 0.
+     */
+    public void recordValue(long value) {
+        if (value < 0) value = 0;
+        mCounts.incrementAndGet(indexOf(value));
+        mTotalCount.incrementAndGet();
+        mTotalValue.addAndGet(value);
+
+        long max = mMax.get();
+        while (value > max && !mMax.compareAndSet(max, value)) {
+            max = mMax.get();
+        }
+    }
+
+    /**
+     * @return Number of values recorded.
+     */
+    public long getTotalCount() {
+        return mTotalCount.get();
+    }
+
+    /**
+     * @return Largest value recorded, exact.
+     */
+    public long getMaxValue() {
+        return mMax.get();
+    }
+
+    /**
+     * @return Mean of all recorded values, 0 if nothing is recorded.
+     */
+    public double getMean() {
+        long count = mTotalCount.get();
+        return count == 0 ? 0 : (double) mTotalValue.get() / count;
+    }
+
+    /**
+     * Returns the value at a given percentile.  The value reported is the highest
+     * value that is equivalent to the bucket the percentile falls in, capped by the
+     * maximum recorded value.
+     *
+     * @param percentile Percentile in the range [0, 100]
+     * @return Value at percentile, 0 if nothing is recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("Illegal percentile " + percentile);
+        long total = mTotalCount.get();
+        if (total == 0) return 0;
+
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            seen += mCounts.get(i);
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), mMax.get());
+            }
+        }
+        return mMax.get();
+    }
+
+    /**
+     * Adds all the values recorded in another histogram to this one.
+     *
+     * @param other Histogram to add
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            long count = other.mCounts.get(i);
+            if (count != 0)
+                mCounts.addAndGet(i, count);
+        }
+        mTotalCount.addAndGet(other.mTotalCount.get());
+        mTotalValue.addAndGet(other.mTotalValue.get());
+        long otherMax = other.mMax.get();
+        long max = mMax.get();
+        while (otherMax > max && !mMax.compareAndSet(max, otherMax)) {
+            max = mMax.get();
+        }
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; ++i)
+            mCounts.set(i, 0);
+        mTotalCount.set(0);
+        mTotalValue.set(0);
+        mMax.set(0);
+    }
+
+    /**
+     * @param value Non negative value
+     * @return Index of the bucket that counts value
+     */
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT)
+            return (int) value;
+
+        // Keep the top SUB_BUCKET_BITS bits of the value,
+        // the leading bit is implied by the shift.
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - (SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> shift);
+        return SUB_BUCKET_COUNT + (shift - 1) * HALF_COUNT + (subBucket - HALF_COUNT);
+    }
+
+    /**
+     * @param index Index of a bucket
+     * @return Highest value that is counted by bucket index
+     */
+    private static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT)
+            return index;
+
+        int offset = index - SUB_BUCKET_COUNT;
+        int shift = offset / HALF_COUNT + 1;
+        long subBucket = offset % HALF_COUNT + HALF_COUNT;
+        long next = (subBucket + 1) << shift;
+        // The last bucket ends past Long.MAX_VALUE.
+        return next <= 0 ? Long.MAX_VALUE : next - 1;
+    }
+}
@@ -49,11 +49,21 @@ public class ListManager<T> {
      * Set of elements that do not 
      */
     private final Set<T> mUnusedSet;
+
+    /**
+     * Index of the elements of the list, so membership does not scan the list.
+     */
+    private final Set<T> mListed;
     
     /**
      * List of filters for this specific type of list.
      */
     private final List<Filterable<T>> mFilters;
+
+    /**
+     * Index that answers filters on the items, null to evaluate every filter on every item.
+     */
+    private FilterIndex<T> mIndex;
     
     /**
      * Creates an empty list manager.
@@ -62,6 +72,7 @@ public class ListManager<T> {
         mList = FXCollections.observableArrayList();
         mFilters = new ArrayList<Filterable<T>>();
         mUnusedSet = new HashSet<T>();
+        mListed = new HashSet<T>();
     }
     
     /**
@@ -75,6 +86,7 @@ public class ListManager<T> {
             mList = list;
         mFilters = new ArrayList<Filterable<T>>();
         mUnusedSet = new HashSet<T>();
+        mListed = new HashSet<T>(mList);
     }
     
     /**
@@ -90,20 +102,21 @@ public class ListManager<T> {
         
         // Iterate through the list of new items
         // check to make sure the item is already
-        for (T item: newItems) {
-            add(item);
-        }
+        addAll(newItems);
         
         // Get all the elements and
         // check if the new state has the item.
-        Set<T> set = new HashSet<T>();
-        set.addAll(mList);
-        set.addAll(mUnusedSet);
-        for (T item: set) {
-            if (!newItems.contains(item)) {
-                remove(item);
-            }
+        Set<T> newSet = new HashSet<T>(newItems);
+        List<T> lost = new ArrayList<T>();
+        for (T item: mListed) {
+            if (!newSet.contains(item))
+                lost.add(item);
+        }
+        for (T item: mUnusedSet) {
+            if (!newSet.contains(item))
+                lost.add(item);
         }
+        removeAll(lost);
     }
     
     /**
@@ -114,7 +127,7 @@ public class ListManager<T> {
      */
     public boolean contains(T item) {
         if (item == null) return false;
-        return mList.contains(item) || mUnusedSet.contains(item);
+        return mListed.contains(item) || mUnusedSet.contains(item);
     }
     
     /**
@@ -132,11 +145,33 @@ public class ListManager<T> {
         if (contains(item)) return;
 
         // Check if the item matches the filter
-        if (matchFilters(item))
+        if (matchFilters(item)) {
             mList.add(item);
-        else 
+            mListed.add(item);
+        } else 
             mUnusedSet.add(item);
     }
+
+    /**
+     * Adds every item that is not contained yet.  Items that pass the filters
+     * are appended to the list in a single change.
+     * 
+     * @param items Items to add
+     */
+    public void addAll(Collection<T> items) {
+        if (items == null) return;
+        List<T> toList = new ArrayList<T>();
+        for (T item: items) {
+            if (item == null || contains(item)) continue;
+            if (matchFilters(item)) {
+                mListed.add(item);
+                toList.add(item);
+            } else
+                mUnusedSet.add(item);
+        }
+        if (!toList.isEmpty())
+            mList.addAll(toList);
+    }
     
     /**
      * Remove item if it exists.
@@ -146,11 +181,41 @@ public class ListManager<T> {
      */
     public boolean remove(T item) {
         // Make sure remove is called on both data structures.
-        boolean inList = mList.remove(item);
+        boolean inList = mListed.remove(item) && mList.remove(item);
         boolean inSet = mUnusedSet.remove(item);
         return inList || inSet;
     }
 
+    /**
+     * Removes every item that is contained.  Items of the list are removed
+     * in a single change.
+     * 
+     * @param items Items to remove
+     */
+    public void removeAll(Collection<T> items) {
+        if (items == null) return;
+        Set<T> fromList = new HashSet<T>();
+        for (T item: items) {
+            if (item == null) continue;
+            if (mListed.remove(item))
+                fromList.add(item);
+            else
+                mUnusedSet.remove(item);
+        }
+        if (!fromList.isEmpty())
+            mList.removeAll(fromList);
+    }
+
+    /**
+     * Sets the index used to apply filter changes.  The index must contain
+     * every item of this manager.
+     * 
+     * @param index Index to query, null to evaluate the filters on every item
+     */
+    public void setFilterIndex(FilterIndex<T> index) {
+        mIndex = index;
+    }
+
     /**
      * Adds a filter to this.
      * @param filter filter to add
@@ -200,6 +265,11 @@ public class ListManager<T> {
      * Updates the current list with the current filters.
      */
     private void update() {
+        Set<T> matches = getIndexMatches();
+        if (matches != null) {
+            update(matches);
+            return;
+        }
         List<T> tmpList = new ArrayList<T>(mList);
         
         // iterate over the current list and check
@@ -208,6 +278,7 @@ public class ListManager<T> {
         for (T item: tmpList) {
             if (!matchFilters(item)) {
                 mList.remove(item);
+                mListed.remove(item);
                 mUnusedSet.add(item);
             }
         }
@@ -218,8 +289,62 @@ public class ListManager<T> {
         for (T item: tmpSet) {
             if (matchFilters(item)) {
                 mList.add(item);
+                mListed.add(item);
                 mUnusedSet.remove(item);
             }
         }
     }
+
+    /**
+     * Queries the index for the items that pass all the filters.
+     * 
+     * @return Items that pass, null if the index cannot answer every filter
+     */
+    private Set<T> getIndexMatches() {
+        if (mIndex == null || mFilters.isEmpty()) return null;
+        Set<T> matches = null;
+        for (Filterable<T> filter: mFilters) {
+            Set<T> filtered = mIndex.getMatches(filter);
+            if (filtered == null) return null;
+            if (matches == null) {
+                matches = filtered;
+            } else {
+                // Intersect from the smaller set.
+                Set<T> smaller = filtered.size() < matches.size() ? filtered : matches;
+                Set<T> larger = smaller == filtered ? matches : filtered;
+                smaller.retainAll(larger);
+                matches = smaller;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Shows exactly the items that pass, moving only the items whose state changes.
+     * 
+     * @param matches Items that pass all the filters
+     */
+    private void update(Set<T> matches) {
+        List<T> hidden = new ArrayList<T>();
+        for (T item: mListed) {
+            if (!matches.contains(item))
+                hidden.add(item);
+        }
+        List<T> shown = new ArrayList<T>();
+        for (T item: matches) {
+            if (mUnusedSet.contains(item))
+                shown.add(item);
+        }
+
+        if (!hidden.isEmpty()) {
+            mListed.removeAll(hidden);
+            mUnusedSet.addAll(hidden);
+            mList.removeAll(new HashSet<T>(hidden));
+        }
+        if (!shown.isEmpty()) {
+            mUnusedSet.removeAll(shown);
+            mListed.addAll(shown);
+            mList.addAll(shown);
+        }
+    }
 }
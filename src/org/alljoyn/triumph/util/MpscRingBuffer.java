@@ -0,0 +1,183 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock free queue for many producer threads and a single consumer thread.
+ * <p>
+ * Every slot carries a sequence number that tells producers whether the slot is
+ * free and tells the consumer whether the slot has been published.  Producers claim
+ * a slot with a single compare and set on the tail, the consumer never writes to
+ * shared counters other than the sequence of the slot it freed.  When the buffer
+ * is full {@link #offer(Object)} fails immediately instead of blocking the producer.
+ * <p>
+ * {@link #poll()} and {@link #drain(Consumer, int)} must only ever be called from one
+ * thread at a time.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ * @param <E> Type of the elements
+ */
+public class MpscRingBuffer<E> {
+
+    /**
+     * Receives the elements of a drain.
+     *
+     * @param <E> Type of the elements
+     */
+    public interface Consumer<E> {
+
+        /**
+         * @param element Element that was removed from the buffer
+         */
+        public void accept(E element);
+    }
+
+    private final int mCapacity, mMask;
+
+    private final AtomicReferenceArray<E> mElements;
+
+    /**
+     * Sequence of every slot.  A slot at position p is free for the producer of p
+     * when its sequence is p, and holds the element of p when its sequence is p + 1.
+     */
+    private final AtomicLongArray mSequences;
+
+    /**
+     * Next position to claim by a producer.
+     */
+    private final AtomicLong mTail;
+
+    /**
+     * Next position to consume.  Only touched by the consumer.
+     */
+    private long mHead;
+
+    /**
+     * Creates an empty buffer.
+     *
+     * @param capacity Minimum number of elements the buffer can hold, rounded up to a power of two
+     */
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30))
+            throw new IllegalArgumentException(getClass().getSimpleName() + "<init>, Illegal capacity " + capacity);
+        mCapacity = roundUp(capacity);
+        mMask = mCapacity - 1;
+        mElements = new AtomicReferenceArray<E>(mCapacity);
+        mSequences = new AtomicLongArray(mCapacity);
+        for (int i = 0; i < mCapacity; ++i)
+            mSequences.set(i, i);
+        mTail = new AtomicLong();
+    }
+
+    private static int roundUp(int capacity) {
+        int highest = Integer.highestOneBit(capacity);
+        return highest == capacity ? capacity : highest << 1;
+    }
+
+    /**
+     * Adds an element.  Safe to call from any thread.
+     *
+     * @param element Element to add
+     * @return Whether the element was added, false if the buffer is full
+     */
+    public boolean offer(E element) {
+        if (element == null)
+            throw new NullPointerException(getClass().getSimpleName() + ".offer(), Null element");
+        long pos = mTail.get();
+        while (true) {
+            int index = (int) pos & mMask;
+            long diff = mSequences.get(index) - pos;
+            if (diff == 0) {
+                if (mTail.compareAndSet(pos, pos + 1)) {
+                    mElements.lazySet(index, element);
+                    // Publishes the element to the consumer.
+                    mSequences.lazySet(index, pos + 1);
+                    return true;
+                }
+                pos = mTail.get();
+            } else if (diff < 0) {
+                // The consumer has not freed this slot yet.
+                return false;
+            } else {
+                // Another producer claimed this position.
+                pos = mTail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest element.  Must only be called by the consumer.
+     *
+     * @return The oldest element, or null if there is no published element
+     */
+    public E poll() {
+        long pos = mHead;
+        int index = (int) pos & mMask;
+        if (mSequences.get(index) != pos + 1) return null;
+
+        E element = mElements.get(index);
+        mElements.lazySet(index, null);
+        // Frees the slot for the producer of the next lap.
+        mSequences.lazySet(index, pos + mCapacity);
+        mHead = pos + 1;
+        return element;
+    }
+
+    /**
+     * Removes up to limit elements in the order they were added.  Must only be
+     * called by the consumer.
+     *
+     * @param consumer Consumer to hand every element to
+     * @param limit Maximum number of elements to remove
+     * @return Number of elements removed
+     */
+    public int drain(Consumer<? super E> consumer, int limit) {
+        int count = 0;
+        E element;
+        while (count < limit && (element = poll()) != null) {
+            consumer.accept(element);
+            ++count;
+        }
+        return count;
+    }
+
+    /**
+     * @return Number of elements in the buffer.  Only an estimate while producers are active.
+     */
+    public int size() {
+        long size = mTail.get() - mHead;
+        return (int) Math.max(0, Math.min(mCapacity, size));
+    }
+
+    /**
+     * @return Whether the buffer holds no elements.  Only an estimate while producers are active.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return Number of elements the buffer can hold
+     */
+    public int capacity() {
+        return mCapacity;
+    }
+}
@@ -0,0 +1,305 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+
+package org.alljoyn.triumph.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of items by unique name and port number.
+ * <p>
+ * Names are kept in a prefix trie and, reversed, in a suffix trie.  Every node
+ * counts the names below it, so a query starts from whichever of the prefix,
+ * the suffix or the port selects the fewest items and only checks those.  A query
+ * costs the length of the prefix and suffix plus the number of candidates,
+ * independent of the number of indexed names.
+ * <p>
+ * This class is not thread safe, it is meant to be used from the JavaFX thread.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ * @param <T> Type of the indexed items
+ */
+public class NameIndex<T> {
+
+    private final Node<T> mPrefixRoot, mSuffixRoot;
+
+    private final Map<String, Entry<T>> mEntries;
+
+    private final Map<Short, Set<Entry<T>>> mPorts;
+
+    /**
+     * Creates an empty index.
+     */
+    public NameIndex() {
+        mPrefixRoot = new Node<T>();
+        mSuffixRoot = new Node<T>();
+        mEntries = new HashMap<String, Entry<T>>();
+        mPorts = new HashMap<Short, Set<Entry<T>>>();
+    }
+
+    /**
+     * Indexes an item, replacing the item of the same name.
+     *
+     * @param name Unique name of the item
+     * @param port Port number of the item
+     * @param item Item to index
+     */
+    public void put(String name, short port, T item) {
+        if (name == null || item == null)
+            throw new NullPointerException(getClass().getSimpleName() + ".put(), Null name or item");
+        remove(name);
+        Entry<T> entry = new Entry<T>(name, port, item);
+        mEntries.put(name, entry);
+        insert(mPrefixRoot, name, entry);
+        insert(mSuffixRoot, reverse(name), entry);
+        addPort(entry);
+    }
+
+    /**
+     * Removes the item of a name.
+     *
+     * @param name Name of the item
+     * @return The removed item, null if no item has this name
+     */
+    public T remove(String name) {
+        Entry<T> entry = mEntries.remove(name);
+        if (entry == null) return null;
+        delete(mPrefixRoot, name);
+        delete(mSuffixRoot, reverse(name));
+        removePort(entry);
+        return entry.mItem;
+    }
+
+    /**
+     * Changes the port number of the item of a name.
+     *
+     * @param name Name of the item
+     * @param port New port number
+     * @return true if an item has this name, false otherwise
+     */
+    public boolean setPort(String name, short port) {
+        Entry<T> entry = mEntries.get(name);
+        if (entry == null) return false;
+        removePort(entry);
+        entry.mPort = port;
+        addPort(entry);
+        return true;
+    }
+
+    /**
+     * @param name Name of the item
+     * @return The item of the name, null if there is none
+     */
+    public T get(String name) {
+        Entry<T> entry = mEntries.get(name);
+        return entry == null ? null : entry.mItem;
+    }
+
+    /**
+     * @return Number of indexed items
+     */
+    public int size() {
+        return mEntries.size();
+    }
+
+    /**
+     * Removes every item.
+     */
+    public void clear() {
+        mEntries.clear();
+        mPorts.clear();
+        mPrefixRoot.mChildren.clear();
+        mPrefixRoot.mCount = 0;
+        mSuffixRoot.mChildren.clear();
+        mSuffixRoot.mCount = 0;
+    }
+
+    /**
+     * @param prefix Prefix of the names
+     * @return Items whose name starts with the prefix
+     */
+    public Set<T> withPrefix(String prefix) {
+        return query(prefix, null, null);
+    }
+
+    /**
+     * @param suffix Suffix of the names
+     * @return Items whose name ends with the suffix
+     */
+    public Set<T> withSuffix(String suffix) {
+        return query(null, suffix, null);
+    }
+
+    /**
+     * @param port Port number
+     * @return Items of the port number
+     */
+    public Set<T> withPort(short port) {
+        return query(null, null, port);
+    }
+
+    /**
+     * Returns the items that match every given condition.
+     *
+     * @param prefix Prefix of the names, null or empty for any
+     * @param suffix Suffix of the names, null or empty for any
+     * @param port Port number, null for any
+     * @return Items that match
+     */
+    public Set<T> query(String prefix, String suffix, Short port) {
+        if (prefix == null) prefix = "";
+        if (suffix == null) suffix = "";
+
+        Node<T> prefixNode = find(mPrefixRoot, prefix);
+        Node<T> suffixNode = find(mSuffixRoot, reverse(suffix));
+        if (prefixNode == null || suffixNode == null)
+            return new HashSet<T>();
+
+        // Only walk the most selective of the conditions.
+        Collection<Entry<T>> candidates;
+        if (port != null) {
+            Set<Entry<T>> ported = mPorts.get(port);
+            if (ported == null) return new HashSet<T>();
+            candidates = ported;
+        } else {
+            candidates = null;
+        }
+        Node<T> smallest = prefixNode.mCount <= suffixNode.mCount ? prefixNode : suffixNode;
+        if (candidates == null || smallest.mCount < candidates.size())
+            candidates = collect(smallest);
+
+        Set<T> matches = new HashSet<T>();
+        for (Entry<T> entry: candidates) {
+            if (entry.mName.startsWith(prefix) && entry.mName.endsWith(suffix)
+                    && (port == null || entry.mPort == port.shortValue()))
+                matches.add(entry.mItem);
+        }
+        return matches;
+    }
+
+    private void addPort(Entry<T> entry) {
+        Set<Entry<T>> ported = mPorts.get(entry.mPort);
+        if (ported == null) {
+            ported = new HashSet<Entry<T>>();
+            mPorts.put(entry.mPort, ported);
+        }
+        ported.add(entry);
+    }
+
+    private void removePort(Entry<T> entry) {
+        Set<Entry<T>> ported = mPorts.get(entry.mPort);
+        if (ported == null) return;
+        ported.remove(entry);
+        if (ported.isEmpty())
+            mPorts.remove(entry.mPort);
+    }
+
+    private static <T> void insert(Node<T> root, String key, Entry<T> entry) {
+        Node<T> node = root;
+        node.mCount++;
+        for (int i = 0; i < key.length(); ++i) {
+            Character c = key.charAt(i);
+            Node<T> child = node.mChildren.get(c);
+            if (child == null) {
+                child = new Node<T>();
+                node.mChildren.put(c, child);
+            }
+            child.mCount++;
+            node = child;
+        }
+        node.mEntry = entry;
+    }
+
+    /**
+     * Removes a key that is known to be in the trie, pruning empty nodes.
+     */
+    private static <T> void delete(Node<T> root, String key) {
+        Node<T> node = root;
+        node.mCount--;
+        for (int i = 0; i < key.length(); ++i) {
+            Character c = key.charAt(i);
+            Node<T> child = node.mChildren.get(c);
+            if (--child.mCount == 0) {
+                node.mChildren.remove(c);
+                return;
+            }
+            node = child;
+        }
+        node.mEntry = null;
+    }
+
+    private static <T> Node<T> find(Node<T> root, String key) {
+        Node<T> node = root;
+        for (int i = 0; i < key.length() && node != null; ++i)
+            node = node.mChildren.get(key.charAt(i));
+        return node;
+    }
+
+    private static <T> Collection<Entry<T>> collect(Node<T> from) {
+        if (from.mCount == 0) return Collections.emptyList();
+        Collection<Entry<T>> entries = new ArrayList<Entry<T>>(from.mCount);
+        Deque<Node<T>> stack = new ArrayDeque<Node<T>>();
+        stack.push(from);
+        while (!stack.isEmpty()) {
+            Node<T> node = stack.pop();
+            if (node.mEntry != null)
+                entries.add(node.mEntry);
+            for (Node<T> child: node.mChildren.values())
+                stack.push(child);
+        }
+        return entries;
+    }
+
+    private static String reverse(String value) {
+        return new StringBuilder(value).reverse().toString();
+    }
+
+    private static class Entry<T> {
+
+        private final String mName;
+
+        private final T mItem;
+
+        private short mPort;
+
+        Entry(String name, short port, T item) {
+            mName = name;
+            mPort = port;
+            mItem = item;
+        }
+    }
+
+    private static class Node<T> {
+
+        private final Map<Character, Node<T>> mChildren = new HashMap<Character, Node<T>>();
+
+        /**
+         * Number of entries at and below this node.
+         */
+        private int mCount;
+
+        private Entry<T> mEntry;
+    }
+}
@@ -0,0 +1,254 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Filter on the raw arguments of a received signal, as delivered by the bus.
+ * <p>
+ * A filter is a list of conditions that must all hold, separated by "&amp;&amp;".
+ * Every condition compares one argument, counting from 0, with a value:
+ * <pre>
+ * arg0 == 5 &amp;&amp; arg1 =~ "temp.*" &amp;&amp; arg2 &lt; 10.5
+ * </pre>
+ * The operators are ==, !=, &lt;, &lt;=, &gt;, &gt;= and =~, which matches the whole argument
+ * against a regular expression.  Values can be quoted with double quotes.  Numeric
+ * arguments are compared numerically when the value is a number, every other argument
+ * is compared by its text.
+ * <p>
+ * Everything that can be prepared, numbers and regular expressions, is prepared when the
+ * filter is parsed, so evaluating a filter does not allocate for numeric comparisons.
+ * Filters are immutable and can be evaluated on any thread.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class SignalFilter implements Filterable<Object[]> {
+
+    /**
+     * Operator of a condition.
+     */
+    public enum OPERATOR {
+        EQUAL("=="), NOT_EQUAL("!="), LESS_OR_EQUAL("<="), GREATER_OR_EQUAL(">="),
+        LESS("<"), GREATER(">"), MATCHES("=~");
+
+        private final String mSymbol;
+
+        private OPERATOR(String symbol) {
+            mSymbol = symbol;
+        }
+
+        /**
+         * @return Symbol of the operator in a filter
+         */
+        public String getSymbol() {
+            return mSymbol;
+        }
+    }
+
+    private static final Pattern CONDITION = Pattern.compile(
+            "\\s*arg(\\d+)\\s*(==|!=|<=|>=|=~|<|>)\\s*(\"(?:[^\"\\\\]|\\\\.)*\"|\\S+)\\s*");
+
+    private final String mText;
+
+    private final Condition[] mConditions;
+
+    private SignalFilter(String text, Condition[] conditions) {
+        mText = text;
+        mConditions = conditions;
+    }
+
+    /**
+     * Parses a filter.
+     *
+     * @param text Text of the filter, empty for a filter that accepts every signal
+     * @return The filter
+     * @throws IllegalArgumentException The text is not a valid filter
+     */
+    public static SignalFilter parse(String text) {
+        if (text == null)
+            text = "";
+        text = text.trim();
+        List<Condition> conditions = new ArrayList<Condition>();
+        if (!text.isEmpty()) {
+            for (String clause: split(text)) {
+                Matcher matcher = CONDITION.matcher(clause);
+                if (!matcher.matches())
+                    throw new IllegalArgumentException("Illegal condition \"" + clause.trim()
+                            + "\", expected argN OP value");
+                int index;
+                try {
+                    index = Integer.parseInt(matcher.group(1));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Illegal argument index " + matcher.group(1));
+                }
+                conditions.add(new Condition(index, operator(matcher.group(2)), unquote(matcher.group(3))));
+            }
+        }
+        return new SignalFilter(text, conditions.toArray(new Condition[conditions.size()]));
+    }
+
+    /**
+     * @return Whether the filter accepts every signal
+     */
+    public boolean isEmpty() {
+        return mConditions.length == 0;
+    }
+
+    /**
+     * Returns whether the signal with these arguments passes the filter.
+     * Arguments that are missing never pass.
+     *
+     * @param args Raw arguments of the signal
+     * @return true if every condition holds, false otherwise
+     */
+    @Override
+    public boolean filter(Object[] args) {
+        for (Condition condition: mConditions) {
+            if (!condition.holds(args))
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return mText;
+    }
+
+    /**
+     * Splits the text at every "&&" that is not quoted.
+     */
+    private static List<String> split(String text) {
+        List<String> clauses = new ArrayList<String>();
+        boolean quoted = false;
+        int start = 0;
+        for (int i = 0; i < text.length(); ++i) {
+            char c = text.charAt(i);
+            if (quoted && c == '\\') {
+                ++i;
+            } else if (c == '"') {
+                quoted = !quoted;
+            } else if (!quoted && c == '&' && i + 1 < text.length() && text.charAt(i + 1) == '&') {
+                clauses.add(text.substring(start, i));
+                start = i + 2;
+                ++i;
+            }
+        }
+        clauses.add(text.substring(start));
+        return clauses;
+    }
+
+    private static OPERATOR operator(String symbol) {
+        for (OPERATOR op: OPERATOR.values()) {
+            if (op.getSymbol().equals(symbol))
+                return op;
+        }
+        throw new IllegalArgumentException("Unknown operator " + symbol);
+    }
+
+    private static String unquote(String value) {
+        if (value.length() < 2 || !value.startsWith("\"") || !value.endsWith("\""))
+            return value;
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 1; i < value.length() - 1; ++i) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length() - 1)
+                c = value.charAt(++i);
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Comparison of a single argument with a value.
+     */
+    private static class Condition {
+
+        private final int mIndex;
+
+        private final OPERATOR mOperator;
+
+        private final String mValue;
+
+        /**
+         * Value as a number, NaN if the value is not a number.
+         */
+        private final double mNumber;
+
+        private final Pattern mPattern;
+
+        Condition(int index, OPERATOR operator, String value) {
+            mIndex = index;
+            mOperator = operator;
+            mValue = value;
+            double number;
+            try {
+                number = Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                number = Double.NaN;
+            }
+            mNumber = number;
+            if (operator == OPERATOR.MATCHES) {
+                try {
+                    mPattern = Pattern.compile(value);
+                } catch (PatternSyntaxException e) {
+                    throw new IllegalArgumentException("Illegal regular expression " + value + " " + e.getDescription());
+                }
+            } else {
+                mPattern = null;
+            }
+        }
+
+        boolean holds(Object[] args) {
+            if (args == null || mIndex >= args.length || args[mIndex] == null)
+                return false;
+            Object arg = args[mIndex];
+
+            if (mOperator == OPERATOR.MATCHES)
+                return mPattern.matcher(String.valueOf(arg)).matches();
+
+            int comparison;
+            if (arg instanceof Number && !Double.isNaN(mNumber)) {
+                comparison = Double.compare(((Number) arg).doubleValue(), mNumber);
+            } else {
+                comparison = String.valueOf(arg).compareTo(mValue);
+            }
+
+            switch (mOperator) {
+            case EQUAL:
+                return comparison == 0;
+            case NOT_EQUAL:
+                return comparison != 0;
+            case LESS:
+                return comparison < 0;
+            case LESS_OR_EQUAL:
+                return comparison <= 0;
+            case GREATER:
+                return comparison > 0;
+            case GREATER_OR_EQUAL:
+                return comparison >= 0;
+            default:
+                return false;
+            }
+        }
+    }
+}
@@ -1,4 +1,6 @@
 package org.alljoyn.triumph.util;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -56,6 +58,13 @@ public class ViewCache<T, V extends Node> {
         return mMap.get(element);
     }
     
+    /**
+     * @return Every view in this cache
+     */
+    public Collection<V> getViews() {
+        return new ArrayList<V>(mMap.values());
+    }
+
     /**
      * remove the current view for this element.
      * 
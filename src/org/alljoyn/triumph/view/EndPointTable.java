@@ -18,9 +18,14 @@ package org.alljoyn.triumph.view;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleBooleanProperty;
@@ -41,13 +46,17 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.util.StringConverter;
 
+import org.alljoyn.triumph.controller.EndPointChange;
 import org.alljoyn.triumph.controller.EndPointListener;
 import org.alljoyn.triumph.controller.TriumphController;
 import org.alljoyn.triumph.model.SessionPortStorage;
 import org.alljoyn.triumph.model.components.EndPoint;
 import org.alljoyn.triumph.model.components.EndPoint.SERVICE_TYPE;
 import org.alljoyn.triumph.util.EndPointFilter;
+import org.alljoyn.triumph.util.FilterIndex;
+import org.alljoyn.triumph.util.Filterable;
 import org.alljoyn.triumph.util.ListManager;
+import org.alljoyn.triumph.util.NameIndex;
 import org.alljoyn.triumph.view.EndPointTable.EndPointRow;
 
 /**
@@ -62,6 +71,16 @@ public class EndPointTable extends TableView<EndPointRow> {
      */
     private final ListManager<EndPointRow> mListManager;
 
+    /**
+     * Row of every endpoint in the table, filtered or not.
+     */
+    private final Map<EndPoint, EndPointRow> mRows;
+
+    /**
+     * Index of the rows by name and port, answers the endpoint filters.
+     */
+    private final NameIndex<EndPointRow> mIndex;
+
     /**
      * Type that defines the type of table.
      */
@@ -84,6 +103,9 @@ public class EndPointTable extends TableView<EndPointRow> {
         super();
         mType = type;
         mListManager = new ListManager<EndPointRow>();
+        mRows = new HashMap<EndPoint, EndPointRow>();
+        mIndex = new NameIndex<EndPointRow>();
+        mListManager.setFilterIndex(new RowIndex());
         mListeners = new HashSet<EndPointListener>();
         init();
     }
@@ -98,6 +120,9 @@ public class EndPointTable extends TableView<EndPointRow> {
         super();
         mType = type;
         mListManager = new ListManager<EndPointRow>();
+        mRows = new HashMap<EndPoint, EndPointRow>();
+        mIndex = new NameIndex<EndPointRow>();
+        mListManager.setFilterIndex(new RowIndex());
         update(endpoints);
         mListeners = new HashSet<EndPointListener>();
         init();
@@ -108,6 +133,25 @@ public class EndPointTable extends TableView<EndPointRow> {
      */
     @SuppressWarnings("unchecked")
     private void init() {
+        // Ports are saved by the other table and by the sessions too.
+        SessionPortStorage.addPortListener(new SessionPortStorage.PortListener() {
+
+            @Override
+            public void onPortSaved(final String serviceName, final short portNumber) {
+                if (Platform.isFxApplicationThread()) {
+                    updatePort(serviceName, portNumber);
+                    return;
+                }
+                Platform.runLater(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        updatePort(serviceName, portNumber);
+                    }
+                });
+            }
+        });
+
         // Set up the table column resize policy.
         setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
         HBox.setHgrow(this, Priority.ALWAYS);
@@ -209,24 +253,101 @@ public class EndPointTable extends TableView<EndPointRow> {
      * @return Collection of lost endpoints.
      */
     public Collection<EndPoint> update(Collection<EndPoint> eps) {
-        Collection<EndPointRow> currentRows = new ArrayList<EndPointTable.EndPointRow>();
-        for (EndPoint p: eps)
-            currentRows.add(new EndPointRow(p));
+        Map<EndPoint, EndPointRow> currentRows = new HashMap<EndPoint, EndPointRow>();
+        for (EndPoint p: eps) {
+            EndPointRow row = mRows.get(p);
+            currentRows.put(p, row == null ? new EndPointRow(p) : row);
+        }
         
         // Find out all the Endpoints we have lost
-        List<EndPointRow> oldList = new ArrayList<EndPointRow>(mListManager.getUnderlyingList());
-        oldList.removeAll(currentRows);
-        mListManager.updateState(currentRows);
+        List<EndPointRow> oldList = new ArrayList<EndPointRow>();
+        for (Map.Entry<EndPoint, EndPointRow> entry: mRows.entrySet()) {
+            if (!currentRows.containsKey(entry.getKey()))
+                oldList.add(entry.getValue());
+        }
+        for (EndPointRow row: oldList)
+            mIndex.remove(row.getName());
+        for (Map.Entry<EndPoint, EndPointRow> entry: currentRows.entrySet()) {
+            if (!mRows.containsKey(entry.getKey()))
+                index(entry.getValue());
+        }
+        mListManager.updateState(currentRows.values());
+        mRows.clear();
+        mRows.putAll(currentRows);
         
         // Put the list of lost rows to the list of endpoints
         Collection<EndPoint> lostEps = new ArrayList<EndPoint>();
         for (EndPointRow row: oldList) {
+            lostEps.add(row.getEndPoint());
             for (EndPointListener list: mListeners)
                 list.onEndPointRemoved(row.getEndPoint());
         }
         return lostEps;
     }
 
+    /**
+     * Applies the changes to the known endpoints of this table's type.
+     * Only the rows of the endpoints that changed are touched.
+     * 
+     * @param changes Changes in the order they happened
+     */
+    public void apply(List<EndPointChange> changes) {
+        // Keeps the order the endpoints were discovered in.
+        Map<EndPoint, EndPointRow> added = new LinkedHashMap<EndPoint, EndPointRow>();
+        List<EndPointRow> removed = new ArrayList<EndPointRow>();
+        for (EndPointChange change: changes) {
+            EndPoint ep = change.getEndPoint();
+            switch (change.getType()) {
+            case ADDED:
+                if (mRows.containsKey(ep)) break;
+                EndPointRow row = new EndPointRow(ep);
+                mRows.put(ep, row);
+                index(row);
+                added.put(ep, row);
+                break;
+            case REMOVED:
+                EndPointRow lost = mRows.remove(ep);
+                if (lost == null) break;
+                mIndex.remove(lost.getName());
+                // Found and lost within the same changes, never shown.
+                if (added.remove(ep) == null)
+                    removed.add(lost);
+                break;
+            case CHANGED:
+                EndPointRow changed = mRows.get(ep);
+                if (changed != null)
+                    changed.setConnected(ep.isBuilt() || ep.getServiceType() == SERVICE_TYPE.LOCAL);
+                break;
+            }
+        }
+        
+        mListManager.addAll(added.values());
+        mListManager.removeAll(removed);
+        for (EndPointRow row: removed) {
+            for (EndPointListener list: mListeners)
+                list.onEndPointRemoved(row.getEndPoint());
+        }
+    }
+
+    private void index(EndPointRow row) {
+        mIndex.put(row.getName(), (short) row.getPort(), row);
+    }
+
+    /**
+     * Shows and indexes a saved port in the rows of the service, so the index
+     * and the filters keep reading the same port.
+     * 
+     * @param serviceName Service name the port was saved for
+     * @param port Saved port number
+     */
+    private void updatePort(String serviceName, short port) {
+        for (EndPointRow row: mRows.values()) {
+            if (!row.getName().equals(serviceName) || row.getPort() == port) continue;
+            row.portProperty().set(port);
+            mIndex.setPort(serviceName, port);
+        }
+    }
+
     /**
      * Attempts to add filter.
      * 
@@ -349,6 +470,7 @@ public class EndPointTable extends TableView<EndPointRow> {
 
         public void setPort(int value) { 
             portProperty().set(value);
+            mIndex.setPort(getName(), (short) value);
             SessionPortStorage.savePort(mEp.getName(), (short)value);
         }
 
@@ -388,6 +510,20 @@ public class EndPointTable extends TableView<EndPointRow> {
         }
     }
 
+    /**
+     * Answers endpoint filters from the name and port index instead of
+     * evaluating them on every row.
+     */
+    private class RowIndex implements FilterIndex<EndPointRow> {
+
+        @Override
+        public Set<EndPointRow> getMatches(Filterable<EndPointRow> filter) {
+            if (!(filter instanceof EndPointFilter)) return null;
+            EndPointFilter epFilter = (EndPointFilter) filter;
+            return mIndex.query(epFilter.getPrefix(), epFilter.getSuffix(), epFilter.getPort());
+        }
+    }
+
     /**
      * Basic converter that converts Integer to String and back
      * @author Michael Hotan, mhotan@quicinc.com
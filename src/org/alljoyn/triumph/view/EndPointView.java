@@ -19,19 +19,25 @@ package org.alljoyn.triumph.view;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.RejectedExecutionException;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.EventHandler;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
+import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.VBox;
 
+import org.alljoyn.triumph.controller.Destroyable;
+import org.alljoyn.triumph.controller.InvocationCallback;
+import org.alljoyn.triumph.controller.TriumphController;
 import org.alljoyn.triumph.model.components.AJObject;
 import org.alljoyn.triumph.model.components.AllJoynComponent.TYPE;
 import org.alljoyn.triumph.model.components.EndPoint;
@@ -40,6 +46,7 @@ import org.alljoyn.triumph.model.components.InterfaceComponent;
 import org.alljoyn.triumph.model.components.Method;
 import org.alljoyn.triumph.model.components.Property;
 import org.alljoyn.triumph.model.components.Signal;
+import org.alljoyn.triumph.model.components.arguments.Argument;
 import org.alljoyn.triumph.util.ComponentFilter;
 import org.alljoyn.triumph.util.ListManager;
 import org.alljoyn.triumph.util.ViewCache;
@@ -47,7 +54,7 @@ import org.alljoyn.triumph.util.loaders.ViewLoader;
 import org.alljoyn.triumph.view.ComponentFilterView.FilterListener;
 import org.alljoyn.triumph.view.propview.PropertyView;
 
-public class EndPointView extends BorderPane implements FilterListener {
+public class EndPointView extends BorderPane implements FilterListener, Destroyable {
 
     @FXML
     private ResourceBundle resources;
@@ -90,6 +97,16 @@ public class EndPointView extends BorderPane implements FilterListener {
      * and its views.
      */
     private final ViewCache<InterfaceComponent, Node> viewCache;
+
+    /**
+     * Component the user selected last, its view may still be loading.
+     */
+    private InterfaceComponent mSelected;
+
+    /**
+     * Whether the endpoint is no longer presented.
+     */
+    private boolean mDestroyed;
     
     /**
      * EndPointView constructor.
@@ -195,12 +212,25 @@ public class EndPointView extends BorderPane implements FilterListener {
         updateWithCurrentFilter();
     }
     
+    /**
+     * Releases the views of the components, the endpoint is no longer presented.
+     */
+    @Override
+    public void destroy() {
+        mDestroyed = true;
+        for (Node view: viewCache.getViews()) {
+            if (view instanceof Destroyable)
+                ((Destroyable) view).destroy();
+        }
+    }
+
     /**
      * Attempts to show view for component.
      * 
      * @param component Component to show
      */
     public void showViewForComponent(InterfaceComponent component) {
+        mSelected = component;
         Node view = viewCache.getViewForElement(component);
         if (view == null) {
             if (component.getType() == TYPE.METHOD) {
@@ -208,7 +238,8 @@ public class EndPointView extends BorderPane implements FilterListener {
             } else if (component.getType() == TYPE.SIGNAL) {
                 view = new SignalView((Signal) component);
             } else if (component.getType() == TYPE.PROPERTY) {
-                view = new PropertyView((Property) component);
+                loadPropertyViews((Property) component);
+                return;
             } else {
                 throw new RuntimeException("Illegal type of interface component being selected " + component.getType());
             }
@@ -219,6 +250,58 @@ public class EndPointView extends BorderPane implements FilterListener {
         setMainView(view);
     }
     
+    /**
+     * Reads a single snapshot of the values of every property of the interface that 
+     * owns selected off the JavaFX thread, and shows a placeholder in the meantime.
+     * 
+     * @param selected Property that was selected
+     */
+    private void loadPropertyViews(Property selected) {
+        final Interface iface = selected.getInterface();
+        setMainView(new Label("Reading the properties of " + iface.getName() + "..."));
+        try {
+            TriumphController.getInstance().getAllPropertiesAsync(iface, 
+                    new InvocationCallback<Map<Property, Argument<?>>>() {
+
+                @Override
+                public void onSuccess(Map<Property, Argument<?>> values) {
+                    createPropertyViews(iface, values);
+                }
+
+                @Override
+                public void onFailure(Throwable error) {
+                    // Let the selected view get its own value and present the error.
+                    createPropertyViews(iface, null);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            createPropertyViews(iface, null);
+        }
+    }
+
+    /**
+     * Creates the views of the properties of the interface from a snapshot of their 
+     * values and shows the view of the selected property if it belongs to the interface.
+     * The views of the other properties are cached so selecting them does not go back to 
+     * the remote object.
+     * 
+     * @param iface Interface that owns the properties
+     * @param values Values of the properties, null if they could not be read
+     */
+    private void createPropertyViews(Interface iface, Map<Property, Argument<?>> values) {
+        if (mDestroyed) return;
+        for (Property property: iface.getProperties()) {
+            if (viewCache.getViewForElement(property) != null) continue;
+            if (values != null) {
+                viewCache.addView(property, new PropertyView(property, values.get(property)));
+            } else if (property == mSelected) {
+                viewCache.addView(property, new PropertyView(property));
+            }
+        }
+        if (mSelected instanceof Property && ((Property) mSelected).getInterface() == iface) 
+            setMainView(viewCache.getViewForElement(mSelected));
+    }
+
     /**
      * Listener for interface components being selected.
      * @author mhotan
@@ -0,0 +1,199 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.view;
+
+import java.net.URL;
+import java.util.ResourceBundle;
+import java.util.concurrent.TimeUnit;
+
+import javafx.collections.FXCollections;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.control.TitledPane;
+
+import org.alljoyn.triumph.controller.FXThreadExecutor;
+import org.alljoyn.triumph.controller.load.LoadGenerator;
+import org.alljoyn.triumph.controller.load.LoadOperation;
+import org.alljoyn.triumph.controller.load.LoadRun;
+import org.alljoyn.triumph.controller.load.RunReport;
+import org.alljoyn.triumph.util.loaders.ViewLoader;
+
+/**
+ * Collapsible pane that starts a {@link LoadRun} of a member view and presents
+ * the report of the run, such as the throughput and latency percentiles of a load test
+ * or the achieved rate of a signal burst.
+ *
+ * @param <M> Type of the modes of the run
+ * @author mhotan@quicinc.com, Michael Hotan
+ */
+public class LoadTestPane<M extends Enum<M>> extends TitledPane {
+
+    /**
+     * Produces the run to start when the user starts one.
+     */
+    public interface RunSource<M> {
+
+        /**
+         * @param mode Mode selected by the user
+         * @param target Target of the run for the mode, such as a rate or a count
+         * @param seconds Length of the run in seconds
+         * @return Run that is not started yet
+         * @throws Exception The run cannot be created, the message is presented to the user
+         */
+        public LoadRun<?> createRun(M mode, int target, long seconds) throws Exception;
+    }
+
+    /**
+     * Produces the operation to repeat when a load test is started.
+     */
+    public interface OperationSource {
+
+        /**
+         * @return Operation to repeat
+         * @throws Exception The operation cannot be created, the message is presented to the user
+         */
+        public LoadOperation createOperation() throws Exception;
+    }
+
+    @FXML
+    private ResourceBundle resources;
+
+    @FXML
+    private URL location;
+
+    @FXML
+    private ChoiceBox<M> mModeBox;
+
+    @FXML
+    private TextField mTargetField, mDurationField;
+
+    @FXML
+    private Button mStartButton;
+
+    @FXML
+    private Label mResultLabel;
+
+    private final RunSource<M> mSource;
+
+    /**
+     * Current run, or null if no run was started.
+     */
+    private LoadRun<?> mRun;
+
+    /**
+     * Creates a pane that load tests the operations of source with a {@link LoadGenerator}.
+     *
+     * @param source Source of the operation to repeat.
+     * @return Pane for the load tests of source
+     */
+    public static LoadTestPane<LoadGenerator.MODE> create(final OperationSource source) {
+        if (source == null)
+            throw new NullPointerException("LoadTestPane.create(), Null operation source");
+        return new LoadTestPane<LoadGenerator.MODE>(LoadGenerator.MODE.values(), LoadGenerator.MODE.RATE, 
+                "10", "ops/s or workers", new RunSource<LoadGenerator.MODE>() {
+
+            @Override
+            public LoadRun<?> createRun(LoadGenerator.MODE mode, int target, long seconds) throws Exception {
+                return new LoadGenerator(source.createOperation(), mode, target, seconds, TimeUnit.SECONDS);
+            }
+        });
+    }
+
+    /**
+     * Creates a pane for the runs of source.
+     *
+     * @param modes Modes the user can choose from
+     * @param mode Mode that is selected at first
+     * @param target Target that is entered at first
+     * @param targetPrompt Prompt of the target field that explains the target of each mode
+     * @param source Source of the runs to start.
+     */
+    public LoadTestPane(M[] modes, M mode, String target, String targetPrompt, RunSource<M> source) {
+        ViewLoader.loadView(this);
+        if (source == null)
+            throw new NullPointerException(getClass().getSimpleName() + "<init>, Null run source");
+        mSource = source;
+
+        mModeBox.setItems(FXCollections.observableArrayList(modes));
+        mModeBox.getSelectionModel().select(mode);
+        mTargetField.setText(target);
+        mTargetField.setPromptText(targetPrompt);
+        mResultLabel.setText("");
+    }
+
+    @FXML
+    void onStartStop(ActionEvent event) {
+        if (mRun != null && mRun.isRunning()) {
+            mRun.stop();
+            return;
+        }
+
+        int target;
+        long duration;
+        try {
+            target = Integer.parseInt(mTargetField.getText().trim());
+            duration = Long.parseLong(mDurationField.getText().trim());
+        } catch (NumberFormatException e) {
+            mResultLabel.setText("Target and duration must be whole numbers");
+            return;
+        }
+
+        try {
+            mRun = mSource.createRun(mModeBox.getSelectionModel().getSelectedItem(), target, duration);
+        } catch (Exception e) {
+            mResultLabel.setText(e.getMessage() == null ? e.toString() : e.getMessage());
+            return;
+        }
+
+        mStartButton.setText("Stop");
+        mResultLabel.setText("Running...");
+        mRun.start(new LoadRun.RunListener<RunReport>() {
+
+            @Override
+            public void onProgress(RunReport report) {
+                mResultLabel.setText(report.toString());
+            }
+
+            @Override
+            public void onFinished(RunReport report) {
+                mResultLabel.setText(report.toString());
+                mStartButton.setText("Start");
+            }
+        }, FXThreadExecutor.getInstance());
+    }
+
+    /**
+     * Stops any run of this pane.
+     */
+    public void stop() {
+        if (mRun != null)
+            mRun.stop();
+    }
+
+    @FXML
+    void initialize() {
+        assert mDurationField != null : "fx:id=\"mDurationField\" was not injected: check your FXML file 'LoadTestPane.fxml'.";
+        assert mModeBox != null : "fx:id=\"mModeBox\" was not injected: check your FXML file 'LoadTestPane.fxml'.";
+        assert mResultLabel != null : "fx:id=\"mResultLabel\" was not injected: check your FXML file 'LoadTestPane.fxml'.";
+        assert mStartButton != null : "fx:id=\"mStartButton\" was not injected: check your FXML file 'LoadTestPane.fxml'.";
+        assert mTargetField != null : "fx:id=\"mTargetField\" was not injected: check your FXML file 'LoadTestPane.fxml'.";
+    }
+}
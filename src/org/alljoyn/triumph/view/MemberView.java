@@ -105,6 +105,7 @@ public abstract class MemberView extends VBox {
         // Loads MemberView.fxml
         ViewLoader.loadView("MemberView.fxml", this);
         mErrorMessage.managedProperty().bind(mErrorMessage.visibleProperty());
+        mProgressIndicator.managedProperty().bind(mProgressIndicator.visibleProperty());
         mInputArgPane.managedProperty().bind(mInputArgPane.visibleProperty());
         mOutputArgPane.managedProperty().bind(mOutputArgPane.visibleProperty());
         
@@ -260,6 +261,32 @@ public abstract class MemberView extends VBox {
         }
     }
 
+    /**
+     * Saves the current value of every argument view in the list.
+     * 
+     * @param views Argument views to save
+     * @return Error messages of all views that failed to save, or null if all saved
+     */
+    protected static String saveArguments(List<LoadableArgumentView> views) {
+        StringBuffer buf = new StringBuffer();
+        for (LoadableArgumentView view : views) {
+            String error = view.getCurrentView().onSetCurrentValue();
+            if (error == null) continue;
+            buf.append(error);
+            buf.append("\n");
+        }
+        return buf.length() > 0 ? buf.toString() : null;
+    }
+
+    /**
+     * Adds a load test pane to the bottom of this view.
+     * 
+     * @param source Source of the operation to load test
+     */
+    protected void addLoadTestPane(LoadTestPane.OperationSource source) {
+        mCompletePane.getChildren().add(LoadTestPane.create(source));
+    }
+
     /**
      * Calls to the subclasses to invoke its feature 
      */
@@ -274,6 +301,15 @@ public abstract class MemberView extends VBox {
         mErrorMessage.setVisible(false);
     }
 
+    /**
+     * Shows or hides the indicator that an invocation is in progress.
+     * 
+     * @param pending true if there is at least one pending invocation
+     */
+    protected void setInvocationPending(boolean pending) {
+        mProgressIndicator.setVisible(pending);
+    }
+
     @FXML
     void initialize() {
         assert mButtonBar != null : "fx:id=\"mButtonBar\" was not injected: check your FXML file 'MemberView.fxml'.";
@@ -284,6 +320,7 @@ public abstract class MemberView extends VBox {
         assert mInvokeButton != null : "fx:id=\"mInvokeButton\" was not injected: check your FXML file 'MemberView.fxml'.";
         assert mOutputArgBox != null : "fx:id=\"mOutputArgBox\" was not injected: check your FXML file 'MemberView.fxml'.";
         assert mOutputArgPane != null : "fx:id=\"mOutputArgPane\" was not injected: check your FXML file 'MemberView.fxml'.";
+        assert mProgressIndicator != null : "fx:id=\"mProgressIndicator\" was not injected: check your FXML file 'MemberView.fxml'.";
         assert mTitlePane != null : "fx:id=\"mTitlePane\" was not injected: check your FXML file 'MemberView.fxml'.";
     }
 
@@ -18,12 +18,25 @@ package org.alljoyn.triumph.view;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Logger;
 
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
 import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.TextField;
 
 import org.alljoyn.bus.BusException;
+import org.alljoyn.triumph.controller.Deadline;
+import org.alljoyn.triumph.controller.InvocationCallback;
+import org.alljoyn.triumph.controller.InvocationResult;
+import org.alljoyn.triumph.controller.MethodBatch;
 import org.alljoyn.triumph.controller.TriumphController;
+import org.alljoyn.triumph.controller.load.LoadOperation;
 import org.alljoyn.triumph.model.components.Method;
 import org.alljoyn.triumph.model.components.arguments.Argument;
 
@@ -38,6 +51,23 @@ public class MethodView extends MemberView {
 
     private final Method mMethod;
 
+    /**
+     * Invocations of this method that have not returned yet.
+     */
+    private final List<Future<?>> mPendingCalls;
+
+    /**
+     * Timeout of a call in milliseconds, empty for the default timeout of the bus.
+     */
+    private final TextField mTimeoutField;
+
+    /**
+     * Number of times to call the method with the same arguments, empty for a single call.
+     */
+    private final TextField mCallsField;
+
+    private final Button mCancelButton;
+
     /**
      * Creates a method view
      * @param method Method to create view around.
@@ -45,41 +75,222 @@ public class MethodView extends MemberView {
     public MethodView(Method method) {
         super(method);
         mMethod = method;
+        mPendingCalls = new ArrayList<Future<?>>();
 
         // Make sure output arguments are not editable 
         // and input argument are editable
         setIntputArgumentEditability(true);
         setOutputArgumentEditability(false);
+
+        // Add all additional Ui elements.
+        mTimeoutField = new TextField();
+        mTimeoutField.setPromptText("Timeout ms");
+        mTimeoutField.setPrefColumnCount(6);
+        mButtonBar.getChildren().add(mTimeoutField);
+
+        mCallsField = new TextField();
+        mCallsField.setPromptText("Calls");
+        mCallsField.setPrefColumnCount(4);
+        mButtonBar.getChildren().add(mCallsField);
+
+        mCancelButton = new Button("Cancel");
+        mCancelButton.setDisable(true);
+        mCancelButton.setOnAction(new EventHandler<ActionEvent>() {
+
+            @Override
+            public void handle(ActionEvent event) {
+                // Abandon every call that has not returned yet.
+                for (Future<?> call: new ArrayList<Future<?>>(mPendingCalls)) 
+                    call.cancel(true);
+            }
+        });
+        mButtonBar.getChildren().add(mCancelButton);
+
+        // Load test the method with the current input arguments.
+        addLoadTestPane(new LoadTestPane.OperationSource() {
+
+            @Override
+            public LoadOperation createOperation() throws Exception {
+                String errors = saveArguments(mInputArgs);
+                if (errors != null)
+                    throw new IllegalArgumentException(errors);
+                return TriumphController.getInstance().createLoadOperation(mMethod, mMethod.getInputArguments());
+            }
+        });
     }
 
     @Override
     @FXML
     protected void invoke() throws BusException {
 
-        StringBuffer buf = new StringBuffer();
-        for (LoadableArgumentView view : mInputArgs) {
-            // If there is an error on save
-            String error = view.getCurrentView().onSetCurrentValue();
-            if (error == null) continue;
-           
-            buf.append(error);
-            buf.append("\n");
-        }
-            
-        if (buf.length() > 0) {
-            showError("Invocation Cancelled due to following errors: \n" + buf.toString());
+        String errors = saveArguments(mInputArgs);
+        if (errors != null) {
+            showError("Invocation Cancelled due to following errors: \n" + errors);
             return;
         }
         
-        // TODO Collect all the arguments and 
+        String count = mCallsField.getText() == null ? "" : mCallsField.getText().trim();
+        if (!count.isEmpty()) {
+            int calls;
+            try {
+                calls = Integer.parseInt(count);
+            } catch (NumberFormatException e) {
+                calls = 0;
+            }
+            if (calls < 1) {
+                showError("Calls must be a positive number");
+                return;
+            }
+            if (calls > 1) {
+                invokeBatch(calls);
+                return;
+            }
+        }
+
+        Deadline deadline = Deadline.NONE;
+        String timeout = mTimeoutField.getText() == null ? "" : mTimeoutField.getText().trim();
+        if (!timeout.isEmpty()) {
+            try {
+                deadline = Deadline.after(Long.parseLong(timeout), TimeUnit.MILLISECONDS);
+            } catch (IllegalArgumentException e) {
+                showError("Timeout must be a positive number of milliseconds");
+                return;
+            }
+        }
+
+        // Make the call off of the UI thread, the result is
+        // presented once the method returns.
         TriumphController model = TriumphController.getInstance();
         List<Argument<?>> args = mMethod.getInputArguments();
-        Argument<?> outArg  = model.onMethodInvoked(mMethod, args);
+        final Future<?>[] call = new Future<?>[1];
+        try {
+            call[0] = model.onMethodInvokedAsync(mMethod, args, new InvocationCallback<Argument<?>>() {
 
-        List<Argument<?>> outArgList = new ArrayList<Argument<?>>(1);
-        outArgList.add(outArg);
-        setOutputArguments(outArgList);
-        LOGGER.info("Result of method '" + mMethod.getName() + "' is " + outArg.getValue().toString());
+                @Override
+                public void onSuccess(Argument<?> outArg) {
+                    onCallReturned(call[0]);
+                    List<Argument<?>> outArgList = new ArrayList<Argument<?>>(1);
+                    outArgList.add(outArg);
+                    setOutputArguments(outArgList);
+                    LOGGER.info("Result of method '" + mMethod.getName() + "' is " + outArg.getValue());
+                }
+
+                @Override
+                public void onFailure(Throwable error) {
+                    onCallReturned(call[0]);
+                    if (error instanceof TimeoutException) {
+                        showError("No reply from '" + mMethod.getName() + "' before the timeout");
+                    } else if (call[0] != null && call[0].isCancelled()) {
+                        showError("Call to '" + mMethod.getName() + "' was cancelled");
+                    } else {
+                        showError(error.getMessage());
+                    }
+                }
+            }, deadline);
+            mPendingCalls.add(call[0]);
+            setInvocationPending(true);
+            mCancelButton.setDisable(false);
+        } catch (RejectedExecutionException e) {
+            showError("Too many pending calls, try again once some have returned.");
+        }
+    }
+
+    /**
+     * Calls the method several times with the current input arguments, keeping
+     * {@link TriumphController#DEFAULT_BATCH_WINDOW} calls in flight.  The output
+     * of the last successful call is shown, with a summary if any call failed.
+     * 
+     * @param calls Number of calls to make
+     */
+    private void invokeBatch(final int calls) {
+        String timeout = mTimeoutField.getText() == null ? "" : mTimeoutField.getText().trim();
+        if (!timeout.isEmpty()) {
+            showError("A timeout only applies to a single call");
+            return;
+        }
+
+        List<Argument<?>> args = mMethod.getInputArguments();
+        Argument<?>[] tuple = args.toArray(new Argument<?>[args.size()]);
+        List<Argument<?>[]> tuples = new ArrayList<Argument<?>[]>(calls);
+        for (int i = 0; i < calls; ++i)
+            tuples.add(tuple);
+
+        final MethodBatch[] batch = new MethodBatch[1];
+        try {
+            batch[0] = TriumphController.getInstance().onMethodInvokedBatch(mMethod, tuples, 
+                    TriumphController.DEFAULT_BATCH_WINDOW, new InvocationCallback<List<InvocationResult>>() {
+
+                @Override
+                public void onSuccess(List<InvocationResult> results) {
+                    onCallReturned(batch[0]);
+                    showBatchResults(results);
+                }
+
+                @Override
+                public void onFailure(Throwable error) {
+                    onCallReturned(batch[0]);
+                    showError(error.getMessage());
+                }
+            });
+            mPendingCalls.add(batch[0]);
+            setInvocationPending(true);
+            mCancelButton.setDisable(false);
+        } catch (RejectedExecutionException e) {
+            showError("Too many pending calls, try again once some have returned.");
+        }
+    }
+
+    /**
+     * Shows the output of the last successful call of a batch and a summary
+     * of the calls that did not succeed.
+     * 
+     * @param results Result of every call of the batch
+     */
+    private void showBatchResults(List<InvocationResult> results) {
+        int failed = 0, cancelled = 0;
+        InvocationResult lastSuccess = null, firstFailure = null;
+        for (InvocationResult result: results) {
+            switch (result.getStatus()) {
+            case OK:
+                lastSuccess = result;
+                break;
+            case FAILED:
+                if (firstFailure == null)
+                    firstFailure = result;
+                failed++;
+                break;
+            default:
+                cancelled++;
+            }
+        }
+
+        if (lastSuccess != null) {
+            List<Argument<?>> outArgList = new ArrayList<Argument<?>>(1);
+            outArgList.add(lastSuccess.getResult());
+            setOutputArguments(outArgList);
+        }
+        String summary = (results.size() - failed - cancelled) + " of " + results.size() 
+                + " calls to '" + mMethod.getName() + "' succeeded";
+        LOGGER.info(summary);
+        if (failed > 0 || cancelled > 0) {
+            StringBuffer buf = new StringBuffer(summary);
+            if (failed > 0)
+                buf.append(", " + failed + " failed, first: " + firstFailure.getError().getMessage());
+            if (cancelled > 0)
+                buf.append(", " + cancelled + " cancelled");
+            showError(buf.toString());
+        }
+    }
+
+    /**
+     * Updates the pending state of this view after a call returned.
+     * 
+     * @param call Call that returned
+     */
+    private void onCallReturned(Future<?> call) {
+        mPendingCalls.remove(call);
+        setInvocationPending(!mPendingCalls.isEmpty());
+        mCancelButton.setDisable(mPendingCalls.isEmpty());
     }
 
 }
@@ -17,6 +17,7 @@
 package org.alljoyn.triumph.view;
 
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -29,6 +30,7 @@ import javafx.scene.control.TabPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
 
+import org.alljoyn.triumph.controller.EndPointChange;
 import org.alljoyn.triumph.controller.EndPointListener;
 import org.alljoyn.triumph.model.components.EndPoint;
 import org.alljoyn.triumph.model.components.EndPoint.SERVICE_TYPE;
@@ -147,6 +149,25 @@ public class ServicesView extends HBox implements FilterViewListener {
         mDistributedTable.update(distributedEps);
         mLocalTable.update(localEps);
     }
+
+    /**
+     * Applies the changes of endpoints to the table of their type.
+     * 
+     * @param changes Changes in the order they happened
+     */
+    public void applyChanges(List<EndPointChange> changes) {
+        List<EndPointChange> distributed = new ArrayList<EndPointChange>();
+        List<EndPointChange> local = new ArrayList<EndPointChange>();
+        for (EndPointChange change: changes) {
+            if (change.getEndPoint().getServiceType() == SERVICE_TYPE.LOCAL) {
+                local.add(change);
+            } else {
+                distributed.add(change);
+            }
+        }
+        mDistributedTable.apply(distributed);
+        mLocalTable.apply(local);
+    }
     
     public void addListener(EndPointListener list) {
         mLocalTable.addListener(list);
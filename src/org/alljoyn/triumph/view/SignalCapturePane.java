@@ -0,0 +1,189 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.view;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ResourceBundle;
+
+import javafx.collections.FXCollections;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.control.TitledPane;
+import javafx.stage.FileChooser;
+
+import org.alljoyn.triumph.controller.FXThreadExecutor;
+import org.alljoyn.triumph.controller.TriumphController;
+import org.alljoyn.triumph.controller.capture.CaptureWriter;
+import org.alljoyn.triumph.controller.load.BurstReport;
+import org.alljoyn.triumph.controller.load.LoadRun;
+import org.alljoyn.triumph.controller.load.SignalReplay;
+import org.alljoyn.triumph.controller.load.SignalReplay.MODE;
+import org.alljoyn.triumph.model.components.EndPoint;
+import org.alljoyn.triumph.util.loaders.ViewLoader;
+
+/**
+ * Collapsible pane that captures received signals to a file and
+ * replays captures at their original timing, faster, or as fast as possible.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class SignalCapturePane extends TitledPane {
+
+    @FXML
+    private ResourceBundle resources;
+
+    @FXML
+    private URL location;
+
+    @FXML
+    private Button mCaptureButton, mReplayButton;
+
+    @FXML
+    private Label mCaptureLabel, mReplayLabel;
+
+    @FXML
+    private ChoiceBox<MODE> mModeBox;
+
+    @FXML
+    private TextField mSpeedField, mTargetField;
+
+    @FXML
+    private CheckBox mSessionlessBox;
+
+    /**
+     * Current replay, or null if no replay was started.
+     */
+    private SignalReplay mReplay;
+
+    public SignalCapturePane() {
+        ViewLoader.loadView(this);
+        mModeBox.setItems(FXCollections.observableArrayList(MODE.values()));
+        mModeBox.getSelectionModel().select(MODE.TIMED);
+        mCaptureLabel.setText("");
+        mReplayLabel.setText("");
+    }
+
+    @FXML
+    void onCapture(ActionEvent event) {
+        TriumphController controller = TriumphController.getInstance();
+        if (controller.getCapture() != null) {
+            CaptureWriter capture = controller.stopCapture();
+            mCaptureButton.setText("Capture...");
+            if (capture != null) {
+                mCaptureLabel.setText("Captured " + capture.getSignalCount() + " signals, "
+                        + capture.getByteCount() + " bytes to " + capture.getFile().getName()
+                        + (capture.getFailedCount() == 0 ? "" : ", " + capture.getFailedCount()
+                                + " failed: " + capture.getLastError()));
+            }
+            return;
+        }
+
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Capture received signals");
+        File file = chooser.showSaveDialog(getScene().getWindow());
+        if (file == null) return;
+        try {
+            controller.startCapture(file);
+        } catch (IOException e) {
+            mCaptureLabel.setText("Unable to capture to " + file.getName() + " because of " + e.getMessage());
+            return;
+        }
+        mCaptureButton.setText("Stop Capture");
+        mCaptureLabel.setText("Capturing to " + file.getName());
+    }
+
+    @FXML
+    void onReplay(ActionEvent event) {
+        if (mReplay != null && mReplay.isRunning()) {
+            mReplay.stop();
+            return;
+        }
+
+        double speed;
+        try {
+            speed = Double.parseDouble(mSpeedField.getText().trim());
+        } catch (NumberFormatException e) {
+            mReplayLabel.setText("Speed must be a number");
+            return;
+        }
+        if (!(speed > 0)) {
+            mReplayLabel.setText("Speed must be greater than 0");
+            return;
+        }
+
+        // No target means every signal goes back to the endpoint it was captured from.
+        EndPoint target = null;
+        String targetName = mTargetField.getText() == null ? "" : mTargetField.getText().trim();
+        if (!targetName.isEmpty()) {
+            for (EndPoint endPoint: TriumphController.getInstance().getDistributedServices()) {
+                if (endPoint.getName().equals(targetName))
+                    target = endPoint;
+            }
+            if (target == null) {
+                mReplayLabel.setText("Unable to find " + targetName);
+                return;
+            }
+        }
+
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Replay capture");
+        File file = chooser.showOpenDialog(getScene().getWindow());
+        if (file == null) return;
+        try {
+            mReplay = TriumphController.getInstance().createSignalReplay(file, target,
+                    mSessionlessBox.isSelected(), mModeBox.getSelectionModel().getSelectedItem(), speed);
+        } catch (IOException e) {
+            mReplayLabel.setText("Unable to replay " + file.getName() + " because of " + e.getMessage());
+            return;
+        }
+
+        mReplayButton.setText("Stop");
+        mReplayLabel.setText("Replaying " + file.getName() + "...");
+        mReplay.start(new LoadRun.RunListener<BurstReport>() {
+
+            @Override
+            public void onProgress(BurstReport report) {
+                mReplayLabel.setText(report.toString());
+            }
+
+            @Override
+            public void onFinished(BurstReport report) {
+                mReplayLabel.setText(report.toString());
+                mReplayButton.setText("Replay...");
+            }
+        }, FXThreadExecutor.getInstance());
+    }
+
+    @FXML
+    void initialize() {
+        assert mCaptureButton != null : "fx:id=\"mCaptureButton\" was not injected: check your FXML file 'SignalCapturePane.fxml'.";
+        assert mCaptureLabel != null : "fx:id=\"mCaptureLabel\" was not injected: check your FXML file 'SignalCapturePane.fxml'.";
+        assert mModeBox != null : "fx:id=\"mModeBox\" was not injected: check your FXML file 'SignalCapturePane.fxml'.";
+        assert mReplayButton != null : "fx:id=\"mReplayButton\" was not injected: check your FXML file 'SignalCapturePane.fxml'.";
+        assert mReplayLabel != null : "fx:id=\"mReplayLabel\" was not injected: check your FXML file 'SignalCapturePane.fxml'.";
+        assert mSessionlessBox != null : "fx:id=\"mSessionlessBox\" was not injected: check your FXML file 'SignalCapturePane.fxml'.";
+        assert mSpeedField != null : "fx:id=\"mSpeedField\" was not injected: check your FXML file 'SignalCapturePane.fxml'.";
+        assert mTargetField != null : "fx:id=\"mTargetField\" was not injected: check your FXML file 'SignalCapturePane.fxml'.";
+    }
+}
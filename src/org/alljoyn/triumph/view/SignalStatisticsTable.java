@@ -0,0 +1,271 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.view;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableBooleanValue;
+import javafx.beans.value.ObservableValue;
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.util.Duration;
+
+import org.alljoyn.triumph.model.components.Signal;
+import org.alljoyn.triumph.model.components.SignalHandlerManager;
+import org.alljoyn.triumph.util.ArrivalStatistics;
+import org.alljoyn.triumph.util.LatencyHistogram;
+import org.alljoyn.triumph.view.SignalStatisticsTable.SignalStatisticsRow;
+
+/**
+ * Table of the live rate, bursts and inter-arrival times of every signal
+ * that has a handler.  The table refreshes itself every second while it is shown,
+ * see {@link #refreshWhile(ObservableBooleanValue)}.
+ *
+ * @author Michael Hotan, mhotan@quicinc.com
+ */
+public class SignalStatisticsTable extends TableView<SignalStatisticsRow> {
+
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    private final SignalHandlerManager mManager;
+
+    private final Map<Signal, SignalStatisticsRow> mRows;
+
+    private final Timeline mRefresh;
+
+    /**
+     * Plays the refresh while the table is shown.
+     */
+    private final ChangeListener<Boolean> mShowingListener;
+
+    /**
+     * Whether the table is shown, null if not known yet.
+     */
+    private ObservableBooleanValue mShowing;
+
+    private boolean mStopped;
+
+    /**
+     * Creates a table of the signals handled by manager.
+     *
+     * @param manager Manager of the signal handlers
+     */
+    public SignalStatisticsTable(SignalHandlerManager manager) {
+        if (manager == null)
+            throw new NullPointerException(getClass().getSimpleName() + "<init>, Null manager");
+        mManager = manager;
+        mRows = new HashMap<Signal, SignalStatisticsRow>();
+
+        setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        HBox.setHgrow(this, Priority.ALWAYS);
+        setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+
+        addColumn("Signal", "signal");
+        addColumn("Received", "count");
+        addColumn("Rate 1s", "rate1");
+        addColumn("Rate 10s", "rate10");
+        addColumn("Rate 60s", "rate60");
+        addColumn("Burst", "burst");
+        addColumn("Max Burst", "maxBurst");
+        addColumn("Gap p50 ms", "gapP50");
+        addColumn("Gap p99 ms", "gapP99");
+        addColumn("Max Gap ms", "gapMax");
+        addColumn("Quiet s", "quiet");
+
+        mRefresh = new Timeline(new KeyFrame(Duration.seconds(1), new EventHandler<ActionEvent>() {
+
+            @Override
+            public void handle(ActionEvent event) {
+                refresh();
+            }
+        }));
+        mRefresh.setCycleCount(Timeline.INDEFINITE);
+        mShowingListener = new ChangeListener<Boolean>() {
+
+            @Override
+            public void changed(ObservableValue<? extends Boolean> observable,
+                    Boolean oldValue, Boolean newValue) {
+                updateRefresh(Boolean.TRUE.equals(newValue));
+            }
+        };
+    }
+
+    /**
+     * Refreshes the table every second while showing is true, such as while the
+     * tab of the table is selected, and at once every time it becomes true.
+     *
+     * @param showing Whether the table is shown
+     */
+    public void refreshWhile(ObservableBooleanValue showing) {
+        if (mShowing != null)
+            mShowing.removeListener(mShowingListener);
+        mShowing = showing;
+        mShowing.addListener(mShowingListener);
+        updateRefresh(mShowing.get());
+    }
+
+    private void updateRefresh(boolean showing) {
+        if (showing && !mStopped) {
+            refresh();
+            mRefresh.play();
+        } else {
+            mRefresh.pause();
+        }
+    }
+
+    private void addColumn(String title, String property) {
+        TableColumn<SignalStatisticsRow, String> column = new TableColumn<SignalStatisticsRow, String>(title);
+        column.setCellValueFactory(new PropertyValueFactory<SignalStatisticsRow, String>(property));
+        getColumns().add(column);
+    }
+
+    /**
+     * Updates the rows with the current statistics, adding and removing
+     * rows for signals whose handler was added or removed.
+     */
+    public void refresh() {
+        Map<Signal, ArrivalStatistics> statistics = mManager.getStatistics();
+        long now = System.nanoTime();
+
+        Iterator<Map.Entry<Signal, SignalStatisticsRow>> iter = mRows.entrySet().iterator();
+        while (iter.hasNext()) {
+            Map.Entry<Signal, SignalStatisticsRow> entry = iter.next();
+            if (!statistics.containsKey(entry.getKey())) {
+                getItems().remove(entry.getValue());
+                iter.remove();
+            }
+        }
+
+        for (Map.Entry<Signal, ArrivalStatistics> entry: statistics.entrySet()) {
+            SignalStatisticsRow row = mRows.get(entry.getKey());
+            if (row == null) {
+                row = new SignalStatisticsRow(entry.getKey());
+                mRows.put(entry.getKey(), row);
+                getItems().add(row);
+            }
+            row.update(entry.getValue(), now);
+        }
+    }
+
+    /**
+     * Stops refreshing the table for good.
+     */
+    public void stop() {
+        mStopped = true;
+        if (mShowing != null)
+            mShowing.removeListener(mShowingListener);
+        mRefresh.stop();
+    }
+
+    /**
+     * Row of a single signal.
+     */
+    public static class SignalStatisticsRow {
+
+        private final StringProperty signal, count, rate1, rate10, rate60, burst,
+                maxBurst, gapP50, gapP99, gapMax, quiet;
+
+        private SignalStatisticsRow(Signal s) {
+            signal = new SimpleStringProperty(s.getInterface().getObject().getName() + " "
+                    + s.getInterface().getName() + "." + s.getName());
+            count = new SimpleStringProperty();
+            rate1 = new SimpleStringProperty();
+            rate10 = new SimpleStringProperty();
+            rate60 = new SimpleStringProperty();
+            burst = new SimpleStringProperty();
+            maxBurst = new SimpleStringProperty();
+            gapP50 = new SimpleStringProperty();
+            gapP99 = new SimpleStringProperty();
+            gapMax = new SimpleStringProperty();
+            quiet = new SimpleStringProperty();
+        }
+
+        private void update(ArrivalStatistics stats, long now) {
+            count.set("" + stats.getCount());
+            rate1.set(String.format("%.1f", stats.getRate(1, now)));
+            rate10.set(String.format("%.1f", stats.getRate(10, now)));
+            rate60.set(String.format("%.1f", stats.getRate(60, now)));
+            burst.set(stats.getCurrentBurst() + " (last " + stats.getLastBurst() + ")");
+            maxBurst.set("" + stats.getMaxBurst());
+
+            LatencyHistogram gaps = stats.getInterArrivalHistogram();
+            boolean hasGaps = gaps.getTotalCount() > 0;
+            gapP50.set(hasGaps ? String.format("%.3f", gaps.getValueAtPercentile(50) / NANOS_PER_MILLI) : "");
+            gapP99.set(hasGaps ? String.format("%.3f", gaps.getValueAtPercentile(99) / NANOS_PER_MILLI) : "");
+            gapMax.set(hasGaps ? String.format("%.3f", gaps.getMaxValue() / NANOS_PER_MILLI) : "");
+
+            long quietNanos = stats.getQuietNanos(now);
+            quiet.set(quietNanos < 0 ? "" : String.format("%.1f", quietNanos / (NANOS_PER_MILLI * 1000)));
+        }
+
+        public StringProperty signalProperty() {
+            return signal;
+        }
+
+        public StringProperty countProperty() {
+            return count;
+        }
+
+        public StringProperty rate1Property() {
+            return rate1;
+        }
+
+        public StringProperty rate10Property() {
+            return rate10;
+        }
+
+        public StringProperty rate60Property() {
+            return rate60;
+        }
+
+        public StringProperty burstProperty() {
+            return burst;
+        }
+
+        public StringProperty maxBurstProperty() {
+            return maxBurst;
+        }
+
+        public StringProperty gapP50Property() {
+            return gapP50;
+        }
+
+        public StringProperty gapP99Property() {
+            return gapP99;
+        }
+
+        public StringProperty gapMaxProperty() {
+            return gapMax;
+        }
+
+        public StringProperty quietProperty() {
+            return quiet;
+        }
+    }
+}
@@ -17,26 +17,43 @@
 package org.alljoyn.triumph.view;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
+import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
 import javafx.fxml.FXML;
+import javafx.scene.control.Button;
 import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.control.Tooltip;
 
 import org.alljoyn.bus.BusException;
 import org.alljoyn.bus.Status;
+import org.alljoyn.triumph.controller.Destroyable;
 import org.alljoyn.triumph.controller.TriumphController;
+import org.alljoyn.triumph.controller.flow.SignalStreams;
+import org.alljoyn.triumph.controller.flow.Subscriber;
+import org.alljoyn.triumph.controller.flow.Subscription;
+import org.alljoyn.triumph.controller.load.LoadOperation;
+import org.alljoyn.triumph.controller.load.LoadRun;
+import org.alljoyn.triumph.controller.load.SignalBurst;
 import org.alljoyn.triumph.model.components.Signal;
+import org.alljoyn.triumph.model.components.SignalContext;
 import org.alljoyn.triumph.model.components.SignalHandlerManager;
 import org.alljoyn.triumph.model.components.arguments.Argument;
+import org.alljoyn.triumph.util.SignalFilter;
 
 /**
  * The view that represents a single Signal member of the interface. 
  * 
  * @author mhotan@quicinc.com, Michael Hotan
  */
-public class SignalView extends MemberView {
+public class SignalView extends MemberView implements Destroyable {
 
     private static final Logger LOG = Logger.getLogger(SignalView.class.getSimpleName());
     
@@ -46,8 +63,17 @@ public class SignalView extends MemberView {
     private final Signal mSignal;
 
     private final CheckBox sessionlessBox, receiveBox;
+
+    private final TextField filterField;
     
     private final SignalHandlerManager mManager;
+
+    /**
+     * Latest received signal, see {@link LastSignalSubscriber}.
+     */
+    private final Label mLastReceived;
+
+    private final LastSignalSubscriber mLastSubscriber;
     
     /**
      * Create's a signal view for the signal instance.
@@ -99,22 +125,149 @@ public class SignalView extends MemberView {
             }
         });
         mButtonBar.getChildren().add(receiveBox);
+
+        // Filter on the arguments of received signals.
+        SignalFilter filter = mManager.getSignalFilter(mSignal);
+        filterField = new TextField(filter == null ? "" : filter.toString());
+        filterField.setPromptText("arg0 == 5 && arg1 =~ \"a.*\"");
+        filterField.setTooltip(new Tooltip("Only receive signals whose arguments match.\n"
+                + "Conditions are argN OP value joined by &&, OP is one of == != < <= > >= =~"));
+        filterField.setOnAction(new EventHandler<ActionEvent>() {
+
+            @Override
+            public void handle(ActionEvent event) {
+                applyFilter();
+            }
+        });
+        Button filterButton = new Button("Filter");
+        filterButton.setOnAction(new EventHandler<ActionEvent>() {
+
+            @Override
+            public void handle(ActionEvent event) {
+                applyFilter();
+            }
+        });
+        mButtonBar.getChildren().addAll(filterField, filterButton);
+
+        // Load test emission of the signal with the current arguments.
+        addLoadTestPane(new LoadTestPane.OperationSource() {
+
+            @Override
+            public LoadOperation createOperation() throws Exception {
+                String errors = saveArguments(mOutputArgs);
+                if (errors != null)
+                    throw new IllegalArgumentException(errors);
+                return TriumphController.getInstance().createLoadOperation(mSignal, 
+                        mSignal.getOutputArguments(), sessionlessBox.isSelected());
+            }
+        });
+
+        // Bursts of the signal with the current arguments.
+        LoadTestPane<SignalBurst.MODE> burstPane = new LoadTestPane<SignalBurst.MODE>(SignalBurst.MODE.values(), 
+                SignalBurst.MODE.COUNT, "1000", "signals or signals/s", new LoadTestPane.RunSource<SignalBurst.MODE>() {
+
+            @Override
+            public LoadRun<?> createRun(SignalBurst.MODE mode, int amount, long seconds) throws Exception {
+                String errors = saveArguments(mOutputArgs);
+                if (errors != null)
+                    throw new IllegalArgumentException(errors);
+                return TriumphController.getInstance().createSignalBurst(mSignal, mSignal.getOutputArguments(), 
+                        sessionlessBox.isSelected(), mode, amount, seconds, TimeUnit.SECONDS);
+            }
+        });
+        burstPane.setText("Signal Burst");
+        mCompletePane.getChildren().add(burstPane);
+
+        // Latest received signal, only the newest one is kept while the label is updated.
+        mLastReceived = new Label("Last received: none");
+        mCompletePane.getChildren().add(mLastReceived);
+        mLastSubscriber = new LastSignalSubscriber();
+        TriumphController.getInstance().createSignalStream(SignalStreams.forSignal(mSignal), 
+                1, SignalStreams.POLICY.DROP_OLDEST).subscribe(mLastSubscriber);
+    }
+
+    /**
+     * Stops showing the received signals.
+     */
+    @Override
+    public void destroy() {
+        mLastSubscriber.cancel();
+    }
+
+    /**
+     * Shows the latest received signal.  A single signal is requested at a time and
+     * the next one only once the label shows the previous one, so a flood of signals
+     * posts a single update to the JavaFX thread at a time.
+     */
+    private class LastSignalSubscriber implements Subscriber<SignalContext> {
+
+        private volatile Subscription mSubscription;
+
+        private volatile boolean mCancelled;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            mSubscription = subscription;
+            if (mCancelled)
+                subscription.cancel();
+            else
+                subscription.request(1);
+        }
+
+        @Override
+        public void onNext(SignalContext item) {
+            // Build the description on the stream thread, not the JavaFX thread.
+            final String description = item.getDescription();
+            Platform.runLater(new Runnable() {
+
+                @Override
+                public void run() {
+                    mLastReceived.setText("Last received: " + description);
+                    if (!mCancelled)
+                        mSubscription.request(1);
+                }
+            });
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            LOG.warning("Unable to show the received signals of " + mSignal + ": " + throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            // The application is shutting down.
+        }
+
+        void cancel() {
+            mCancelled = true;
+            Subscription subscription = mSubscription;
+            if (subscription != null)
+                subscription.cancel();
+        }
+    }
+
+    /**
+     * Parses the filter of the filter field and applies it to the received signals.
+     */
+    private void applyFilter() {
+        SignalFilter filter;
+        try {
+            filter = SignalFilter.parse(filterField.getText());
+        } catch (IllegalArgumentException e) {
+            showError("Invalid filter: " + e.getMessage());
+            return;
+        }
+        mManager.setSignalFilter(mSignal, filter);
     }
 
     @Override
     @FXML
     protected void invoke() throws BusException {
         
-        StringBuffer buf = new StringBuffer();
-        for (LoadableArgumentView view : mOutputArgs) {
-            String error = view.getCurrentView().onSetCurrentValue();
-            if (error == null) continue;
-            buf.append(error);
-            buf.append("\n");
-        }
-
-        if (buf.length() > 0) {
-            showError("Invocation Cancelled due to following errors: \n" + buf.toString());
+        String errors = saveArguments(mOutputArgs);
+        if (errors != null) {
+            showError("Invocation Cancelled due to following errors: \n" + errors);
             return;
         }
 
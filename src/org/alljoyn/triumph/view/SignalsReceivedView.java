@@ -17,29 +17,56 @@
 package org.alljoyn.triumph.view;
 
 import java.net.URL;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
 
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.event.ActionEvent;
 import javafx.event.Event;
 import javafx.event.EventHandler;
 import javafx.fxml.FXML;
+import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
 import javafx.scene.control.SelectionMode;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.control.Tooltip;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
+import javafx.stage.WindowEvent;
 
+import org.alljoyn.triumph.controller.TriumphController;
+import org.alljoyn.triumph.model.components.Signal;
 import org.alljoyn.triumph.model.components.SignalContext;
+import org.alljoyn.triumph.util.BoundedHistory;
+import org.alljoyn.triumph.util.BoundedHistory.POLICY;
 import org.alljoyn.triumph.util.loaders.ViewLoader;
 
+/**
+ * Presents the most recent received signals.
+ * <p>
+ * Only a bounded number of signals is kept.  The user chooses how many and whether
+ * the oldest, the newest or all but one in N signals are dropped once the limit is
+ * reached.  The number of dropped signals is presented per signal.
+ */
 public class SignalsReceivedView extends BorderPane {
 
+    /**
+     * Default number of signals to keep.
+     */
+    private static final int DEFAULT_CAPACITY = 1000;
+
+    /**
+     * Default one out of how many signals to keep when sampling.
+     */
+    private static final int DEFAULT_SAMPLE_RATE = 10;
+
     @FXML
     private ResourceBundle resources;
 
@@ -54,10 +81,47 @@ public class SignalsReceivedView extends BorderPane {
     private final ObservableList<SignalContectTableItem> mTableItems;
 
     private final SignalReceivedListener mListener;
+
+    private final BoundedHistory<Signal, SignalContext> mHistory;
+
+    /**
+     * Number of signals that left the history but are still in the lists.
+     */
+    private int mPendingRemovals;
+
+    /**
+     * Signals the controller dropped before they reached this view, as last shown
+     * and when the history was last cleared.
+     */
+    private long mOverflowShown, mOverflowCleared;
+
+    /**
+     * Removes the pending signals from the front of the lists at once.
+     */
+    private final Runnable mEvict = new Runnable() {
+
+        @Override
+        public void run() {
+            mList.remove(0, mPendingRemovals);
+            mTableItems.remove(0, mPendingRemovals);
+            mPendingRemovals = 0;
+        }
+    };
     
     @FXML
     private HBox mUtilPane;
 
+    @FXML
+    private TextField mCapacityField, mSampleField;
+
+    @FXML
+    private ChoiceBox<POLICY> mPolicyBox;
+
+    @FXML
+    private Label mDroppedLabel;
+
+    private Tooltip mDroppedTooltip;
+
     public SignalsReceivedView(SignalReceivedListener listener) {
         ViewLoader.loadView(this);
         mListener = listener;
@@ -89,40 +153,137 @@ public class SignalsReceivedView extends BorderPane {
             }
         });
         setCenter(mSignalListView);
+        setBottom(new SignalCapturePane());
+
+        mHistory = new BoundedHistory<Signal, SignalContext>(DEFAULT_CAPACITY, POLICY.DROP_OLDEST, 
+                DEFAULT_SAMPLE_RATE, new BoundedHistory.KeyExtractor<Signal, SignalContext>() {
+
+            @Override
+            public Signal getKey(SignalContext element) {
+                return element.getSignal();
+            }
+        });
+        mHistory.addListener(new BoundedHistory.HistoryListener<SignalContext>() {
+
+            @Override
+            public void onAdded(SignalContext element) {
+                mList.add(element);
+                mTableItems.add(new SignalContectTableItem(element));
+            }
+
+            @Override
+            public void onRemoved(SignalContext element) {
+                // Elements always leave from the front, and new ones are added to the
+                // back, so the front of the lists can be evicted later in one batch.
+                if (mPendingRemovals++ == 0)
+                    Platform.runLater(mEvict);
+            }
+        });
+
+        mPolicyBox.setItems(FXCollections.observableArrayList(POLICY.values()));
+        mDroppedTooltip = new Tooltip();
+        mDroppedTooltip.setOnShowing(new EventHandler<WindowEvent>() {
+
+            @Override
+            public void handle(WindowEvent event) {
+                // Only build the per signal summary when the user looks at it.
+                mDroppedTooltip.setText(getDroppedSummary());
+            }
+        });
+        mDroppedLabel.setTooltip(mDroppedTooltip);
+        showHistorySettings();
+        updateDroppedLabel();
     }
 
     /**
      * Adds a received Signal Context to the internal list.
      * <br>User will notified of the new signal.
+     * <br>The signal may be dropped according to the history policy.
      * 
      * @param received Received SignalContext 
      */
     public void addSignal(SignalContext received) {
-        add(received);
-        add(new SignalContectTableItem(received));
+        long dropped = mHistory.getTotalDroppedCount();
+        mHistory.add(received);
+        if (dropped != mHistory.getTotalDroppedCount() || getOverflowCount() != mOverflowShown)
+            updateDroppedLabel();
     }
-    
-    private void add(SignalContext context) {
-        List<SignalContext> signals = new ArrayList<SignalContext>(mList);
-        signals.add(context);
-        mList.removeAll(mList);
-        for (SignalContext signal : signals)
-            mList.add(signal);
+
+    @FXML
+    void onApplyHistory(ActionEvent event) {
+        POLICY policy = mPolicyBox.getSelectionModel().getSelectedItem();
+        int capacity = -1, sampleRate = -1;
+        try {
+            capacity = Integer.parseInt(mCapacityField.getText().trim());
+            sampleRate = Integer.parseInt(mSampleField.getText().trim());
+        } catch (NumberFormatException e) {
+            // Treated as invalid below.
+        }
+
+        // Only apply the settings once both are valid, else restore the settings in use.
+        if (capacity >= 1 && sampleRate >= 1) {
+            mHistory.setPolicy(policy == null ? mHistory.getPolicy() : policy, sampleRate);
+            mHistory.setCapacity(capacity);
+        }
+        showHistorySettings();
+        updateDroppedLabel();
     }
-    
-    private void add(SignalContectTableItem item) {
-        List<SignalContectTableItem> signals = new ArrayList<SignalsReceivedView.SignalContectTableItem>(mTableItems);
-        signals.add(item);
-        mTableItems.removeAll(mTableItems);
-        for (SignalContectTableItem signal : signals)
-            mTableItems.add(signal);
-        mTableView.setItems(FXCollections.observableArrayList(mTableItems));
+
+    @FXML
+    void onClearHistory(ActionEvent event) {
+        mHistory.clear();
+        mHistory.resetDroppedCounts();
+        mOverflowCleared = TriumphController.getInstance().getDroppedSignalCount();
+        updateDroppedLabel();
+    }
+
+    private void showHistorySettings() {
+        mCapacityField.setText("" + mHistory.getCapacity());
+        mSampleField.setText("" + mHistory.getSampleRate());
+        mPolicyBox.getSelectionModel().select(mHistory.getPolicy());
+    }
+
+    /**
+     * @return Number of signals that arrived faster than they could be shown
+     * since the history was last cleared
+     */
+    private long getOverflowCount() {
+        return TriumphController.getInstance().getDroppedSignalCount() - mOverflowCleared;
+    }
+
+    private void updateDroppedLabel() {
+        mOverflowShown = getOverflowCount();
+        mDroppedLabel.setText("Dropped: " + mHistory.getTotalDroppedCount() 
+                + (mOverflowShown == 0 ? "" : ", overflow: " + mOverflowShown));
+    }
+
+    private String getDroppedSummary() {
+        Map<Signal, Long> drops = mHistory.getDroppedCounts();
+        long overflow = getOverflowCount();
+        if (drops.isEmpty() && overflow == 0) return "No signals dropped";
+        StringBuffer buf = new StringBuffer();
+        if (overflow != 0)
+            buf.append("Arrived faster than they could be shown: ").append(overflow);
+        for (Map.Entry<Signal, Long> entry: drops.entrySet()) {
+            Signal signal = entry.getKey();
+            if (buf.length() > 0)
+                buf.append("\n");
+            buf.append(signal.getInterface().getObject().getName());
+            buf.append(" ").append(signal.getInterface().getName());
+            buf.append(".").append(signal.getName());
+            buf.append(": ").append(entry.getValue());
+        }
+        return buf.toString();
     }
 
     @FXML
     void initialize() {
         assert mSignalListView != null : "fx:id=\"mSignalListView\" was not injected: check your FXML file 'SignalsReceivedView.fxml'.";
         assert mUtilPane != null : "fx:id=\"mUtilPane\" was not injected: check your FXML file 'SignalsReceivedView.fxml'.";
+        assert mCapacityField != null : "fx:id=\"mCapacityField\" was not injected: check your FXML file 'SignalsReceivedView.fxml'.";
+        assert mSampleField != null : "fx:id=\"mSampleField\" was not injected: check your FXML file 'SignalsReceivedView.fxml'.";
+        assert mPolicyBox != null : "fx:id=\"mPolicyBox\" was not injected: check your FXML file 'SignalsReceivedView.fxml'.";
+        assert mDroppedLabel != null : "fx:id=\"mDroppedLabel\" was not injected: check your FXML file 'SignalsReceivedView.fxml'.";
     }
 
 //    private static class SimpleSignalContextListCell extends ListCell<SignalContext> {
@@ -145,19 +306,24 @@ public class SignalsReceivedView extends BorderPane {
 
    public static class SignalContectTableItem {
     
-       private final SimpleStringProperty description;
+       /**
+        * Created when the row is first shown.
+        */
+       private SimpleStringProperty description;
        
        private final SignalContext mContext;
        
        private SignalContectTableItem(SignalContext context) {
            mContext = context;
-           description = new SimpleStringProperty(mContext.getDescription());
        }
        
        public String getDescription() {
+           if (description == null)
+               description = new SimpleStringProperty(mContext.getDescription());
            return description.get();
        }
        public void setDescription(String fName) {
+           getDescription();
            description.set(fName);
        }
        
@@ -21,6 +21,7 @@ import java.util.ResourceBundle;
 
 import javafx.fxml.FXML;
 import javafx.scene.control.ScrollPane;
+import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
 import javafx.scene.control.TabPane.TabClosingPolicy;
 import javafx.scene.layout.HBox;
@@ -46,6 +47,12 @@ public class TabbedSupportView extends HBox {
     @FXML
     private ScrollPane mSignalReceivedPane;
 
+    @FXML
+    private ScrollPane mSignalStatisticsPane;
+
+    @FXML
+    private Tab mSignalStatisticsTab;
+
     @FXML
     private TabPane mTabPane;
 
@@ -61,11 +68,23 @@ public class TabbedSupportView extends HBox {
     public void setSignalReceivedView(SignalsReceivedView view) {
         mSignalReceivedPane.setContent(view);
     }
+
+    /**
+     * Shows the table in its tab, the table only refreshes while the tab is selected.
+     * 
+     * @param view Table of the signal statistics
+     */
+    public void setSignalStatisticsView(SignalStatisticsTable view) {
+        mSignalStatisticsPane.setContent(view);
+        view.refreshWhile(mSignalStatisticsTab.selectedProperty());
+    }
     
     @FXML
     void initialize() {
         assert mLogPane != null : "fx:id=\"mLogPane\" was not injected: check your FXML file 'TabbedSupportView.fxml'.";
         assert mSignalReceivedPane != null : "fx:id=\"mSignalReceivedPane\" was not injected: check your FXML file 'TabbedSupportView.fxml'.";
+        assert mSignalStatisticsPane != null : "fx:id=\"mSignalStatisticsPane\" was not injected: check your FXML file 'TabbedSupportView.fxml'.";
+        assert mSignalStatisticsTab != null : "fx:id=\"mSignalStatisticsTab\" was not injected: check your FXML file 'TabbedSupportView.fxml'.";
         assert mTabPane != null : "fx:id=\"mTabPane\" was not injected: check your FXML file 'TabbedSupportView.fxml'.";
     }
 }
@@ -16,6 +16,9 @@
 
 package org.alljoyn.triumph.view;
 
+import java.util.List;
+
+import org.alljoyn.triumph.controller.EndPointChange;
 import org.alljoyn.triumph.model.components.SignalContext;
 
 /**
@@ -36,6 +39,14 @@ public interface TriumphViewable {
      */
     public void update();
 
+    /**
+     * Notifies the view that endpoints were found, lost or changed.  Only
+     * the endpoints in the changes need to be updated.
+     * 
+     * @param changes Changes in the order they happened
+     */
+    public void updateEndPoints(List<EndPointChange> changes);
+
     /**
      * An Error occurred and the user should be notified
      * @param message Error message
@@ -16,8 +16,17 @@
 
 package org.alljoyn.triumph.view.arguments.editable;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.List;
 
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
+import javafx.stage.FileChooser;
+
 import org.alljoyn.triumph.TriumphException;
 import org.alljoyn.triumph.model.components.arguments.ArgumentFactory;
 import org.alljoyn.triumph.model.components.arguments.ByteArgument;
@@ -26,20 +35,64 @@ import org.alljoyn.triumph.util.AJConstant;
 
 /**
  * View that presents an array of bytes.
+ * <p>
+ * Small arrays are presented one byte at a time.  Large arrays, and arrays 
+ * loaded from a file, are only summarized so a payload of several megabytes
+ * does not create a view for every byte.
+ * 
  * @author mhotan@quicinc.com
  */
 public class ByteArrayArgumentView extends ArrayArgumentView<byte[]> {
 
+	/**
+	 * Maximum number of bytes that are presented one at a time.
+	 */
+	public static final int MAX_ELEMENT_VIEWS = 256;
+
+	/**
+	 * Value of a summarized array, null if the array is presented per byte.
+	 */
+	private byte[] mBulkValue;
+
+	private final HBox mFileBar;
+
+	private final Button mLoadButton;
+
 	/**
 	 * Creates an argument view.
 	 * @param arg Byte argument to associate to this view.
 	 */
 	public ByteArrayArgumentView(ByteArrayArgument arg) {
 		super(arg);
-		
+
+		mLoadButton = new Button("Load File...");
+		mLoadButton.managedProperty().bind(mLoadButton.visibleProperty());
+		mLoadButton.setOnAction(new EventHandler<ActionEvent>() {
+
+			@Override
+			public void handle(ActionEvent event) {
+				onLoadFile();
+			}
+		});
+		Button saveButton = new Button("Save File...");
+		saveButton.setOnAction(new EventHandler<ActionEvent>() {
+
+			@Override
+			public void handle(ActionEvent event) {
+				onSaveFile();
+			}
+		});
+		mFileBar = new HBox(5.0);
+		mFileBar.getChildren().addAll(mLoadButton, saveButton);
+		mCenter.getChildren().add(mFileBar);
+
 		// Check for any current values.
 		byte[] values = getValue();
         if (values == null) return;
+        if (values.length > MAX_ELEMENT_VIEWS) {
+            showBulkValue(values);
+            return;
+        }
         
         // Now that we have current values.
         // Populate the current view.
@@ -71,8 +124,70 @@ public class ByteArrayArgumentView extends ArrayArgumentView<byte[]> {
 		return view;
 	}
 
+	/**
+	 * Presents value as a summary instead of a view per byte.
+	 * 
+	 * @param value Value to present
+	 */
+	private void showBulkValue(byte[] value) {
+		mBulkValue = value;
+		clearElements();
+		mCenter.getChildren().addAll(mFileBar, new Label(value.length + " bytes"));
+		hideAddElementButton();
+	}
+
+	/**
+	 * Sets the value of this argument to the contents of a file chosen by the user.
+	 */
+	private void onLoadFile() {
+		FileChooser chooser = new FileChooser();
+		chooser.setTitle("Load " + mArg.getName());
+		File file = chooser.showOpenDialog(getScene().getWindow());
+		if (file == null) return;
+		try {
+			ByteArrayArgument arg = (ByteArrayArgument) mArg;
+			arg.setValue(file);
+			showBulkValue(arg.getValue());
+			hideError();
+		} catch (IOException e) {
+			showError("Unable to load " + file.getName() + " because of " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Writes the current value of this argument to a file chosen by the user.
+	 */
+	private void onSaveFile() {
+		String error = onSetCurrentValue();
+		if (error != null) {
+			showError(error);
+			return;
+		}
+		FileChooser chooser = new FileChooser();
+		chooser.setTitle("Save " + mArg.getName());
+		File file = chooser.showSaveDialog(getScene().getWindow());
+		if (file == null) return;
+		try {
+			((ByteArrayArgument) mArg).writeValue(file);
+			hideError();
+		} catch (IOException e) {
+			showError("Unable to save " + file.getName() + " because of " + e.getMessage());
+		}
+	}
+
+	@Override
+	public void setEditable(boolean editable) {
+		super.setEditable(editable);
+		mLoadButton.setVisible(editable);
+		if (mBulkValue != null)
+			hideAddElementButton();
+	}
+
 	@Override
 	public byte[] getCurrentElements(StringBuffer buf) {
+		if (mBulkValue != null)
+			return mBulkValue;
+
 		List<ArgumentView<?>> currentViews = getArgViews();
 		byte[] array = new byte[currentViews.size()];
 		
@@ -152,6 +152,14 @@ public abstract class MultiElementArgumentView<T> extends ArgumentView<T> {
         mCenter.getChildren().add(toAdd);
     }
 
+    /**
+     * Removes every element view from this argument view.
+     */
+    protected void clearElements() {
+        mArgViews.clear();
+        mCenter.getChildren().clear();
+    }
+
     /**
      * Returns the current list of ArgumentViews.
      * It is safe to case the elements of the ArgumentView elements
@@ -18,22 +18,31 @@ package org.alljoyn.triumph.view.propview;
 
 import java.net.URL;
 import java.util.ResourceBundle;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
 
-import org.alljoyn.bus.BusException;
+import org.alljoyn.triumph.controller.Deadline;
+import org.alljoyn.triumph.controller.Destroyable;
+import org.alljoyn.triumph.controller.InvocationCallback;
+import org.alljoyn.triumph.controller.PropertyWatcher;
 import org.alljoyn.triumph.controller.TriumphController;
+import org.alljoyn.triumph.controller.load.LoadOperation;
 import org.alljoyn.triumph.model.components.Property;
 import org.alljoyn.triumph.model.components.arguments.Argument;
 import org.alljoyn.triumph.util.loaders.ViewLoader;
+import org.alljoyn.triumph.view.LoadTestPane;
 import org.alljoyn.triumph.view.arguments.editable.ArgumentView;
 import org.alljoyn.triumph.view.arguments.editable.EditableArgumentViewFactory;
 
@@ -43,7 +52,7 @@ import org.alljoyn.triumph.view.arguments.editable.EditableArgumentViewFactory;
  * 
  * @author mhotan@quicinc.com, Michael Hotan
  */
-public class PropertyView extends BorderPane {
+public class PropertyView extends BorderPane implements Destroyable {
 
     @FXML
     private ResourceBundle resources;
@@ -69,6 +78,11 @@ public class PropertyView extends BorderPane {
     @FXML
     private Button mSetButton;
 
+    @FXML
+    private VBox mContentPane;
+
+    @FXML
+    private CheckBox mWatchBox;
 
     /**
      * A reference to the current Argument View
@@ -80,11 +94,38 @@ public class PropertyView extends BorderPane {
      */
     private final Property mProperty;
 
+    /**
+     * Read and write of the property that have not returned yet, null if there is none.
+     */
+    private Future<?> mPendingGet, mPendingSet;
+
+    /**
+     * Presents the values of the property while it is watched.
+     */
+    private final PropertyWatcher.WatchListener mWatchListener = new PropertyWatcher.WatchListener() {
+
+        @Override
+        public void onPropertyChanged(Property property, Argument<?> value) {
+            hideError();
+            showArgument(value);
+        }
+    };
+
     /**
      * Creates a property view to present the value
      * @param property 
      */
     public PropertyView(Property property) {
+        this(property, null);
+    }
+
+    /**
+     * Creates a property view that presents a value that was already read.
+     * 
+     * @param property Property to present
+     * @param value Current value of the property, or null to get it from the property
+     */
+    public PropertyView(Property property, Argument<?> value) {
         ViewLoader.loadView("PropertyView.fxml", this);
         mProperty = property;
         
@@ -93,10 +134,45 @@ public class PropertyView extends BorderPane {
         setTop(titleView);
 
         // Default the signature to be read only.
-        if (mProperty.hasReadAccess()) {
+        if (value != null) {
+            showArgument(value);
+        } else if (mProperty.hasReadAccess()) {
             getProperty();
         }
 
+        // Load test reads and writes of the property.
+        if (mProperty.hasReadAccess()) {
+            LoadTestPane<?> getTest = LoadTestPane.create(new LoadTestPane.OperationSource() {
+
+                @Override
+                public LoadOperation createOperation() {
+                    return TriumphController.getInstance().createGetPropertyLoadOperation(mProperty);
+                }
+            });
+            getTest.setText("Load Test Get");
+            mContentPane.getChildren().add(getTest);
+        }
+        if (mProperty.hasWriteAccess()) {
+            LoadTestPane<?> setTest = LoadTestPane.create(new LoadTestPane.OperationSource() {
+
+                @Override
+                public LoadOperation createOperation() throws Exception {
+                    if (mCurrentArgument == null)
+                        throw new IllegalStateException("Get the property before load testing Set");
+                    String error = mCurrentArgument.onSetCurrentValue();
+                    if (error != null)
+                        throw new IllegalArgumentException(error);
+                    return TriumphController.getInstance().createSetPropertyLoadOperation(
+                            mProperty, mCurrentArgument.getArgument());
+                }
+            });
+            setTest.setText("Load Test Set");
+            mContentPane.getChildren().add(setTest);
+        }
+
+        // Only readable properties can be watched.
+        mWatchBox.setDisable(!mProperty.hasReadAccess());
+
         // Hide the error
         hideError();
     }
@@ -111,35 +187,115 @@ public class PropertyView extends BorderPane {
         setProperty();
     }
 
+    @FXML
+    void onWatch(ActionEvent event) {
+        PropertyWatcher watcher = TriumphController.getInstance().getPropertyWatcher();
+        if (mWatchBox.isSelected()) {
+            watcher.watch(mProperty, mWatchListener);
+        } else {
+            watcher.unwatch(mProperty, mWatchListener);
+        }
+    }
+
     /**
-     * Gets the current value of the property.  This is done remotely if
-     * this property is a remote Property.
-     * 
-     * @return Argument that pertains to the Property, null otherwise
+     * Stops watching the property, the view is no longer presented.
+     */
+    @Override
+    public void destroy() {
+        TriumphController.getInstance().getPropertyWatcher().unwatch(mProperty, mWatchListener);
+        mWatchBox.setSelected(false);
+        if (mPendingGet != null)
+            mPendingGet.cancel(true);
+        if (mPendingSet != null)
+            mPendingSet.cancel(true);
+    }
+
+    /**
+     * Gets the current value of the property off of the JavaFX thread.  This is 
+     * done remotely if this property is a remote Property.  The value is 
+     * presented once it is read.
      */
     private void getProperty() {
+        if (mPendingGet != null) return;
         try {
-            Argument<?> arg = TriumphController.getInstance().getProperty(mProperty);
-            mCurrentArgument = EditableArgumentViewFactory.produceView(arg);
-            mArgumentPane.getChildren().clear();
-            mArgumentPane.getChildren().add(mCurrentArgument);
-        } catch (BusException e) {
-            showError(e.getMessage());
+            mPendingGet = TriumphController.getInstance().getPropertyAsync(mProperty, 
+                    new InvocationCallback<Argument<?>>() {
+
+                @Override
+                public void onSuccess(Argument<?> result) {
+                    onGetReturned();
+                    showArgument(result);
+                }
+
+                @Override
+                public void onFailure(Throwable error) {
+                    onGetReturned();
+                    showError(error.getMessage());
+                }
+            }, Deadline.NONE);
+            mGetButton.setDisable(true);
+        } catch (RejectedExecutionException e) {
+            showError("Too many pending calls, try again once some have returned.");
         }
     }
 
+    private void onGetReturned() {
+        mPendingGet = null;
+        mGetButton.setDisable(false);
+    }
+
+    /**
+     * Presents the value of the property.
+     * 
+     * @param arg Argument that holds the value of the property
+     */
+    private void showArgument(Argument<?> arg) {
+        mCurrentArgument = EditableArgumentViewFactory.produceView(arg);
+        mArgumentPane.getChildren().clear();
+        mArgumentPane.getChildren().add(mCurrentArgument);
+    }
+
     /**
-     * Set the Property to the current value
+     * Set the Property to the current value off of the JavaFX thread.
      */
     private void setProperty() {
+        if (mPendingSet != null) return;
+        if (mCurrentArgument == null) {
+            showError("Get the property before setting it");
+            return;
+        }
+        String invalid = mCurrentArgument.onSetCurrentValue();
+        if (invalid != null) {
+            showError(invalid);
+            return;
+        }
         try {
-            mCurrentArgument.onSetCurrentValue();
-            TriumphController.getInstance().setProperty(mProperty, mCurrentArgument.getArgument());
-        } catch (Exception e) {
-            showError(e.getMessage());
+            mPendingSet = TriumphController.getInstance().setPropertyAsync(mProperty, 
+                    mCurrentArgument.getArgument(), new InvocationCallback<Void>() {
+
+                @Override
+                public void onSuccess(Void result) {
+                    onSetReturned();
+                    hideError();
+                }
+
+                @Override
+                public void onFailure(Throwable error) {
+                    onSetReturned();
+                    showError(error.getMessage());
+                }
+            }, Deadline.NONE);
+            mSetButton.setDisable(true);
+        } catch (RejectedExecutionException e) {
+            showError("Too many pending calls, try again once some have returned.");
         }
     }
 
+    private void onSetReturned() {
+        mPendingSet = null;
+        mSetButton.setDisable(false);
+    }
+
     /**
      * Show error with the associated message 
      * @param message Message
@@ -160,6 +316,8 @@ public class PropertyView extends BorderPane {
         assert mButtonSpaceFiller != null : "fx:id=\"mButtonSpaceFiller\" was not injected: check your FXML file 'PropertyView.fxml'.";
         assert mError != null : "fx:id=\"mError\" was not injected: check your FXML file 'PropertyView.fxml'.";
         assert mGetButton != null : "fx:id=\"mGetButton\" was not injected: check your FXML file 'PropertyView.fxml'.";
+        assert mContentPane != null : "fx:id=\"mContentPane\" was not injected: check your FXML file 'PropertyView.fxml'.";
         assert mSetButton != null : "fx:id=\"mSetButton\" was not injected: check your FXML file 'PropertyView.fxml'.";
+        assert mWatchBox != null : "fx:id=\"mWatchBox\" was not injected: check your FXML file 'PropertyView.fxml'.";
     }
 }
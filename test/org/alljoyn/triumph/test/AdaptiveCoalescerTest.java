@@ -0,0 +1,142 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+
+package org.alljoyn.triumph.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.alljoyn.triumph.controller.AdaptiveCoalescer;
+import org.alljoyn.triumph.controller.metrics.CoalescerMetrics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AdaptiveCoalescerTest {
+
+	private static final long MIN_MILLIS = 5, MAX_MILLIS = 200;
+
+	private ScheduledExecutorService mScheduler;
+
+	private CoalescerMetrics mMetrics;
+
+	private AdaptiveCoalescer mCoalescer;
+
+	/**
+	 * Released once per flush.
+	 */
+	private Semaphore mFlushes;
+
+	@Before
+	public void setUp() {
+		mScheduler = Executors.newSingleThreadScheduledExecutor();
+		mMetrics = new CoalescerMetrics("test");
+		mFlushes = new Semaphore(0);
+		mCoalescer = new AdaptiveCoalescer(mScheduler, new Runnable() {
+
+			@Override
+			public void run() {
+				mFlushes.release();
+			}
+		}, MIN_MILLIS, MAX_MILLIS, mMetrics);
+	}
+
+	@After
+	public void tearDown() {
+		mCoalescer.destroy();
+		mScheduler.shutdownNow();
+	}
+
+	@Test
+	public void testIsolatedEventFlushedQuickly() throws InterruptedException {
+		mCoalescer.signal();
+		assertTrue(mFlushes.tryAcquire(MAX_MILLIS, TimeUnit.MILLISECONDS));
+		assertEquals(1, mMetrics.getFlushCount());
+		assertEquals(1, mMetrics.getLastBatchSize());
+		assertEquals(0, mMetrics.getQueueDepth());
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(MIN_MILLIS), mCoalescer.getWindowNanos());
+	}
+
+	@Test
+	public void testIdleDoesNotFlush() throws InterruptedException {
+		assertTrue(!mFlushes.tryAcquire(MIN_MILLIS * 4, TimeUnit.MILLISECONDS));
+		assertEquals(0, mMetrics.getFlushCount());
+	}
+
+	@Test
+	public void testStormIsBatched() throws InterruptedException {
+		for (int i = 0; i < 500; ++i)
+			mCoalescer.signal();
+		assertTrue(mFlushes.tryAcquire(MAX_MILLIS, TimeUnit.MILLISECONDS));
+		assertEquals(500, mMetrics.getEventCount());
+		assertTrue(mMetrics.getMaxBatchSize() > 1);
+		assertTrue(mCoalescer.getWindowNanos() > TimeUnit.MILLISECONDS.toNanos(MIN_MILLIS));
+	}
+
+	@Test
+	public void testWindowGrowsAndResetsAfterQuiet() throws InterruptedException {
+		for (int round = 0; round < 3; ++round) {
+			for (int i = 0; i < 50; ++i)
+				mCoalescer.signal();
+			assertTrue(mFlushes.tryAcquire(MAX_MILLIS * 2, TimeUnit.MILLISECONDS));
+		}
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(MIN_MILLIS * 8), mCoalescer.getWindowNanos());
+
+		// An event after a quiet period is isolated again.
+		Thread.sleep(MAX_MILLIS * 2);
+		mCoalescer.signal();
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(MIN_MILLIS), mCoalescer.getWindowNanos());
+		assertTrue(mFlushes.tryAcquire(MAX_MILLIS, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void testQueueDepth() {
+		AdaptiveCoalescer slow = new AdaptiveCoalescer(mScheduler, new Runnable() {
+
+			@Override
+			public void run() {}
+		}, 10000, 10000, mMetrics);
+		for (int i = 0; i < 10; ++i)
+			slow.signal();
+		assertEquals(10, slow.getPending());
+		assertEquals(10, mMetrics.getQueueDepth());
+		assertEquals(10000.0, mMetrics.getWindowMillis(), 0.001);
+		slow.destroy();
+	}
+
+	@Test
+	public void testDestroyDropsEvents() throws InterruptedException {
+		mCoalescer.destroy();
+		mCoalescer.signal();
+		assertTrue(!mFlushes.tryAcquire(MIN_MILLIS * 4, TimeUnit.MILLISECONDS));
+		assertEquals(0, mMetrics.getEventCount());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testIllegalDelays() {
+		new AdaptiveCoalescer(mScheduler, new Runnable() {
+
+			@Override
+			public void run() {}
+		}, 10, 5, mMetrics);
+	}
+}
@@ -21,9 +21,9 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses({ DynamicDispatch.class,
-	MethodTest.class, NumberFormatTest.class,
-		SignatureSplitTest.class, SimpleArgumentTest.class })
+@SuiteClasses({ AdaptiveCoalescerTest.class, ArrivalStatisticsTest.class, AsyncInvokerTest.class, BoundedHistoryTest.class, DynamicDispatch.class, EndPointDirectoryTest.class, LatencyHistogramTest.class, ListManagerTest.class,
+	MethodBatchTest.class, MethodTest.class, MpscRingBufferTest.class, NameIndexTest.class, NumberFormatTest.class, PropertyWatcherTest.class,
+		SignalBurstTest.class, SignalCaptureTest.class, SignalDispatcherTest.class, SignalFilterTest.class, SignalStreamTest.class, SignatureSplitTest.class, SimpleArgumentTest.class })
 public class AllTests {
 
 }
@@ -0,0 +1,125 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.test;
+
+import static org.junit.Assert.assertEquals;
+
+import org.alljoyn.triumph.util.ArrivalStatistics;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ArrivalStatisticsTest {
+
+	private static final long MILLI = 1000000L;
+
+	private static final long SECOND = 1000 * MILLI;
+
+	private ArrivalStatistics mStats;
+
+	@Before
+	public void setUp() {
+		mStats = new ArrivalStatistics(10 * MILLI, 0);
+	}
+
+	@Test
+	public void testEmpty() {
+		assertEquals(0, mStats.getCount());
+		assertEquals(0.0, mStats.getRate(1, 5 * SECOND), 0.0);
+		assertEquals(-1, mStats.getQuietNanos(5 * SECOND));
+		assertEquals(0, mStats.getInterArrivalHistogram().getTotalCount());
+	}
+
+	@Test
+	public void testRateOverWindows() {
+		// 10 arrivals in every second from 0 to 59.
+		for (int s = 0; s < 60; ++s) {
+			for (int i = 0; i < 10; ++i) {
+				mStats.record(s * SECOND + i * 50 * MILLI);
+			}
+		}
+		// 5 arrivals in second 60, which is still in progress.
+		for (int i = 0; i < 5; ++i) {
+			mStats.record(60 * SECOND + i * 50 * MILLI);
+		}
+		long now = 60 * SECOND + 500 * MILLI;
+		assertEquals(605, mStats.getCount());
+		assertEquals(10.0, mStats.getRate(1, now), 0.0);
+		assertEquals(10.0, mStats.getRate(10, now), 0.0);
+		assertEquals(10.0, mStats.getRate(60, now), 0.0);
+	}
+
+	@Test
+	public void testRateForgetsOldSeconds() {
+		for (int i = 0; i < 100; ++i) {
+			mStats.record(i * MILLI);
+		}
+		assertEquals(100.0, mStats.getRate(1, SECOND), 0.0);
+		assertEquals(10.0, mStats.getRate(10, 5 * SECOND), 0.0);
+		// Slot 0 is reused 64 seconds later.
+		mStats.record(64 * SECOND);
+		assertEquals(1.0, mStats.getRate(1, 65 * SECOND), 0.0);
+		assertEquals(0.0, mStats.getRate(60, 64 * SECOND), 0.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testIllegalWindow() {
+		mStats.getRate(ArrivalStatistics.MAX_WINDOW_SECONDS + 1);
+	}
+
+	@Test
+	public void testBursts() {
+		// Burst of 5, one millisecond apart.
+		for (int i = 0; i < 5; ++i) {
+			mStats.record(i * MILLI);
+		}
+		assertEquals(5, mStats.getCurrentBurst());
+		assertEquals(0, mStats.getLastBurst());
+
+		// Burst of 3 after a gap of 100 milliseconds.
+		for (int i = 0; i < 3; ++i) {
+			mStats.record(100 * MILLI + i * MILLI);
+		}
+		assertEquals(3, mStats.getCurrentBurst());
+		assertEquals(5, mStats.getLastBurst());
+		assertEquals(5, mStats.getMaxBurst());
+
+		// A single arrival ends the burst of 3.
+		mStats.record(SECOND);
+		assertEquals(1, mStats.getCurrentBurst());
+		assertEquals(3, mStats.getLastBurst());
+		assertEquals(5, mStats.getMaxBurst());
+	}
+
+	@Test
+	public void testInterArrivalHistogram() {
+		mStats.record(0);
+		mStats.record(2 * MILLI);
+		mStats.record(4 * MILLI);
+		mStats.record(104 * MILLI);
+		assertEquals(3, mStats.getInterArrivalHistogram().getTotalCount());
+		long max = mStats.getInterArrivalHistogram().getMaxValue();
+		assertEquals(100 * MILLI, max, 100 * MILLI / 100);
+		long median = mStats.getInterArrivalHistogram().getValueAtPercentile(50);
+		assertEquals(2 * MILLI, median, 2 * MILLI / 100);
+	}
+
+	@Test
+	public void testQuiet() {
+		mStats.record(SECOND);
+		assertEquals(SECOND, mStats.getQuietNanos(2 * SECOND));
+	}
+}
@@ -0,0 +1,150 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.alljoyn.triumph.controller.AsyncInvoker;
+import org.alljoyn.triumph.controller.Deadline;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncInvokerTest {
+
+	private static final Executor DIRECT = new Executor() {
+
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	};
+
+	private AsyncInvoker mInvoker;
+
+	private CountDownLatch mStarted, mRelease;
+
+	@Before
+	public void setUp() {
+		mInvoker = new AsyncInvoker(DIRECT, 1, 4);
+		mStarted = new CountDownLatch(1);
+		mRelease = new CountDownLatch(1);
+	}
+
+	@After
+	public void tearDown() {
+		mRelease.countDown();
+		mInvoker.destroy();
+	}
+
+	@Test
+	public void completesBeforeDeadline() throws Exception {
+		Future<String> f = mInvoker.submit(constant("done"), null, Deadline.after(5, TimeUnit.SECONDS));
+		assertEquals("done", f.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void hungCallIsAbandonedAndFreesItsWorker() throws Exception {
+		Future<String> hung = mInvoker.submit(blocking(), null, Deadline.after(500, TimeUnit.MILLISECONDS));
+		assertTrue(mStarted.await(5, TimeUnit.SECONDS));
+		assertTimedOut(hung);
+
+		// The only worker is still stuck, a replacement runs the next call.
+		assertEquals(1, mInvoker.getAbandonedCount());
+		Future<String> next = mInvoker.submit(constant("next"), null);
+		assertEquals("next", next.get(5, TimeUnit.SECONDS));
+
+		// The replacement is retired once the abandoned call returns.
+		mRelease.countDown();
+		long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (mInvoker.getAbandonedCount() > 0 && System.nanoTime() < end)
+			Thread.sleep(10);
+		assertEquals(0, mInvoker.getAbandonedCount());
+	}
+
+	@Test
+	public void queuedCallExpiresWithoutRunning() throws Exception {
+		mInvoker.submit(blocking(), null);
+		Future<String> queued = mInvoker.submit(constant("late"), null, Deadline.after(50, TimeUnit.MILLISECONDS));
+		assertTimedOut(queued);
+		assertEquals(0, mInvoker.getQueuedCount());
+	}
+
+	@Test
+	public void cancelledQueuedCallLeavesQueue() throws Exception {
+		mInvoker.submit(blocking(), null);
+		Future<String> queued = mInvoker.submit(constant("never"), null);
+		assertEquals(1, mInvoker.getQueuedCount());
+		assertTrue(queued.cancel(true));
+		assertEquals(0, mInvoker.getQueuedCount());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroTimeoutIsRejected() {
+		Deadline.after(0, TimeUnit.MILLISECONDS);
+	}
+
+	private static void assertTimedOut(Future<?> f) throws Exception {
+		try {
+			f.get(5, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof TimeoutException);
+			return;
+		}
+		throw new AssertionError("Expected a timeout");
+	}
+
+	private static Callable<String> constant(final String value) {
+		return new Callable<String>() {
+
+			@Override
+			public String call() {
+				return value;
+			}
+		};
+	}
+
+	/**
+	 * Call that ignores interruption, like a native bus call.
+	 */
+	private Callable<String> blocking() {
+		return new Callable<String>() {
+
+			@Override
+			public String call() {
+				mStarted.countDown();
+				while (true) {
+					try {
+						mRelease.await();
+						return "released";
+					} catch (InterruptedException e) {
+						// Keep waiting.
+					}
+				}
+			}
+		};
+	}
+}
@@ -0,0 +1,135 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.alljoyn.triumph.util.BoundedHistory;
+import org.alljoyn.triumph.util.BoundedHistory.POLICY;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BoundedHistoryTest {
+
+	/**
+	 * Elements are keyed by their first letter.
+	 */
+	private static final BoundedHistory.KeyExtractor<String, String> KEYS = 
+			new BoundedHistory.KeyExtractor<String, String>() {
+
+		@Override
+		public String getKey(String element) {
+			return element.substring(0, 1);
+		}
+	};
+
+	private List<String> mMirror;
+
+	private BoundedHistory.HistoryListener<String> mListener;
+
+	@Before
+	public void setUp() {
+		mMirror = new ArrayList<String>();
+		mListener = new BoundedHistory.HistoryListener<String>() {
+
+			@Override
+			public void onAdded(String element) {
+				mMirror.add(element);
+			}
+
+			@Override
+			public void onRemoved(String element) {
+				assertEquals(mMirror.remove(0), element);
+			}
+		};
+	}
+
+	private BoundedHistory<String, String> create(int capacity, POLICY policy, int sampleRate) {
+		BoundedHistory<String, String> history = new BoundedHistory<String, String>(capacity, policy, sampleRate, KEYS);
+		history.addListener(mListener);
+		return history;
+	}
+
+	@Test
+	public void dropOldest() {
+		BoundedHistory<String, String> history = create(3, POLICY.DROP_OLDEST, 1);
+		for (String s: Arrays.asList("a1", "b1", "a2", "a3", "b2"))
+			assertTrue(history.add(s));
+		assertEquals(Arrays.asList("a2", "a3", "b2"), history.getElements());
+		assertEquals(mMirror, history.getElements());
+		assertEquals(1, history.getDroppedCount("a"));
+		assertEquals(1, history.getDroppedCount("b"));
+		assertEquals(2, history.getTotalDroppedCount());
+	}
+
+	@Test
+	public void dropNewest() {
+		BoundedHistory<String, String> history = create(2, POLICY.DROP_NEWEST, 1);
+		assertTrue(history.add("a1"));
+		assertTrue(history.add("b1"));
+		assertFalse(history.add("a2"));
+		assertFalse(history.add("c1"));
+		assertEquals(Arrays.asList("a1", "b1"), history.getElements());
+		assertEquals(mMirror, history.getElements());
+		assertEquals(1, history.getDroppedCount("a"));
+		assertEquals(0, history.getDroppedCount("b"));
+		assertEquals(1, history.getDroppedCount("c"));
+		assertEquals(2, history.getDroppedCounts().size());
+	}
+
+	@Test
+	public void sampleKeepsOneInNPerKey() {
+		BoundedHistory<String, String> history = create(100, POLICY.SAMPLE, 3);
+		for (int i = 0; i < 9; ++i) {
+			history.add("a" + i);
+			if (i < 3)
+				history.add("b" + i);
+		}
+		assertEquals(Arrays.asList("a0", "b0", "a3", "a6"), history.getElements());
+		assertEquals(6, history.getDroppedCount("a"));
+		assertEquals(2, history.getDroppedCount("b"));
+	}
+
+	@Test
+	public void shrinkingDropsOldest() {
+		BoundedHistory<String, String> history = create(5, POLICY.DROP_NEWEST, 1);
+		for (int i = 0; i < 5; ++i)
+			history.add("a" + i);
+		history.setCapacity(2);
+		assertEquals(Arrays.asList("a3", "a4"), history.getElements());
+		assertEquals(mMirror, history.getElements());
+		assertEquals(3, history.getTotalDroppedCount());
+
+		history.clear();
+		assertEquals(0, history.size());
+		assertTrue(mMirror.isEmpty());
+		assertEquals(3, history.getTotalDroppedCount());
+		history.resetDroppedCounts();
+		assertEquals(0, history.getDroppedCount("a"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void illegalCapacity() {
+		create(0, POLICY.DROP_OLDEST, 1);
+	}
+}
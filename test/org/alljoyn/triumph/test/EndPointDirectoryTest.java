@@ -0,0 +1,111 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+
+package org.alljoyn.triumph.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.alljoyn.triumph.controller.EndPointChange;
+import org.alljoyn.triumph.controller.EndPointDirectory;
+import org.alljoyn.triumph.model.components.EndPoint;
+import org.alljoyn.triumph.model.components.EndPoint.SERVICE_TYPE;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EndPointDirectoryTest {
+
+	private EndPointDirectory mDirectory;
+
+	@Before
+	public void setUp() {
+		mDirectory = new EndPointDirectory();
+	}
+
+	private static void assertChange(EndPointChange change, EndPointChange.TYPE type, String name) {
+		assertEquals(type, change.getType());
+		assertEquals(name, change.getEndPoint().getName());
+	}
+
+	@Test
+	public void testFoundNamesAreAddedInOrder() {
+		List<EndPointChange> changes = mDirectory.add(Arrays.asList("org.c", "org.a", "org.b"), SERVICE_TYPE.REMOTE);
+		assertEquals(3, changes.size());
+		assertChange(changes.get(0), EndPointChange.TYPE.ADDED, "org.c");
+		assertChange(changes.get(1), EndPointChange.TYPE.ADDED, "org.a");
+		assertChange(changes.get(2), EndPointChange.TYPE.ADDED, "org.b");
+
+		List<EndPoint> services = mDirectory.getDistributedServices();
+		assertEquals(3, services.size());
+		for (int i = 0; i < services.size(); ++i)
+			assertSame(changes.get(i).getEndPoint(), services.get(i));
+		assertTrue(mDirectory.getLocalServices().isEmpty());
+	}
+
+	@Test
+	public void testKnownNamesAreNotAddedAgain() {
+		mDirectory.add(Arrays.asList("org.a"), SERVICE_TYPE.REMOTE);
+		List<EndPointChange> changes = mDirectory.add(Arrays.asList("org.a", "org.b"), SERVICE_TYPE.REMOTE);
+		assertEquals(1, changes.size());
+		assertChange(changes.get(0), EndPointChange.TYPE.ADDED, "org.b");
+
+		assertTrue(mDirectory.add(Arrays.asList("org.a", "org.b"), SERVICE_TYPE.REMOTE).isEmpty());
+	}
+
+	@Test
+	public void testLocalAndDistributedAreSeparate() {
+		mDirectory.add(Arrays.asList("org.a"), SERVICE_TYPE.REMOTE);
+		List<EndPointChange> changes = mDirectory.add(Arrays.asList("org.a"), SERVICE_TYPE.LOCAL);
+		assertEquals(1, changes.size());
+		assertEquals(SERVICE_TYPE.LOCAL, changes.get(0).getEndPoint().getServiceType());
+
+		// The distributed service is preferred.
+		assertEquals(SERVICE_TYPE.REMOTE, mDirectory.getService("org.a").getServiceType());
+		assertNull(mDirectory.getService("org.b"));
+	}
+
+	@Test
+	public void testLostNames() {
+		mDirectory.add(Arrays.asList("org.a", "org.b"), SERVICE_TYPE.REMOTE);
+		mDirectory.add(Arrays.asList("org.b"), SERVICE_TYPE.LOCAL);
+
+		List<EndPointChange> changes = mDirectory.remove(Arrays.asList("org.b", "org.unknown"));
+		assertEquals(2, changes.size());
+		assertChange(changes.get(0), EndPointChange.TYPE.REMOVED, "org.b");
+		assertEquals(SERVICE_TYPE.REMOTE, changes.get(0).getEndPoint().getServiceType());
+		assertChange(changes.get(1), EndPointChange.TYPE.REMOVED, "org.b");
+		assertEquals(SERVICE_TYPE.LOCAL, changes.get(1).getEndPoint().getServiceType());
+
+		assertTrue(mDirectory.remove(Arrays.asList("org.b")).isEmpty());
+		assertEquals(1, mDirectory.getDistributedServices().size());
+		assertTrue(mDirectory.getLocalServices().isEmpty());
+
+		// A lost name that is found again is a new endpoint.
+		changes = mDirectory.add(Arrays.asList("org.b"), SERVICE_TYPE.REMOTE);
+		assertEquals(1, changes.size());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testChangeWithoutEndPoint() {
+		new EndPointChange(EndPointChange.TYPE.ADDED, null);
+	}
+}
@@ -0,0 +1,88 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.alljoyn.triumph.util.LatencyHistogram;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void emptyHistogram() {
+		LatencyHistogram h = new LatencyHistogram();
+		assertEquals(0, h.getTotalCount());
+		assertEquals(0, h.getValueAtPercentile(50));
+		assertEquals(0, h.getMaxValue());
+	}
+
+	@Test
+	public void smallValuesAreExact() {
+		LatencyHistogram h = new LatencyHistogram();
+		for (int i = 1; i <= 100; ++i)
+			h.recordValue(i);
+		assertEquals(100, h.getTotalCount());
+		assertEquals(50, h.getValueAtPercentile(50));
+		assertEquals(90, h.getValueAtPercentile(90));
+		assertEquals(99, h.getValueAtPercentile(99));
+		assertEquals(100, h.getMaxValue());
+		assertEquals(50.5, h.getMean(), 0.0001);
+	}
+
+	@Test
+	public void largeValuesWithinRelativeError() {
+		LatencyHistogram h = new LatencyHistogram();
+		for (long i = 1; i <= 10000; ++i)
+			h.recordValue(i * 1000);
+		assertWithin(5000000, h.getValueAtPercentile(50));
+		assertWithin(9000000, h.getValueAtPercentile(90));
+		assertWithin(9900000, h.getValueAtPercentile(99));
+		assertEquals(10000000, h.getValueAtPercentile(100));
+		assertEquals(10000000, h.getMaxValue());
+	}
+
+	@Test
+	public void extremeValues() {
+		LatencyHistogram h = new LatencyHistogram();
+		h.recordValue(Long.MAX_VALUE);
+		h.recordValue(-5);
+		assertEquals(0, h.getValueAtPercentile(50));
+		assertEquals(Long.MAX_VALUE, h.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void addAndReset() {
+		LatencyHistogram a = new LatencyHistogram();
+		LatencyHistogram b = new LatencyHistogram();
+		a.recordValue(10);
+		b.recordValue(20);
+		b.recordValue(30);
+		a.add(b);
+		assertEquals(3, a.getTotalCount());
+		assertEquals(30, a.getMaxValue());
+		a.reset();
+		assertEquals(0, a.getTotalCount());
+		assertEquals(0, a.getMaxValue());
+	}
+
+	private static void assertWithin(long expected, long actual) {
+		double error = Math.abs(actual - expected) / (double) expected;
+		assertTrue("Expected " + expected + " Actual " + actual, error < 0.016);
+	}
+}
@@ -0,0 +1,182 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+
+package org.alljoyn.triumph.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javafx.collections.ListChangeListener;
+
+import org.alljoyn.triumph.util.FilterIndex;
+import org.alljoyn.triumph.util.Filterable;
+import org.alljoyn.triumph.util.ListManager;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ListManagerTest {
+
+	/**
+	 * Passes the items that start with "a".
+	 */
+	private static final Filterable<String> STARTS_WITH_A = new Filterable<String>() {
+
+		@Override
+		public boolean filter(String item) {
+			return item.startsWith("a");
+		}
+	};
+
+	private ListManager<String> mManager;
+
+	/**
+	 * Number of changes the list reported.
+	 */
+	private int mChanges;
+
+	@Before
+	public void setUp() {
+		mManager = new ListManager<String>();
+		mChanges = 0;
+		mManager.getUnderlyingList().addListener(new ListChangeListener<String>() {
+
+			@Override
+			public void onChanged(Change<? extends String> change) {
+				mChanges++;
+			}
+		});
+	}
+
+	@Test
+	public void testAddAllKeepsOrderInOneChange() {
+		mManager.addAll(Arrays.asList("c", "a", "b"));
+		assertEquals(Arrays.asList("c", "a", "b"), mManager.getUnderlyingList());
+		assertEquals(1, mChanges);
+
+		// Known items are not added twice.
+		mManager.addAll(Arrays.asList("a", "d", "a"));
+		assertEquals(Arrays.asList("c", "a", "b", "d"), mManager.getUnderlyingList());
+		assertEquals(2, mChanges);
+	}
+
+	@Test
+	public void testAddAllOfFilteredItems() {
+		mManager.addFilter(STARTS_WITH_A);
+		mManager.addAll(Arrays.asList("a1", "b1", "a2"));
+		assertEquals(Arrays.asList("a1", "a2"), mManager.getUnderlyingList());
+		assertTrue(mManager.contains("b1"));
+
+		// Filtered out only, nothing to show.
+		mManager.addAll(Arrays.asList("b2"));
+		assertEquals(1, mChanges);
+		assertTrue(mManager.contains("b2"));
+
+		mManager.removeFilter(STARTS_WITH_A);
+		assertEquals(4, mManager.getUnderlyingList().size());
+		assertTrue(mManager.getUnderlyingList().containsAll(Arrays.asList("a1", "a2", "b1", "b2")));
+	}
+
+	@Test
+	public void testRemoveAllOfListedAndFilteredItems() {
+		mManager.addFilter(STARTS_WITH_A);
+		mManager.addAll(Arrays.asList("a1", "b1", "a2", "b2"));
+		mChanges = 0;
+
+		mManager.removeAll(Arrays.asList("a1", "b1", "unknown"));
+		assertEquals(Arrays.asList("a2"), mManager.getUnderlyingList());
+		assertEquals(1, mChanges);
+		assertFalse(mManager.contains("a1"));
+		assertFalse(mManager.contains("b1"));
+
+		// A removed filtered item does not come back with the filter.
+		mManager.removeFilter(STARTS_WITH_A);
+		assertEquals(Arrays.asList("a2", "b2"), mManager.getUnderlyingList());
+
+		// Only filtered items, the list does not change.
+		mManager.addFilter(STARTS_WITH_A);
+		mChanges = 0;
+		mManager.removeAll(Arrays.asList("b2"));
+		assertEquals(0, mChanges);
+		assertFalse(mManager.contains("b2"));
+	}
+
+	@Test
+	public void testUpdateState() {
+		mManager.addFilter(STARTS_WITH_A);
+		mManager.updateState(Arrays.asList("a1", "b1", "a2"));
+		assertEquals(Arrays.asList("a1", "a2"), mManager.getUnderlyingList());
+
+		// a1 and b1 are lost, a3 and b3 are found.
+		mManager.updateState(Arrays.asList("a2", "a3", "b3"));
+		assertEquals(Arrays.asList("a2", "a3"), mManager.getUnderlyingList());
+		assertFalse(mManager.contains("a1"));
+		assertFalse(mManager.contains("b1"));
+		assertTrue(mManager.contains("b3"));
+
+		mManager.removeFilter(STARTS_WITH_A);
+		assertEquals(3, mManager.getUnderlyingList().size());
+		assertFalse(mManager.getUnderlyingList().contains("b1"));
+	}
+
+	@Test
+	public void testRemoveThenAddAgain() {
+		mManager.addFilter(STARTS_WITH_A);
+		mManager.addAll(Arrays.asList("a1", "b1"));
+		mManager.remove("a1");
+		assertTrue(mManager.remove("b1"));
+		assertFalse(mManager.remove("b1"));
+
+		mManager.addAll(Arrays.asList("a1", "b1"));
+		assertEquals(Arrays.asList("a1"), mManager.getUnderlyingList());
+		assertTrue(mManager.contains("b1"));
+	}
+
+	@Test
+	public void testFilterIndexMovesOnlyChangedItems() {
+		final List<Filterable<String>> queried = new ArrayList<Filterable<String>>();
+		mManager.setFilterIndex(new FilterIndex<String>() {
+
+			@Override
+			public Set<String> getMatches(Filterable<String> filter) {
+				queried.add(filter);
+				Set<String> matches = new HashSet<String>();
+				for (String item: Arrays.asList("a1", "a2", "b1"))
+					if (filter.filter(item))
+						matches.add(item);
+				return matches;
+			}
+		});
+		mManager.addAll(Arrays.asList("a1", "b1", "a2"));
+		mChanges = 0;
+
+		mManager.addFilter(STARTS_WITH_A);
+		assertEquals(1, queried.size());
+		assertEquals(Arrays.asList("a1", "a2"), mManager.getUnderlyingList());
+		assertTrue(mManager.contains("b1"));
+		assertEquals(1, mChanges);
+
+		mManager.removeFilter(STARTS_WITH_A);
+		assertEquals(Arrays.asList("a1", "a2", "b1"), mManager.getUnderlyingList());
+	}
+}
@@ -0,0 +1,297 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+
+package org.alljoyn.triumph.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.alljoyn.triumph.controller.AsyncInvoker;
+import org.alljoyn.triumph.controller.InvocationCallback;
+import org.alljoyn.triumph.controller.InvocationResult;
+import org.alljoyn.triumph.controller.InvocationResult.STATUS;
+import org.alljoyn.triumph.controller.MethodBatch;
+import org.alljoyn.triumph.model.components.arguments.Argument;
+import org.alljoyn.triumph.model.components.arguments.ArgumentFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MethodBatchTest {
+
+	private static final Executor DIRECT = new Executor() {
+
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	};
+
+	private AsyncInvoker mInvoker;
+
+	@Before
+	public void setUp() {
+		mInvoker = new AsyncInvoker(DIRECT, 8, 16);
+	}
+
+	@After
+	public void tearDown() {
+		mInvoker.destroy();
+	}
+
+	/**
+	 * Echoes the first argument of every call and keeps track of how many
+	 * calls are in flight at once.  Odd values fail when failOdd is set.
+	 */
+	private static class EchoCaller implements MethodBatch.Caller {
+
+		private final AtomicInteger mInFlight = new AtomicInteger();
+
+		private final AtomicInteger mMaxInFlight = new AtomicInteger();
+
+		private final List<Integer> mChunkSizes = Collections.synchronizedList(new ArrayList<Integer>());
+
+		private final long mDelayMillis;
+
+		private final boolean mFailOdd;
+
+		EchoCaller(long delayMillis, boolean failOdd) {
+			mDelayMillis = delayMillis;
+			mFailOdd = failOdd;
+		}
+
+		@Override
+		public Argument<?> call(Object[] args) throws Exception {
+			enter();
+			try {
+				return echo(args);
+			} finally {
+				mInFlight.decrementAndGet();
+			}
+		}
+
+		@Override
+		public Object[] callAll(Object[][] argSets) throws Exception {
+			mChunkSizes.add(argSets.length);
+			enter();
+			try {
+				Object[] outputs = new Object[argSets.length];
+				for (int i = 0; i < argSets.length; ++i) {
+					try {
+						outputs[i] = echo(argSets[i]);
+					} catch (Exception e) {
+						outputs[i] = e;
+					}
+				}
+				return outputs;
+			} finally {
+				mInFlight.decrementAndGet();
+			}
+		}
+
+		private void enter() throws InterruptedException {
+			int inFlight = mInFlight.incrementAndGet();
+			int max;
+			while ((max = mMaxInFlight.get()) < inFlight && !mMaxInFlight.compareAndSet(max, inFlight));
+			if (mDelayMillis > 0)
+				Thread.sleep(mDelayMillis);
+		}
+
+		private Argument<?> echo(Object[] args) throws Exception {
+			int value = (Integer) args[0];
+			if (mFailOdd && value % 2 == 1)
+				throw new Exception("Odd " + value);
+			return ArgumentFactory.getArgument("out", "i", value);
+		}
+	}
+
+	/**
+	 * Counts how often the results are published.
+	 */
+	private static class Callback implements InvocationCallback<List<InvocationResult>> {
+
+		private final AtomicInteger mCalls = new AtomicInteger();
+
+		private volatile List<InvocationResult> mResults;
+
+		/**
+		 * The results are published after the batch is done.
+		 */
+		private final CountDownLatch mCalled = new CountDownLatch(1);
+
+		@Override
+		public void onSuccess(List<InvocationResult> results) {
+			mResults = results;
+			mCalls.incrementAndGet();
+			mCalled.countDown();
+		}
+
+		@Override
+		public void onFailure(Throwable error) {
+			throw new AssertionError(error);
+		}
+	}
+
+	private static List<Object[]> calls(int count) {
+		List<Object[]> calls = new ArrayList<Object[]>(count);
+		for (int i = 0; i < count; ++i)
+			calls.add(new Object[] { i });
+		return calls;
+	}
+
+	private MethodBatch start(int count, int window, MethodBatch.Caller caller, Callback callback) {
+		// The batch only reports its method back, the caller makes the calls.
+		MethodBatch batch = new MethodBatch(null, calls(count), window, caller, callback);
+		batch.start(mInvoker);
+		return batch;
+	}
+
+	@Test
+	public void testResultsInOrder() throws Exception {
+		Callback callback = new Callback();
+		MethodBatch batch = start(12, 4, new EchoCaller(5, false), callback);
+		List<InvocationResult> results = batch.get(5, TimeUnit.SECONDS);
+
+		assertEquals(12, results.size());
+		for (int i = 0; i < results.size(); ++i) {
+			assertEquals(i, results.get(i).getIndex());
+			assertEquals(STATUS.OK, results.get(i).getStatus());
+			assertEquals(i, results.get(i).getResult().getValue());
+		}
+		assertEquals(12, batch.getCompletedCount());
+		assertTrue(callback.mCalled.await(5, TimeUnit.SECONDS));
+		assertEquals(1, callback.mCalls.get());
+		assertEquals(results, callback.mResults);
+	}
+
+	@Test
+	public void testWindowLimitsCallsInFlight() throws Exception {
+		EchoCaller caller = new EchoCaller(20, false);
+		start(12, 3, caller, null).get(5, TimeUnit.SECONDS);
+		assertEquals(3, caller.mMaxInFlight.get());
+	}
+
+	@Test
+	public void testLargeBatchIsChunked() throws Exception {
+		EchoCaller caller = new EchoCaller(0, false);
+		List<InvocationResult> results = start(200, 2, caller, null).get(5, TimeUnit.SECONDS);
+
+		assertFalse(caller.mChunkSizes.isEmpty());
+		int chunked = 0;
+		for (int size: caller.mChunkSizes) {
+			assertTrue("Chunk of " + size, size > 1 && size <= 16);
+			chunked += size;
+		}
+		assertEquals(200, chunked);
+		for (int i = 0; i < results.size(); ++i)
+			assertEquals(i, results.get(i).getResult().getValue());
+	}
+
+	@Test
+	public void testPartialFailures() throws Exception {
+		// Single calls and chunks report the same statuses.
+		for (int count: new int[] { 8, 200 }) {
+			List<InvocationResult> results = start(count, 2, new EchoCaller(0, true), null).get(5, TimeUnit.SECONDS);
+			for (InvocationResult result: results) {
+				if (result.getIndex() % 2 == 1) {
+					assertEquals(STATUS.FAILED, result.getStatus());
+					assertEquals("Odd " + result.getIndex(), result.getError().getMessage());
+				} else {
+					assertEquals(STATUS.OK, result.getStatus());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testFailedChunkFailsEveryCallOfIt() throws Exception {
+		List<InvocationResult> results = start(200, 2, new MethodBatch.Caller() {
+
+			@Override
+			public Argument<?> call(Object[] args) throws Exception {
+				throw new Exception("Single call");
+			}
+
+			@Override
+			public Object[] callAll(Object[][] argSets) throws Exception {
+				throw new Exception("No session");
+			}
+		}, null).get(5, TimeUnit.SECONDS);
+
+		for (InvocationResult result: results) {
+			assertEquals(STATUS.FAILED, result.getStatus());
+			assertEquals("No session", result.getError().getMessage());
+		}
+	}
+
+	@Test
+	public void testCancelKeepsReturnedCalls() throws Exception {
+		final CountDownLatch blocked = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		MethodBatch.Caller caller = new EchoCaller(0, false) {
+
+			@Override
+			public Argument<?> call(Object[] args) throws Exception {
+				if ((Integer) args[0] == 2) {
+					blocked.countDown();
+					release.await();
+				}
+				return super.call(args);
+			}
+		};
+		Callback callback = new Callback();
+		MethodBatch batch = start(5, 1, caller, callback);
+		assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+		assertTrue(batch.cancel(true));
+		assertTrue(batch.isDone());
+		assertTrue(batch.isCancelled());
+		assertFalse(batch.cancel(true));
+
+		List<InvocationResult> results = batch.get(5, TimeUnit.SECONDS);
+		assertEquals(STATUS.OK, results.get(0).getStatus());
+		assertEquals(STATUS.OK, results.get(1).getStatus());
+		for (int i = 2; i < 5; ++i)
+			assertEquals(STATUS.CANCELLED, results.get(i).getStatus());
+
+		// The call that was on the bus returns, the published results stay as they were.
+		release.countDown();
+		Thread.sleep(50);
+		assertEquals(STATUS.CANCELLED, batch.get().get(2).getStatus());
+		assertEquals(1, callback.mCalls.get());
+	}
+
+	@Test
+	public void testEmptyBatch() throws Exception {
+		Callback callback = new Callback();
+		MethodBatch batch = start(0, 4, new EchoCaller(0, false), callback);
+		assertTrue(batch.isDone());
+		assertFalse(batch.isCancelled());
+		assertTrue(batch.get().isEmpty());
+		assertEquals(1, callback.mCalls.get());
+		assertEquals(0, batch.size());
+	}
+}
@@ -0,0 +1,130 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.alljoyn.triumph.util.MpscRingBuffer;
+import org.junit.Test;
+
+public class MpscRingBufferTest {
+
+	@Test
+	public void capacityIsRoundedUpToPowerOfTwo() {
+		assertEquals(1, new MpscRingBuffer<Integer>(1).capacity());
+		assertEquals(8, new MpscRingBuffer<Integer>(5).capacity());
+		assertEquals(16, new MpscRingBuffer<Integer>(16).capacity());
+	}
+
+	@Test
+	public void fifoOrderAndFullBuffer() {
+		MpscRingBuffer<Integer> buffer = new MpscRingBuffer<Integer>(4);
+		assertNull(buffer.poll());
+		for (int i = 0; i < 4; ++i)
+			assertTrue(buffer.offer(i));
+		assertFalse(buffer.offer(4));
+		assertEquals(4, buffer.size());
+
+		for (int i = 0; i < 4; ++i)
+			assertEquals(Integer.valueOf(i), buffer.poll());
+		assertNull(buffer.poll());
+		assertTrue(buffer.isEmpty());
+
+		// Slots are reused on the next lap.
+		assertTrue(buffer.offer(5));
+		assertEquals(Integer.valueOf(5), buffer.poll());
+	}
+
+	@Test
+	public void drainHonorsLimit() {
+		MpscRingBuffer<Integer> buffer = new MpscRingBuffer<Integer>(16);
+		for (int i = 0; i < 10; ++i)
+			buffer.offer(i);
+
+		final List<Integer> drained = new ArrayList<Integer>();
+		MpscRingBuffer.Consumer<Integer> consumer = new MpscRingBuffer.Consumer<Integer>() {
+
+			@Override
+			public void accept(Integer element) {
+				drained.add(element);
+			}
+		};
+		assertEquals(4, buffer.drain(consumer, 4));
+		assertEquals(6, buffer.drain(consumer, 100));
+		assertEquals(0, buffer.drain(consumer, 100));
+		for (int i = 0; i < 10; ++i)
+			assertEquals(Integer.valueOf(i), drained.get(i));
+	}
+
+	@Test
+	public void concurrentProducersLoseNothing() throws Exception {
+		final int producers = 4;
+		final int perProducer = 100000;
+		final MpscRingBuffer<Long> buffer = new MpscRingBuffer<Long>(1024);
+		final CountDownLatch start = new CountDownLatch(1);
+
+		for (int p = 0; p < producers; ++p) {
+			final long base = (long) p * perProducer;
+			Thread t = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (long i = 0; i < perProducer; ++i) {
+						while (!buffer.offer(base + i))
+							Thread.yield();
+					}
+				}
+			});
+			t.setDaemon(true);
+			t.start();
+		}
+
+		// Every producer adds its elements in order, so the consumer must
+		// see each producer's elements in increasing order.
+		long[] last = new long[producers];
+		for (int p = 0; p < producers; ++p)
+			last[p] = (long) p * perProducer - 1;
+		final AtomicLong received = new AtomicLong();
+		start.countDown();
+		long deadline = System.currentTimeMillis() + 30000;
+		while (received.get() < (long) producers * perProducer && System.currentTimeMillis() < deadline) {
+			Long element = buffer.poll();
+			if (element == null) {
+				Thread.yield();
+				continue;
+			}
+			int producer = (int) (element / perProducer);
+			assertTrue(element > last[producer]);
+			last[producer] = element;
+			received.incrementAndGet();
+		}
+		assertEquals((long) producers * perProducer, received.get());
+	}
+}
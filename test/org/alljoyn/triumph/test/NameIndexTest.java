@@ -0,0 +1,138 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+
+package org.alljoyn.triumph.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.alljoyn.triumph.util.NameIndex;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NameIndexTest {
+
+	private NameIndex<String> mIndex;
+
+	@Before
+	public void setUp() {
+		mIndex = new NameIndex<String>();
+		mIndex.put("org.alljoyn.Bus", (short) 1, "org.alljoyn.Bus");
+		mIndex.put("org.alljoyn.About", (short) 900, "org.alljoyn.About");
+		mIndex.put("org.alljoyn.Bus.Peer", (short) 1, "org.alljoyn.Bus.Peer");
+		mIndex.put("com.example.Bus", (short) 42, "com.example.Bus");
+	}
+
+	private static Set<String> setOf(String... values) {
+		Set<String> set = new HashSet<String>();
+		for (String value: values)
+			set.add(value);
+		return set;
+	}
+
+	@Test
+	public void testPrefix() {
+		assertEquals(setOf("org.alljoyn.Bus", "org.alljoyn.About", "org.alljoyn.Bus.Peer"), mIndex.withPrefix("org."));
+		assertEquals(setOf("org.alljoyn.Bus", "org.alljoyn.Bus.Peer"), mIndex.withPrefix("org.alljoyn.Bus"));
+		assertTrue(mIndex.withPrefix("net.").isEmpty());
+	}
+
+	@Test
+	public void testSuffix() {
+		assertEquals(setOf("org.alljoyn.Bus", "com.example.Bus"), mIndex.withSuffix(".Bus"));
+		assertEquals(setOf("org.alljoyn.Bus.Peer"), mIndex.withSuffix("Peer"));
+		assertTrue(mIndex.withSuffix("Nothing").isEmpty());
+	}
+
+	@Test
+	public void testPort() {
+		assertEquals(setOf("org.alljoyn.Bus", "org.alljoyn.Bus.Peer"), mIndex.withPort((short) 1));
+		assertTrue(mIndex.withPort((short) 7).isEmpty());
+	}
+
+	@Test
+	public void testEmptyQueryMatchesAll() {
+		assertEquals(4, mIndex.query("", "", null).size());
+		assertEquals(4, mIndex.query(null, null, null).size());
+	}
+
+	@Test
+	public void testCombinedQuery() {
+		assertEquals(setOf("org.alljoyn.Bus"), mIndex.query("org.", ".Bus", null));
+		assertEquals(setOf("org.alljoyn.Bus"), mIndex.query("org.", "Bus", (short) 1));
+		assertTrue(mIndex.query("com.", "", (short) 1).isEmpty());
+		// A prefix and suffix may overlap on a short name.
+		mIndex.put("ab", (short) 2, "ab");
+		assertEquals(setOf("ab"), mIndex.query("ab", "b", null));
+		assertTrue(mIndex.query("ab", "ab.", null).isEmpty());
+	}
+
+	@Test
+	public void testRemovePrunes() {
+		assertEquals("org.alljoyn.Bus", mIndex.remove("org.alljoyn.Bus"));
+		assertNull(mIndex.remove("org.alljoyn.Bus"));
+		assertEquals(3, mIndex.size());
+		assertEquals(setOf("org.alljoyn.Bus.Peer"), mIndex.withPrefix("org.alljoyn.Bus"));
+		assertEquals(setOf("com.example.Bus"), mIndex.withSuffix(".Bus"));
+		assertEquals(setOf("org.alljoyn.Bus.Peer"), mIndex.withPort((short) 1));
+
+		mIndex.remove("org.alljoyn.Bus.Peer");
+		assertTrue(mIndex.withPrefix("org.alljoyn.B").isEmpty());
+		assertTrue(mIndex.withPort((short) 1).isEmpty());
+	}
+
+	@Test
+	public void testPutReplaces() {
+		mIndex.put("com.example.Bus", (short) 1, "replaced");
+		assertEquals(4, mIndex.size());
+		assertEquals("replaced", mIndex.get("com.example.Bus"));
+		assertEquals(setOf("org.alljoyn.Bus", "org.alljoyn.Bus.Peer", "replaced"), mIndex.withPort((short) 1));
+		assertTrue(mIndex.withPort((short) 42).isEmpty());
+	}
+
+	@Test
+	public void testSetPort() {
+		assertTrue(mIndex.setPort("org.alljoyn.About", (short) 1));
+		assertTrue(!mIndex.setPort("unknown", (short) 1));
+		assertEquals(3, mIndex.withPort((short) 1).size());
+		assertTrue(mIndex.withPort((short) 900).isEmpty());
+	}
+
+	@Test
+	public void testManyNames() {
+		NameIndex<Integer> index = new NameIndex<Integer>();
+		for (int i = 0; i < 5000; ++i)
+			index.put("org.device" + i + ".svc" + (i % 10), (short) (i % 3), i);
+		assertEquals(1111, index.withPrefix("org.device1").size());
+		assertEquals(500, index.withSuffix(".svc7").size());
+		Set<Integer> matches = index.query("org.device1", ".svc7", (short) 0);
+		for (Integer i: matches)
+			assertTrue(String.valueOf(i).startsWith("1") && i % 10 == 7 && i % 3 == 0);
+		int expected = 0;
+		for (int i = 0; i < 5000; ++i)
+			if (String.valueOf(i).startsWith("1") && i % 10 == 7 && i % 3 == 0) expected++;
+		assertEquals(expected, matches.size());
+
+		index.clear();
+		assertEquals(0, index.size());
+		assertTrue(index.withPrefix("").isEmpty());
+	}
+}
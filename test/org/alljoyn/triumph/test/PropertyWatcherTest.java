@@ -0,0 +1,253 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+
+package org.alljoyn.triumph.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.alljoyn.bus.Variant;
+import org.alljoyn.triumph.controller.PropertyWatcher;
+import org.alljoyn.triumph.model.components.AJObject;
+import org.alljoyn.triumph.model.components.EndPoint;
+import org.alljoyn.triumph.model.components.EndPoint.SERVICE_TYPE;
+import org.alljoyn.triumph.model.components.Interface;
+import org.alljoyn.triumph.model.components.Property;
+import org.alljoyn.triumph.model.components.arguments.Argument;
+import org.alljoyn.triumph.model.components.arguments.ArgumentFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PropertyWatcherTest {
+
+	private static final String NAME = "org.alljoyn.triumph.test.Device";
+	private static final String OWNER = ":1.7";
+	private static final String PATH = "/device";
+	private static final String IFACE = "org.alljoyn.triumph.test.Level";
+
+	private static final Executor DIRECT = new Executor() {
+
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	};
+
+	private Interface mIface;
+
+	private Property mLevel;
+
+	private FakeReader mReader;
+
+	private PropertyWatcher mWatcher;
+
+	@Before
+	public void setUp() {
+		EndPoint endPoint = new EndPoint(NAME, SERVICE_TYPE.REMOTE);
+		AJObject object = new AJObject(PATH);
+		endPoint.addAll(Arrays.asList(object));
+		mIface = new Interface(IFACE, object);
+		mLevel = new Property("Level", "i", mIface);
+		mIface.addProperty(mLevel);
+		mReader = new FakeReader();
+	}
+
+	@After
+	public void tearDown() {
+		if (mWatcher != null)
+			mWatcher.destroy();
+	}
+
+	/**
+	 * Reads the current level, optionally changing it on every read.
+	 */
+	private class FakeReader implements PropertyWatcher.Reader {
+
+		private final AtomicInteger mReads = new AtomicInteger();
+
+		private final AtomicInteger mLevelValue = new AtomicInteger(1);
+
+		private volatile boolean mChanging;
+
+		@Override
+		public Map<Property, Argument<?>> read(Interface iface) throws Exception {
+			mReads.incrementAndGet();
+			int value = mChanging ? mLevelValue.incrementAndGet() : mLevelValue.get();
+			Map<Property, Argument<?>> values = new HashMap<Property, Argument<?>>();
+			values.put(mLevel, ArgumentFactory.getArgument(mLevel.getName(), mLevel.getSignature(), value));
+			return values;
+		}
+
+		@Override
+		public String getUniqueName(String busName) throws Exception {
+			return OWNER;
+		}
+	}
+
+	/**
+	 * Records every value it is sent.
+	 */
+	private static class Recorder implements PropertyWatcher.WatchListener {
+
+		private final BlockingQueue<Object> mValues = new LinkedBlockingQueue<Object>();
+
+		@Override
+		public void onPropertyChanged(Property property, Argument<?> value) {
+			mValues.add(value.getValue());
+		}
+
+		Object next() throws InterruptedException {
+			return mValues.poll(2, TimeUnit.SECONDS);
+		}
+	}
+
+	private void watch(long minMillis, long maxMillis, Recorder recorder) {
+		mWatcher = new PropertyWatcher(mReader, DIRECT, minMillis, maxMillis);
+		mWatcher.watch(mLevel, recorder);
+	}
+
+	private void announce(String sender, int value) {
+		Map<String, Variant> changed = new HashMap<String, Variant>();
+		changed.put(mLevel.getName(), new Variant(value));
+		mWatcher.onPropertiesChanged(sender, PATH, IFACE, changed, new String[0]);
+	}
+
+	@Test
+	public void testReportsOnlyChanges() throws Exception {
+		Recorder recorder = new Recorder();
+		watch(10, 40, recorder);
+		assertEquals(1, recorder.next());
+
+		Thread.sleep(300);
+		assertTrue("Reads " + mReader.mReads.get(), mReader.mReads.get() >= 3);
+		assertTrue(recorder.mValues.isEmpty());
+
+		mReader.mLevelValue.set(2);
+		assertEquals(2, recorder.next());
+	}
+
+	@Test
+	public void testBacksOffWhileNothingChanges() throws Exception {
+		watch(20, 5000, new Recorder());
+		Thread.sleep(700);
+		// Reads at 0, 20, 60, 140, 300 and 620 ms.
+		int reads = mReader.mReads.get();
+		assertTrue("Reads " + reads, reads >= 4 && reads <= 7);
+	}
+
+	@Test
+	public void testPollsQuicklyWhileValuesChange() throws Exception {
+		mReader.mChanging = true;
+		watch(20, 5000, new Recorder());
+		Thread.sleep(700);
+		int reads = mReader.mReads.get();
+		assertTrue("Reads " + reads, reads >= 15);
+	}
+
+	@Test
+	public void testUnwatchStopsReads() throws Exception {
+		Recorder recorder = new Recorder();
+		watch(10, 10, recorder);
+		assertEquals(1, recorder.next());
+		assertTrue(mWatcher.isWatched(mLevel));
+
+		mWatcher.unwatch(mLevel, recorder);
+		assertFalse(mWatcher.isWatched(mLevel));
+		// A read that already started may still finish.
+		Thread.sleep(50);
+		int reads = mReader.mReads.get();
+		Thread.sleep(200);
+		assertEquals(reads, mReader.mReads.get());
+	}
+
+	@Test
+	public void testUnwatchEndPointsCancels() throws Exception {
+		Recorder recorder = new Recorder();
+		watch(10, 10, recorder);
+		assertEquals(1, recorder.next());
+
+		mWatcher.unwatchEndPoints(Collections.singleton(NAME));
+		assertFalse(mWatcher.isWatched(mLevel));
+		Thread.sleep(50);
+		int reads = mReader.mReads.get();
+		Thread.sleep(200);
+		assertEquals(reads, mReader.mReads.get());
+		mReader.mLevelValue.set(2);
+		Thread.sleep(50);
+		assertTrue(recorder.mValues.isEmpty());
+	}
+
+	@Test
+	public void testLateListenerGetsLastValue() throws Exception {
+		// Only the first read happens during the test.
+		Recorder first = new Recorder();
+		watch(5000, 5000, first);
+		assertEquals(1, first.next());
+
+		Recorder late = new Recorder();
+		mWatcher.watch(mLevel, late);
+		assertEquals(1, late.next());
+		assertEquals(1, mReader.mReads.get());
+		assertTrue(first.mValues.isEmpty());
+	}
+
+	@Test
+	public void testAcceptsAnnouncementsOfTheOwnerOnly() throws Exception {
+		Recorder recorder = new Recorder();
+		watch(5000, 5000, recorder);
+		assertEquals(1, recorder.next());
+
+		announce(":1.8", 5);
+		announce(OWNER, 6);
+		assertEquals(6, recorder.next());
+		assertNull(recorder.mValues.poll(100, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void testFallsBackToPollingWhenAnnouncementsStop() throws Exception {
+		mReader.mChanging = true;
+		Recorder recorder = new Recorder();
+		watch(20, 300, recorder);
+		recorder.next();
+
+		// While the object announces, reads wait for the longest interval.
+		announce(OWNER, 100);
+		Thread.sleep(50);
+		int reads = mReader.mReads.get();
+		Thread.sleep(500);
+		assertTrue("Reads " + (mReader.mReads.get() - reads), mReader.mReads.get() - reads <= 3);
+
+		// Two longest intervals after the last announcement the reads adapt again.
+		Thread.sleep(450);
+		reads = mReader.mReads.get();
+		Thread.sleep(500);
+		assertTrue("Reads " + (mReader.mReads.get() - reads), mReader.mReads.get() - reads >= 10);
+	}
+}
@@ -0,0 +1,112 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+
+package org.alljoyn.triumph.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.alljoyn.triumph.controller.load.BurstReport;
+import org.alljoyn.triumph.controller.load.LoadRun;
+import org.alljoyn.triumph.controller.load.SignalBurst;
+import org.junit.Test;
+
+public class SignalBurstTest {
+
+	private static final Executor DIRECT = new Executor() {
+
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	};
+
+	/**
+	 * Emits every signal except the ones whose position is a multiple of failEvery.
+	 */
+	private static class FailingTarget implements SignalBurst.Target {
+
+		private final int mFailEvery;
+		private int mAttempts;
+
+		FailingTarget(int failEvery) {
+			mFailEvery = failEvery;
+		}
+
+		@Override
+		public int emitAll(Object[][] argSets, int[] emitted) throws Exception {
+			for (int i = 0; i < argSets.length; ++i) {
+				if (++mAttempts % mFailEvery == 0) {
+					emitted[0] = i;
+					throw new Exception("Failed " + mAttempts);
+				}
+			}
+			emitted[0] = argSets.length;
+			return argSets.length;
+		}
+	}
+
+	private static BurstReport run(SignalBurst burst) throws InterruptedException {
+		final BurstReport[] result = new BurstReport[1];
+		final CountDownLatch done = new CountDownLatch(1);
+		burst.start(new LoadRun.RunListener<BurstReport>() {
+
+			@Override
+			public void onProgress(BurstReport report) {
+			}
+
+			@Override
+			public void onFinished(BurstReport report) {
+				result[0] = report;
+				done.countDown();
+			}
+		}, DIRECT);
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		return result[0];
+	}
+
+	@Test
+	public void countEmitsEverySignal() throws Exception {
+		BurstReport report = run(new SignalBurst(new FailingTarget(Integer.MAX_VALUE), new Object[] {1},
+				SignalBurst.MODE.COUNT, 1000, 10, TimeUnit.SECONDS));
+		assertTrue(report.isFinished());
+		assertEquals(1000, report.getEmittedCount());
+		assertEquals(0, report.getFailedCount());
+	}
+
+	@Test
+	public void failedChunkCountsOnlyTheFailedSignal() throws Exception {
+		// Every 10th signal fails, the signals after it in its chunk are emitted with the next chunk.
+		BurstReport report = run(new SignalBurst(new FailingTarget(10), new Object[] {1},
+				SignalBurst.MODE.COUNT, 1000, 10, TimeUnit.SECONDS));
+		assertEquals(900, report.getEmittedCount());
+		assertEquals(100, report.getFailedCount());
+		assertEquals("Failed 1000", report.getLastError());
+	}
+
+	@Test
+	public void everySignalFails() throws Exception {
+		BurstReport report = run(new SignalBurst(new FailingTarget(1), new Object[] {1},
+				SignalBurst.MODE.COUNT, 100, 10, TimeUnit.SECONDS));
+		assertEquals(0, report.getEmittedCount());
+		assertEquals(100, report.getFailedCount());
+	}
+}
@@ -0,0 +1,268 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.alljoyn.triumph.controller.capture.CaptureMember;
+import org.alljoyn.triumph.controller.capture.CaptureReader;
+import org.alljoyn.triumph.controller.capture.CaptureWriter;
+import org.alljoyn.triumph.controller.capture.CapturedSignal;
+import org.alljoyn.triumph.controller.load.BurstReport;
+import org.alljoyn.triumph.controller.load.LoadRun;
+import org.alljoyn.triumph.controller.load.SignalReplay;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SignalCaptureTest {
+
+	private static final CaptureMember SIMPLE = 
+			new CaptureMember(":1.5", "/sensor", "org.test.Sensor", "Reading", "yiqsd");
+
+	private static final CaptureMember COMPLEX = 
+			new CaptureMember(":1.5", "/sensor", "org.test.Sensor", "Batch", "ay(sai)a{sx}as");
+
+	private static final Executor DIRECT = new Executor() {
+
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	};
+
+	private File mFile;
+
+	@Before
+	public void setUp() throws Exception {
+		mFile = File.createTempFile("capture", ".trcp");
+	}
+
+	@After
+	public void tearDown() {
+		mFile.delete();
+	}
+
+	@Test
+	public void roundTrip() throws Exception {
+		Map<String, Long> dict = new LinkedHashMap<String, Long>();
+		dict.put("a", 1L);
+		dict.put("b", -2L);
+
+		CaptureWriter writer = new CaptureWriter(mFile);
+		assertTrue(writer.append(SIMPLE, new Object[] {(byte) 7, 42, (short) 3, "hello", 1.5}));
+		assertTrue(writer.append(COMPLEX, new Object[] {new byte[] {1, 2, 3}, 
+				new Object[] {"s", new int[] {4, 5}}, dict, new Object[] {"x", "y"}}));
+		// Values that do not match the signature are counted and skipped.
+		assertFalse(writer.append(SIMPLE, new Object[] {"wrong", 1, (short) 1, "", 0.0}));
+		writer.close();
+		assertEquals(2, writer.getSignalCount());
+		assertEquals(1, writer.getFailedCount());
+		assertEquals(writer.getByteCount(), mFile.length());
+
+		CaptureReader reader = new CaptureReader(mFile);
+		CapturedSignal first = reader.next();
+		assertEquals(SIMPLE, first.getMember());
+		assertArrayEquals(new Object[] {(byte) 7, 42, (short) 3, "hello", 1.5}, first.getValues());
+
+		CapturedSignal second = reader.next();
+		assertEquals(COMPLEX, second.getMember());
+		Object[] values = second.getValues();
+		assertArrayEquals(new byte[] {1, 2, 3}, (byte[]) values[0]);
+		Object[] struct = (Object[]) values[1];
+		assertEquals("s", struct[0]);
+		assertArrayEquals(new int[] {4, 5}, (int[]) struct[1]);
+		assertEquals(dict, values[2]);
+		assertArrayEquals(new Object[] {"x", "y"}, (Object[]) values[3]);
+		assertTrue(second.getTimeNanos() >= first.getTimeNanos());
+
+		assertNull(reader.next());
+		reader.close();
+	}
+
+	@Test
+	public void spansMappedRegions() throws Exception {
+		CaptureMember blob = new CaptureMember(":1.5", "/blob", "org.test.Blob", "Chunk", "ay");
+		byte[] chunk = new byte[1 << 16];
+		int count = 400;
+		CaptureWriter writer = new CaptureWriter(mFile);
+		for (int i = 0; i < count; ++i) {
+			chunk[0] = (byte) i;
+			assertTrue(writer.append(blob, new Object[] {chunk}));
+		}
+		writer.close();
+
+		CaptureReader reader = new CaptureReader(mFile);
+		for (int i = 0; i < count; ++i) {
+			byte[] value = (byte[]) reader.next().getValues()[0];
+			assertEquals(chunk.length, value.length);
+			assertEquals((byte) i, value[0]);
+		}
+		assertNull(reader.next());
+		reader.close();
+	}
+
+	@Test
+	public void corruptLengthIsRejected() throws Exception {
+		CaptureWriter writer = new CaptureWriter(mFile);
+		writer.append(SIMPLE, new Object[] {(byte) 1, 1, (short) 1, "", 1.0});
+		writer.close();
+		corruptSignalLength();
+
+		CaptureReader reader = new CaptureReader(mFile);
+		try {
+			reader.next();
+			fail("Length beyond the end of the capture was accepted");
+		} catch (IOException e) {
+			// Nothing was allocated for it.
+			assertTrue(e.getMessage(), e.getMessage().contains("illegal length"));
+		}
+		reader.close();
+	}
+
+	@Test
+	public void replayOfCorruptCaptureFinishes() throws Exception {
+		CaptureWriter writer = new CaptureWriter(mFile);
+		writer.append(SIMPLE, new Object[] {(byte) 1, 1, (short) 1, "", 1.0});
+		writer.close();
+		corruptSignalLength();
+
+		final BurstReport[] result = new BurstReport[1];
+		final CountDownLatch done = new CountDownLatch(1);
+		new SignalReplay(new CaptureReader(mFile), new SignalReplay.Target() {
+
+			@Override
+			public void emit(CaptureMember member, Object[] values) {
+			}
+		}, SignalReplay.MODE.AS_FAST_AS_POSSIBLE, 1).start(new Listener(result, done), DIRECT);
+
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		assertTrue(result[0].isFinished());
+		assertEquals(0, result[0].getEmittedCount());
+		assertTrue(result[0].getLastError().startsWith("Unable to read capture"));
+	}
+
+	/**
+	 * Overwrites the length of the values of the first signal, which follows the header
+	 * and the member record of {@link #SIMPLE}.
+	 */
+	private void corruptSignalLength() throws IOException {
+		int header = 4 + 2 + 8;
+		int member = 1 + 4 + 5 * 4 + ":1.5/sensororg.test.SensorReadingyiqsd".length();
+		RandomAccessFile raf = new RandomAccessFile(mFile, "rw");
+		try {
+			raf.seek(header + member + 1 + 4 + 8);
+			raf.writeInt(Integer.MAX_VALUE);
+		} finally {
+			raf.close();
+		}
+	}
+
+	@Test
+	public void replayAsFastAsPossible() throws Exception {
+		CaptureWriter writer = new CaptureWriter(mFile);
+		for (int i = 0; i < 100; ++i)
+			writer.append(SIMPLE, new Object[] {(byte) i, i, (short) i, "" + i, (double) i});
+		writer.close();
+
+		final List<Integer> emitted = new ArrayList<Integer>();
+		final BurstReport[] result = new BurstReport[1];
+		final CountDownLatch done = new CountDownLatch(1);
+		SignalReplay replay = new SignalReplay(new CaptureReader(mFile), new SignalReplay.Target() {
+
+			@Override
+			public void emit(CaptureMember member, Object[] values) throws Exception {
+				int i = (Integer) values[1];
+				if (i == 50)
+					throw new Exception("Refused");
+				emitted.add(i);
+			}
+		}, SignalReplay.MODE.AS_FAST_AS_POSSIBLE, 1);
+		replay.start(new Listener(result, done), DIRECT);
+
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		assertEquals(99, result[0].getEmittedCount());
+		assertEquals(1, result[0].getFailedCount());
+		assertEquals("Refused", result[0].getLastError());
+		assertEquals(99, emitted.size());
+		assertEquals(Integer.valueOf(0), emitted.get(0));
+		assertEquals(Integer.valueOf(99), emitted.get(98));
+	}
+
+	@Test
+	public void replayKeepsTiming() throws Exception {
+		CaptureWriter writer = new CaptureWriter(mFile);
+		writer.append(SIMPLE, new Object[] {(byte) 0, 0, (short) 0, "", 0.0});
+		Thread.sleep(400);
+		writer.append(SIMPLE, new Object[] {(byte) 1, 1, (short) 1, "", 1.0});
+		writer.close();
+
+		final BurstReport[] result = new BurstReport[1];
+		final CountDownLatch done = new CountDownLatch(1);
+		SignalReplay.Target target = new SignalReplay.Target() {
+
+			@Override
+			public void emit(CaptureMember member, Object[] values) {
+			}
+		};
+
+		// Twice as fast, the gap of 400 ms becomes 200 ms.
+		new SignalReplay(new CaptureReader(mFile), target, SignalReplay.MODE.TIMED, 2)
+			.start(new Listener(result, done), DIRECT);
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		assertEquals(2, result[0].getEmittedCount());
+		long millis = TimeUnit.NANOSECONDS.toMillis(result[0].getElapsedNanos());
+		assertTrue("Replay took " + millis + " ms", millis >= 190 && millis < 390);
+	}
+
+	private static class Listener implements LoadRun.RunListener<BurstReport> {
+
+		private final BurstReport[] mResult;
+		private final CountDownLatch mDone;
+
+		Listener(BurstReport[] result, CountDownLatch done) {
+			mResult = result;
+			mDone = done;
+		}
+
+		@Override
+		public void onProgress(BurstReport report) {
+		}
+
+		@Override
+		public void onFinished(BurstReport report) {
+			mResult[0] = report;
+			mDone.countDown();
+		}
+	}
+}
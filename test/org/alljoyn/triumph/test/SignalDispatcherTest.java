@@ -0,0 +1,196 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.alljoyn.bus.MessageContext;
+import org.alljoyn.bus.Status;
+import org.alljoyn.triumph.model.components.SignalDispatcher;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SignalDispatcherTest {
+
+	private static final String IFACE = "org.example.Sensor";
+
+	/**
+	 * Registered handlers, as the bus would keep them.
+	 */
+	private List<Object> mRegistered;
+
+	private MessageContext mContext;
+
+	private SignalDispatcher mDispatcher;
+
+	@Before
+	public void setUp() {
+		mRegistered = new ArrayList<Object>();
+		mContext = new MessageContext();
+		mDispatcher = new SignalDispatcher(new SignalDispatcher.Registrar() {
+
+			@Override
+			public Status registerSignalHandler(String ifaceName, String memberName,
+					Object handler, java.lang.reflect.Method method) {
+				mRegistered.add(handler);
+				return Status.OK;
+			}
+
+			@Override
+			public void unregisterSignalHandler(Object handler, java.lang.reflect.Method method) {
+				mRegistered.remove(handler);
+			}
+
+			@Override
+			public MessageContext getMessageContext() {
+				return mContext;
+			}
+		});
+	}
+
+	private static class Counter implements SignalDispatcher.Receiver {
+
+		private int mCount;
+
+		@Override
+		public void onSignal(String sender, String objectPath, String ifaceName,
+				String memberName, Object[] args) {
+			++mCount;
+		}
+	}
+
+	@Test
+	public void testOneRegistrationPerMember() {
+		for (int endPoint = 0; endPoint < 20; ++endPoint) {
+			for (int member = 0; member < 40; ++member) {
+				mDispatcher.subscribe(":1." + endPoint, "/sensor", IFACE, "Signal" + member, new Counter());
+			}
+		}
+		assertEquals(40, mDispatcher.getRegistrationCount());
+		assertEquals(40, mRegistered.size());
+	}
+
+	@Test
+	public void testRouting() {
+		Counter exact = new Counter(), anySender = new Counter(), anyPath = new Counter(), any = new Counter();
+		mDispatcher.subscribe(":1.1", "/a", IFACE, "Changed", exact);
+		mDispatcher.subscribe(null, "/a", IFACE, "Changed", anySender);
+		mDispatcher.subscribe(":1.1", null, IFACE, "Changed", anyPath);
+		mDispatcher.subscribe(null, null, IFACE, "Changed", any);
+
+		assertEquals(4, mDispatcher.dispatch(":1.1", "/a", IFACE, "Changed", new Object[0]));
+		assertEquals(2, mDispatcher.dispatch(":1.2", "/a", IFACE, "Changed", new Object[0]));
+		assertEquals(2, mDispatcher.dispatch(":1.1", "/b", IFACE, "Changed", new Object[0]));
+		assertEquals(1, mDispatcher.dispatch(":1.2", "/b", IFACE, "Changed", new Object[0]));
+		assertEquals(0, mDispatcher.dispatch(":1.1", "/a", IFACE, "Other", new Object[0]));
+
+		assertEquals(1, exact.mCount);
+		assertEquals(2, anySender.mCount);
+		assertEquals(2, anyPath.mCount);
+		assertEquals(4, any.mCount);
+	}
+
+	@Test
+	public void testDeliveryThroughBusHandler() throws Exception {
+		Counter counter = new Counter();
+		mDispatcher.subscribe(":1.1", "/a", IFACE, "Changed", counter);
+		mContext.sender = ":1.1";
+		mContext.objectPath = "/a";
+		SignalDispatcher.getHandleMethod().invoke(mRegistered.get(0), new Object[] { new Object[] { 1 } });
+		mContext.objectPath = "/b";
+		SignalDispatcher.getHandleMethod().invoke(mRegistered.get(0), new Object[] { new Object[] { 1 } });
+		assertEquals(1, counter.mCount);
+	}
+
+	@Test
+	public void testSubscribeAll() {
+		Counter counter = new Counter();
+		mDispatcher.subscribeAll(null, null, IFACE, Arrays.asList("A", "B", "C"), counter);
+		assertEquals(3, mDispatcher.getRegistrationCount());
+		mDispatcher.dispatch(":1.1", "/a", IFACE, "B", new Object[0]);
+		mDispatcher.dispatch(":1.1", "/a", IFACE, "C", new Object[0]);
+		assertEquals(2, counter.mCount);
+	}
+
+	@Test
+	public void testUnsubscribe() {
+		Counter first = new Counter(), second = new Counter();
+		mDispatcher.subscribe(":1.1", "/a", IFACE, "Changed", first);
+		mDispatcher.subscribe(":1.1", "/a", IFACE, "Changed", first);
+		mDispatcher.subscribe(":1.2", "/a", IFACE, "Changed", second);
+		assertEquals(2, mDispatcher.dispatch(":1.1", "/a", IFACE, "Changed", new Object[0]) 
+				+ mDispatcher.dispatch(":1.2", "/a", IFACE, "Changed", new Object[0]));
+
+		mDispatcher.unsubscribe(":1.1", "/a", IFACE, "Changed", first);
+		assertEquals(0, mDispatcher.dispatch(":1.1", "/a", IFACE, "Changed", new Object[0]));
+		assertEquals(1, mRegistered.size());
+
+		mDispatcher.unsubscribe(":1.2", "/a", IFACE, "Changed", second);
+		assertEquals(0, mDispatcher.getRegistrationCount());
+		assertEquals(0, mRegistered.size());
+	}
+
+	@Test
+	public void testDestroyUnregistersEverything() {
+		mDispatcher.subscribe(null, null, IFACE, "A", new Counter());
+		mDispatcher.subscribe(null, null, IFACE, "B", new Counter());
+		mDispatcher.destroy();
+		assertEquals(0, mRegistered.size());
+		assertEquals(0, mDispatcher.getRegistrationCount());
+	}
+
+	@Test
+	public void testSubscribeDuringDelivery() throws Exception {
+		final Counter steady = new Counter();
+		mDispatcher.subscribe(":1.1", "/a", IFACE, "Changed", steady);
+		final AtomicBoolean done = new AtomicBoolean();
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		Thread delivery = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					while (!done.get())
+						mDispatcher.dispatch(":1.1", "/a", IFACE, "Changed", new Object[0]);
+				} catch (Throwable t) {
+					failure.set(t);
+				}
+			}
+		});
+		delivery.start();
+
+		for (int i = 0; i < 10000; ++i) {
+			Counter temporary = new Counter();
+			mDispatcher.subscribe(i % 2 == 0 ? ":1.1" : null, i % 3 == 0 ? "/a" : null, IFACE, "Changed", temporary);
+			mDispatcher.unsubscribe(i % 2 == 0 ? ":1.1" : null, i % 3 == 0 ? "/a" : null, IFACE, "Changed", temporary);
+		}
+		done.set(true);
+		delivery.join();
+
+		assertEquals(null, failure.get());
+		assertEquals(1, mDispatcher.getRegistrationCount());
+		int before = steady.mCount;
+		assertEquals(1, mDispatcher.dispatch(":1.1", "/a", IFACE, "Changed", new Object[0]));
+		assertEquals(before + 1, steady.mCount);
+	}
+}
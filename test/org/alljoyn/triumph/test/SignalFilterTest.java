@@ -0,0 +1,93 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.alljoyn.triumph.util.SignalFilter;
+import org.junit.Test;
+
+public class SignalFilterTest {
+
+	private static Object[] args(Object... args) {
+		return args;
+	}
+
+	@Test
+	public void testEmptyPassesEverything() {
+		SignalFilter filter = SignalFilter.parse("  ");
+		assertTrue(filter.isEmpty());
+		assertTrue(filter.filter(args()));
+		assertTrue(filter.filter(args(1, "a")));
+	}
+
+	@Test
+	public void testNumericComparison() {
+		assertTrue(SignalFilter.parse("arg0 == 5").filter(args(5)));
+		assertTrue(SignalFilter.parse("arg0 == 5").filter(args((byte) 5)));
+		assertTrue(SignalFilter.parse("arg0 == 5").filter(args(5.0)));
+		assertFalse(SignalFilter.parse("arg0 == 5").filter(args(6L)));
+		assertTrue(SignalFilter.parse("arg0 != 5").filter(args(6)));
+		assertTrue(SignalFilter.parse("arg0 < 10.5").filter(args(10)));
+		assertFalse(SignalFilter.parse("arg0 > 10").filter(args(10)));
+		assertTrue(SignalFilter.parse("arg0>=10").filter(args(10)));
+		assertTrue(SignalFilter.parse("arg0<=-1").filter(args(-3)));
+	}
+
+	@Test
+	public void testTextComparison() {
+		assertTrue(SignalFilter.parse("arg1 == hello").filter(args(1, "hello")));
+		assertTrue(SignalFilter.parse("arg0 == \"hello world\"").filter(args("hello world")));
+		assertTrue(SignalFilter.parse("arg0 == true").filter(args(Boolean.TRUE)));
+		assertFalse(SignalFilter.parse("arg0 == 5").filter(args("five")));
+	}
+
+	@Test
+	public void testRegex() {
+		SignalFilter filter = SignalFilter.parse("arg0 =~ \"temp.*\"");
+		assertTrue(filter.filter(args("temperature")));
+		assertFalse(filter.filter(args("a temperature")));
+		assertTrue(SignalFilter.parse("arg0 =~ [0-9]+").filter(args(42)));
+	}
+
+	@Test
+	public void testConjunction() {
+		SignalFilter filter = SignalFilter.parse("arg0 == 5 && arg1 =~ \"a&&b|c\"");
+		assertTrue(filter.filter(args(5, "a&&b")));
+		assertTrue(filter.filter(args(5, "c")));
+		assertFalse(filter.filter(args(4, "c")));
+		assertFalse(filter.filter(args(5, "d")));
+	}
+
+	@Test
+	public void testMissingArgument() {
+		SignalFilter filter = SignalFilter.parse("arg2 != 0");
+		assertFalse(filter.filter(args(1, 2)));
+		assertFalse(filter.filter(null));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testIllegalCondition() {
+		SignalFilter.parse("arg0 5");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testIllegalRegex() {
+		SignalFilter.parse("arg0 =~ [a");
+	}
+}
@@ -0,0 +1,282 @@
+/******************************************************************************
+ * Copyright 2013, Qualcomm Innovation Center, Inc.
+ *
+ *    All rights reserved.
+ *    This file is licensed under the 3-clause BSD license in the NOTICE.txt
+ *    file for this project. A copy of the 3-clause BSD license is found at:
+ *
+ *        http://opensource.org/licenses/BSD-3-Clause.
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the license is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the license for the specific language governing permissions and
+ *    limitations under the license.
+ ******************************************************************************/
+
+package org.alljoyn.triumph.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.alljoyn.triumph.controller.flow.SignalStream;
+import org.alljoyn.triumph.controller.flow.SignalStreams;
+import org.alljoyn.triumph.controller.flow.Subscriber;
+import org.alljoyn.triumph.controller.flow.Subscription;
+import org.alljoyn.triumph.model.components.SignalContext;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SignalStreamTest {
+
+	/**
+	 * Delivers on the calling thread so the tests are deterministic.
+	 */
+	private static final Executor INLINE = new Executor() {
+
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	};
+
+	private SignalStreams mStreams;
+
+	@Before
+	public void setUp() {
+		mStreams = new SignalStreams(INLINE);
+	}
+
+	/**
+	 * Records everything it receives, requesting only what the test asks for.
+	 */
+	private static class Recorder implements Subscriber<SignalContext> {
+
+		private final List<SignalContext> mValues = new ArrayList<SignalContext>();
+
+		private Subscription mSubscription;
+
+		private Throwable mError;
+
+		private boolean mCompleted;
+
+		private final long mInitialRequest;
+
+		Recorder(long initialRequest) {
+			mInitialRequest = initialRequest;
+		}
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			mSubscription = subscription;
+			if (mInitialRequest > 0)
+				subscription.request(mInitialRequest);
+		}
+
+		@Override
+		public void onNext(SignalContext item) {
+			mValues.add(item);
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			mError = throwable;
+		}
+
+		@Override
+		public void onComplete() {
+			mCompleted = true;
+		}
+	}
+
+	private static SignalContext context(int value) {
+		return new SignalContext(null, new Object[] { value });
+	}
+
+	private void publish(SignalContext... contexts) {
+		for (SignalContext context: contexts)
+			mStreams.publish(context);
+	}
+
+	@Test
+	public void testDeliversOnlyWhatIsRequested() {
+		SignalStream stream = mStreams.createStream(SignalStreams.all(), 10, SignalStreams.POLICY.DROP_NEWEST);
+		Recorder recorder = new Recorder(2);
+		stream.subscribe(recorder);
+		SignalContext a = context(1), b = context(2), c = context(3);
+		publish(a, b, c);
+		assertEquals(2, recorder.mValues.size());
+		assertEquals(a, recorder.mValues.get(0));
+		assertEquals(b, recorder.mValues.get(1));
+
+		recorder.mSubscription.request(5);
+		assertEquals(3, recorder.mValues.size());
+		assertEquals(c, recorder.mValues.get(2));
+	}
+
+	@Test
+	public void testDropNewest() {
+		SignalStream stream = mStreams.createStream(SignalStreams.all(), 2, SignalStreams.POLICY.DROP_NEWEST);
+		Recorder recorder = new Recorder(0);
+		stream.subscribe(recorder);
+		SignalContext a = context(1), b = context(2), c = context(3);
+		publish(a, b, c);
+		assertEquals(1, stream.getDroppedCount());
+		recorder.mSubscription.request(10);
+		assertEquals(2, recorder.mValues.size());
+		assertEquals(a, recorder.mValues.get(0));
+		assertEquals(b, recorder.mValues.get(1));
+	}
+
+	@Test
+	public void testDropOldest() {
+		SignalStream stream = mStreams.createStream(SignalStreams.all(), 2, SignalStreams.POLICY.DROP_OLDEST);
+		Recorder recorder = new Recorder(0);
+		stream.subscribe(recorder);
+		SignalContext a = context(1), b = context(2), c = context(3);
+		publish(a, b, c);
+		assertEquals(1, stream.getDroppedCount());
+		recorder.mSubscription.request(10);
+		assertEquals(2, recorder.mValues.size());
+		assertEquals(b, recorder.mValues.get(0));
+		assertEquals(c, recorder.mValues.get(1));
+	}
+
+	@Test
+	public void testSubscribersAreIndependent() {
+		SignalStream stream = mStreams.createStream(SignalStreams.all(), 1, SignalStreams.POLICY.DROP_NEWEST);
+		Recorder fast = new Recorder(Long.MAX_VALUE), slow = new Recorder(0);
+		stream.subscribe(fast);
+		stream.subscribe(slow);
+		publish(context(1), context(2), context(3));
+		assertEquals(3, fast.mValues.size());
+		assertEquals(0, slow.mValues.size());
+		assertEquals(2, stream.getDroppedCount());
+	}
+
+	@Test
+	public void testNonPositiveRequestFails() {
+		SignalStream stream = mStreams.createStream(SignalStreams.all(), 10, SignalStreams.POLICY.DROP_NEWEST);
+		Recorder recorder = new Recorder(0);
+		stream.subscribe(recorder);
+		recorder.mSubscription.request(0);
+		assertTrue(recorder.mError instanceof IllegalArgumentException);
+		assertEquals(0, mStreams.getSubscriptionCount());
+		publish(context(1));
+		assertEquals(0, recorder.mValues.size());
+	}
+
+	@Test
+	public void testCancel() {
+		SignalStream stream = mStreams.createStream(SignalStreams.all(), 10, SignalStreams.POLICY.DROP_NEWEST);
+		Recorder recorder = new Recorder(10);
+		stream.subscribe(recorder);
+		publish(context(1));
+		recorder.mSubscription.cancel();
+		publish(context(2));
+		assertEquals(1, recorder.mValues.size());
+		assertEquals(0, mStreams.getSubscriptionCount());
+		assertEquals(0, stream.getSubscriberCount());
+	}
+
+	@Test
+	public void testDestroyCompletes() {
+		SignalStream stream = mStreams.createStream(SignalStreams.all(), 10, SignalStreams.POLICY.DROP_NEWEST);
+		Recorder recorder = new Recorder(10);
+		stream.subscribe(recorder);
+		mStreams.destroy();
+		assertTrue(recorder.mCompleted);
+
+		Recorder late = new Recorder(10);
+		stream.subscribe(late);
+		assertTrue(late.mCompleted);
+	}
+
+	@Test
+	public void testDestroyDeliversRequestedSignals() {
+		final List<Runnable> pending = new ArrayList<Runnable>();
+		SignalStreams streams = new SignalStreams(new Executor() {
+
+			@Override
+			public void execute(Runnable command) {
+				pending.add(command);
+			}
+		});
+		SignalStream stream = streams.createStream(SignalStreams.all(), 10, SignalStreams.POLICY.DROP_NEWEST);
+		Recorder recorder = new Recorder(2);
+		stream.subscribe(recorder);
+		pending.remove(0).run();
+		assertTrue(pending.isEmpty());
+
+		// Buffered before the hub had a chance to deliver them.
+		SignalContext a = context(1), b = context(2), c = context(3);
+		streams.publish(a);
+		streams.publish(b);
+		streams.publish(c);
+		streams.destroy();
+		while (!pending.isEmpty())
+			pending.remove(0).run();
+
+		assertEquals(2, recorder.mValues.size());
+		assertEquals(a, recorder.mValues.get(0));
+		assertEquals(b, recorder.mValues.get(1));
+		assertTrue(recorder.mCompleted);
+	}
+
+	@Test
+	public void testSubscribeAfterOwnedExecutorShutdown() {
+		SignalStreams streams = new SignalStreams();
+		SignalStream stream = streams.createStream(SignalStreams.all(), 10, SignalStreams.POLICY.DROP_NEWEST);
+		streams.destroy();
+
+		Recorder late = new Recorder(10);
+		stream.subscribe(late);
+		assertTrue(late.mCompleted);
+		assertNull(late.mError);
+		late.mSubscription.request(10);
+	}
+
+	@Test
+	public void testDeliversOffThePublishingThread() throws Exception {
+		SignalStreams streams = new SignalStreams();
+		SignalStream stream = streams.createStream(SignalStreams.all(), 100, SignalStreams.POLICY.DROP_NEWEST);
+		final CountDownLatch received = new CountDownLatch(50);
+		final List<Thread> threads = new ArrayList<Thread>();
+		stream.subscribe(new Subscriber<SignalContext>() {
+
+			@Override
+			public void onSubscribe(Subscription subscription) {
+				subscription.request(Long.MAX_VALUE);
+			}
+
+			@Override
+			public void onNext(SignalContext item) {
+				synchronized (threads) {
+					threads.add(Thread.currentThread());
+				}
+				received.countDown();
+			}
+
+			@Override
+			public void onError(Throwable throwable) {}
+
+			@Override
+			public void onComplete() {}
+		});
+		for (int i = 0; i < 50; ++i)
+			streams.publish(context(i));
+		assertTrue(received.await(5, TimeUnit.SECONDS));
+		synchronized (threads) {
+			for (Thread thread: threads)
+				assertTrue(thread != Thread.currentThread());
+		}
+		streams.destroy();
+	}
+}